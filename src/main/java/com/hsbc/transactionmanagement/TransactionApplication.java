@@ -3,9 +3,12 @@ package com.hsbc.transactionmanagement;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.core.Ordered;
 
 @SpringBootApplication
-@EnableCaching
+// cache advice runs outside the transaction advice so cache hits never open a transaction,
+// with room between them for the repository guard
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 2)
 public class TransactionApplication {
     public static void main(String[] args) {
         SpringApplication.run(TransactionApplication.class, args);
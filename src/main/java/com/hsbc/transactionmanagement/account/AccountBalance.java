@@ -0,0 +1,23 @@
+package com.hsbc.transactionmanagement.account;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+/**
+ * Committed balance of an account: credits minus debits over its hot and archived
+ * transactions. Instances are immutable and replaced on every posting.
+ */
+@Schema(description = "Committed balance of an account")
+public record AccountBalance(
+        @Schema(description = "Account id", example = "ACC-1001")
+        String accountId,
+        @Schema(description = "Credits minus debits", example = "250.00")
+        BigDecimal balance,
+        @Schema(description = "Number of transactions posted to the account", example = "12")
+        long postings) {
+
+    AccountBalance plus(BigDecimal amount, long count) {
+        return new AccountBalance(accountId, balance.add(amount), postings + count);
+    }
+}
@@ -0,0 +1,381 @@
+package com.hsbc.transactionmanagement.account;
+
+import com.hsbc.transactionmanagement.config.AccountProperties;
+import com.hsbc.transactionmanagement.constant.TransactionType;
+import com.hsbc.transactionmanagement.entity.AccountLedger;
+import com.hsbc.transactionmanagement.exception.InsufficientFundsException;
+import com.hsbc.transactionmanagement.repository.AccountLedgerRepository;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Balances of the accounts transactions are posted to, kept in memory so a balance read is a
+ * single map lookup and a debit is checked without querying its account's history.
+ *
+ * <p>Accounts hash onto a fixed array of locks. A posting takes its account's stripe and holds
+ * it until the surrounding database transaction completes, which makes the posting and the
+ * balance update one atomic step per account while accounts on other stripes are written in
+ * parallel. Deltas are applied once the transaction commits and dropped on rollback; reads
+ * never lock and only see committed balances.
+ *
+ * <p>The stripes only order the postings of this instance. The overdraft check is made by the
+ * database, on the account's {@link AccountLedger} row: a posting updates it in the caller's
+ * transaction, a debit only if the balance stays within the limit, so the row stays locked
+ * until the transaction completes and debits of one account are serialized across instances.
+ * The map reflects the postings of other instances after the next rebuild.
+ *
+ * <p>The balances are rebuilt from the hot and archive tables at startup and every
+ * {@code reconcile-interval}, with every stripe held while the query runs, to correct writes
+ * that bypass the service. The ledger rows are corrected to the same sums unless a posting
+ * changed them in the meantime.
+ */
+@Component
+public class AccountBalances implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerUtil.getLogger(AccountBalances.class);
+
+    private final TransactionRepository transactionRepository;
+    private final AccountLedgerRepository ledgerRepository;
+    private final AccountProperties properties;
+    private final ReentrantLock[] stripes;
+    private final Map<String, AccountBalance> balances = new ConcurrentHashMap<>();
+    // accounts known to have a ledger row
+    private final Set<String> ledgers = ConcurrentHashMap.newKeySet();
+    // key of the postings bound to the current database transaction
+    private final Object resourceKey = new Object();
+    private final Counter rejected;
+    private final Counter drift;
+
+    private volatile boolean ready;
+
+    public AccountBalances(TransactionRepository transactionRepository, AccountLedgerRepository ledgerRepository,
+                           AccountProperties properties, MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.properties = properties;
+        this.stripes = new ReentrantLock[Math.max(1, properties.getLockStripes())];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        Gauge.builder("transaction.accounts.balances", balances, Map::size)
+                .description("Accounts with a maintained balance")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("transaction.accounts.rejected")
+                .description("Debits rejected for exceeding the overdraft limit")
+                .register(meterRegistry);
+        this.drift = Counter.builder("transaction.accounts.drift")
+                .description("Accounts whose maintained balance differed from a rebuild")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /** Committed balance of the account, or empty if nothing has been posted to it. */
+    public Optional<AccountBalance> getBalance(String accountId) {
+        return Optional.ofNullable(balances.get(accountId));
+    }
+
+    /**
+     * Posts a new transaction to its account: credits add to the balance, debits subtract from
+     * it unless that would take the balance in the database, including this transaction's
+     * earlier postings, below the overdraft limit. Inside a transaction the account stays locked
+     * until it completes.
+     *
+     * @throws InsufficientFundsException if a debit exceeds the overdraft limit
+     * @throws CannotAcquireLockException if the account's lock is not free within {@code lock-timeout}
+     */
+    public void post(String accountId, String type, BigDecimal amount) {
+        apply(accountId, signed(type, amount), 1, true);
+    }
+
+    /** Takes a deleted transaction off its account's balance, without an overdraft check. */
+    public void reverse(String accountId, String type, BigDecimal amount) {
+        apply(accountId, signed(type, amount).negate(), -1, false);
+    }
+
+    /**
+     * Takes deleted transactions off an account's balance given their signed total, credits
+     * minus debits, as summed by the bulk delete queries.
+     */
+    public void reverseTotal(String accountId, BigDecimal total, long postings) {
+        apply(accountId, total.negate(), -postings, false);
+    }
+
+    /**
+     * Locks every account until the current transaction completes, for deletes whose accounts
+     * are only known once the rows are locked out from concurrent postings.
+     */
+    public void lockAll() {
+        Postings postings = currentPostings();
+        try {
+            for (int i = 0; i < stripes.length; i++) {
+                postings.lock(i);
+            }
+        } finally {
+            if (!postings.bound) {
+                postings.complete(false);
+            }
+        }
+    }
+
+    /**
+     * Locks the given accounts until the current transaction completes, for batches that post
+     * to many accounts. Stripes are taken in ascending order like {@link #lockAll()}, so two
+     * batches never wait on each other's stripes.
+     */
+    public void lockAccounts(Collection<String> accountIds) {
+        BitSet wanted = new BitSet(stripes.length);
+        accountIds.forEach(accountId -> wanted.set(stripeOf(accountId)));
+        Postings postings = currentPostings();
+        try {
+            for (int stripe = wanted.nextSetBit(0); stripe >= 0; stripe = wanted.nextSetBit(stripe + 1)) {
+                postings.lock(stripe);
+            }
+        } finally {
+            if (!postings.bound) {
+                postings.complete(false);
+            }
+        }
+    }
+
+    /**
+     * Replaces the balances with sums over the hot and archive tables, and corrects the ledger
+     * rows to them. Every stripe is held while the query runs, so no posting of this instance
+     * is in flight and the tables hold exactly its committed postings; must not be called from
+     * a transaction that posts.
+     */
+    public void rebuild() {
+        long startTime = System.currentTimeMillis();
+        Postings postings = new Postings(false);
+        int corrected;
+        try {
+            for (int i = 0; i < stripes.length; i++) {
+                postings.lock(i);
+            }
+            // read before the sums, so a posting committed in between fails the correction
+            Map<String, AccountLedger> stored = new HashMap<>();
+            ledgerRepository.readAll().forEach(ledger -> stored.put(ledger.getAccountId(), ledger));
+            Map<String, AccountBalance> fresh = new HashMap<>();
+            for (Object[] row : transactionRepository.sumPostingsByAccount()) {
+                String accountId = (String) row[0];
+                fresh.put(accountId, new AccountBalance(accountId, toBigDecimal(row[1]), ((Number) row[2]).longValue()));
+            }
+            if (ready) {
+                drift.increment(difference(fresh));
+            }
+            balances.keySet().retainAll(fresh.keySet());
+            balances.putAll(fresh);
+            corrected = correctLedgers(stored, fresh);
+            ready = true;
+        } finally {
+            postings.complete(false);
+        }
+        logger.info("Rebuilt balances of {} accounts, corrected {} ledgers, time cost: {}", balances.size(), corrected,
+                System.currentTimeMillis() - startTime);
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.accounts.reconcile-interval:PT10M}",
+            initialDelayString = "${transaction.accounts.reconcile-interval:PT10M}")
+    public void reconcile() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("Account balance reconciliation failed, keeping the maintained balances", e);
+        }
+    }
+
+    public int getAccountCount() {
+        return balances.size();
+    }
+
+    private void apply(String accountId, BigDecimal delta, long count, boolean checked) {
+        Postings postings = currentPostings();
+        boolean applied = false;
+        try {
+            postings.lock(stripeOf(accountId));
+            addLedger(accountId);
+            if (checked && delta.signum() < 0) {
+                if (ledgerRepository.postWithinLimit(accountId, delta, count, properties.getOverdraftLimit()) == 0) {
+                    rejected.increment();
+                    throw new InsufficientFundsException("Debit of " + delta.negate() + " exceeds the funds of account "
+                            + accountId + " and its overdraft limit of " + properties.getOverdraftLimit());
+                }
+            } else {
+                ledgerRepository.post(accountId, delta, count);
+            }
+            postings.add(accountId, delta, count);
+            applied = true;
+        } finally {
+            if (!postings.bound) {
+                postings.complete(applied);
+            }
+        }
+    }
+
+    private void addLedger(String accountId) {
+        if (ledgers.contains(accountId)) {
+            return;
+        }
+        try {
+            ledgerRepository.insert(accountId, BigDecimal.ZERO, 0);
+        } catch (DataIntegrityViolationException e) {
+            // added by another posting or instance
+        }
+        ledgers.add(accountId);
+    }
+
+    private int correctLedgers(Map<String, AccountLedger> stored, Map<String, AccountBalance> fresh) {
+        int corrected = 0;
+        for (AccountBalance balance : fresh.values()) {
+            AccountLedger ledger = stored.get(balance.accountId());
+            if (ledger == null) {
+                try {
+                    corrected += ledgerRepository.insert(balance.accountId(), balance.balance(), balance.postings());
+                } catch (DataIntegrityViolationException e) {
+                    // added by a posting since the ledgers were read
+                }
+            } else if (ledger.getBalance().compareTo(balance.balance()) != 0 || ledger.getPostings() != balance.postings()) {
+                corrected += ledgerRepository.correct(balance.accountId(), ledger.getBalance(), ledger.getPostings(),
+                        balance.balance(), balance.postings());
+            }
+        }
+        for (AccountLedger ledger : stored.values()) {
+            if (!fresh.containsKey(ledger.getAccountId()) && (ledger.getBalance().signum() != 0 || ledger.getPostings() != 0)) {
+                corrected += ledgerRepository.correct(ledger.getAccountId(), ledger.getBalance(), ledger.getPostings(),
+                        BigDecimal.ZERO, 0);
+            }
+        }
+        ledgers.addAll(stored.keySet());
+        ledgers.addAll(fresh.keySet());
+        return corrected;
+    }
+
+    // postings of the current database transaction, or unbound ones applied right away
+    private Postings currentPostings() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Postings(false);
+        }
+        Postings postings = (Postings) TransactionSynchronizationManager.getResource(resourceKey);
+        if (postings == null) {
+            postings = new Postings(true);
+            TransactionSynchronizationManager.bindResource(resourceKey, postings);
+            TransactionSynchronizationManager.registerSynchronization(postings);
+        }
+        return postings;
+    }
+
+    private int stripeOf(String accountId) {
+        int hash = accountId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+
+    private long difference(Map<String, AccountBalance> fresh) {
+        long difference = 0;
+        for (AccountBalance balance : fresh.values()) {
+            AccountBalance old = balances.get(balance.accountId());
+            if (old == null || old.balance().compareTo(balance.balance()) != 0 || old.postings() != balance.postings()) {
+                difference++;
+            }
+        }
+        for (String accountId : balances.keySet()) {
+            if (!fresh.containsKey(accountId)) {
+                difference++;
+            }
+        }
+        return difference;
+    }
+
+    private static BigDecimal signed(String type, BigDecimal amount) {
+        return TransactionType.CREDIT.name().equals(type) ? amount : amount.negate();
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    /**
+     * Stripes held and balance deltas recorded by one database transaction, or by a single
+     * call outside of one.
+     */
+    private final class Postings implements TransactionSynchronization {
+
+        private final boolean bound;
+        private final BitSet held = new BitSet(stripes.length);
+        private final Map<String, AccountBalance> deltas = new HashMap<>();
+
+        Postings(boolean bound) {
+            this.bound = bound;
+        }
+
+        void lock(int stripe) {
+            if (held.get(stripe)) {
+                return;
+            }
+            boolean locked;
+            try {
+                locked = stripes[stripe].tryLock(properties.getLockTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CannotAcquireLockException("Interrupted while waiting for an account lock", e);
+            }
+            if (!locked) {
+                throw new CannotAcquireLockException("Timed out after " + properties.getLockTimeout()
+                        + " waiting for an account lock");
+            }
+            held.set(stripe);
+        }
+
+        void add(String accountId, BigDecimal amount, long count) {
+            deltas.merge(accountId, new AccountBalance(accountId, amount, count),
+                    (old, delta) -> old.plus(delta.balance(), delta.postings()));
+        }
+
+        void complete(boolean commit) {
+            try {
+                if (commit) {
+                    deltas.values().forEach(delta -> balances.compute(delta.accountId(), (accountId, balance) -> {
+                        AccountBalance next = balance == null ? delta : balance.plus(delta.balance(), delta.postings());
+                        return next.postings() <= 0 ? null : next;
+                    }));
+                }
+            } finally {
+                for (int stripe = held.nextSetBit(0); stripe >= 0; stripe = held.nextSetBit(stripe + 1)) {
+                    stripes[stripe].unlock();
+                }
+                held.clear();
+                deltas.clear();
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+            complete(status == STATUS_COMMITTED);
+        }
+    }
+}
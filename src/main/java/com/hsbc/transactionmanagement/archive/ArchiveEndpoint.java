@@ -0,0 +1,56 @@
+package com.hsbc.transactionmanagement.archive;
+
+import com.hsbc.transactionmanagement.config.ArchiveProperties;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/archive}: tier sizes and the last archiver run; a POST starts a run.
+ */
+@Component
+@Endpoint(id = "archive")
+public class ArchiveEndpoint {
+
+    private final TransactionArchiver archiver;
+    private final ArchiveProperties properties;
+
+    public ArchiveEndpoint(TransactionArchiver archiver, ArchiveProperties properties) {
+        this.archiver = archiver;
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", properties.isEnabled());
+        status.put("maxAge", properties.getMaxAge().toString());
+        status.put("hotRows", archiver.getHotRows());
+        status.put("archiveRows", archiver.getArchiveRows());
+        status.put("lastRun", describe(archiver.getLastRun()));
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> archive() {
+        ArchiveRun run = archiver.archive();
+        return run == null ? Map.of("status", "already running") : describe(run);
+    }
+
+    private static Map<String, Object> describe(ArchiveRun run) {
+        if (run == null) {
+            return null;
+        }
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("startedAt", run.startedAt().toString());
+        description.put("cutoff", run.cutoff().toString());
+        description.put("archivedRows", run.archivedRows());
+        description.put("durationMillis", run.durationMillis());
+        description.put("rowsPerSecond", run.rowsPerSecond());
+        return description;
+    }
+}
@@ -0,0 +1,13 @@
+package com.hsbc.transactionmanagement.archive;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of one archiver run.
+ */
+public record ArchiveRun(LocalDateTime startedAt, LocalDateTime cutoff, int archivedRows, long durationMillis) {
+
+    public double rowsPerSecond() {
+        return durationMillis == 0 ? archivedRows : archivedRows * 1000.0 / durationMillis;
+    }
+}
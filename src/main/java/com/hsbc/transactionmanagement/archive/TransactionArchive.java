@@ -0,0 +1,99 @@
+package com.hsbc.transactionmanagement.archive;
+
+import com.hsbc.transactionmanagement.config.ArchiveProperties;
+import com.hsbc.transactionmanagement.entity.ArchivedTransaction;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.repository.ArchivedTransactionRepository;
+import com.hsbc.transactionmanagement.repository.CategorySort;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.util.TransactionPageMerger;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read access to the cold tier. Lookups by id or reference fall back here when the hot table
+ * has no match; date-range listings only read the archive when the range starts before the
+ * hot window, since nothing newer than {@code max-age} is ever archived.
+ */
+@Component
+public class TransactionArchive {
+
+    private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final ArchiveProperties properties;
+
+    public TransactionArchive(TransactionRepository transactionRepository,
+                              ArchivedTransactionRepository archivedTransactionRepository,
+                              ArchiveProperties properties) {
+        this.transactionRepository = transactionRepository;
+        this.archivedTransactionRepository = archivedTransactionRepository;
+        this.properties = properties;
+    }
+
+    public Optional<Transaction> findById(Long id) {
+        return archivedTransactionRepository.findById(id).map(ArchivedTransaction::toTransaction);
+    }
+
+    public Optional<Transaction> findByReference(String reference) {
+        return archivedTransactionRepository.findByTransactionReference(reference).map(ArchivedTransaction::toTransaction);
+    }
+
+    public List<Transaction> findAllById(Collection<Long> ids) {
+        return archivedTransactionRepository.findAllById(ids).stream().map(ArchivedTransaction::toTransaction).toList();
+    }
+
+    public List<Transaction> findAllByReference(Collection<String> references) {
+        return archivedTransactionRepository.findByTransactionReferenceIn(references).stream()
+                .map(ArchivedTransaction::toTransaction).toList();
+    }
+
+    public boolean existsById(Long id) {
+        return archivedTransactionRepository.existsById(id);
+    }
+
+    public boolean existsByReference(String reference) {
+        return archivedTransactionRepository.existsByTransactionReference(reference);
+    }
+
+    /**
+     * Whether transactions dated from {@code from} (open-ended when {@code null}) may already
+     * have been archived.
+     */
+    public boolean covers(LocalDateTime from) {
+        return from == null || from.isBefore(LocalDateTime.now().minus(properties.getMaxAge()));
+    }
+
+    /**
+     * A page of transactions in {@code [from, to)} across both tiers. When the archive is
+     * needed, each tier returns its first {@code offset + size} rows and the two are merged.
+     */
+    public Page<Transaction> findByFilters(String category, String type, LocalDateTime from, LocalDateTime to,
+                                           Pageable pageable) {
+        if (!covers(from)) {
+            return transactionRepository.findByFiltersInRange(category, type, from, to, CategorySort.byName(pageable, "t"));
+        }
+
+        Sort sort = pageable.getSort().getOrderFor("id") == null
+                ? pageable.getSort().and(Sort.by("id"))
+                : pageable.getSort();
+        Pageable window = PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()), sort);
+        Page<Transaction> hot = transactionRepository.findByFiltersInRange(category, type, from, to,
+                CategorySort.byName(window, "t"));
+        Page<Transaction> archived = archivedTransactionRepository
+                .findByFilters(category, type, from, to, CategorySort.byName(window, "a"))
+                .map(ArchivedTransaction::toTransaction);
+
+        List<Transaction> content = TransactionPageMerger.merge(List.of(hot.getContent(), archived.getContent()),
+                TransactionPageMerger.comparator(pageable.getSort()), pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(content, pageable, hot.getTotalElements() + archived.getTotalElements());
+    }
+}
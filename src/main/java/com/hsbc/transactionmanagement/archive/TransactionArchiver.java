@@ -0,0 +1,157 @@
+package com.hsbc.transactionmanagement.archive;
+
+import com.hsbc.transactionmanagement.cache.TransactionCacheEvictor;
+import com.hsbc.transactionmanagement.config.ArchiveProperties;
+import com.hsbc.transactionmanagement.count.TransactionCounts;
+import com.hsbc.transactionmanagement.readmodel.TransactionReadModel;
+import com.hsbc.transactionmanagement.repository.ArchivedTransactionRepository;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves transactions older than {@code transaction.archive.max-age} from the hot table to
+ * {@code transactions_archive}, one batch per database transaction. Pages of the list cache
+ * are dropped after rows moved; single-transaction entries stay valid because lookups fall
+ * back to the archive.
+ */
+@Component
+public class TransactionArchiver {
+
+    private static final Logger logger = LoggerUtil.getLogger(TransactionArchiver.class);
+
+    private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final TransactionCacheEvictor cacheEvictor;
+    private final TransactionCounts transactionCounts;
+    private final TransactionReadModel readModel;
+    private final ArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter archivedRows;
+    private final Timer runTimer;
+
+    private volatile double hotRows = Double.NaN;
+    private volatile double archiveRows = Double.NaN;
+    private volatile ArchiveRun lastRun;
+
+    public TransactionArchiver(TransactionRepository transactionRepository,
+                               ArchivedTransactionRepository archivedTransactionRepository,
+                               TransactionCacheEvictor cacheEvictor,
+                               TransactionCounts transactionCounts,
+                               TransactionReadModel readModel,
+                               ArchiveProperties properties,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.archivedTransactionRepository = archivedTransactionRepository;
+        this.cacheEvictor = cacheEvictor;
+        this.transactionCounts = transactionCounts;
+        this.readModel = readModel;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedRows = Counter.builder("transaction.archive.rows")
+                .description("Transactions moved to the archive")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("transaction.archive.run")
+                .description("Duration of archiver runs")
+                .register(meterRegistry);
+        Gauge.builder("transaction.tier.rows", this, archiver -> archiver.hotRows)
+                .description("Rows per storage tier as of the last archiver run")
+                .tag("tier", "hot")
+                .register(meterRegistry);
+        Gauge.builder("transaction.tier.rows", this, archiver -> archiver.archiveRows)
+                .description("Rows per storage tier as of the last archiver run")
+                .tag("tier", "archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${transaction.archive.interval:PT1H}",
+            fixedDelayString = "${transaction.archive.interval:PT1H}")
+    public void scheduledRun() {
+        if (properties.isEnabled()) {
+            archive();
+        }
+    }
+
+    public ArchiveRun archive() {
+        return archive(LocalDateTime.now().minus(properties.getMaxAge()));
+    }
+
+    /**
+     * Archives everything dated before {@code cutoff}, up to {@code max-batches-per-run}
+     * batches. Returns {@code null} when another run is in progress.
+     */
+    public ArchiveRun archive(LocalDateTime cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startTime = System.nanoTime();
+        int moved = 0;
+        try {
+            for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+                Integer batchRows = transactionTemplate.execute(status -> moveBatch(cutoff, startedAt));
+                moved += batchRows;
+                if (batchRows < properties.getBatchSize()) {
+                    break;
+                }
+            }
+        } finally {
+            if (moved > 0) {
+                cacheEvictor.clear(TransactionCacheEvictor.TRANSACTIONS_CACHE);
+                transactionCounts.invalidate();
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+            archivedRows.increment(moved);
+            runTimer.record(elapsed);
+            refreshTierSizes();
+            lastRun = new ArchiveRun(startedAt, cutoff, moved, elapsed.toMillis());
+            running.set(false);
+        }
+        logger.info("Archived {} transactions older than {}, time cost: {}", moved, cutoff, lastRun.durationMillis());
+        return lastRun;
+    }
+
+    public ArchiveRun getLastRun() {
+        return lastRun;
+    }
+
+    public long getHotRows() {
+        return transactionRepository.count();
+    }
+
+    public long getArchiveRows() {
+        return archivedTransactionRepository.count();
+    }
+
+    private int moveBatch(LocalDateTime cutoff, LocalDateTime archivedAt) {
+        List<Long> ids = transactionRepository.findIdsOlderThan(cutoff, PageRequest.of(0, properties.getBatchSize()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedTransactionRepository.copyFromHot(ids, archivedAt);
+        transactionRepository.bulkDeleteByIds(ids);
+        readModel.recordDeleted(ids);
+        return ids.size();
+    }
+
+    private void refreshTierSizes() {
+        hotRows = getHotRows();
+        archiveRows = getArchiveRows();
+    }
+}
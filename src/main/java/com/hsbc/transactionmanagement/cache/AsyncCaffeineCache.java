@@ -0,0 +1,137 @@
+package com.hsbc.transactionmanagement.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.hsbc.transactionmanagement.datasource.SharedCacheLoad;
+import com.hsbc.transactionmanagement.jfr.CacheEvictionEvent;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Caffeine cache stored as an {@link AsyncCache}, so a value being loaded is visible as a
+ * future: {@link #peek} answers from the cache without loading or blocking, for callers that
+ * must not hold their thread while a value is loaded. Otherwise it behaves like any
+ * {@link CaffeineCache}. Values are loaded on the calling thread, as Caffeine's synchronous
+ * view would hand them to its executor and lose the caller's transaction and thread-locals;
+ * concurrent callers of the same key wait for that load. Lookups never load. Evictions and
+ * clears are recorded as {@link CacheEvictionEvent}s. Loads run as a {@link SharedCacheLoad}.
+ */
+public class AsyncCaffeineCache extends CaffeineCache {
+
+    private final AsyncCache<Object, Object> asyncCache;
+
+    public AsyncCaffeineCache(String name, AsyncCache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache.synchronous(), allowNullValues);
+        this.asyncCache = cache;
+    }
+
+    /**
+     * The cached value of {@code key}, or the result of a load already in progress, as a
+     * future of its own; {@code null} when neither exists. A cached {@code null} completes the
+     * future with {@code null}. Counts as a read in the cache statistics, so a miss followed
+     * by a load counts as two misses.
+     */
+    public CompletableFuture<Object> peek(Object key) {
+        CompletableFuture<Object> value = asyncCache.getIfPresent(key);
+        // a dependent future, callers must not be able to complete or cancel the cache's own
+        return value == null ? null : value.thenApply(this::fromStoreValue);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return asyncCache.synchronous().getIfPresent(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> value = asyncCache.get(key, (k, executor) -> loading);
+        if (value == loading) {
+            try {
+                loading.complete(SharedCacheLoad.call(() -> load(key, valueLoader)));
+            } catch (Throwable ex) {
+                loading.completeExceptionally(ex instanceof Exception e ? new ValueRetrievalException(key, valueLoader, e) : ex);
+            }
+        }
+        return (T) fromStoreValue(join(value));
+    }
+
+    /**
+     * The stored values of {@code keys}, loading the missing ones with a single call to
+     * {@code loader} on the calling thread. Keys the loader does not return are not stored and
+     * are absent from the result, as are keys whose value is {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Object, Object> getAll(Set<Object> keys, Function<Set<Object>, Map<Object, Object>> loader) {
+        CompletableFuture<Map<Object, Object>> loading = new CompletableFuture<>();
+        Object[] missing = new Object[1];
+        CompletableFuture<Map<Object, Object>> values = asyncCache.getAll(keys, (k, executor) -> {
+            missing[0] = k;
+            return loading;
+        });
+        if (missing[0] != null) {
+            try {
+                loading.complete(SharedCacheLoad.call(() -> loader.apply((Set<Object>) missing[0])));
+            } catch (Throwable ex) {
+                loading.completeExceptionally(ex);
+            }
+        }
+        return join(values);
+    }
+
+    /** Loads the value to store for {@code key}; {@code null} stores nothing. */
+    protected Object load(Object key, Callable<?> valueLoader) throws Exception {
+        return toStoreValue(valueLoader.call());
+    }
+
+    @Override
+    public void evict(Object key) {
+        CacheEvictionEvent.record(getName(), key, "EXPLICIT", super.evictIfPresent(key) ? 1 : 0);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = super.evictIfPresent(key);
+        CacheEvictionEvent.record(getName(), key, "EXPLICIT", evicted ? 1 : 0);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        long entries = getNativeCache().estimatedSize();
+        super.clear();
+        CacheEvictionEvent.record(getName(), null, "CLEAR", entries);
+    }
+
+    @Override
+    public boolean invalidate() {
+        long entries = getNativeCache().estimatedSize();
+        boolean invalidated = super.invalidate();
+        CacheEvictionEvent.record(getName(), null, "CLEAR", entries);
+        return invalidated;
+    }
+
+    public AsyncCache<Object, Object> getAsyncCache() {
+        return asyncCache;
+    }
+
+    private static <T> T join(CompletableFuture<T> value) {
+        try {
+            return value.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
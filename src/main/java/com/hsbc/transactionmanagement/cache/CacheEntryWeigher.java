@@ -0,0 +1,132 @@
+package com.hsbc.transactionmanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Weighs cache entries by an estimate of the bytes they retain, so the caches can be bounded
+ * by memory rather than entry count: a page of 10,000 transactions weighs about a thousand
+ * times a page of 10. Sizes assume a 64-bit JVM with compressed references and Latin-1
+ * strings, and are rounded to the 8-byte object alignment; shared objects such as interned
+ * field names are not counted. Neither are a transaction's type and category: loaded
+ * transactions share one String per value, see
+ * {@link com.hsbc.transactionmanagement.dictionary.CategoryDictionary}.
+ */
+public final class CacheEntryWeigher implements Weigher<Object, Object> {
+
+    public static final CacheEntryWeigher INSTANCE = new CacheEntryWeigher();
+
+    private static final int HEADER = 12;
+    private static final int REFERENCE = 4;
+    // Caffeine node with its key, value, weight and expiry fields, plus its hash table slot
+    private static final int CACHE_NODE = 64;
+    private static final int BOXED = 16;
+    // unscaled values up to 18 digits are kept in a long, longer ones in a BigInteger
+    private static final int BIG_DECIMAL = 40;
+    private static final int BIG_INTEGER = 56;
+    // LocalDateTime referencing a LocalDate and a LocalTime
+    private static final int LOCAL_DATE_TIME = 72;
+    // PageImpl, its unmodifiable content list, the backing ArrayList and the PageRequest
+    private static final int PAGE = 120;
+    private static final int LINKED_HASH_MAP = 64;
+    private static final int LINKED_HASH_MAP_ENTRY = 40;
+    private static final int UNKNOWN = 64;
+
+    private CacheEntryWeigher() {
+    }
+
+    @Override
+    public int weigh(Object key, Object value) {
+        return (int) Math.min(Integer.MAX_VALUE, CACHE_NODE + estimate(key) + estimate(value));
+    }
+
+    /** Estimated bytes retained by the value and everything only it references. */
+    public static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Transaction transaction) {
+            return transaction(transaction);
+        }
+        if (value instanceof Slice<?> page) {
+            return PAGE + array(page.getNumberOfElements()) + elements(page.getContent()) + sort(page.getSort());
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = LINKED_HASH_MAP + array(map.size() == 0 ? 0 : Integer.highestOneBit(map.size() * 2 - 1) * 2);
+            for (Object element : map.values()) {
+                size += LINKED_HASH_MAP_ENTRY + estimate(element);
+            }
+            return size;
+        }
+        if (value instanceof String string) {
+            return string(string);
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.precision() > 18 ? BIG_DECIMAL + BIG_INTEGER : BIG_DECIMAL;
+        }
+        if (value instanceof LocalDateTime) {
+            return LOCAL_DATE_TIME;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return BOXED;
+        }
+        if (value instanceof TransactionListCacheKey key) {
+            return align(HEADER + 8 * REFERENCE + 8) + string(key.category()) + string(key.type())
+                    + (key.from() == null ? 0 : LOCAL_DATE_TIME) + (key.to() == null ? 0 : LOCAL_DATE_TIME)
+                    + sort(key.sort());
+        }
+        return UNKNOWN;
+    }
+
+    private static long transaction(Transaction transaction) {
+        return align(HEADER + 11 * REFERENCE)
+                + BOXED
+                + string(transaction.getDescription())
+                + estimate(transaction.getAmount())
+                + string(transaction.getTransactionReference())
+                + string(transaction.getAccountId())
+                + (transaction.getTransactionDate() == null ? 0 : LOCAL_DATE_TIME)
+                + (transaction.getVersion() == null ? 0 : BOXED)
+                + (transaction.getChangeSequence() == null ? 0 : BOXED)
+                + (transaction.getUpdatedAt() == null ? 0 : LOCAL_DATE_TIME);
+    }
+
+    private static long elements(Collection<?> elements) {
+        long size = 0;
+        for (Object element : elements) {
+            size += estimate(element);
+        }
+        return size;
+    }
+
+    private static long sort(Sort sort) {
+        // an unsorted Sort is a shared constant; a sorted one holds a list of orders
+        if (sort.isUnsorted()) {
+            return 0;
+        }
+        long size = align(HEADER + REFERENCE) + array(10);
+        for (Sort.Order order : sort) {
+            size += align(HEADER + 4 * REFERENCE + 1) + string(order.getProperty());
+        }
+        return size;
+    }
+
+    private static long string(String string) {
+        return string == null ? 0 : align(HEADER + 12) + align(HEADER + 4 + string.length());
+    }
+
+    private static long array(long length) {
+        return align(HEADER + 4 + length * REFERENCE);
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,123 @@
+package com.hsbc.transactionmanagement.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.NullValue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Caffeine cache that keeps "not found" results out of the main cache. A {@code null} value is
+ * recorded in a separate, smaller cache with a short TTL, so id/reference scans are answered
+ * from memory without evicting real entries. Evicting a key clears both sides.
+ * <p>
+ * Entries that expire or are evicted for size can be kept in a third cache, the stale copy,
+ * which answers reads while the database is unavailable. Storing or evicting a key removes its
+ * stale copy, so only entries no write has touched since are kept there.
+ */
+public class NegativeCachingCaffeineCache extends AsyncCaffeineCache {
+
+    private final Cache<Object, Boolean> misses;
+    private final Cache<Object, Object> stale;
+
+    public NegativeCachingCaffeineCache(String name, AsyncCache<Object, Object> cache, Cache<Object, Boolean> misses,
+                                        Cache<Object, Object> stale) {
+        super(name, cache, true);
+        this.misses = misses;
+        this.stale = stale;
+    }
+
+    @Override
+    public CompletableFuture<Object> peek(Object key) {
+        if (misses.getIfPresent(key) != null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return super.peek(key);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        if (misses.getIfPresent(key) != null) {
+            return NullValue.INSTANCE;
+        }
+        return super.lookup(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (misses.getIfPresent(key) != null) {
+            return null;
+        }
+        return super.get(key, valueLoader);
+    }
+
+    // a null result leaves the main cache untouched
+    @Override
+    protected Object load(Object key, Callable<?> valueLoader) throws Exception {
+        Object value = valueLoader.call();
+        if (value == null) {
+            misses.put(key, Boolean.TRUE);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        stale.invalidate(key);
+        if (value == null) {
+            misses.put(key, Boolean.TRUE);
+            return;
+        }
+        misses.invalidate(key);
+        super.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        stale.invalidate(key);
+        if (value == null) {
+            return misses.asMap().putIfAbsent(key, Boolean.TRUE) == null ? null : toValueWrapper(NullValue.INSTANCE);
+        }
+        misses.invalidate(key);
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        misses.invalidate(key);
+        stale.invalidate(key);
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        stale.invalidate(key);
+        boolean missPresent = misses.asMap().remove(key) != null;
+        return super.evictIfPresent(key) || missPresent;
+    }
+
+    @Override
+    public void clear() {
+        misses.invalidateAll();
+        stale.invalidateAll();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean missesPresent = !misses.asMap().isEmpty();
+        misses.invalidateAll();
+        stale.invalidateAll();
+        return super.invalidate() || missesPresent;
+    }
+
+    public Cache<Object, Boolean> getMisses() {
+        return misses;
+    }
+
+    /** Entries that left the main cache unchanged, for reads the database cannot answer. */
+    public Cache<Object, Object> getStale() {
+        return stale;
+    }
+}
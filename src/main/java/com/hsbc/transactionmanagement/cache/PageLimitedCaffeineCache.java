@@ -0,0 +1,49 @@
+package com.hsbc.transactionmanagement.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Caffeine cache of the {@code transactions} pages that does not store pages larger than
+ * {@code maxPageSize}. Such pages are loaded on every request instead, so a few huge pages
+ * cannot push out the many small ones. The decision is taken from the requested page size
+ * in the key, before anything is loaded.
+ */
+public class PageLimitedCaffeineCache extends AsyncCaffeineCache {
+
+    private final int maxPageSize;
+
+    public PageLimitedCaffeineCache(String name, AsyncCache<Object, Object> cache, int maxPageSize) {
+        super(name, cache, true);
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (!isCacheable(key)) {
+            try {
+                return valueLoader.call();
+            } catch (Exception ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex);
+            }
+        }
+        return super.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (isCacheable(key)) {
+            super.put(key, value);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return isCacheable(key) ? super.putIfAbsent(key, value) : null;
+    }
+
+    public boolean isCacheable(Object key) {
+        return !(key instanceof TransactionListCacheKey listKey) || listKey.size() <= maxPageSize;
+    }
+}
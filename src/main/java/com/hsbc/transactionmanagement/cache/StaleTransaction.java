@@ -0,0 +1,17 @@
+package com.hsbc.transactionmanagement.cache;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+import org.springframework.beans.BeanUtils;
+
+/**
+ * A transaction served from the stale copy of the cache because the database could not be
+ * read; it may not reflect writes made since it was cached. Never persisted.
+ */
+public class StaleTransaction extends Transaction {
+
+    public static StaleTransaction of(Transaction transaction) {
+        StaleTransaction stale = new StaleTransaction();
+        BeanUtils.copyProperties(transaction, stale);
+        return stale;
+    }
+}
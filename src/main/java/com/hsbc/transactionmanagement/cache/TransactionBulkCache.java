@@ -0,0 +1,111 @@
+package com.hsbc.transactionmanagement.cache;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.tracing.SpanScope;
+import com.hsbc.transactionmanagement.tracing.Tracer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Multi-key reads of the {@code transaction} cache, using the keys of the {@code @Cacheable}
+ * lookups in the service (an id, or {@code ref_} plus a reference). With Caffeine all keys are
+ * looked up with one bulk call and the missing ones are handed to the loader together; keys
+ * the loader does not return are recorded as "not found" like single lookups do. Other cache
+ * providers are read and written key by key.
+ */
+@Component
+public class TransactionBulkCache {
+
+    private final CacheManager cacheManager;
+    private final Tracer tracer;
+
+    @Autowired
+    public TransactionBulkCache(CacheManager cacheManager, Tracer tracer) {
+        this.cacheManager = cacheManager;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Returns the transactions found for the given keys, loading the ones not cached with a
+     * single call to {@code loader}. Keys without a transaction are absent from the result.
+     */
+    public Map<Object, Transaction> getAll(Collection<Object> keys,
+                                           Function<Set<Object>, Map<Object, Transaction>> loader) {
+        try (SpanScope scope = tracer.startSpan("cache.getAll " + TransactionCacheEvictor.TRANSACTION_CACHE)) {
+            scope.setAttribute("cache.keys", keys.size());
+            Map<Object, Transaction> result = lookup(keys, loader);
+            scope.setAttribute("cache.found", result.size());
+            return result;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Transaction> lookup(Collection<Object> keys,
+                                            Function<Set<Object>, Map<Object, Transaction>> loader) {
+        Cache cache = cacheManager.getCache(TransactionCacheEvictor.TRANSACTION_CACHE);
+        if (cache == null) {
+            return loader.apply(new LinkedHashSet<>(keys));
+        }
+        if (!(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+            return getAllByKey(cache, keys, loader);
+        }
+
+        Set<Object> lookup = new LinkedHashSet<>(keys);
+        NegativeCachingCaffeineCache negativeCache = cache instanceof NegativeCachingCaffeineCache n ? n : null;
+        if (negativeCache != null) {
+            lookup.removeAll(negativeCache.getMisses().getAllPresent(lookup).keySet());
+        }
+        Function<Set<Object>, Map<Object, Object>> load = missing -> {
+            Map<Object, Transaction> loaded = loader.apply(missing);
+            if (negativeCache != null) {
+                Map<Object, Boolean> misses = new LinkedHashMap<>();
+                missing.stream().filter(key -> !loaded.containsKey(key)).forEach(key -> misses.put(key, Boolean.TRUE));
+                negativeCache.getMisses().putAll(misses);
+            }
+            return new LinkedHashMap<>(loaded);
+        };
+        // like the single lookups, a load racing with a write's eviction may leave a stale entry
+        // until it expires or is refreshed; async caches load on this thread, not their executor
+        Map<Object, Object> found = cache instanceof AsyncCaffeineCache asyncCache
+                ? asyncCache.getAll(lookup, load)
+                : ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache)
+                        .getAll(lookup, missing -> load.apply((Set<Object>) missing));
+
+        Map<Object, Transaction> result = new LinkedHashMap<>();
+        found.forEach((key, value) -> {
+            if (value instanceof Transaction transaction) {
+                result.put(key, transaction);
+            }
+        });
+        return result;
+    }
+
+    private static Map<Object, Transaction> getAllByKey(Cache cache, Collection<Object> keys,
+                                                        Function<Set<Object>, Map<Object, Transaction>> loader) {
+        Map<Object, Transaction> result = new LinkedHashMap<>();
+        Set<Object> missing = new LinkedHashSet<>();
+        for (Object key : keys) {
+            Cache.ValueWrapper wrapper = cache.get(key);
+            if (wrapper == null) {
+                missing.add(key);
+            } else if (wrapper.get() instanceof Transaction transaction) {
+                result.put(key, transaction);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Object, Transaction> loaded = loader.apply(missing);
+            missing.forEach(key -> cache.put(key, loaded.get(key)));
+            result.putAll(loaded);
+        }
+        return result;
+    }
+}
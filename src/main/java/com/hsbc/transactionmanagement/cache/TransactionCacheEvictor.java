@@ -0,0 +1,145 @@
+package com.hsbc.transactionmanagement.cache;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.jfr.CacheEvictionEvent;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Targeted eviction for set-based writes, where the affected keys are not known up front.
+ * Walks the native Caffeine map of a cache and removes only the matching entries, falling
+ * back to clearing the cache when the provider does not expose its entries. Each scan is
+ * recorded as one {@link CacheEvictionEvent}.
+ */
+@Component
+public class TransactionCacheEvictor {
+
+    public static final String TRANSACTION_CACHE = "transaction";
+    public static final String TRANSACTIONS_CACHE = "transactions";
+    public static final String REFERENCE_KEY_PREFIX = "ref_";
+
+    private static final Logger logger = LoggerUtil.getLogger(TransactionCacheEvictor.class);
+
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public TransactionCacheEvictor(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Evicts the single-transaction entries for the given ids and references, plus any entry
+     * whose cached value matches {@code valueMatcher}, from the cache and from its stale copy.
+     *
+     * @return the distinct cached transactions that were evicted, keyed by id
+     */
+    public Map<Long, Transaction> evictTransactions(Collection<Long> ids, Collection<String> references,
+                                                    Predicate<Transaction> valueMatcher) {
+        Set<Object> keys = new HashSet<>(ids);
+        references.forEach(reference -> keys.add(REFERENCE_KEY_PREFIX + reference));
+
+        Map<Long, Transaction> evicted = new LinkedHashMap<>();
+        boolean scanned = removeIf(TRANSACTION_CACHE, (key, value) -> {
+            Transaction transaction = value instanceof Transaction t ? t : null;
+            boolean matches = keys.contains(key) || (transaction != null && valueMatcher.test(transaction));
+            if (matches && transaction != null) {
+                evicted.put(transaction.getId(), transaction);
+            }
+            return matches;
+        });
+        Cache cache = cacheManager.getCache(TRANSACTION_CACHE);
+        if (!scanned) {
+            if (cache != null) {
+                keys.forEach(cache::evict);
+            }
+        } else if (cache instanceof NegativeCachingCaffeineCache negativeCache) {
+            negativeCache.getStale().asMap().entrySet().removeIf(entry -> keys.contains(entry.getKey())
+                    || (entry.getValue() instanceof Transaction transaction && valueMatcher.test(transaction)));
+        }
+        return evicted;
+    }
+
+    /**
+     * Evicts exactly the entries of the given ids and references, including cached "not
+     * found" ones, without scanning the cache.
+     */
+    public void evictKeys(Collection<Long> ids, Collection<String> references) {
+        Cache cache = cacheManager.getCache(TRANSACTION_CACHE);
+        if (cache != null) {
+            ids.forEach(cache::evict);
+            references.forEach(reference -> cache.evict(REFERENCE_KEY_PREFIX + reference));
+        }
+    }
+
+    /**
+     * Evicts the cached pages whose category/type filter overlaps the given values, where a
+     * {@code null} value matches every partition.
+     */
+    public void evictListPartitions(String category, String type) {
+        boolean scanned = removeIf(TRANSACTIONS_CACHE, (key, value) ->
+                !(key instanceof TransactionListCacheKey listKey) || listKey.overlaps(category, type));
+        if (!scanned) {
+            clear(TRANSACTIONS_CACHE);
+        }
+    }
+
+    public void evictListPartitions(Collection<Transaction> transactions) {
+        boolean scanned = removeIf(TRANSACTIONS_CACHE, (key, value) -> {
+            if (!(key instanceof TransactionListCacheKey listKey)) {
+                return true;
+            }
+            for (Transaction transaction : transactions) {
+                if (listKey.overlaps(transaction.getCategory(), transaction.getType())) {
+                    return true;
+                }
+            }
+            return false;
+        });
+        if (!scanned) {
+            clear(TRANSACTIONS_CACHE);
+        }
+    }
+
+    public void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean removeIf(String cacheName, BiPredicate<Object, Object> predicate) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return true;
+        }
+        if (!(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+            LoggerUtil.logDebug(logger, "Cache {} does not expose its entries, clearing it", cacheName);
+            return false;
+        }
+        long[] removed = new long[1];
+        ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache).asMap()
+                .entrySet()
+                .removeIf(entry -> {
+                    boolean remove = predicate.test(entry.getKey(), entry.getValue());
+                    if (remove) {
+                        removed[0]++;
+                    }
+                    return remove;
+                });
+        CacheEvictionEvent.record(cacheName, null, "EXPLICIT", removed[0]);
+        return true;
+    }
+}
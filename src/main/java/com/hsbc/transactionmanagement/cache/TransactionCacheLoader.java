@@ -0,0 +1,53 @@
+package com.hsbc.transactionmanagement.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.hsbc.transactionmanagement.datasource.SharedCacheLoad;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Reloads entries of the {@code transaction} and {@code transactions} caches from their key
+ * alone, which is what lets Caffeine refresh hot entries in the background. Keys follow the
+ * {@code @Cacheable} definitions in the service: an id, {@code ref_} plus a reference, or a
+ * {@link TransactionListCacheKey}. Each key is loaded by the service's uncached
+ * {@code read*()} method behind the matching {@code @Cacheable} one, so a refresh reads
+ * exactly what a miss would, also as a {@link SharedCacheLoad}. A {@code null} result
+ * removes the entry.
+ */
+public class TransactionCacheLoader implements CacheLoader<Object, Object> {
+
+    // looked up on first load, the service itself depends on the cache manager
+    private final ObjectProvider<TransactionService> transactionService;
+
+    public TransactionCacheLoader(ObjectProvider<TransactionService> transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    @Override
+    public Object load(Object key) throws Exception {
+        return SharedCacheLoad.call(() -> read(key));
+    }
+
+    private Object read(Object key) {
+        TransactionService service = transactionService.getObject();
+        if (key instanceof Long id) {
+            return service.readTransaction(id);
+        }
+        if (key instanceof String reference && reference.startsWith(TransactionCacheEvictor.REFERENCE_KEY_PREFIX)) {
+            return service.readTransactionByReference(
+                    reference.substring(TransactionCacheEvictor.REFERENCE_KEY_PREFIX.length()));
+        }
+        if (key instanceof TransactionListCacheKey listKey && listKey.isRange()) {
+            return service.readTransactionsInRange(listKey.category(), listKey.type(), listKey.from(), listKey.to(),
+                    listKey.toPageable());
+        }
+        if (key instanceof TransactionListCacheKey listKey && listKey.fields() != null) {
+            return service.readTransactionFieldsPage(listKey.fields(), listKey.category(), listKey.type(),
+                    listKey.toPageable());
+        }
+        if (key instanceof TransactionListCacheKey listKey) {
+            return service.readTransactionPage(listKey.category(), listKey.type(), listKey.toPageable());
+        }
+        throw new IllegalArgumentException("Unsupported transaction cache key: " + key);
+    }
+}
@@ -0,0 +1,59 @@
+package com.hsbc.transactionmanagement.cache;
+
+import com.hsbc.transactionmanagement.repository.TransactionFields;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Key of a cached page in the {@code transactions} cache. Keeping the filter values (rather
+ * than a hash of them) lets writes evict only the partitions they can affect. {@code fields}
+ * is {@code null} for pages of whole transactions.
+ */
+public record TransactionListCacheKey(String category, String type, LocalDateTime from, LocalDateTime to,
+                                      int page, int size, Sort sort, TransactionFields fields) {
+
+    public static TransactionListCacheKey of(String category, String type, Pageable pageable) {
+        return of(category, type, null, null, pageable);
+    }
+
+    public static TransactionListCacheKey of(String category, String type, TransactionFields fields,
+                                             Pageable pageable) {
+        return new TransactionListCacheKey(normalize(category), normalize(type), null, null,
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort(), fields);
+    }
+
+    public static TransactionListCacheKey of(String category, String type, LocalDateTime from, LocalDateTime to,
+                                             Pageable pageable) {
+        return new TransactionListCacheKey(normalize(category), normalize(type), from, to,
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort(), null);
+    }
+
+    /** Whether the page is restricted to a date range, which may reach into the archive. */
+    public boolean isRange() {
+        return from != null || to != null;
+    }
+
+    public Pageable toPageable() {
+        return PageRequest.of(page, size, sort);
+    }
+
+    /**
+     * Whether a row (or filter) with the given category and type can appear in this page.
+     * A {@code null} argument stands for "any value".
+     */
+    public boolean overlaps(String category, String type) {
+        return matches(this.category, category) && matches(this.type, type);
+    }
+
+    private static boolean matches(String keyValue, String value) {
+        return keyValue == null || value == null || keyValue.equals(normalize(value));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,24 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.accounts")
+public class AccountProperties {
+
+    /** How far below zero a debit may take an account's balance; 0 rejects any overdraft. */
+    private BigDecimal overdraftLimit = BigDecimal.ZERO;
+
+    /** Locks accounts are hashed onto; more stripes mean fewer unrelated accounts waiting on each other. */
+    private int lockStripes = 1024;
+
+    /** Longest a write waits for an account's lock before failing instead of queueing further. */
+    private Duration lockTimeout = Duration.ofSeconds(5);
+
+    /** Delay between rebuilds of the balances from the tables, ISO-8601. */
+    private Duration reconcileInterval = Duration.ofMinutes(10);
+}
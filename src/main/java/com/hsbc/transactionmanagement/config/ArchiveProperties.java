@@ -0,0 +1,26 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.archive")
+public class ArchiveProperties {
+
+    /** Run the archiver on its schedule; it can still be triggered through actuator when off. */
+    private boolean enabled = true;
+
+    /** Transactions older than this move from the hot table to the archive. */
+    private Duration maxAge = Duration.ofDays(90);
+
+    /** Delay between archiver runs, ISO-8601 (e.g. {@code PT1H}). */
+    private Duration interval = Duration.ofHours(1);
+
+    /** Rows moved per database transaction. */
+    private int batchSize = 1000;
+
+    /** Upper bound of batches per run, so a large backlog is drained over several runs. */
+    private int maxBatchesPerRun = 100;
+}
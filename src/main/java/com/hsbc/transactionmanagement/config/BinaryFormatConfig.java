@@ -0,0 +1,91 @@
+package com.hsbc.transactionmanagement.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}) converters
+ * for high-volume clients, selected through the Accept / Content-Type headers. JSON stays the
+ * default. The binary mappers write amounts as integers scaled by {@link #AMOUNT_SCALE} and
+ * dates as numeric arrays instead of ISO strings.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    /** Matches the scale of the {@code amount} column. */
+    public static final int AMOUNT_SCALE = 4;
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryObjectMapper(builder, new CBORFactory()));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binaryObjectMapper(builder, new SmileFactory()));
+    }
+
+    static ObjectMapper binaryObjectMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .postConfigurer(mapper -> mapper.registerModule(scaledAmountModule()))
+                .build();
+    }
+
+    static SimpleModule scaledAmountModule() {
+        SimpleModule module = new SimpleModule("ScaledAmountModule");
+        module.addSerializer(BigDecimal.class, new ScaledAmountSerializer());
+        module.addDeserializer(BigDecimal.class, new ScaledAmountDeserializer());
+        return module;
+    }
+
+    /**
+     * Writes a decimal as its value times 10^{@link #AMOUNT_SCALE}; values that do not fit a
+     * long at that scale are written as a native decimal.
+     */
+    static class ScaledAmountSerializer extends JsonSerializer<BigDecimal> {
+        @Override
+        public void serialize(BigDecimal value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            try {
+                gen.writeNumber(value.movePointRight(AMOUNT_SCALE).longValueExact());
+            } catch (ArithmeticException e) {
+                // finer than the scale or out of long range
+                gen.writeNumber(value);
+            }
+        }
+    }
+
+    /**
+     * Reads an integer as a scaled amount and any other number as a plain decimal.
+     */
+    static class ScaledAmountDeserializer extends JsonDeserializer<BigDecimal> {
+        @Override
+        public BigDecimal deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return p.getNumberType() == JsonParser.NumberType.BIG_INTEGER
+                        ? new BigDecimal(p.getBigIntegerValue(), AMOUNT_SCALE)
+                        : BigDecimal.valueOf(p.getLongValue(), AMOUNT_SCALE);
+            }
+            return p.getDecimalValue();
+        }
+    }
+}
@@ -1,17 +1,110 @@
 package com.hsbc.transactionmanagement.config;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.hsbc.transactionmanagement.cache.CacheEntryWeigher;
+import com.hsbc.transactionmanagement.cache.NegativeCachingCaffeineCache;
+import com.hsbc.transactionmanagement.cache.PageLimitedCaffeineCache;
+import com.hsbc.transactionmanagement.cache.TransactionCacheEvictor;
+import com.hsbc.transactionmanagement.cache.TransactionCacheLoader;
+import com.hsbc.transactionmanagement.jfr.CacheEvictionEvent;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.function.BiConsumer;
+
 @Configuration
+@EnableConfigurationProperties(TransactionCacheProperties.class)
 public class CacheConfig {
 
     @Bean
-    public CaffeineCacheManager cacheManager() {
-        CaffeineCacheManager manager = new CaffeineCacheManager("transactions", "transaction");
-        manager.setCacheSpecification("maximumSize=1000,expireAfterWrite=30m");
+    public CaffeineCacheManager cacheManager(TransactionCacheProperties properties,
+                                             ObjectProvider<TransactionService> transactionService,
+                                             MeterRegistry meterRegistry) {
+        TransactionCacheLoader loader = new TransactionCacheLoader(transactionService);
+        com.github.benmanes.caffeine.cache.Cache<Object, Boolean> misses =
+                caffeine(TransactionCacheEvictor.TRANSACTION_CACHE + ".misses", properties.getNegative()).build();
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> stale =
+                caffeine(TransactionCacheEvictor.TRANSACTION_CACHE + ".stale", properties.getStale()).build();
+
+        // stored as async caches so reads can join a load without blocking, see AsyncCaffeineCache
+        AsyncLoadingCache<Object, Object> transaction =
+                caffeine(TransactionCacheEvictor.TRANSACTION_CACHE, properties.getTransaction(), stale::put)
+                        .buildAsync(loader);
+        AsyncLoadingCache<Object, Object> transactions =
+                caffeine(TransactionCacheEvictor.TRANSACTIONS_CACHE, properties.getTransactions()).buildAsync(loader);
+
+        CaffeineCacheManager manager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                if (TransactionCacheEvictor.TRANSACTION_CACHE.equals(name)) {
+                    return new NegativeCachingCaffeineCache(name, transaction, misses, stale);
+                }
+                if (TransactionCacheEvictor.TRANSACTIONS_CACHE.equals(name)) {
+                    return new PageLimitedCaffeineCache(name, transactions, properties.getMaxCacheablePageSize());
+                }
+                return super.adaptCaffeineCache(name, cache);
+            }
+        };
+        manager.registerCustomCache(TransactionCacheEvictor.TRANSACTION_CACHE, transaction.synchronous());
+        manager.registerCustomCache(TransactionCacheEvictor.TRANSACTIONS_CACHE, transactions.synchronous());
+        registerMemoryGauges(meterRegistry, TransactionCacheEvictor.TRANSACTION_CACHE, transaction.synchronous());
+        registerMemoryGauges(meterRegistry, TransactionCacheEvictor.TRANSACTIONS_CACHE, transactions.synchronous());
         return manager;
     }
 
+    private static Caffeine<Object, Object> caffeine(String name, TransactionCacheProperties.Spec spec) {
+        return caffeine(name, spec, (key, value) -> {
+        });
+    }
+
+    // evicted receives the entries leaving the cache for size or expiry
+    private static Caffeine<Object, Object> caffeine(String name, TransactionCacheProperties.Spec spec,
+                                                     BiConsumer<Object, Object> evicted) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfterWrite(spec.getExpireAfterWrite())
+                // size and expiry evictions only, explicit ones are recorded by the caches
+                .evictionListener((key, value, cause) -> {
+                    CacheEvictionEvent.record(name, key, cause.name(), 1);
+                    if (key != null && value != null) {
+                        evicted.accept(key, value);
+                    }
+                })
+                .recordStats();
+        if (spec.getMaximumMemory() != null) {
+            builder.maximumWeight(spec.getMaximumMemory().toBytes()).weigher(CacheEntryWeigher.INSTANCE);
+        } else {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (spec.getRefreshAfterWrite() != null) {
+            builder.refreshAfterWrite(spec.getRefreshAfterWrite());
+        }
+        return builder;
+    }
+
+    // estimated bytes held against the budget, for caches bounded by memory
+    private static void registerMemoryGauges(MeterRegistry meterRegistry, String name,
+                                             com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        cache.policy().eviction().filter(Policy.Eviction::isWeighted).ifPresent(eviction -> {
+            Gauge.builder("transaction.cache.memory", eviction, e -> e.weightedSize().orElse(0))
+                    .description("Estimated bytes retained by the cache entries")
+                    .baseUnit("bytes")
+                    .tag("cache", name)
+                    .register(meterRegistry);
+            Gauge.builder("transaction.cache.memory.max", eviction, Policy.Eviction::getMaximum)
+                    .description("Memory budget of the cache")
+                    .baseUnit("bytes")
+                    .tag("cache", name)
+                    .register(meterRegistry);
+        });
+    }
+
 }
@@ -0,0 +1,26 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.changes")
+public class ChangeFeedProperties {
+
+    /** Upper bound of changes returned by one call, whatever limit the client asks for. */
+    private int maxBatchSize = 1000;
+
+    /** Tombstones older than this are compacted; tokens older than this are rejected. */
+    private Duration tombstoneRetention = Duration.ofDays(30);
+
+    /**
+     * Registered writes older than this are taken for writes of a stopped instance: the feed no
+     * longer waits for them and compaction drops them. Keep it above the longest write transaction.
+     */
+    private Duration maxWriteDuration = Duration.ofMinutes(30);
+
+    /** Delay between tombstone compaction runs, ISO-8601 (e.g. {@code PT1H}). */
+    private Duration compactionInterval = Duration.ofHours(1);
+}
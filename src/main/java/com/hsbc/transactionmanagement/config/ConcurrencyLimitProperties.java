@@ -0,0 +1,54 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Limits applied to GET/HEAD requests. */
+    private Pool read = new Pool(50, 10, 400);
+
+    /**
+     * Limits applied to all other methods. The maximum is the write bulkhead's
+     * {@code transaction.resilience.write.max-concurrent-calls}, more writes would only queue there.
+     */
+    private Pool write = new Pool(20, 4, 20);
+
+    /** Request header identifying low priority (batch) clients. */
+    private String priorityHeader = "X-Client-Priority";
+
+    /** Header value marking a request as batch traffic. */
+    private String batchPriority = "batch";
+
+    /** Fraction of the current limit that batch clients may occupy. */
+    private double batchShare = 0.5;
+
+    /** Value of the Retry-After header sent with 503 responses, in seconds. */
+    private int retryAfterSeconds = 1;
+
+    /** How much latency growth over the no-load latency is tolerated before shrinking. */
+    private double tolerance = 2.0;
+
+    /** Weight of each new limit estimate, between 0 and 1. */
+    private double smoothing = 0.2;
+
+    @Data
+    public static class Pool {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+
+        public Pool() {
+        }
+
+        public Pool(int initialLimit, int minLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.hsbc.transactionmanagement.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CountProperties.class)
+public class CountConfig {
+}
@@ -0,0 +1,17 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.counts")
+public class CountProperties {
+
+    /** Answer list totals from per-partition counters instead of a COUNT query. */
+    private boolean enabled = true;
+
+    /** Delay between full recounts that correct drift from writes outside the service, ISO-8601. */
+    private Duration reconcileInterval = Duration.ofMinutes(10);
+}
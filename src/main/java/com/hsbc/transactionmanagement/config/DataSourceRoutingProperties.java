@@ -0,0 +1,26 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    /** Route read-only transactions to {@code transaction.datasource.replica}. */
+    private boolean enabled = false;
+
+    /**
+     * How long a client's reads stay on the primary after it wrote, and shared cache loads after
+     * any write. Should exceed the replication lag.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /** Upper bound of clients tracked for read-your-writes. */
+    private long maximumTrackedClients = 100_000;
+
+    /** Request header identifying a client; the remote address is used when absent. */
+    private String clientIdHeader = "X-Client-Id";
+}
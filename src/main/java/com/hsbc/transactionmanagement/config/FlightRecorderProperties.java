@@ -0,0 +1,40 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DataSizeUnit;
+import org.springframework.util.unit.DataSize;
+import org.springframework.util.unit.DataUnit;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.jfr")
+public class FlightRecorderProperties {
+
+    /**
+     * Expose {@code /actuator/jfr}. Off by default: anyone reaching the actuator could start a
+     * recording and download the heap and allocation details it captures.
+     */
+    private boolean endpointEnabled = false;
+
+    /**
+     * JFR settings recordings start with: a JDK configuration name or the path of a .jfc file.
+     * The JDK's "default" settings cost about 1% and sample allocations and contended locks.
+     */
+    private String settings = "default";
+
+    /** Recording length when a start request gives none. */
+    private Duration defaultDuration = Duration.ofMinutes(5);
+
+    /** Longest recording a start request can ask for; longer requests are cut to it. */
+    private Duration maxDuration = Duration.ofMinutes(30);
+
+    /** Disk space a recording may use; the oldest data is dropped beyond it. */
+    @DataSizeUnit(DataUnit.MEGABYTES)
+    private DataSize maxSize = DataSize.ofMegabytes(250);
+
+    /** Directory recordings are copied to when they are downloaded. */
+    private Path directory = Path.of("recordings");
+}
@@ -0,0 +1,26 @@
+package com.hsbc.transactionmanagement.config;
+
+import com.hsbc.transactionmanagement.hibernate.QueryTimingStatistics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(HibernateStatisticsProperties.class)
+public class HibernateStatisticsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatisticsCustomizer(HibernateStatisticsProperties properties,
+                                                                       MeterRegistry meterRegistry) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, properties.isStatistics());
+            hibernateProperties.put(AvailableSettings.LOG_SLOW_QUERY, properties.getSlowQueryThreshold().toMillis());
+            hibernateProperties.put("hibernate.stats.factory", (StatisticsFactory) sessionFactory ->
+                    new QueryTimingStatistics(sessionFactory, meterRegistry, properties.getMaxTimedQueries()));
+        };
+    }
+}
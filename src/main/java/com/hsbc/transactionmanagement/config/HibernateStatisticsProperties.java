@@ -0,0 +1,29 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.hibernate")
+public class HibernateStatisticsProperties {
+
+    /** Collects Hibernate statistics, shown at {@code /actuator/hibernate}. */
+    private boolean statistics = true;
+
+    /**
+     * Accepts {@code DELETE /actuator/hibernate}. Off by default: the actuator is reachable
+     * without authentication, and a reset loses the counters for everyone.
+     */
+    private boolean resetEnabled = false;
+
+    /**
+     * Statements taking at least this long are logged with their SQL to
+     * {@code org.hibernate.SQL_SLOW}; zero turns the log off.
+     */
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+
+    /** Distinct queries timed individually; later ones share the {@code other} timer. */
+    private int maxTimedQueries = 200;
+}
@@ -0,0 +1,33 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DataSizeUnit;
+import org.springframework.util.unit.DataSize;
+import org.springframework.util.unit.DataUnit;
+
+import java.nio.file.Path;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.import")
+public class ImportProperties {
+
+    /** Directory uploads are stored in; server-local files can only be imported from inside it. */
+    private Path directory = Path.of("imports");
+
+    /** Rows inserted per database transaction, which is also the granularity of a restart. */
+    private int batchSize = 1000;
+
+    /** Threads validating the rows of a batch; defaults to the number of processors. */
+    private int validationThreads = Runtime.getRuntime().availableProcessors();
+
+    /** Jobs running at the same time; further jobs wait for a free slot. */
+    private int maxConcurrentJobs = 2;
+
+    /** Length of the file regions mapped at once; a single row must fit in one. */
+    @DataSizeUnit(DataUnit.MEGABYTES)
+    private DataSize readWindow = DataSize.ofMegabytes(64);
+
+    /** Rejected rows recorded per job with their line and reason; later ones are only counted. */
+    private int maxRecordedErrors = 1000;
+}
@@ -0,0 +1,15 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.read-executor")
+public class ReadExecutorProperties {
+
+    /** Threads running the queries of cache misses; more than the connection pool only adds waiting. */
+    private int threads = 10;
+
+    /** Misses waiting for a thread before further ones are answered with 503. */
+    private int queueCapacity = 500;
+}
@@ -0,0 +1,20 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.read-model")
+public class ReadModelProperties {
+
+    /** Keep every hot transaction in memory and answer list requests from it instead of SQL. */
+    private boolean enabled = false;
+
+    /** Rows read per query while the model is rebuilt from the table. */
+    private int rebuildBatchSize = 5000;
+
+    /** Delay between full rebuilds that correct drift from writes outside the service, ISO-8601. */
+    private Duration rebuildInterval = Duration.ofHours(6);
+}
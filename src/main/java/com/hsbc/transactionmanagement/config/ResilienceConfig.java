@@ -0,0 +1,56 @@
+package com.hsbc.transactionmanagement.config;
+
+import com.hsbc.transactionmanagement.resilience.Bulkhead;
+import com.hsbc.transactionmanagement.resilience.CircuitBreaker;
+import com.hsbc.transactionmanagement.resilience.RepositoryGuardAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+@ConditionalOnProperty(prefix = "transaction.resilience", name = "enabled", matchIfMissing = true)
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreaker databaseCircuitBreaker(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        return circuitBreaker("database", properties.getCircuitBreaker(), meterRegistry);
+    }
+
+    @Bean
+    public RepositoryGuardAspect repositoryGuardAspect(ResilienceProperties properties, CircuitBreaker databaseCircuitBreaker,
+                                                       PlatformTransactionManager transactionManager,
+                                                       MeterRegistry meterRegistry) {
+        // not a bean of its own, so the database circuit stays the only one to inject
+        CircuitBreaker bulkCircuitBreaker = circuitBreaker("bulk", properties.getCircuitBreaker(), meterRegistry);
+        return new RepositoryGuardAspect(databaseCircuitBreaker,
+                bulkhead("read", properties.getRead(), meterRegistry), properties.getRead().getTimeout(),
+                bulkhead("write", properties.getWrite(), meterRegistry), properties.getWrite().getTimeout(),
+                bulkCircuitBreaker, bulkhead("bulk", properties.getBulk(), meterRegistry), properties.getBulk().getTimeout(),
+                transactionManager, meterRegistry);
+    }
+
+    private static CircuitBreaker circuitBreaker(String name, ResilienceProperties.CircuitBreaker spec,
+                                                 MeterRegistry meterRegistry) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(name, spec.getWindowSize(), spec.getMinimumCalls(),
+                spec.getFailureRateThreshold(), spec.getOpenDuration(), spec.getHalfOpenCalls());
+        Gauge.builder("transaction.resilience.circuit.state", circuitBreaker, c -> c.getState().ordinal())
+                .description("State of a database circuit: 0 closed, 1 open, 2 half-open")
+                .tag("circuit", name)
+                .register(meterRegistry);
+        return circuitBreaker;
+    }
+
+    private static Bulkhead bulkhead(String kind, ResilienceProperties.Pool pool, MeterRegistry meterRegistry) {
+        Bulkhead bulkhead = new Bulkhead(kind, pool.getMaxConcurrentCalls(), pool.getMaxWait());
+        Gauge.builder("transaction.resilience.active", bulkhead, Bulkhead::getActiveCalls)
+                .description("Calls holding a slot of the bulkhead")
+                .tag("kind", kind)
+                .register(meterRegistry);
+        return bulkhead;
+    }
+}
@@ -0,0 +1,63 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.resilience")
+public class ResilienceProperties {
+
+    private boolean enabled = true;
+
+    /** Read-only transactions of the transaction service. */
+    private Pool read = new Pool(6, Duration.ofSeconds(1), Duration.ofSeconds(2));
+
+    /**
+     * Writing transactions of the transaction service. As many calls as
+     * {@code transaction.concurrency-limit.write.max-limit} lets writing requests in.
+     */
+    private Pool write = new Pool(20, Duration.ofSeconds(1), Duration.ofSeconds(5));
+
+    /**
+     * Bulk writes, see {@link com.hsbc.transactionmanagement.resilience.BulkOperation}. They
+     * have a circuit breaker of their own, with the settings of {@link #circuitBreaker}.
+     */
+    private Pool bulk = new Pool(2, Duration.ofSeconds(1), Duration.ofMinutes(5));
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @Data
+    public static class Pool {
+        /** Calls allowed to use the database at once; keep the sum of all pools within the connection pool. */
+        private int maxConcurrentCalls;
+        /** How long a call waits for a free slot before it is refused. */
+        private Duration maxWait;
+        /** Transaction timeout; slower calls also count as failures of the circuit. */
+        private Duration timeout;
+
+        public Pool() {
+        }
+
+        public Pool(int maxConcurrentCalls, Duration maxWait, Duration timeout) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            this.maxWait = maxWait;
+            this.timeout = timeout;
+        }
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        /** Number of most recent calls the failure rate is computed over. */
+        private int windowSize = 20;
+        /** Calls needed in the window before the circuit can open. */
+        private int minimumCalls = 10;
+        /** Failed share of the window, in percent, that opens the circuit. */
+        private double failureRateThreshold = 50;
+        /** How long the circuit stays open before trial calls are let through. */
+        private Duration openDuration = Duration.ofSeconds(10);
+        /** Trial calls that must all succeed to close the circuit again. */
+        private int halfOpenCalls = 3;
+    }
+}
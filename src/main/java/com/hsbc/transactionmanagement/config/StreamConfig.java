@@ -0,0 +1,16 @@
+package com.hsbc.transactionmanagement.config;
+
+import com.hsbc.transactionmanagement.stream.TransactionEventBuffer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(StreamProperties.class)
+public class StreamConfig {
+
+    @Bean
+    public TransactionEventBuffer transactionEventBuffer(StreamProperties properties) {
+        return new TransactionEventBuffer(properties.getBufferCapacity());
+    }
+}
@@ -0,0 +1,32 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.stream")
+public class StreamProperties {
+
+    /** Events kept for resuming with Last-Event-ID; a power of two. */
+    private int bufferCapacity = 65536;
+
+    /** Subscribers further behind than this many events are disconnected. */
+    private int maxLag = 10000;
+
+    /** Concurrent subscribers accepted before new ones get 503. */
+    private int maxSubscribers = 10000;
+
+    /** Threads writing events to subscribers, shared by all connections. */
+    private int dispatchThreads = 4;
+
+    /** Subscribers with a single event write blocked for longer than this are disconnected. */
+    private Duration writeTimeout = Duration.ofSeconds(10);
+
+    /** Comment sent to idle subscribers to keep connections open and detect dead ones. */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /** Lifetime of one connection; clients reconnect with Last-Event-ID. */
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,80 @@
+package com.hsbc.transactionmanagement.config;
+
+import com.hsbc.transactionmanagement.filter.TracingFilter;
+import com.hsbc.transactionmanagement.tracing.OtlpJsonFileExporter;
+import com.hsbc.transactionmanagement.tracing.Tracer;
+import com.hsbc.transactionmanagement.tracing.TracingAspect;
+import com.hsbc.transactionmanagement.tracing.TracingCacheResolver;
+import com.hsbc.transactionmanagement.tracing.TracingHttpMessageConverter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Request tracing. The beans exist even with tracing disabled or a zero sample rate; every
+ * instrumentation point then reduces to one thread-local read.
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig implements CachingConfigurer, WebMvcConfigurer {
+
+    private final ObjectProvider<Tracer> tracer;
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    // providers, as caching configurers are created with the caching infrastructure
+    public TracingConfig(ObjectProvider<Tracer> tracer, ObjectProvider<CacheManager> cacheManager) {
+        this.tracer = tracer;
+        this.cacheManager = cacheManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public OtlpJsonFileExporter otlpJsonFileExporter(TracingProperties properties, MeterRegistry meterRegistry) {
+        return new OtlpJsonFileExporter(properties, meterRegistry);
+    }
+
+    @Bean
+    public Tracer tracer(TracingProperties properties, OtlpJsonFileExporter exporter) {
+        return new Tracer(properties, exporter);
+    }
+
+    @Bean
+    public TracingAspect tracingAspect(Tracer tracer) {
+        return new TracingAspect(tracer);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.addUrlPatterns("/api/*");
+        // ahead of the concurrency limit so shed requests are traced too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    @Override
+    public CacheResolver cacheResolver() {
+        return new TracingCacheResolver(cacheManager.getObject(), tracer.getObject());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof AbstractJackson2HttpMessageConverter jackson) {
+                converters.set(i, new TracingHttpMessageConverter(jackson, tracer.getObject()));
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.tracing")
+public class TracingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Fraction of requests traced, between 0 and 1. Requests arriving with a sampled W3C
+     * traceparent header are traced whatever the rate.
+     */
+    private double sampleRate = 0.0;
+
+    /** OTLP-JSON file the spans are appended to, one export request per line. */
+    private String file = "logs/traces.jsonl";
+
+    /** Size at which the file is rolled over to {@code <file>.1}. */
+    private DataSize maxFileSize = DataSize.ofMegabytes(10);
+
+    /** Rolled files kept next to the current one. */
+    private int maxHistory = 5;
+
+    /** Finished spans waiting to be written; spans beyond it are dropped and counted. */
+    private int queueCapacity = 8192;
+
+    /** Value of the {@code service.name} resource attribute. */
+    private String serviceName = "transaction-management";
+}
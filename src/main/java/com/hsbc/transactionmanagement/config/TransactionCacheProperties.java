@@ -0,0 +1,59 @@
+package com.hsbc.transactionmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DataSizeUnit;
+import org.springframework.util.unit.DataSize;
+import org.springframework.util.unit.DataUnit;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "transaction.cache")
+public class TransactionCacheProperties {
+
+    /** Single transactions, keyed by id and by reference. */
+    private Spec transaction = new Spec(DataSize.ofMegabytes(32), Duration.ofMinutes(30), Duration.ofMinutes(5));
+
+    /** Pages of the list endpoint. */
+    private Spec transactions = new Spec(DataSize.ofMegabytes(64), Duration.ofMinutes(30), Duration.ofMinutes(1));
+
+    /** Pages with more rows than this are never cached in {@link #transactions}. */
+    private int maxCacheablePageSize = 1000;
+
+    /** Ids and references that were not found, kept apart from {@link #transaction}. */
+    private Spec negative = new Spec(10000, Duration.ofSeconds(30), null);
+
+    /**
+     * Entries of {@link #transaction} kept after they expire or are evicted for size, served
+     * only while the database is unavailable.
+     */
+    private Spec stale = new Spec(DataSize.ofMegabytes(32), Duration.ofHours(6), null);
+
+    @Data
+    public static class Spec {
+        /** Entry count bound, used only when {@link #maximumMemory} is not set. */
+        private long maximumSize;
+        /** Estimated bytes the entries may retain; plain numbers are megabytes. */
+        @DataSizeUnit(DataUnit.MEGABYTES)
+        private DataSize maximumMemory;
+        private Duration expireAfterWrite;
+        /** Age after which a read triggers an asynchronous reload while the old value is still served. */
+        private Duration refreshAfterWrite;
+
+        public Spec() {
+        }
+
+        public Spec(long maximumSize, Duration expireAfterWrite, Duration refreshAfterWrite) {
+            this.maximumSize = maximumSize;
+            this.expireAfterWrite = expireAfterWrite;
+            this.refreshAfterWrite = refreshAfterWrite;
+        }
+
+        public Spec(DataSize maximumMemory, Duration expireAfterWrite, Duration refreshAfterWrite) {
+            this.maximumMemory = maximumMemory;
+            this.expireAfterWrite = expireAfterWrite;
+            this.refreshAfterWrite = refreshAfterWrite;
+        }
+    }
+}
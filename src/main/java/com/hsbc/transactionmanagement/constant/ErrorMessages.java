@@ -5,4 +5,20 @@ public class ErrorMessages {
     public static final String TRANSACTION_NOT_FOUND = "Transaction not found with input parameter: ";
     public static final String DUPLICATE_TRANSACTION = "Transaction with reference already exists";
     public static final String INVALID_INPUT_DATA = "Invalid input data";
+    public static final String BULK_DELETE_FILTER_REQUIRED = "At least one of category, type, from or to is required";
+    public static final String SERVICE_OVERLOADED = "Service is overloaded, retry later";
+    public static final String DATABASE_UNAVAILABLE = "Database is unavailable, retry later";
+    public static final String STALE_RESPONSE = "Success, served from a stale copy while the database is unavailable";
+    public static final String INVALID_CHANGE_TOKEN = "Invalid change token: ";
+    public static final String CHANGE_TOKEN_EXPIRED = "Change token has expired, resync all transactions and start over without a token";
+    public static final String TOO_MANY_KEYS = "At most 1000 ids and references can be fetched per request";
+    public static final String INVALID_FIELDS = "Unknown transaction field in: ";
+    public static final String ACCOUNT_NOT_FOUND = "No transactions posted to account: ";
+    public static final String INSUFFICIENT_FUNDS = "Insufficient funds in account: ";
+    public static final String POSTED_TRANSACTION_CHANGE = "Amount and type of a transaction posted to an account cannot be changed, id: ";
+    public static final String ARCHIVED_TRANSACTION_CHANGE = "Archived transactions are read-only and cannot be updated or deleted: ";
+    public static final String IMPORT_JOB_NOT_FOUND = "Import job not found: ";
+    public static final String INVALID_IMPORT_FILE = "Invalid import file: ";
+    public static final String IMPORT_JOB_CONFLICT = "Import job cannot be changed in its current state: ";
+    public static final String VERSION_MISMATCH = "Transaction has been modified, If-Match does not match current version of: ";
 }
@@ -0,0 +1,59 @@
+package com.hsbc.transactionmanagement.constant;
+
+/**
+ * Allowed values of a transaction's {@code type}. The API uses the constant name; the tables
+ * store the {@linkplain #getCode() code}, numbered in the names' alphabetical order so sorting
+ * by type is the same either way.
+ */
+public enum TransactionType {
+    DEBIT(2),
+    CREDIT(1);
+
+    private static final TransactionType[] VALUES = values();
+
+    private final short code;
+
+    TransactionType(int code) {
+        this.code = (short) code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    /** Exact, case-sensitive match against the constant names, without allocating. */
+    public static boolean isValid(String name) {
+        if (name == null) {
+            return false;
+        }
+        for (TransactionType type : VALUES) {
+            if (type.name().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Case-insensitive match against the constant names, like the list filter, or {@code null}. */
+    public static TransactionType fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (TransactionType type : VALUES) {
+            if (type.name().equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /** The constant stored as {@code code}, or {@code null} if there is none. */
+    public static TransactionType fromCode(short code) {
+        for (TransactionType type : VALUES) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.hsbc.transactionmanagement.controller;
+
+import com.hsbc.transactionmanagement.account.AccountBalance;
+import com.hsbc.transactionmanagement.account.AccountBalances;
+import com.hsbc.transactionmanagement.constant.ErrorMessages;
+import com.hsbc.transactionmanagement.response.CommonResponse;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/accounts")
+@Tag(name = "Accounts", description = "Balances of the accounts transactions are posted to")
+public class AccountController {
+
+    private static final Logger logger = LoggerUtil.getLogger(AccountController.class);
+
+    private final AccountBalances accountBalances;
+
+    @Autowired
+    public AccountController(AccountBalances accountBalances) {
+        this.accountBalances = accountBalances;
+    }
+
+    @GetMapping("/{accountId}/balance")
+    @Operation(summary = "Get account balance",
+            description = "Returns the committed balance of an account from memory, credits minus debits over its hot and archived transactions")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Balance found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No transactions posted to the account")
+    })
+    public ResponseEntity<CommonResponse<AccountBalance>> getBalance(
+            @Parameter(description = "Account id", example = "ACC-1001")
+            @PathVariable String accountId) {
+        long startTime = System.currentTimeMillis();
+        ResponseEntity<CommonResponse<AccountBalance>> responseEntity = accountBalances.getBalance(accountId)
+                .map(balance -> ResponseEntity.ok(CommonResponse.success(balance, ErrorMessages.SUCCESS)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(CommonResponse.notFound(ErrorMessages.ACCOUNT_NOT_FOUND + accountId)));
+        logger.info("Get balance of account: {}, response: {}, time cost: {}",
+                accountId, responseEntity, System.currentTimeMillis() - startTime);
+        return responseEntity;
+    }
+}
@@ -0,0 +1,212 @@
+package com.hsbc.transactionmanagement.controller;
+
+import com.hsbc.transactionmanagement.constant.ErrorMessages;
+import com.hsbc.transactionmanagement.entity.ImportJob;
+import com.hsbc.transactionmanagement.entity.ImportJobError;
+import com.hsbc.transactionmanagement.importjob.TransactionImporter;
+import com.hsbc.transactionmanagement.request.LocalImportRequest;
+import com.hsbc.transactionmanagement.response.CommonResponse;
+import com.hsbc.transactionmanagement.response.PagedResponse;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/api/v1/imports")
+@Tag(name = "Imports", description = "Bulk imports of transactions from CSV files")
+public class ImportController {
+
+    private static final Logger logger = LoggerUtil.getLogger(ImportController.class);
+
+    private final TransactionImporter transactionImporter;
+
+    @Autowired
+    public ImportController(TransactionImporter transactionImporter) {
+        this.transactionImporter = transactionImporter;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import an uploaded CSV file",
+            description = "Stores the file and starts importing it in the background. The header names the columns: "
+                    + "description, amount, type, category and transactionReference, optionally accountId and transactionDate")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Import job queued"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Empty file or missing columns")
+    })
+    public ResponseEntity<CommonResponse<ImportJob>> importUpload(
+            @Parameter(description = "CSV file with a header row")
+            @RequestParam("file") MultipartFile file) throws IOException {
+        long startTime = System.currentTimeMillis();
+        ResponseEntity<CommonResponse<ImportJob>> responseEntity;
+        try {
+            responseEntity = accepted(transactionImporter.importUpload(file));
+        } catch (IllegalArgumentException e) {
+            responseEntity = ResponseEntity.badRequest()
+                    .body(CommonResponse.badRequest(ErrorMessages.INVALID_IMPORT_FILE + e.getMessage()));
+        }
+        logger.info("Import upload: {}, size: {}, response: {}, time cost: {}",
+                file.getOriginalFilename(), file.getSize(), responseEntity, System.currentTimeMillis() - startTime);
+        return responseEntity;
+    }
+
+    @PostMapping("/local")
+    @Operation(summary = "Import a CSV file on the server",
+            description = "Starts importing a file from the import directory in the background, without uploading it")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Import job queued"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Path outside the import directory, no such file, or missing columns")
+    })
+    public ResponseEntity<CommonResponse<ImportJob>> importLocal(@Valid @RequestBody LocalImportRequest request)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+        ResponseEntity<CommonResponse<ImportJob>> responseEntity;
+        try {
+            responseEntity = accepted(transactionImporter.importLocal(request.path()));
+        } catch (IllegalArgumentException e) {
+            responseEntity = ResponseEntity.badRequest()
+                    .body(CommonResponse.badRequest(ErrorMessages.INVALID_IMPORT_FILE + e.getMessage()));
+        }
+        logger.info("Import local file: {}, response: {}, time cost: {}",
+                request.path(), responseEntity, System.currentTimeMillis() - startTime);
+        return responseEntity;
+    }
+
+    @GetMapping
+    @Operation(summary = "List import jobs", description = "Returns import jobs, newest first")
+    public ResponseEntity<CommonResponse<PagedResponse<ImportJob>>> getJobs(
+            @Parameter(description = "Page number (0-based)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+
+            @Parameter(description = "Number of items per page", example = "10")
+            @RequestParam(defaultValue = "10") int size) {
+        long startTime = System.currentTimeMillis();
+        ResponseEntity<CommonResponse<PagedResponse<ImportJob>>> responseEntity = ResponseEntity.ok(CommonResponse.success(
+                PagedResponse.fromPage(transactionImporter.getJobs(PageRequest.of(page, size))), ErrorMessages.SUCCESS));
+        logger.info("Get import jobs - page: {}, size: {}, time cost: {}", page, size, System.currentTimeMillis() - startTime);
+        return responseEntity;
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get import job", description = "Returns a job's status, row counts, progress and throughput")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Import job found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Import job not found")
+    })
+    public ResponseEntity<CommonResponse<ImportJob>> getJob(
+            @Parameter(description = "Import job id")
+            @PathVariable String id) {
+        long startTime = System.currentTimeMillis();
+        ResponseEntity<CommonResponse<ImportJob>> responseEntity = found(id, transactionImporter.getJob(id), ResponseEntity::ok);
+        logger.info("Get import job: {}, response: {}, time cost: {}", id, responseEntity, System.currentTimeMillis() - startTime);
+        return responseEntity;
+    }
+
+    @GetMapping("/{id}/errors")
+    @Operation(summary = "Get import job errors",
+            description = "Returns the rows a job rejected or skipped as duplicates, by line, up to the recorded maximum")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Errors returned"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Import job not found")
+    })
+    public ResponseEntity<CommonResponse<PagedResponse<ImportJobError>>> getErrors(
+            @Parameter(description = "Import job id")
+            @PathVariable String id,
+
+            @Parameter(description = "Page number (0-based)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+
+            @Parameter(description = "Number of items per page", example = "100")
+            @RequestParam(defaultValue = "100") int size) {
+        long startTime = System.currentTimeMillis();
+        ResponseEntity<CommonResponse<PagedResponse<ImportJobError>>> responseEntity;
+        if (transactionImporter.getJob(id).isEmpty()) {
+            responseEntity = ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(CommonResponse.notFound(ErrorMessages.IMPORT_JOB_NOT_FOUND + id));
+        } else {
+            responseEntity = ResponseEntity.ok(CommonResponse.success(
+                    PagedResponse.fromPage(transactionImporter.getErrors(id, PageRequest.of(page, size))), ErrorMessages.SUCCESS));
+        }
+        logger.info("Get import job errors: {}, page: {}, size: {}, time cost: {}",
+                id, page, size, System.currentTimeMillis() - startTime);
+        return responseEntity;
+    }
+
+    @PostMapping("/{id}/resume")
+    @Operation(summary = "Resume import job",
+            description = "Queues a failed, interrupted or cancelled job again; it continues after the last committed row")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Import job queued"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Import job not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Import job is queued, running or completed")
+    })
+    public ResponseEntity<CommonResponse<ImportJob>> resume(
+            @Parameter(description = "Import job id")
+            @PathVariable String id) {
+        long startTime = System.currentTimeMillis();
+        ResponseEntity<CommonResponse<ImportJob>> responseEntity;
+        try {
+            responseEntity = found(id, transactionImporter.resume(id), body -> ResponseEntity.status(HttpStatus.ACCEPTED).body(body));
+        } catch (IllegalStateException e) {
+            responseEntity = ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(CommonResponse.conflict(ErrorMessages.IMPORT_JOB_CONFLICT + id));
+        }
+        logger.info("Resume import job: {}, response: {}, time cost: {}", id, responseEntity, System.currentTimeMillis() - startTime);
+        return responseEntity;
+    }
+
+    @PostMapping("/{id}/cancel")
+    @Operation(summary = "Cancel import job",
+            description = "Stops a job once its current batch commits; rows already committed stay imported")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Cancellation requested"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Import job not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Import job has completed")
+    })
+    public ResponseEntity<CommonResponse<ImportJob>> cancel(
+            @Parameter(description = "Import job id")
+            @PathVariable String id) {
+        long startTime = System.currentTimeMillis();
+        ResponseEntity<CommonResponse<ImportJob>> responseEntity;
+        try {
+            responseEntity = found(id, transactionImporter.cancel(id), ResponseEntity::ok);
+        } catch (IllegalStateException e) {
+            responseEntity = ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(CommonResponse.conflict(ErrorMessages.IMPORT_JOB_CONFLICT + id));
+        }
+        logger.info("Cancel import job: {}, response: {}, time cost: {}", id, responseEntity, System.currentTimeMillis() - startTime);
+        return responseEntity;
+    }
+
+    private ResponseEntity<CommonResponse<ImportJob>> accepted(ImportJob job) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(CommonResponse.success(job, "Import job queued"));
+    }
+
+    private static ResponseEntity<CommonResponse<ImportJob>> found(
+            String id, Optional<ImportJob> job,
+            Function<CommonResponse<ImportJob>, ResponseEntity<CommonResponse<ImportJob>>> status) {
+        return job.map(value -> status.apply(CommonResponse.success(value, ErrorMessages.SUCCESS)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(CommonResponse.notFound(ErrorMessages.IMPORT_JOB_NOT_FOUND + id)));
+    }
+}
@@ -1,12 +1,30 @@
 package com.hsbc.transactionmanagement.controller;
 
+import com.hsbc.transactionmanagement.cache.StaleTransaction;
 import com.hsbc.transactionmanagement.constant.ErrorMessages;
 import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.exception.ArchivedTransactionChangeException;
+import com.hsbc.transactionmanagement.exception.ChangeTokenExpiredException;
 import com.hsbc.transactionmanagement.exception.DuplicateTransactionException;
+import com.hsbc.transactionmanagement.exception.InsufficientFundsException;
+import com.hsbc.transactionmanagement.exception.PostedTransactionChangeException;
 import com.hsbc.transactionmanagement.exception.TransactionNotFoundException;
+import com.hsbc.transactionmanagement.exception.TransactionVersionMismatchException;
+import com.hsbc.transactionmanagement.mapper.TransactionMapper;
+import com.hsbc.transactionmanagement.repository.TransactionFields;
+import com.hsbc.transactionmanagement.request.BulkDeleteRequest;
+import com.hsbc.transactionmanagement.request.MultiGetRequest;
+import com.hsbc.transactionmanagement.request.TransactionPatchRequest;
+import com.hsbc.transactionmanagement.request.TransactionRequest;
+import com.hsbc.transactionmanagement.response.BulkDeleteResponse;
+import com.hsbc.transactionmanagement.response.ChangesResponse;
 import com.hsbc.transactionmanagement.response.CommonResponse;
+import com.hsbc.transactionmanagement.response.MultiGetResponse;
 import com.hsbc.transactionmanagement.response.PagedResponse;
+import com.hsbc.transactionmanagement.service.AsyncTransactionService;
 import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.stream.TransactionStreamHub;
+import com.hsbc.transactionmanagement.sync.TransactionChangeFeed;
 import com.hsbc.transactionmanagement.util.LoggerUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,14 +33,20 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.BeanUtils;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/transactions")
@@ -31,11 +55,21 @@ public class TransactionController {
 
     private static final Logger logger = LoggerUtil.getLogger(TransactionController.class);
 
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+    private static final String FIELDS_DESCRIPTION = "Comma-separated transaction fields to return, all fields when omitted";
+
     private final TransactionService transactionService;
+    private final AsyncTransactionService asyncTransactionService;
+    private final TransactionStreamHub transactionStreamHub;
+    private final TransactionChangeFeed transactionChangeFeed;
 
     @Autowired
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, AsyncTransactionService asyncTransactionService,
+                                 TransactionStreamHub transactionStreamHub, TransactionChangeFeed transactionChangeFeed) {
         this.transactionService = transactionService;
+        this.asyncTransactionService = asyncTransactionService;
+        this.transactionStreamHub = transactionStreamHub;
+        this.transactionChangeFeed = transactionChangeFeed;
     }
 
     @PostMapping
@@ -43,24 +77,19 @@ public class TransactionController {
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Transaction created successfully"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Transaction with reference already exists")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Transaction with reference already exists"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "422", description = "Debit exceeds the account's available funds")
     })
     public ResponseEntity<CommonResponse<Transaction>> createTransaction(
-            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "ID in request will be ignored; it is server-assigned")
-            @Valid @RequestBody Transaction transaction) {
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Id, dates and version are server-assigned")
+            @Valid @RequestBody TransactionRequest transactionRequest) {
 
         long startTime = System.currentTimeMillis();
         ResponseEntity<CommonResponse<Transaction>> responseEntity;
         Transaction createdTransaction = null;
 
-        // Ensure ID is always system-assigned and not taken from client payload
-        logger.warn("If ID is provided in create request, it will be ignored and system-assigned.");
-
-        Transaction inputTransaction  = new Transaction();
-        BeanUtils.copyProperties(transaction, inputTransaction, "id", "transactionDate");
-
         try {
-            createdTransaction = transactionService.createTransaction(inputTransaction);
+            createdTransaction = transactionService.createTransaction(TransactionMapper.toEntity(transactionRequest));
             responseEntity = new ResponseEntity<>(
                     CommonResponse.success(createdTransaction, "Transaction created successfully"),
                     HttpStatus.CREATED);
@@ -69,10 +98,14 @@ public class TransactionController {
                     CommonResponse.error(HttpStatus.CONFLICT.value(), ErrorMessages.DUPLICATE_TRANSACTION),
                     HttpStatus.CONFLICT
             );
+        } catch (InsufficientFundsException e) {
+            responseEntity = ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(CommonResponse.error(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                            ErrorMessages.INSUFFICIENT_FUNDS + transactionRequest.accountId()));
         }
 
         logger.info("Created transaction with request: {}, response{}, time cost: {}",
-                transaction, responseEntity, System.currentTimeMillis() - startTime);
+                transactionRequest, responseEntity, System.currentTimeMillis() - startTime);
 
         return responseEntity;
     }
@@ -80,45 +113,104 @@ public class TransactionController {
     @GetMapping("/{id}")
     @Operation(summary = "Get transaction by ID", description = "Returns a transaction by its ID")
     @ApiResponses(value = {
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transaction found"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Transaction not found")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transaction found, with a Warning header when served stale"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unknown field requested"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Transaction not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Database unavailable and no stale copy cached")
     })
-    public ResponseEntity<CommonResponse<Transaction>> getTransactionById(
+    public CompletableFuture<ResponseEntity<CommonResponse<Object>>> getTransactionById(
             @Parameter(description = "ID of the transaction to be retrieved", example = "1")
-            @PathVariable Long id) {
-        long startTime = System.currentTimeMillis();
-        Transaction transaction = transactionService.getTransactionById(id);
+            @PathVariable Long id,
 
-        ResponseEntity<CommonResponse<Transaction>> responseEntity = transaction != null ?
-                ResponseEntity.ok(CommonResponse.success(transaction, ErrorMessages.SUCCESS)) :
-                ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(CommonResponse.notFound(ErrorMessages.TRANSACTION_NOT_FOUND + id));
-        logger.info("Get transaction by id: {}, response: {}, time cost: {}", id, responseEntity, System.currentTimeMillis() - startTime);
-        return responseEntity;
+            @Parameter(description = FIELDS_DESCRIPTION, example = "id,amount")
+            @RequestParam(required = false) String fields) {
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<ResponseEntity<CommonResponse<Object>>> response;
+        try {
+            TransactionFields transactionFields = TransactionFields.parse(fields);
+            response = asyncTransactionService.getTransactionById(id).thenApply(transaction -> transaction != null ?
+                    okWithETag(transaction).body(CommonResponse.success(project(transaction, transactionFields), message(transaction))) :
+                    ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(CommonResponse.notFound(ErrorMessages.TRANSACTION_NOT_FOUND + id)));
+        } catch (IllegalArgumentException e) {
+            response = CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(CommonResponse.badRequest(ErrorMessages.INVALID_FIELDS + fields)));
+        }
+        return response.whenComplete((responseEntity, e) -> logger.info(
+                "Get transaction by id: {}, fields: {}, response: {}, time cost: {}",
+                id, fields, responseEntity, System.currentTimeMillis() - startTime));
     }
 
     @GetMapping("/reference/{reference}")
     @Operation(summary = "Get transaction by reference", description = "Returns a transaction by its reference number")
     @ApiResponses(value = {
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transaction found"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Transaction not found")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transaction found, with a Warning header when served stale"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unknown field requested"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Transaction not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Database unavailable and no stale copy cached")
     })
-    public ResponseEntity<CommonResponse<Transaction>> getTransactionByReference(
+    public CompletableFuture<ResponseEntity<CommonResponse<Object>>> getTransactionByReference(
             @Parameter(description = "Reference number of the transaction to be retrieved", example = "REF123456")
-            @PathVariable String reference) {
+            @PathVariable String reference,
+
+            @Parameter(description = FIELDS_DESCRIPTION, example = "id,amount")
+            @RequestParam(required = false) String fields) {
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<ResponseEntity<CommonResponse<Object>>> response;
+        try {
+            TransactionFields transactionFields = TransactionFields.parse(fields);
+            response = asyncTransactionService.getTransactionByReference(reference).thenApply(transaction -> transaction != null ?
+                    okWithETag(transaction).body(CommonResponse.success(project(transaction, transactionFields), message(transaction))) :
+                    ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(CommonResponse.notFound(ErrorMessages.TRANSACTION_NOT_FOUND + reference)));
+        } catch (IllegalArgumentException e) {
+            response = CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(CommonResponse.badRequest(ErrorMessages.INVALID_FIELDS + fields)));
+        }
+        return response.whenComplete((responseEntity, e) -> logger.info(
+                "Get transaction by reference: {}, fields: {}, response: {}, time cost: {}",
+                reference, fields, responseEntity, System.currentTimeMillis() - startTime));
+    }
+
+    @PostMapping("/multi-get")
+    @Operation(summary = "Get transactions by ids or references",
+            description = "Returns one result per requested id, then per requested reference, in request order; "
+                    + "keys without a transaction are marked not found")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lookups completed"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "No keys or too many keys supplied")
+    })
+    public ResponseEntity<CommonResponse<MultiGetResponse>> getTransactions(
+            @Valid @RequestBody MultiGetRequest multiGetRequest) {
+
         long startTime = System.currentTimeMillis();
-        Transaction transaction = transactionService.getTransactionByReference(reference);
-        ResponseEntity<CommonResponse<Transaction>> responseEntity = transaction != null ?
-                ResponseEntity.ok(CommonResponse.success(transaction, ErrorMessages.SUCCESS)) :
-                ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(CommonResponse.notFound(ErrorMessages.TRANSACTION_NOT_FOUND + reference));
-        logger.info("Get transaction by reference: {}, response: {}, time cost: {}", reference, responseEntity, System.currentTimeMillis() - startTime);
+        ResponseEntity<CommonResponse<MultiGetResponse>> responseEntity;
+        Integer notFound = null;
+        if (multiGetRequest.isEmpty()) {
+            responseEntity = ResponseEntity.badRequest().body(CommonResponse.badRequest(ErrorMessages.INVALID_INPUT_DATA));
+        } else if (multiGetRequest.size() > MultiGetRequest.MAX_KEYS) {
+            responseEntity = ResponseEntity.badRequest().body(CommonResponse.badRequest(ErrorMessages.TOO_MANY_KEYS));
+        } else {
+            MultiGetResponse multiGetResponse = transactionService.getTransactions(
+                    multiGetRequest.getIds() == null ? List.of() : multiGetRequest.getIds(),
+                    multiGetRequest.getReferences() == null ? List.of() : multiGetRequest.getReferences());
+            notFound = multiGetResponse.getNotFoundCount();
+            responseEntity = ResponseEntity.ok(CommonResponse.success(multiGetResponse, ErrorMessages.SUCCESS));
+        }
+        logger.info("Multi-get transactions, ids: {}, references: {}, not found: {}, status: {}, time cost: {}",
+                multiGetRequest.getIds() == null ? 0 : multiGetRequest.getIds().size(),
+                multiGetRequest.getReferences() == null ? 0 : multiGetRequest.getReferences().size(),
+                notFound, responseEntity.getStatusCode(), System.currentTimeMillis() - startTime);
         return responseEntity;
     }
 
     @GetMapping
     @Operation(summary = "Get all transactions", description = "Returns a paginated list of transactions with optional filtering")
-    public ResponseEntity<CommonResponse<PagedResponse<Transaction>>> getAllTransactions(
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transactions found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unknown field requested")
+    })
+    public CompletableFuture<ResponseEntity<CommonResponse<PagedResponse<?>>>> getAllTransactions(
             @Parameter(description = "Page number (0-based)", example = "0")
             @RequestParam(defaultValue = "0") int page,
 
@@ -135,7 +227,21 @@ public class TransactionController {
             @RequestParam(required = false) String category,
 
             @Parameter(description = "Filter by type (exact match)", example = "DEBIT")
-            @RequestParam(required = false) String type) {
+            @RequestParam(required = false) String type,
+
+            @Parameter(description = "Transaction date from (inclusive); ranges starting before the hot window include archived transactions",
+                    example = "2023-08-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+
+            @Parameter(description = "Transaction date to (exclusive)", example = "2023-09-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+
+            @Parameter(description = "Whether to return totalItems and totalPages; false returns hasNext only. "
+                    + "Date ranges always include totals", example = "true")
+            @RequestParam(defaultValue = "true") boolean includeTotals,
+
+            @Parameter(description = FIELDS_DESCRIPTION, example = "id,amount,transactionDate")
+            @RequestParam(required = false) String fields) {
 
         long startTime = System.currentTimeMillis();
 
@@ -144,44 +250,192 @@ public class TransactionController {
                 : Sort.by(sortBy).descending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Transaction> transactionPage = transactionService.getAllTransactions(
-                category, type, pageable);
-
-        PagedResponse<Transaction> pagedResponse = PagedResponse.fromPage(transactionPage);
-        ResponseEntity<CommonResponse<PagedResponse<Transaction>>> responseEntity =
-                ResponseEntity.ok(CommonResponse.success(pagedResponse, ErrorMessages.SUCCESS));
-        
-        logger.info("Get all transactions with filters - page: {}, size: {}, sortBy: {}, " +
-                        "direction: {}, category: {}, type: {}. Response: {}, time cost: {}",
-                        page, size, sortBy, direction, category, type, responseEntity, System.currentTimeMillis() - startTime);
+        CompletableFuture<ResponseEntity<CommonResponse<PagedResponse<?>>>> response;
+        try {
+            TransactionFields transactionFields = TransactionFields.parse(fields);
+            CompletableFuture<PagedResponse<?>> pagedResponse;
+            if (from != null || to != null) {
+                // ranges may merge archived rows, the projection is applied to the merged page
+                pagedResponse = asyncTransactionService.getTransactionsInRange(category, type, from, to, pageable)
+                        .thenApply(range -> transactionFields == null
+                                ? PagedResponse.fromPage(range)
+                                : PagedResponse.fromPage(range.map(transactionFields::project)));
+            } else if (transactionFields != null) {
+                pagedResponse = includeTotals
+                        ? asyncTransactionService.getTransactionFields(transactionFields, category, type, pageable)
+                                .thenApply(PagedResponse::fromPage)
+                        : asyncTransactionService.getTransactionFieldsSlice(transactionFields, category, type, pageable)
+                                .thenApply(PagedResponse::fromSlice);
+            } else if (includeTotals) {
+                pagedResponse = asyncTransactionService.getAllTransactions(category, type, pageable)
+                        .thenApply(PagedResponse::fromPage);
+            } else {
+                pagedResponse = asyncTransactionService.getTransactionSlice(category, type, pageable)
+                        .thenApply(PagedResponse::fromSlice);
+            }
+            response = pagedResponse.thenApply(body -> ResponseEntity.ok(CommonResponse.success(body, ErrorMessages.SUCCESS)));
+        } catch (IllegalArgumentException e) {
+            response = CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(CommonResponse.badRequest(ErrorMessages.INVALID_FIELDS + fields)));
+        }
+
+        return response.whenComplete((responseEntity, e) -> logger.info("Get all transactions with filters - page: {}, size: {}, sortBy: {}, " +
+                        "direction: {}, category: {}, type: {}, from: {}, to: {}, includeTotals: {}, fields: {}. Response: {}, time cost: {}",
+                        page, size, sortBy, direction, category, type, from, to, includeTotals, fields, responseEntity,
+                        System.currentTimeMillis() - startTime));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream transaction changes",
+            description = "Server-sent events for every committed create, update and delete. Reconnect with Last-Event-ID to resume; "
+                    + "a 'reset' event means earlier events are gone and clients should reload the list")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Too many subscribers")
+    })
+    public ResponseEntity<SseEmitter> streamTransactions(
+            @Parameter(description = "Sequence of the last event received")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        long startTime = System.currentTimeMillis();
+        Long cursor = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                cursor = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                // unknown ids are treated like ids from before a restart
+                cursor = Long.MAX_VALUE;
+            }
+        }
+        SseEmitter emitter = transactionStreamHub.subscribe(cursor);
+        ResponseEntity<SseEmitter> responseEntity = emitter == null
+                ? ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()
+                : ResponseEntity.ok(emitter);
+        logger.info("Subscribe to transaction stream, last event id: {}, status: {}, subscribers: {}, time cost: {}",
+                lastEventId, responseEntity.getStatusCode(), transactionStreamHub.getSubscriberCount(),
+                System.currentTimeMillis() - startTime);
+        return responseEntity;
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Get transaction changes since a token",
+            description = "Returns transactions created or updated and tombstones of transactions deleted after the token, "
+                    + "in change order, with the token to pass next time. Omit the token for a first sync")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Changes returned"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Malformed token"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "410", description = "Token expired, resync from scratch")
+    })
+    public ResponseEntity<CommonResponse<ChangesResponse>> getChanges(
+            @Parameter(description = "Token returned by the previous call")
+            @RequestParam(required = false) String since,
+
+            @Parameter(description = "Maximum number of changes to return", example = "500")
+            @RequestParam(defaultValue = "500") int limit) {
+
+        long startTime = System.currentTimeMillis();
+        ResponseEntity<CommonResponse<ChangesResponse>> responseEntity;
+        try {
+            ChangesResponse changes = transactionChangeFeed.changesSince(since, limit);
+            responseEntity = ResponseEntity.ok(CommonResponse.success(changes, ErrorMessages.SUCCESS));
+        } catch (ChangeTokenExpiredException e) {
+            responseEntity = ResponseEntity.status(HttpStatus.GONE)
+                    .body(CommonResponse.error(HttpStatus.GONE.value(), ErrorMessages.CHANGE_TOKEN_EXPIRED));
+        } catch (IllegalArgumentException e) {
+            responseEntity = ResponseEntity.badRequest()
+                    .body(CommonResponse.badRequest(ErrorMessages.INVALID_CHANGE_TOKEN + since));
+        }
+        logger.info("Get transaction changes since: {}, limit: {}, status: {}, time cost: {}",
+                since, limit, responseEntity.getStatusCode(), System.currentTimeMillis() - startTime);
         return responseEntity;
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update a transaction", description = "Updates an existing transaction")
+    @Operation(summary = "Update a transaction", description = "Updates an existing transaction, optionally guarded by If-Match")
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transaction updated successfully"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Transaction not found")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Transaction not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Amount or type of a posted transaction changed, or the transaction is archived"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "412", description = "Transaction version does not match If-Match")
     })
     public ResponseEntity<CommonResponse<Transaction>> updateTransaction(
             @Parameter(description = "ID of the transaction to be updated", example = "1")
             @PathVariable Long id,
-            @Valid @RequestBody Transaction transactionDetails) {
+            @Parameter(description = "ETag of the transaction version being replaced", example = "\"0\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody TransactionRequest transactionRequest) {
 
         long startTime = System.currentTimeMillis();
         ResponseEntity<CommonResponse<Transaction>> responseEntity;
         Transaction updatedTransaction = null;
 
         try {
-            updatedTransaction = transactionService.updateTransaction(id, transactionDetails);
-            responseEntity =  ResponseEntity.ok(CommonResponse.success(updatedTransaction, ErrorMessages.SUCCESS));
+            updatedTransaction = transactionService.updateTransaction(id, TransactionMapper.toEntity(transactionRequest),
+                    parseIfMatch(ifMatch));
+            responseEntity =  okWithETag(updatedTransaction)
+                    .body(CommonResponse.success(updatedTransaction, ErrorMessages.SUCCESS));
         } catch (TransactionNotFoundException e) {
             responseEntity =  ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(CommonResponse.notFound(ErrorMessages.TRANSACTION_NOT_FOUND + id));
+        } catch (TransactionVersionMismatchException e) {
+            responseEntity =  ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(CommonResponse.preconditionFailed(ErrorMessages.VERSION_MISMATCH + id));
+        } catch (PostedTransactionChangeException e) {
+            responseEntity = ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(CommonResponse.conflict(ErrorMessages.POSTED_TRANSACTION_CHANGE + id));
+        } catch (ArchivedTransactionChangeException e) {
+            responseEntity = ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(CommonResponse.conflict(ErrorMessages.ARCHIVED_TRANSACTION_CHANGE + id));
         }
         logger.info("Update transaction id: {} with details: {}, response: {}, time cost: {}",
-                id, transactionDetails, responseEntity, System.currentTimeMillis() - startTime);
+                id, transactionRequest, responseEntity, System.currentTimeMillis() - startTime);
+        return responseEntity;
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially update a transaction",
+            description = "Updates only the supplied fields with a single statement, optionally guarded by If-Match")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transaction updated successfully"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Transaction not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Amount or type of a posted transaction changed, or the transaction is archived"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "412", description = "Transaction version does not match If-Match")
+    })
+    public ResponseEntity<CommonResponse<Transaction>> patchTransaction(
+            @Parameter(description = "ID of the transaction to be updated", example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "ETag of the transaction version being modified", example = "\"0\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody TransactionPatchRequest patchRequest) {
+
+        long startTime = System.currentTimeMillis();
+        ResponseEntity<CommonResponse<Transaction>> responseEntity;
+
+        if (patchRequest.isEmpty()) {
+            responseEntity = ResponseEntity.badRequest().body(CommonResponse.badRequest(ErrorMessages.INVALID_INPUT_DATA));
+        } else {
+            try {
+                Transaction patchedTransaction = transactionService.patchTransaction(id, patchRequest, parseIfMatch(ifMatch));
+                responseEntity = okWithETag(patchedTransaction)
+                        .body(CommonResponse.success(patchedTransaction, ErrorMessages.SUCCESS));
+            } catch (TransactionNotFoundException e) {
+                responseEntity = ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(CommonResponse.notFound(ErrorMessages.TRANSACTION_NOT_FOUND + id));
+            } catch (TransactionVersionMismatchException e) {
+                responseEntity = ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                        .body(CommonResponse.preconditionFailed(ErrorMessages.VERSION_MISMATCH + id));
+            } catch (PostedTransactionChangeException e) {
+                responseEntity = ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(CommonResponse.conflict(ErrorMessages.POSTED_TRANSACTION_CHANGE + id));
+            } catch (ArchivedTransactionChangeException e) {
+                responseEntity = ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(CommonResponse.conflict(ErrorMessages.ARCHIVED_TRANSACTION_CHANGE + id));
+            }
+        }
+        logger.info("Patch transaction id: {} with details: {}, response: {}, time cost: {}",
+                id, patchRequest, responseEntity, System.currentTimeMillis() - startTime);
         return responseEntity;
     }
 
@@ -189,7 +443,8 @@ public class TransactionController {
     @Operation(summary = "Delete a transaction", description = "Deletes a transaction by its ID")
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transaction deleted successfully"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Transaction not found")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Transaction not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Transaction is archived")
     })
     public ResponseEntity<CommonResponse<Void>> deleteTransaction(
             @Parameter(description = "ID of the transaction to be deleted", example = "1")
@@ -204,6 +459,9 @@ public class TransactionController {
         } catch (TransactionNotFoundException e) {
             responseEntity =  ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(CommonResponse.notFound(ErrorMessages.TRANSACTION_NOT_FOUND + id));
+        } catch (ArchivedTransactionChangeException e) {
+            responseEntity = ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(CommonResponse.conflict(ErrorMessages.ARCHIVED_TRANSACTION_CHANGE + id));
         }
         logger.info("Delete transaction id: {}, response: {}, time cost: {}",
                 id, responseEntity, System.currentTimeMillis() - startTime);
@@ -214,7 +472,8 @@ public class TransactionController {
     @Operation(summary = "Delete a transaction by reference", description = "Deletes a transaction by its reference number")
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transaction deleted successfully"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Transaction not found")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Transaction not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Transaction is archived")
     })
     public ResponseEntity<CommonResponse<Void>> deleteTransactionByReference(
             @Parameter(description = "Reference number of the transaction to be deleted", example = "REF123456")
@@ -228,9 +487,113 @@ public class TransactionController {
         } catch (TransactionNotFoundException e) {
             responseEntity =  ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(CommonResponse.notFound(ErrorMessages.TRANSACTION_NOT_FOUND + reference));
+        } catch (ArchivedTransactionChangeException e) {
+            responseEntity = ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(CommonResponse.conflict(ErrorMessages.ARCHIVED_TRANSACTION_CHANGE + reference));
         }
         logger.info("Delete transaction by reference: {}, response: {}, time cost: {}",
                 reference, responseEntity, System.currentTimeMillis() - startTime);
         return responseEntity;
     }
+
+    @PostMapping("/bulk-delete")
+    @Operation(summary = "Delete transactions by ids or references",
+            description = "Deletes all listed transactions with set-based statements and returns the number deleted")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transactions deleted"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data")
+    })
+    public ResponseEntity<CommonResponse<BulkDeleteResponse>> deleteTransactions(
+            @Valid @RequestBody BulkDeleteRequest bulkDeleteRequest) {
+
+        long startTime = System.currentTimeMillis();
+        ResponseEntity<CommonResponse<BulkDeleteResponse>> responseEntity;
+        if (bulkDeleteRequest.isEmpty()) {
+            responseEntity = ResponseEntity.badRequest().body(CommonResponse.badRequest(ErrorMessages.INVALID_INPUT_DATA));
+        } else {
+            int deleted = transactionService.deleteTransactions(
+                    bulkDeleteRequest.getIds() == null ? List.of() : bulkDeleteRequest.getIds(),
+                    bulkDeleteRequest.getReferences() == null ? List.of() : bulkDeleteRequest.getReferences());
+            responseEntity = ResponseEntity.ok(CommonResponse.success(new BulkDeleteResponse(deleted), ErrorMessages.SUCCESS));
+        }
+        logger.info("Bulk delete transactions, ids: {}, references: {}, response: {}, time cost: {}",
+                bulkDeleteRequest.getIds() == null ? 0 : bulkDeleteRequest.getIds().size(),
+                bulkDeleteRequest.getReferences() == null ? 0 : bulkDeleteRequest.getReferences().size(),
+                responseEntity, System.currentTimeMillis() - startTime);
+        return responseEntity;
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Delete transactions by filter",
+            description = "Deletes all transactions matching the filter with a single statement; at least one filter is required")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Transactions deleted"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "No filter supplied")
+    })
+    public ResponseEntity<CommonResponse<BulkDeleteResponse>> deleteTransactionsByFilter(
+            @Parameter(description = "Filter by category (exact match)")
+            @RequestParam(required = false) String category,
+
+            @Parameter(description = "Filter by type (exact match)", example = "DEBIT")
+            @RequestParam(required = false) String type,
+
+            @Parameter(description = "Transaction date from (inclusive)", example = "2023-08-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+
+            @Parameter(description = "Transaction date to (exclusive)", example = "2023-09-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        long startTime = System.currentTimeMillis();
+        ResponseEntity<CommonResponse<BulkDeleteResponse>> responseEntity;
+        if (category == null && type == null && from == null && to == null) {
+            responseEntity = ResponseEntity.badRequest().body(CommonResponse.badRequest(ErrorMessages.BULK_DELETE_FILTER_REQUIRED));
+        } else {
+            int deleted = transactionService.deleteTransactionsByFilter(category, type, from, to);
+            responseEntity = ResponseEntity.ok(CommonResponse.success(new BulkDeleteResponse(deleted), ErrorMessages.SUCCESS));
+        }
+        logger.info("Bulk delete transactions by filter - category: {}, type: {}, from: {}, to: {}. Response: {}, time cost: {}",
+                category, type, from, to, responseEntity, System.currentTimeMillis() - startTime);
+        return responseEntity;
+    }
+
+    // the version is exposed as a strong ETag so clients can send it back in If-Match
+    private static ResponseEntity.BodyBuilder okWithETag(Transaction transaction) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (transaction instanceof StaleTransaction) {
+            // no ETag, a conditional write must not be based on data that may be out of date
+            return builder.header(HttpHeaders.WARNING, STALE_WARNING);
+        }
+        if (transaction.getVersion() != null) {
+            builder.eTag("\"" + transaction.getVersion() + "\"");
+        }
+        return builder;
+    }
+
+    private static String message(Transaction transaction) {
+        return transaction instanceof StaleTransaction ? ErrorMessages.STALE_RESPONSE : ErrorMessages.SUCCESS;
+    }
+
+    private static Object project(Transaction transaction, TransactionFields fields) {
+        return fields == null ? transaction : fields.project(transaction);
+    }
+
+    /**
+     * Extracts the expected version from an If-Match header. A missing header or {@code *}
+     * means an unconditional update; a tag that is not a version can never match, and neither
+     * can a weak one, since If-Match compares entity tags strongly.
+     */
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new TransactionVersionMismatchException("Weak entity tag in If-Match header: " + ifMatch);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new TransactionVersionMismatchException("Malformed If-Match header: " + ifMatch);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,268 @@
+package com.hsbc.transactionmanagement.count;
+
+import com.hsbc.transactionmanagement.config.CountProperties;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Row counts of the hot table per (category, type) partition, matched case-insensitively like
+ * the list filters, so list totals need no COUNT query. The service records creates, partition
+ * changes and single deletes once their transaction commits. Bulk deletes and archiving only
+ * {@link #invalidate()}: totals fall back to COUNT queries until a recount finishes. A full
+ * recount also runs every {@code reconcile-interval} to correct writes that bypass the service.
+ */
+@Component
+public class TransactionCounts implements DisposableBean {
+
+    private static final Logger logger = LoggerUtil.getLogger(TransactionCounts.class);
+
+    private final TransactionRepository transactionRepository;
+    private final CountProperties properties;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final ExecutorService reconcileExecutor;
+    private final Counter drift;
+
+    private volatile Map<Partition, AtomicLong> counts = new ConcurrentHashMap<>();
+    // deltas committed while a recount runs, replayed onto its result
+    private Map<Partition, AtomicLong> pending;
+    private volatile boolean ready;
+
+    public TransactionCounts(TransactionRepository transactionRepository, CountProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.properties = properties;
+        this.reconcileExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-counts-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("transaction.counts.partitions", this, TransactionCounts::getPartitionCount)
+                .description("Partitions with a maintained row count")
+                .register(meterRegistry);
+        this.drift = Counter.builder("transaction.counts.drift")
+                .description("Rows by which the maintained counts differed from a recount")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Number of hot rows matching the filter, {@code null} matching any value, or empty while
+     * the counts are disabled or being rebuilt.
+     */
+    public OptionalLong count(String category, String type) {
+        if (!properties.isEnabled() || !ready) {
+            return OptionalLong.empty();
+        }
+        Partition filter = Partition.of(category, type);
+        lock.readLock().lock();
+        try {
+            if (filter.category() != null && filter.type() != null) {
+                AtomicLong count = counts.get(filter);
+                return OptionalLong.of(count == null ? 0 : count.get());
+            }
+            long total = 0;
+            for (Map.Entry<Partition, AtomicLong> entry : counts.entrySet()) {
+                if (filter.matches(entry.getKey())) {
+                    total += entry.getValue().get();
+                }
+            }
+            return OptionalLong.of(total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void recordCreated(String category, String type) {
+        recordCreated(category, type, 1);
+    }
+
+    /** For batches of inserts, such as imports, counted per partition. */
+    public void recordCreated(String category, String type, long count) {
+        afterCommit(() -> add(Partition.of(category, type), count));
+    }
+
+    public void recordDeleted(String category, String type) {
+        afterCommit(() -> add(Partition.of(category, type), -1));
+    }
+
+    public void recordMoved(String fromCategory, String fromType, String toCategory, String toType) {
+        Partition from = Partition.of(fromCategory, fromType);
+        Partition to = Partition.of(toCategory, toType);
+        if (!from.equals(to)) {
+            afterCommit(() -> {
+                add(from, -1);
+                add(to, 1);
+            });
+        }
+    }
+
+    /**
+     * For writes whose partitions are not known, such as bulk deletes: stops serving totals
+     * until a recount, which is started once the transaction commits.
+     */
+    public void invalidate() {
+        afterCommit(() -> {
+            invalidations.incrementAndGet();
+            ready = false;
+            if (properties.isEnabled()) {
+                reconcileExecutor.execute(this::reconcile);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the counts with one GROUP BY over the hot table. Writes committing while the
+     * query runs are replayed onto its result; one that committed before the query's snapshot
+     * but recorded its delta after the recount started is counted twice until the next run.
+     */
+    @Scheduled(fixedDelayString = "${transaction.counts.reconcile-interval:PT10M}")
+    public void reconcile() {
+        if (!properties.isEnabled() || !reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        long invalidationsAtStart = invalidations.get();
+        try {
+            do {
+                invalidationsAtStart = invalidations.get();
+                recount(invalidationsAtStart);
+            } while (invalidations.get() != invalidationsAtStart);
+        } catch (RuntimeException e) {
+            logger.warn("Transaction count reconciliation failed, totals fall back to count queries", e);
+            lock.writeLock().lock();
+            try {
+                pending = null;
+                ready = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            reconciling.set(false);
+        }
+        // an invalidation that arrived after the last check found this run still in progress
+        if (invalidations.get() != invalidationsAtStart) {
+            reconcileExecutor.execute(this::reconcile);
+        }
+        logger.info("Reconciled transaction counts for {} partitions, time cost: {}",
+                getPartitionCount(), System.currentTimeMillis() - startTime);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getPartitionCount() {
+        return counts.size();
+    }
+
+    @Override
+    public void destroy() {
+        reconcileExecutor.shutdownNow();
+    }
+
+    private void recount(long invalidationsAtStart) {
+        lock.writeLock().lock();
+        try {
+            pending = new ConcurrentHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Partition, AtomicLong> fresh = new ConcurrentHashMap<>();
+        for (Object[] row : transactionRepository.countByPartition()) {
+            // spellings of a category differing only in case have separate codes and rows
+            fresh.computeIfAbsent(Partition.of((String) row[0], (String) row[1]), p -> new AtomicLong())
+                    .addAndGet(((Number) row[2]).longValue());
+        }
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach((partition, delta) ->
+                    fresh.computeIfAbsent(partition, p -> new AtomicLong()).addAndGet(delta.get()));
+            if (ready) {
+                drift.increment(difference(counts, fresh));
+            }
+            counts = fresh;
+            pending = null;
+            ready = invalidations.get() == invalidationsAtStart;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Partition partition, long delta) {
+        lock.readLock().lock();
+        try {
+            counts.computeIfAbsent(partition, p -> new AtomicLong()).addAndGet(delta);
+            if (pending != null) {
+                pending.computeIfAbsent(partition, p -> new AtomicLong()).addAndGet(delta);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long difference(Map<Partition, AtomicLong> maintained, Map<Partition, AtomicLong> recounted) {
+        long difference = 0;
+        for (Map.Entry<Partition, AtomicLong> entry : recounted.entrySet()) {
+            AtomicLong old = maintained.get(entry.getKey());
+            difference += Math.abs(entry.getValue().get() - (old == null ? 0 : old.get()));
+        }
+        for (Map.Entry<Partition, AtomicLong> entry : maintained.entrySet()) {
+            if (!recounted.containsKey(entry.getKey())) {
+                difference += Math.abs(entry.getValue().get());
+            }
+        }
+        return difference;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    record Partition(String category, String type) {
+
+        static Partition of(String category, String type) {
+            return new Partition(normalize(category), normalize(type));
+        }
+
+        boolean matches(Partition partition) {
+            return (category == null || category.equals(partition.category))
+                    && (type == null || type.equals(partition.type));
+        }
+
+        private static String normalize(String value) {
+            return value == null ? null : value.toLowerCase(Locale.ROOT);
+        }
+    }
+}
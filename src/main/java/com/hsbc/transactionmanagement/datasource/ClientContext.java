@@ -0,0 +1,46 @@
+package com.hsbc.transactionmanagement.datasource;
+
+/**
+ * Identity of the client of the current request, used to keep a client's reads on the
+ * primary right after it wrote.
+ */
+public final class ClientContext {
+
+    private static final ThreadLocal<String> CLIENT_ID = new ThreadLocal<>();
+
+    private ClientContext() {
+    }
+
+    public static void set(String clientId) {
+        CLIENT_ID.set(clientId);
+    }
+
+    public static String get() {
+        return CLIENT_ID.get();
+    }
+
+    public static void clear() {
+        CLIENT_ID.remove();
+    }
+
+    /** Runs {@code task} with the caller's client bound; returns it unchanged when there is none. */
+    public static Runnable wrap(Runnable task) {
+        String clientId = CLIENT_ID.get();
+        if (clientId == null) {
+            return task;
+        }
+        return () -> {
+            String previous = CLIENT_ID.get();
+            CLIENT_ID.set(clientId);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CLIENT_ID.remove();
+                } else {
+                    CLIENT_ID.set(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,6 @@
+package com.hsbc.transactionmanagement.datasource;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
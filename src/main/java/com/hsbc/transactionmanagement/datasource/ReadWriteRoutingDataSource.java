@@ -0,0 +1,59 @@
+package com.hsbc.transactionmanagement.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary, unless the
+ * current client wrote within the read-your-writes window, or the read is a
+ * {@link SharedCacheLoad} within the window after any write. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the routing
+ * decision is made when the transaction first runs a statement, after it has been marked
+ * read-only and entered the cache load.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRole();
+    }
+
+    DataSourceRole currentRole() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordPrimaryWrite();
+            }
+            return DataSourceRole.PRIMARY;
+        }
+        if (readYourWritesTracker.isSticky(ClientContext.get())
+                || (SharedCacheLoad.isActive() && readYourWritesTracker.isWithinWindowOfPrimaryWrite())) {
+            return DataSourceRole.PRIMARY;
+        }
+        return DataSourceRole.REPLICA;
+    }
+
+    // the window starts again at completion, when the write becomes visible to replication
+    private void recordPrimaryWrite() {
+        readYourWritesTracker.recordPrimaryWrite();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    readYourWritesTracker.recordPrimaryWrite();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.hsbc.transactionmanagement.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Remembers which clients wrote recently. Until the window passes their reads stay on the
+ * primary, so replication lag never hides a client's own write from it. Also remembers when
+ * the primary last committed any write: within the window after it, loads into the shared
+ * caches stay on the primary too, or another client could cache the replica's older copy and
+ * serve it to the writer until the entry expires.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+    private final long windowNanos;
+    private volatile long lastWriteNanos;
+
+    public ReadYourWritesTracker(Duration window, long maximumClients) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maximumClients)
+                .build();
+        this.windowNanos = window.toNanos();
+        this.lastWriteNanos = System.nanoTime() - windowNanos;
+    }
+
+    public void recordWrite(String clientId) {
+        if (clientId != null) {
+            recentWriters.put(clientId, Boolean.TRUE);
+        }
+    }
+
+    public boolean isSticky(String clientId) {
+        return clientId != null && recentWriters.getIfPresent(clientId) != null;
+    }
+
+    /** Records that the primary may have just written, by any client or background job. */
+    public void recordPrimaryWrite() {
+        lastWriteNanos = System.nanoTime();
+    }
+
+    public boolean isWithinWindowOfPrimaryWrite() {
+        return System.nanoTime() - lastWriteNanos < windowNanos;
+    }
+}
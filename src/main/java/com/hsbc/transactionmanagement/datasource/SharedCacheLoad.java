@@ -0,0 +1,33 @@
+package com.hsbc.transactionmanagement.datasource;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Marks reads whose result is stored in a cache shared by all clients. Such a read is served
+ * to every client until the entry is evicted, so right after any write it must not come from a
+ * replica that may not have the write yet.
+ */
+public final class SharedCacheLoad {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private SharedCacheLoad() {
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    /** Runs {@code load} marked as a shared cache load; nested calls keep the outer mark. */
+    public static <T> T call(Callable<T> load) throws Exception {
+        if (isActive()) {
+            return load.call();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return load.call();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+}
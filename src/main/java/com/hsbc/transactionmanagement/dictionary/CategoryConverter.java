@@ -0,0 +1,26 @@
+package com.hsbc.transactionmanagement.dictionary;
+
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * Stores a category as its {@link CategoryDictionary} code. Hibernate creates converters
+ * through Spring, which supplies the dictionary.
+ */
+public class CategoryConverter implements AttributeConverter<String, Integer> {
+
+    private final CategoryDictionary dictionary;
+
+    public CategoryConverter(CategoryDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String category) {
+        return category == null ? null : dictionary.codeOf(category);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer code) {
+        return code == null ? null : dictionary.nameOf(code);
+    }
+}
@@ -0,0 +1,147 @@
+package com.hsbc.transactionmanagement.dictionary;
+
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Two-way map between transaction categories and the small integer codes the tables store in
+ * their place, backed by {@code transaction_categories}. Categories are matched exactly, so
+ * {@code Food} and {@code food} get separate codes and keep their spelling. Every category
+ * read through JPA is this map's String, so cached transactions and pages share one instance
+ * per distinct category.
+ * <p>
+ * The map is loaded at startup and only grows. A new category is inserted in a short
+ * transaction of its own, on a connection of its own, and committed at once, like a
+ * {@code REQUIRES_NEW} step: its unique name is never locked for the length of the caller's
+ * transaction, so concurrent writers of the same new category, such as two imports, do not
+ * wait on each other. A code whose transaction rolls back simply stays unused. There is no
+ * lock around the insert, so a caller holds its second connection only for one statement.
+ */
+@Component
+public class CategoryDictionary implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerUtil.getLogger(CategoryDictionary.class);
+
+    private static final String SELECT_ALL = "SELECT id, name FROM transaction_categories";
+    private static final String SELECT_BY_ID = "SELECT name FROM transaction_categories WHERE id = ?";
+    private static final String SELECT_BY_NAME = "SELECT id FROM transaction_categories WHERE name = ?";
+    private static final String INSERT = "INSERT INTO transaction_categories (name, name_key) VALUES (?, LOWER(?))";
+
+    private final DataSource dataSource;
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+    public CategoryDictionary(DataSource dataSource, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        Gauge.builder("transaction.categories", names, Map::size)
+                .description("Distinct categories in the category dictionary")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_ALL);
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                register(rows.getInt(1), rows.getString(2));
+            }
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("Load category dictionary", SELECT_ALL, e);
+        }
+        logger.info("Loaded {} categories", names.size());
+    }
+
+    /** The category's code, adding it to the dictionary if it is new. */
+    public int codeOf(String category) {
+        Integer code = codes.get(category);
+        return code != null ? code : add(category);
+    }
+
+    /** The category stored as {@code code}, read from the table if another instance added it. */
+    public String nameOf(int code) {
+        String name = names.get(code);
+        return name != null ? name : load(code);
+    }
+
+    private int add(String category) {
+        try (Connection connection = dataSource.getConnection()) {
+            Integer inserted = insert(connection, category);
+            // lost the race to another writer
+            return register(inserted != null ? inserted : selectCode(connection, category), category);
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("Add category", INSERT, e);
+        }
+    }
+
+    private String load(int code) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_BY_ID)) {
+            statement.setInt(1, code);
+            try (ResultSet rows = statement.executeQuery()) {
+                if (!rows.next()) {
+                    throw new IllegalStateException("No category with code " + code);
+                }
+                register(code, rows.getString(1));
+                return names.get(code);
+            }
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("Load category", SELECT_BY_ID, e);
+        }
+    }
+
+    // null when the name is already taken
+    private static Integer insert(Connection connection, String category) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT, new String[]{"id"})) {
+            statement.setString(1, category);
+            statement.setString(2, category);
+            statement.executeUpdate();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        } catch (SQLException e) {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private static int selectCode(Connection connection, String category) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_BY_NAME)) {
+            statement.setString(1, category);
+            try (ResultSet rows = statement.executeQuery()) {
+                if (!rows.next()) {
+                    throw new IllegalStateException("Category " + category + " was neither inserted nor found");
+                }
+                return rows.getInt(1);
+            }
+        }
+    }
+
+    private int register(int code, String category) {
+        String canonical = names.computeIfAbsent(code, c -> category);
+        codes.putIfAbsent(canonical, code);
+        return code;
+    }
+}
@@ -0,0 +1,29 @@
+package com.hsbc.transactionmanagement.dictionary;
+
+import com.hsbc.transactionmanagement.constant.TransactionType;
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * Stores a transaction type as its {@link TransactionType#getCode() code} and reads it back as
+ * the constant's name, one shared String per type. Hibernate also converts type literals in
+ * queries, so {@code t.type = 'CREDIT'} compares codes.
+ */
+public class TransactionTypeConverter implements AttributeConverter<String, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(String name) {
+        return name == null ? null : TransactionType.valueOf(name).getCode();
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short code) {
+        if (code == null) {
+            return null;
+        }
+        TransactionType type = TransactionType.fromCode(code);
+        if (type == null) {
+            throw new IllegalStateException("No transaction type with code " + code);
+        }
+        return type.name();
+    }
+}
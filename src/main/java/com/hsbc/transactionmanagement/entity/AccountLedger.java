@@ -0,0 +1,35 @@
+package com.hsbc.transactionmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Running balance of an account in the database, shared by every instance. Postings update it
+ * in their own transaction, a debit only if it stays within the overdraft limit, so the row
+ * lock serializes debits of one account across instances. See
+ * {@link com.hsbc.transactionmanagement.account.AccountBalances}.
+ */
+@Entity
+@Table(name = "account_ledgers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountLedger {
+
+    @Id
+    @Column(length = 50)
+    private String accountId;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal balance;
+
+    @Column(nullable = false)
+    private long postings;
+}
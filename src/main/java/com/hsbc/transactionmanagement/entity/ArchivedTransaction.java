@@ -0,0 +1,60 @@
+package com.hsbc.transactionmanagement.entity;
+
+import com.hsbc.transactionmanagement.dictionary.CategoryConverter;
+import com.hsbc.transactionmanagement.dictionary.TransactionTypeConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Cold-tier copy of a {@link Transaction}, moved here by the archiver once it is older than
+ * the configured age. Rows keep their original id and are never modified.
+ */
+@Entity
+@Table(name = "transactions_archive", indexes = {
+        @Index(name = "idx_txn_archive_ref", columnList = "transactionReference", unique = true),
+        @Index(name = "idx_txn_archive_date", columnList = "transactionDate")
+})
+@Data
+@NoArgsConstructor
+public class ArchivedTransaction {
+
+    @Id
+    private Long id;
+
+    private String description;
+
+    @Column(precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Convert(converter = TransactionTypeConverter.class)
+    @Column(name = "type_code")
+    private String type;
+
+    @Convert(converter = CategoryConverter.class)
+    @Column(name = "category_id")
+    private String category;
+
+    private String transactionReference;
+
+    private String accountId;
+
+    private LocalDateTime transactionDate;
+
+    private Long version;
+
+    private LocalDateTime archivedAt;
+
+    public Transaction toTransaction() {
+        return new Transaction(id, description, amount, type, category, transactionReference, accountId, transactionDate,
+                version, null, null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.hsbc.transactionmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A write transaction of any instance that may still draw change sequences, see
+ * {@link com.hsbc.transactionmanagement.sync.ChangeSequenceTracker}. Its floor is drawn from
+ * the change sequence when the write registers, so it is unique and below every sequence the
+ * write draws. Rows are written and deleted with plain JDBC; the entity only declares the table.
+ */
+@Entity
+@Table(name = "change_sequence_writes")
+@Data
+@NoArgsConstructor
+public class ChangeSequenceWrite {
+
+    @Id
+    private Long floorSequence;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+}
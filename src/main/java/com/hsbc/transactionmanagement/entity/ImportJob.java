@@ -0,0 +1,109 @@
+package com.hsbc.transactionmanagement.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A CSV bulk import and its progress. The counters and {@link #getCommittedOffset()} are
+ * written in the same database transaction as each batch of rows, so a job that stopped can
+ * be resumed from the byte after the last committed row without importing anything twice.
+ */
+@Entity
+@Table(name = "import_jobs", indexes = {
+        @Index(name = "idx_import_job_status", columnList = "status")
+})
+@Data
+@NoArgsConstructor
+@Schema(description = "CSV bulk import job")
+public class ImportJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED,
+        // the application stopped while the job was running; it can be resumed
+        INTERRUPTED
+    }
+
+    @Id
+    @Schema(description = "Job id", example = "5f0c6c1e-4d0b-4a5e-9c43-2f6f5d0e8a71")
+    private String id;
+
+    @Schema(description = "Uploaded file name, or the server-local path the job was started with", example = "settlement-2023-08-29.csv")
+    private String source;
+
+    @Schema(description = "File being imported, relative to the import directory", example = "uploads/5f0c6c1e-4d0b-4a5e-9c43-2f6f5d0e8a71.csv")
+    private String path;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Schema(description = "Size of the file in bytes")
+    private long fileSize;
+
+    @Schema(description = "Byte offset after the last committed row; a resumed job continues from here")
+    private long committedOffset;
+
+    @Schema(description = "Line number of the last committed row")
+    private long committedLine;
+
+    private long rowsImported;
+
+    @Schema(description = "Rows that failed parsing, validation or the funds check")
+    private long rowsRejected;
+
+    @Schema(description = "Rows whose reference already existed, in the tables or earlier in the file")
+    private long rowsDuplicate;
+
+    @Schema(description = "Time spent importing over every run of the job, in milliseconds")
+    private long durationMillis;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    @Column(length = 1000)
+    @Schema(description = "Why the job failed, if it did")
+    private String message;
+
+    public ImportJob(String id, String source, String path, long fileSize) {
+        this.id = id;
+        this.source = source;
+        this.path = path;
+        this.fileSize = fileSize;
+        this.status = Status.QUEUED;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = createdAt;
+    }
+
+    @Schema(description = "Share of the file committed, from 0 to 1")
+    public double getProgress() {
+        return fileSize == 0 ? 1.0 : (double) committedOffset / fileSize;
+    }
+
+    @Schema(description = "Rows read per second of import time, whatever their outcome")
+    public double getRowsPerSecond() {
+        long rows = rowsImported + rowsRejected + rowsDuplicate;
+        return durationMillis == 0 ? rows : rows * 1000.0 / durationMillis;
+    }
+
+    public boolean isResumable() {
+        return status == Status.FAILED || status == Status.INTERRUPTED || status == Status.CANCELLED;
+    }
+}
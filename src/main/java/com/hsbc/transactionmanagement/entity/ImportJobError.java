@@ -0,0 +1,43 @@
+package com.hsbc.transactionmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A row an {@link ImportJob} did not import, with its line in the file and the reason.
+ */
+@Entity
+@Table(name = "import_job_errors", indexes = {
+        @Index(name = "idx_import_error_job", columnList = "jobId, line")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String jobId;
+
+    private long line;
+
+    private String transactionReference;
+
+    @Column(length = 1000)
+    private String message;
+
+    public ImportJobError(String jobId, long line, String transactionReference, String message) {
+        this(null, jobId, line, transactionReference,
+                message.length() > 1000 ? message.substring(0, 1000) : message);
+    }
+}
@@ -1,5 +1,8 @@
 package com.hsbc.transactionmanagement.entity;
 
+import com.hsbc.transactionmanagement.dictionary.CategoryConverter;
+import com.hsbc.transactionmanagement.dictionary.TransactionTypeConverter;
+import com.hsbc.transactionmanagement.validation.ValidTransactionType;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -11,7 +14,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions", indexes = @Index(name = "idx_txn_ref", columnList = "transactionReference"))
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_txn_ref", columnList = "transactionReference"),
+        @Index(name = "idx_txn_date", columnList = "transactionDate"),
+        @Index(name = "idx_txn_change_seq", columnList = "changeSequence"),
+        @Index(name = "idx_txn_account", columnList = "accountId")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,13 +45,17 @@ public class Transaction {
     private BigDecimal amount;
 
     @NotBlank(message = "Type is mandatory")
-    @Pattern(regexp = "^(DEBIT|CREDIT)$", message = "Type must be either DEBIT or CREDIT")
+    @ValidTransactionType
     @Schema(description = "Type of transaction", example = "DEBIT", allowableValues = {"DEBIT", "CREDIT"}, required = true)
+    @Convert(converter = TransactionTypeConverter.class)
+    @Column(name = "type_code")
     private String type;
 
     @NotBlank(message = "Category is mandatory")
     @Size(max = 100, message = "Category must be less than 100 characters")
     @Schema(description = "Category of the transaction", example = "Food", required = true)
+    @Convert(converter = CategoryConverter.class)
+    @Column(name = "category_id")
     private String category;
 
     @Column(unique = true)
@@ -52,11 +64,27 @@ public class Transaction {
     @Schema(description = "Unique reference number for the transaction", example = "REF123456", required = true)
     private String transactionReference;
 
+    @Size(max = 50, message = "Account id must be less than 50 characters")
+    @Schema(description = "Account the transaction is posted to, if any: credits add to its balance, debits subtract from it",
+            example = "ACC-1001")
+    private String accountId;
+
     @Schema(description = "Date and time when the transaction was created", example = "2023-08-29T15:30:00", accessMode = Schema.AccessMode.READ_ONLY)
     private LocalDateTime transactionDate;
 
+    @Version
+    @Schema(description = "Optimistic lock version, returned as the ETag of the transaction", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
+    @Schema(description = "Position of the latest write to the transaction in the change feed", example = "42", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long changeSequence;
+
+    @Schema(description = "Date and time of the latest write to the transaction", example = "2023-08-29T15:30:00", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime updatedAt;
+
     @PrePersist
     protected void onCreate() {
         transactionDate = LocalDateTime.now();
+        updatedAt = transactionDate;
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.hsbc.transactionmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One distinct category spelling. Transactions store its id in place of the text, see
+ * {@link com.hsbc.transactionmanagement.dictionary.CategoryDictionary}. Rows are only ever
+ * added. The lower-cased key lets the case-insensitive list filter find every spelling of a
+ * category with one index lookup.
+ */
+@Entity
+@Table(name = "transaction_categories", indexes = {
+        @Index(name = "idx_category_name_key", columnList = "nameKey")
+})
+@Data
+@NoArgsConstructor
+public class TransactionCategory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true, length = 100)
+    private String name;
+
+    @Column(nullable = false, length = 100)
+    private String nameKey;
+}
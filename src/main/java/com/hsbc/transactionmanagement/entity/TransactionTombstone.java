@@ -0,0 +1,48 @@
+package com.hsbc.transactionmanagement.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind by a deleted {@link Transaction} so the change feed can report the
+ * delete. Its id is drawn from the same sequence as {@link Transaction#getChangeSequence()},
+ * which orders deletes and writes in one feed. Tombstones are compacted after the configured
+ * retention.
+ */
+@Entity
+@Table(name = "transaction_tombstones", indexes = {
+        @Index(name = "idx_tombstone_deleted_at", columnList = "deletedAt")
+})
+@Data
+@NoArgsConstructor
+public class TransactionTombstone {
+
+    public static final String CHANGE_SEQUENCE = "transaction_change_seq";
+
+    @Id
+    @SequenceGenerator(name = CHANGE_SEQUENCE, sequenceName = CHANGE_SEQUENCE, allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = CHANGE_SEQUENCE)
+    private Long changeSequence;
+
+    private Long transactionId;
+
+    // null when the transaction was deleted by id
+    private String transactionReference;
+
+    private LocalDateTime deletedAt;
+
+    public TransactionTombstone(Long transactionId, String transactionReference) {
+        this.transactionId = transactionId;
+        this.transactionReference = transactionReference;
+        this.deletedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,7 @@
+package com.hsbc.transactionmanagement.exception;
+
+public class ArchivedTransactionChangeException extends RuntimeException {
+    public ArchivedTransactionChangeException(String message) {
+        super(message);
+    }
+}
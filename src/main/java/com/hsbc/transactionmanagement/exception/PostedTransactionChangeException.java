@@ -0,0 +1,7 @@
+package com.hsbc.transactionmanagement.exception;
+
+public class PostedTransactionChangeException extends RuntimeException {
+    public PostedTransactionChangeException(String message) {
+        super(message);
+    }
+}
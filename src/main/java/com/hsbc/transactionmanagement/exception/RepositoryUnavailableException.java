@@ -0,0 +1,13 @@
+package com.hsbc.transactionmanagement.exception;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+
+/**
+ * A repository call refused without reaching the database, because the circuit is open or the
+ * bulkhead for its kind of call is full.
+ */
+public class RepositoryUnavailableException extends TransientDataAccessResourceException {
+    public RepositoryUnavailableException(String message) {
+        super(message);
+    }
+}
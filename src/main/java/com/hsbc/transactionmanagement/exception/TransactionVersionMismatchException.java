@@ -0,0 +1,7 @@
+package com.hsbc.transactionmanagement.exception;
+
+public class TransactionVersionMismatchException extends RuntimeException {
+    public TransactionVersionMismatchException(String message) {
+        super(message);
+    }
+}
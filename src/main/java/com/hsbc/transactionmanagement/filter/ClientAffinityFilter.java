@@ -0,0 +1,46 @@
+package com.hsbc.transactionmanagement.filter;
+
+import com.hsbc.transactionmanagement.datasource.ClientContext;
+import com.hsbc.transactionmanagement.datasource.ReadYourWritesTracker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the client identity (a client id header, falling back to the remote address) to the
+ * request thread and records successful writes for read-your-writes routing.
+ */
+public class ClientAffinityFilter extends OncePerRequestFilter {
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final String clientIdHeader;
+
+    public ClientAffinityFilter(ReadYourWritesTracker readYourWritesTracker, String clientIdHeader) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.clientIdHeader = clientIdHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String clientId = request.getHeader(clientIdHeader);
+        if (clientId == null || clientId.isBlank()) {
+            clientId = request.getRemoteAddr();
+        }
+        ClientContext.set(clientId);
+        try {
+            filterChain.doFilter(request, response);
+            boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+            if (!read && response.getStatus() < 400) {
+                readYourWritesTracker.recordWrite(clientId);
+            }
+        } finally {
+            ClientContext.clear();
+        }
+    }
+}
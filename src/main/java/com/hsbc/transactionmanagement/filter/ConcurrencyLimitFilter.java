@@ -0,0 +1,126 @@
+package com.hsbc.transactionmanagement.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transactionmanagement.config.ConcurrencyLimitProperties;
+import com.hsbc.transactionmanagement.constant.ErrorMessages;
+import com.hsbc.transactionmanagement.limiter.GradientConcurrencyLimiter;
+import com.hsbc.transactionmanagement.response.CommonResponse;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds load in front of the API once the adaptive limit is reached, answering immediately
+ * with 503 and Retry-After instead of letting requests queue in the servlet container. Reads
+ * and writes are limited independently; batch clients may only fill part of each limit. Async
+ * requests hold their permit until their result is written.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerUtil.getLogger(ConcurrencyLimitFilter.class);
+
+    private final ConcurrencyLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final GradientConcurrencyLimiter readLimiter;
+    private final GradientConcurrencyLimiter writeLimiter;
+
+    private final Counter readRejected;
+    private final Counter readBatchRejected;
+    private final Counter writeRejected;
+    private final Counter writeBatchRejected;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.readLimiter = limiter("read", properties.getRead());
+        this.writeLimiter = limiter("write", properties.getWrite());
+
+        for (GradientConcurrencyLimiter limiter : new GradientConcurrencyLimiter[]{readLimiter, writeLimiter}) {
+            Gauge.builder("transaction.concurrency.limit", limiter, GradientConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("pool", limiter.getName())
+                    .register(meterRegistry);
+            Gauge.builder("transaction.concurrency.inflight", limiter, GradientConcurrencyLimiter::getInflight)
+                    .description("Requests currently admitted by the limiter")
+                    .tag("pool", limiter.getName())
+                    .register(meterRegistry);
+        }
+        this.readRejected = rejectedCounter(meterRegistry, "read", "normal");
+        this.readBatchRejected = rejectedCounter(meterRegistry, "read", "batch");
+        this.writeRejected = rejectedCounter(meterRegistry, "write", "normal");
+        this.writeBatchRejected = rejectedCounter(meterRegistry, "write", "batch");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        boolean batch = properties.getBatchPriority().equalsIgnoreCase(request.getHeader(properties.getPriorityHeader()));
+        GradientConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+
+        if (!limiter.tryAcquire(batch ? properties.getBatchShare() : 1.0)) {
+            (read ? (batch ? readBatchRejected : readRejected) : (batch ? writeBatchRejected : writeRejected)).increment();
+            LoggerUtil.logDebug(logger, "Rejected {} {} at {} limit {}", request.getMethod(), request.getRequestURI(),
+                    limiter.getName(), limiter.getLimit());
+            reject(response);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        boolean returned = false;
+        try {
+            filterChain.doFilter(request, response);
+            returned = true;
+        } finally {
+            if (!returned) {
+                limiter.release(System.nanoTime() - startTime, true);
+            }
+        }
+        // async reads keep their permit until answered, that latency is what the limit adapts to
+        RequestCompletion.whenComplete(request, response, () -> limiter.release(System.nanoTime() - startTime,
+                response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value()));
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                CommonResponse.error(HttpStatus.SERVICE_UNAVAILABLE.value(), ErrorMessages.SERVICE_OVERLOADED));
+    }
+
+    private GradientConcurrencyLimiter limiter(String name, ConcurrencyLimitProperties.Pool pool) {
+        return new GradientConcurrencyLimiter(name, pool.getInitialLimit(), pool.getMinLimit(), pool.getMaxLimit(),
+                properties.getTolerance(), properties.getSmoothing());
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String pool, String priority) {
+        return Counter.builder("transaction.concurrency.rejected")
+                .description("Requests rejected by the concurrency limiter")
+                .tag("pool", pool)
+                .tag("priority", priority)
+                .register(meterRegistry);
+    }
+
+    GradientConcurrencyLimiter getReadLimiter() {
+        return readLimiter;
+    }
+
+    GradientConcurrencyLimiter getWriteLimiter() {
+        return writeLimiter;
+    }
+}
@@ -0,0 +1,50 @@
+package com.hsbc.transactionmanagement.filter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Defers filter work to the end of a request. Requests are complete when the filter chain
+ * returns, unless the handler went async and has not answered yet; those complete when the
+ * async context does. A streaming response is committed before the handler returns and counts
+ * as complete then, so a long-lived stream does not hold on to per-request state.
+ */
+final class RequestCompletion {
+
+    private RequestCompletion() {
+    }
+
+    /** Whether the request is still waiting for its async result after the filter chain returned. */
+    static boolean isPending(HttpServletRequest request, HttpServletResponse response) {
+        return request.isAsyncStarted() && !response.isCommitted();
+    }
+
+    /** Runs {@code action} when the request completes: now, or once its async result is written. */
+    static void whenComplete(HttpServletRequest request, HttpServletResponse response, Runnable action) {
+        if (!isPending(request, response)) {
+            action.run();
+            return;
+        }
+        // also called after a timeout or error, once the error response is written
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                action.run();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+}
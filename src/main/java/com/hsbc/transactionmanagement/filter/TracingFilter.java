@@ -0,0 +1,100 @@
+package com.hsbc.transactionmanagement.filter;
+
+import com.hsbc.transactionmanagement.tracing.SpanKind;
+import com.hsbc.transactionmanagement.tracing.SpanScope;
+import com.hsbc.transactionmanagement.tracing.TraceParent;
+import com.hsbc.transactionmanagement.tracing.Tracer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens the root span of each sampled request, continuing the caller's trace when a W3C
+ * {@code traceparent} header is present. Sampled responses carry the trace back in a
+ * {@code traceparent} header, and the trace id is put in the MDC for the request's log lines.
+ * An async request's span stays open until its result is written, and is current again on
+ * the thread dispatching that result.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID_MDC_KEY = "traceId";
+
+    private static final String SCOPE_ATTRIBUTE = TracingFilter.class.getName() + ".scope";
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            resume(request, response, filterChain);
+            return;
+        }
+        TraceParent parent = TraceParent.parse(request.getHeader(TraceParent.HEADER));
+        SpanScope scope = tracer.startRootSpan(request.getMethod(), SpanKind.SERVER, parent);
+        if (!scope.isSampled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        MDC.put(TRACE_ID_MDC_KEY, scope.span().getTraceId());
+        response.setHeader(TraceParent.HEADER, TraceParent.format(scope.span()));
+        scope.setAttribute("http.request.method", request.getMethod())
+                .setAttribute("url.path", request.getRequestURI());
+        boolean pending = false;
+        try {
+            filterChain.doFilter(request, response);
+            pending = RequestCompletion.isPending(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            scope.recordError(e);
+            throw e;
+        } finally {
+            MDC.remove(TRACE_ID_MDC_KEY);
+            if (pending) {
+                scope.detach();
+                request.setAttribute(SCOPE_ATTRIBUTE, scope);
+                RequestCompletion.whenComplete(request, response, () -> end(scope, request, response));
+            } else {
+                end(scope, request, response);
+            }
+        }
+    }
+
+    private void resume(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!(request.getAttribute(SCOPE_ATTRIBUTE) instanceof SpanScope scope)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try (SpanScope resumed = scope.resume()) {
+            MDC.put(TRACE_ID_MDC_KEY, resumed.span().getTraceId());
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(TRACE_ID_MDC_KEY);
+        }
+    }
+
+    private static void end(SpanScope scope, HttpServletRequest request, HttpServletResponse response) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (route != null) {
+            scope.span().setName(request.getMethod() + " " + route);
+            scope.setAttribute("http.route", route);
+        }
+        scope.setAttribute("http.response.status_code", response.getStatus());
+        scope.close();
+    }
+}
@@ -1,11 +1,17 @@
 package com.hsbc.transactionmanagement.handler;
 
 import com.hsbc.transactionmanagement.constant.ErrorMessages;
+import com.hsbc.transactionmanagement.exception.ArchivedTransactionChangeException;
 import com.hsbc.transactionmanagement.exception.DuplicateTransactionException;
+import com.hsbc.transactionmanagement.exception.InsufficientFundsException;
+import com.hsbc.transactionmanagement.exception.PostedTransactionChangeException;
+import com.hsbc.transactionmanagement.exception.RepositoryUnavailableException;
 import com.hsbc.transactionmanagement.exception.TransactionNotFoundException;
+import com.hsbc.transactionmanagement.exception.TransactionVersionMismatchException;
 import com.hsbc.transactionmanagement.response.CommonResponse;
 import com.hsbc.transactionmanagement.util.LoggerUtil;
 import org.slf4j.Logger;
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -13,6 +19,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -34,6 +41,65 @@ public class GlobalExceptionHandler {
                 .body(CommonResponse.error(409, "Duplicate transaction"));
     }
 
+    @ExceptionHandler(TransactionVersionMismatchException.class)
+    public ResponseEntity<CommonResponse<Map<String, String>>> handleVersionMismatchException(TransactionVersionMismatchException ex) {
+        logger.warn("Transaction version mismatch: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(CommonResponse.error(412, "Transaction version mismatch"));
+    }
+
+    @ExceptionHandler(InsufficientFundsException.class)
+    public ResponseEntity<CommonResponse<Map<String, String>>> handleInsufficientFundsException(InsufficientFundsException ex) {
+        logger.warn("Insufficient funds: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(CommonResponse.error(422, "Insufficient funds"));
+    }
+
+    @ExceptionHandler(PostedTransactionChangeException.class)
+    public ResponseEntity<CommonResponse<Map<String, String>>> handlePostedTransactionChangeException(PostedTransactionChangeException ex) {
+        logger.warn("Posted transaction change attempt: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(CommonResponse.error(409, "Posted transaction cannot be changed"));
+    }
+
+    @ExceptionHandler(ArchivedTransactionChangeException.class)
+    public ResponseEntity<CommonResponse<Map<String, String>>> handleArchivedTransactionChangeException(ArchivedTransactionChangeException ex) {
+        logger.warn("Archived transaction change attempt: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(CommonResponse.error(409, "Archived transaction cannot be changed"));
+    }
+
+    // an account lock that stays busy past the timeout, like any other overload
+    @ExceptionHandler(CannotAcquireLockException.class)
+    public ResponseEntity<CommonResponse<Map<String, String>>> handleCannotAcquireLockException(CannotAcquireLockException ex) {
+        logger.warn("Account lock not acquired: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(CommonResponse.error(503, ErrorMessages.SERVICE_OVERLOADED));
+    }
+
+    // the read executor and its queue are full
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<CommonResponse<Map<String, String>>> handleRejectedExecutionException(RejectedExecutionException ex) {
+        logger.warn("Read rejected: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(CommonResponse.error(503, ErrorMessages.SERVICE_OVERLOADED));
+    }
+
+    // the circuit is open or the bulkhead full, and no stale copy could answer the read
+    @ExceptionHandler(RepositoryUnavailableException.class)
+    public ResponseEntity<CommonResponse<Map<String, String>>> handleRepositoryUnavailableException(RepositoryUnavailableException ex) {
+        logger.warn("Database call refused: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(CommonResponse.error(503, ErrorMessages.DATABASE_UNAVAILABLE));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<CommonResponse<Map<String, String>>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         logger.warn("Validation failed: {}", ex.getMessage());
@@ -0,0 +1,105 @@
+package com.hsbc.transactionmanagement.hibernate;
+
+import com.hsbc.transactionmanagement.config.HibernateStatisticsProperties;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/hibernate}: statement and entity counters since startup or the last reset,
+ * and per query its execution count, rows, average, max and p99 time, most executed first.
+ * A DELETE resets the statistics when {@code transaction.hibernate.reset-enabled} is set, and is
+ * refused otherwise.
+ */
+@Component
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    private final Statistics statistics;
+    private final HibernateStatisticsProperties properties;
+
+    public HibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory,
+                                       HibernateStatisticsProperties properties) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("slowQueryThresholdMillis", properties.getSlowQueryThreshold().toMillis());
+        result.put("startTime", statistics.getStart().toString());
+        result.put("transactionCount", statistics.getTransactionCount());
+        result.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        result.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        result.put("queryExecutionMaxTimeMillis", statistics.getQueryExecutionMaxTime());
+        result.put("entityLoadCount", statistics.getEntityLoadCount());
+        result.put("entityFetchCount", statistics.getEntityFetchCount());
+        result.put("entityInsertCount", statistics.getEntityInsertCount());
+        result.put("entityUpdateCount", statistics.getEntityUpdateCount());
+        result.put("entityDeleteCount", statistics.getEntityDeleteCount());
+        result.put("queries", queries());
+        result.put("entities", entities());
+        return result;
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Map<String, Object>> reset() {
+        if (!properties.isResetEnabled()) {
+            return new WebEndpointResponse<>(Map.of("error", "Resetting statistics is disabled"),
+                    HttpStatus.FORBIDDEN.value());
+        }
+        statistics.clear();
+        return new WebEndpointResponse<>(Map.of("startTime", statistics.getStart().toString()));
+    }
+
+    private List<Map<String, Object>> queries() {
+        List<Map<String, Object>> queries = new ArrayList<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("query", query);
+            description.put("executionCount", queryStatistics.getExecutionCount());
+            description.put("rowCount", queryStatistics.getExecutionRowCount());
+            description.put("avgTimeMillis", queryStatistics.getExecutionAvgTime());
+            description.put("maxTimeMillis", queryStatistics.getExecutionMaxTime());
+            if (statistics instanceof QueryTimingStatistics timing) {
+                double p99 = timing.getQueryExecutionP99Millis(query);
+                description.put("p99TimeMillis", Double.isNaN(p99) ? null : p99);
+            }
+            queries.add(description);
+        }
+        queries.sort(Comparator.comparing(query -> -(long) query.get("executionCount")));
+        return queries;
+    }
+
+    private Map<String, Object> entities() {
+        Map<String, Object> entities = new LinkedHashMap<>();
+        for (String entity : statistics.getEntityNames()) {
+            EntityStatistics entityStatistics = statistics.getEntityStatistics(entity);
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("loadCount", entityStatistics.getLoadCount());
+            description.put("fetchCount", entityStatistics.getFetchCount());
+            description.put("insertCount", entityStatistics.getInsertCount());
+            description.put("updateCount", entityStatistics.getUpdateCount());
+            description.put("deleteCount", entityStatistics.getDeleteCount());
+            entities.put(entity.substring(entity.lastIndexOf('.') + 1), description);
+        }
+        return entities;
+    }
+}
@@ -0,0 +1,74 @@
+package com.hsbc.transactionmanagement.hibernate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate's statistics with a latency distribution per query on top of its counts, averages
+ * and maxima. Each query string gets a {@code transaction.hibernate.query} timer publishing
+ * its p99; to bound the number of meters, queries beyond {@code maxTimedQueries} are timed
+ * together under {@code other}.
+ */
+public class QueryTimingStatistics extends StatisticsImpl {
+
+    static final String OTHER_QUERIES = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxTimedQueries;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public QueryTimingStatistics(SessionFactoryImplementor sessionFactory, MeterRegistry meterRegistry,
+                                 int maxTimedQueries) {
+        super(sessionFactory);
+        this.meterRegistry = meterRegistry;
+        this.maxTimedQueries = maxTimedQueries;
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        if (isStatisticsEnabled()) {
+            timer(hql).record(time, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** The 99th percentile execution time of {@code hql} in milliseconds, or NaN if unknown. */
+    public double getQueryExecutionP99Millis(String hql) {
+        Timer timer = timers.get(hql);
+        if (timer == null) {
+            return Double.NaN;
+        }
+        for (var percentile : timer.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.99) {
+                return percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        timers.values().forEach(meterRegistry::remove);
+        timers.clear();
+    }
+
+    private Timer timer(String hql) {
+        Timer timer = timers.get(hql);
+        if (timer != null) {
+            return timer;
+        }
+        String query = timers.size() < maxTimedQueries ? hql : OTHER_QUERIES;
+        return timers.computeIfAbsent(query, q -> Timer.builder("transaction.hibernate.query")
+                .description("Execution time of HQL, criteria and native queries")
+                .tag("query", q)
+                .publishPercentiles(0.99)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,452 @@
+package com.hsbc.transactionmanagement.importjob;
+
+import com.hsbc.transactionmanagement.constant.TransactionType;
+import com.hsbc.transactionmanagement.entity.Transaction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads transactions from an RFC 4180 CSV file through read-only memory-mapped windows of the
+ * file. Records are split into fields by scanning the mapped bytes in place; only the values
+ * of the columns that become transaction attributes are copied out, so no line is ever
+ * materialised as a {@code String}. Amounts are parsed from their digits and known types reuse
+ * the {@link TransactionType} names.
+ *
+ * <p>The first record is the header. Columns are matched to transaction attributes by name,
+ * ignoring case and underscores ({@code transaction_reference} is {@code transactionReference});
+ * unknown columns are skipped, and {@code accountId} and {@code transactionDate} are optional.
+ * Each row carries the byte offset after it, and a reader opened at such an offset continues
+ * with the next row, which is how an import resumes.
+ */
+public class CsvTransactionReader implements Closeable {
+
+    /**
+     * One record of the file: the parsed transaction, or why it could not be parsed. The
+     * reference is set whenever the column was present, for error reporting.
+     */
+    public record Row(long line, long endOffset, Transaction transaction, String transactionReference, String error) {
+    }
+
+    static final List<String> ATTRIBUTES = List.of("description", "amount", "type", "category",
+            "transactionReference", "accountId", "transactionDate");
+    private static final int REQUIRED_ATTRIBUTES = 5;
+    private static final int DESCRIPTION = 0;
+    private static final int AMOUNT = 1;
+    private static final int TYPE = 2;
+    private static final int CATEGORY = 3;
+    private static final int REFERENCE = 4;
+    private static final int ACCOUNT = 5;
+    private static final int DATE = 6;
+
+    private static final byte[] DEBIT = TransactionType.DEBIT.name().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CREDIT = TransactionType.CREDIT.name().getBytes(StandardCharsets.US_ASCII);
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+    private final int[] columns = new int[ATTRIBUTES.size()];
+    private final int requiredFields;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private long line;
+
+    // fields of the current record, as positions in the window
+    private int fieldCount;
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private boolean[] fieldEscaped = new boolean[16];
+    private int recordLines;
+    private byte[] scratch = new byte[256];
+
+    private CsvTransactionReader(FileChannel channel, int windowSize) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        readHeader();
+        int maxColumn = 0;
+        for (int attribute = 0; attribute < REQUIRED_ATTRIBUTES; attribute++) {
+            maxColumn = Math.max(maxColumn, columns[attribute]);
+        }
+        this.requiredFields = maxColumn + 1;
+    }
+
+    /**
+     * Opens the file and reads its header.
+     *
+     * @param offset     byte offset of the first row to read, 0 for the one after the header
+     * @param line       line number of the record before {@code offset}, ignored when it is 0
+     * @param windowSize bytes mapped at once; no record may be longer
+     * @throws IllegalArgumentException if the header lacks a required column
+     */
+    public static CsvTransactionReader open(Path file, long offset, long line, int windowSize) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            CsvTransactionReader reader = new CsvTransactionReader(channel, windowSize);
+            if (offset > reader.position) {
+                reader.position = Math.min(offset, reader.fileSize);
+                reader.line = line;
+            }
+            return reader;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads up to {@code max} rows into {@code rows}.
+     *
+     * @return the number of rows read, 0 at the end of the file
+     * @throws IOException if the file cannot be read or a record does not fit in the read window
+     */
+    public int read(List<Row> rows, int max) throws IOException {
+        int read = 0;
+        while (read < max && nextRecord()) {
+            if (fieldCount == 1 && fieldStarts[0] == fieldEnds[0] && !fieldEscaped[0]) {
+                continue;
+            }
+            rows.add(toRow());
+            read++;
+        }
+        return read;
+    }
+
+    /** Byte offset after the last row read. */
+    public long getPosition() {
+        return position;
+    }
+
+    /** Line number of the last row read. */
+    public long getLine() {
+        return line;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private void readHeader() throws IOException {
+        if (fileSize >= 3) {
+            map(0);
+            if ((window.get(0) & 0xFF) == 0xEF && (window.get(1) & 0xFF) == 0xBB && (window.get(2) & 0xFF) == 0xBF) {
+                position = 3;
+            }
+        }
+        Arrays.fill(columns, -1);
+        if (!nextRecord()) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        for (int field = 0; field < fieldCount; field++) {
+            String name = text(field).trim().replace("_", "").toLowerCase(Locale.ROOT);
+            for (int attribute = 0; attribute < ATTRIBUTES.size(); attribute++) {
+                if (ATTRIBUTES.get(attribute).toLowerCase(Locale.ROOT).equals(name) && columns[attribute] < 0) {
+                    columns[attribute] = field;
+                }
+            }
+        }
+        List<String> missing = new ArrayList<>();
+        for (int attribute = 0; attribute < REQUIRED_ATTRIBUTES; attribute++) {
+            if (columns[attribute] < 0) {
+                missing.add(ATTRIBUTES.get(attribute));
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing the column(s) " + String.join(", ", missing));
+        }
+    }
+
+    private Row toRow() {
+        long rowLine = line - recordLines + 1;
+        String reference = columns[REFERENCE] < fieldCount ? string(columns[REFERENCE]) : null;
+        if (fieldCount < requiredFields) {
+            return new Row(rowLine, position, null, reference,
+                    "Expected at least " + requiredFields + " columns, found " + fieldCount);
+        }
+        BigDecimal amount = null;
+        if (!isEmpty(columns[AMOUNT])) {
+            amount = decimal(columns[AMOUNT]);
+            if (amount == null) {
+                return new Row(rowLine, position, null, reference, "amount: Invalid amount " + text(columns[AMOUNT]));
+            }
+        }
+        LocalDateTime transactionDate = null;
+        if (columns[DATE] >= 0 && columns[DATE] < fieldCount && !isEmpty(columns[DATE])) {
+            String date = text(columns[DATE]).trim();
+            try {
+                transactionDate = date.length() == 10 ? LocalDate.parse(date).atStartOfDay() : LocalDateTime.parse(date);
+            } catch (DateTimeParseException e) {
+                return new Row(rowLine, position, null, reference, "transactionDate: Invalid date " + date);
+            }
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setDescription(string(columns[DESCRIPTION]));
+        transaction.setAmount(amount);
+        transaction.setType(type(columns[TYPE]));
+        transaction.setCategory(string(columns[CATEGORY]));
+        transaction.setTransactionReference(reference);
+        if (columns[ACCOUNT] >= 0 && columns[ACCOUNT] < fieldCount) {
+            transaction.setAccountId(string(columns[ACCOUNT]));
+        }
+        transaction.setTransactionDate(transactionDate);
+        return new Row(rowLine, position, transaction, reference, null);
+    }
+
+    /**
+     * Splits the record at {@link #position} into fields and moves past it, remapping the
+     * window when the record runs over its end.
+     *
+     * @return {@code false} at the end of the file
+     */
+    private boolean nextRecord() throws IOException {
+        if (position >= fileSize) {
+            return false;
+        }
+        if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+            map(position);
+        }
+        while (true) {
+            int end = scanRecord((int) (position - windowStart));
+            if (end >= 0) {
+                position = windowStart + end;
+                line += recordLines;
+                return true;
+            }
+            if (windowStart == position) {
+                throw new IOException("Record at line " + (line + 1) + " is longer than the read window of "
+                        + windowSize + " bytes");
+            }
+            map(position);
+        }
+    }
+
+    /**
+     * Scans one record starting at {@code start} in the window.
+     *
+     * @return the window index after the record's line break, or -1 if the window ends first
+     * and more of the file follows
+     */
+    private int scanRecord(int start) {
+        int limit = window.limit();
+        boolean lastWindow = windowStart + limit >= fileSize;
+        fieldCount = 0;
+        recordLines = 1;
+        int i = start;
+        while (true) {
+            int fieldStart = i;
+            boolean escaped = false;
+            int fieldEnd;
+            if (i < limit && window.get(i) == '"') {
+                // quoted field: runs to the quote not followed by another one
+                escaped = true;
+                i++;
+                fieldStart = i;
+                while (true) {
+                    if (i >= limit) {
+                        if (!lastWindow) {
+                            return -1;
+                        }
+                        fieldEnd = i;
+                        break;
+                    }
+                    byte b = window.get(i);
+                    if (b == '"') {
+                        if (i + 1 < limit && window.get(i + 1) == '"') {
+                            i += 2;
+                            continue;
+                        }
+                        if (i + 1 >= limit && !lastWindow) {
+                            return -1;
+                        }
+                        fieldEnd = i;
+                        i++;
+                        break;
+                    }
+                    if (b == '\n') {
+                        recordLines++;
+                    }
+                    i++;
+                }
+                // anything between the closing quote and the delimiter is dropped
+                while (i < limit && window.get(i) != ',' && window.get(i) != '\n') {
+                    i++;
+                }
+            } else {
+                while (i < limit) {
+                    byte b = window.get(i);
+                    if (b == ',' || b == '\n') {
+                        break;
+                    }
+                    i++;
+                }
+                fieldEnd = i;
+                if (fieldEnd > fieldStart && (i < limit || lastWindow) && window.get(fieldEnd - 1) == '\r') {
+                    fieldEnd--;
+                }
+            }
+            if (i >= limit && !lastWindow) {
+                return -1;
+            }
+            addField(fieldStart, fieldEnd, escaped);
+            if (i >= limit) {
+                return i;
+            }
+            if (window.get(i) == '\n') {
+                return i + 1;
+            }
+            i++;
+        }
+    }
+
+    private void addField(int start, int end, boolean escaped) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+            fieldEscaped = Arrays.copyOf(fieldEscaped, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldEscaped[fieldCount] = escaped;
+        fieldCount++;
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, fileSize - start));
+    }
+
+    private boolean isEmpty(int field) {
+        return fieldEnds[field] == fieldStarts[field];
+    }
+
+    /** The field's value, {@code null} when it is empty. */
+    private String string(int field) {
+        return isEmpty(field) ? null : text(field);
+    }
+
+    private String text(int field) {
+        int length = copy(field);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    // copies the field's bytes into the scratch buffer, collapsing doubled quotes
+    private int copy(int field) {
+        int start = fieldStarts[field];
+        int length = fieldEnds[field] - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        if (!fieldEscaped[field]) {
+            window.get(start, scratch, 0, length);
+            return length;
+        }
+        int copied = 0;
+        for (int i = start; i < fieldEnds[field]; i++) {
+            byte b = window.get(i);
+            scratch[copied++] = b;
+            if (b == '"') {
+                i++;
+            }
+        }
+        return copied;
+    }
+
+    private String type(int field) {
+        if (matches(field, DEBIT)) {
+            return TransactionType.DEBIT.name();
+        }
+        if (matches(field, CREDIT)) {
+            return TransactionType.CREDIT.name();
+        }
+        return string(field);
+    }
+
+    private boolean matches(int field, byte[] value) {
+        int start = fieldStarts[field];
+        if (fieldEnds[field] - start != value.length) {
+            return false;
+        }
+        for (int i = 0; i < value.length; i++) {
+            if (window.get(start + i) != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a plain decimal straight from the field's bytes into an unscaled long and a scale,
+     * falling back to {@link BigDecimal#BigDecimal(String)} for exponents and values past
+     * 18 digits.
+     *
+     * @return the amount, or {@code null} if the field is not a number
+     */
+    private BigDecimal decimal(int field) {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        while (start < end && window.get(start) == ' ') {
+            start++;
+        }
+        while (end > start && window.get(end - 1) == ' ') {
+            end--;
+        }
+        boolean negative = false;
+        if (start < end && (window.get(start) == '-' || window.get(start) == '+')) {
+            negative = window.get(start) == '-';
+            start++;
+        }
+        long unscaled = 0;
+        int scale = -1;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            byte b = window.get(i);
+            if (b >= '0' && b <= '9') {
+                if (++digits > 18) {
+                    return slowDecimal(field);
+                }
+                unscaled = unscaled * 10 + (b - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return slowDecimal(field);
+            }
+        }
+        if (digits == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    private BigDecimal slowDecimal(int field) {
+        try {
+            return new BigDecimal(text(field).trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
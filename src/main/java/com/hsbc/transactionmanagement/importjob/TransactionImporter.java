@@ -0,0 +1,504 @@
+package com.hsbc.transactionmanagement.importjob;
+
+import com.hsbc.transactionmanagement.account.AccountBalances;
+import com.hsbc.transactionmanagement.cache.TransactionCacheEvictor;
+import com.hsbc.transactionmanagement.config.ImportProperties;
+import com.hsbc.transactionmanagement.count.TransactionCounts;
+import com.hsbc.transactionmanagement.entity.ImportJob;
+import com.hsbc.transactionmanagement.entity.ImportJobError;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.exception.InsufficientFundsException;
+import com.hsbc.transactionmanagement.readmodel.TransactionReadModel;
+import com.hsbc.transactionmanagement.repository.ImportJobErrorRepository;
+import com.hsbc.transactionmanagement.repository.ImportJobRepository;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.stream.TransactionChange;
+import com.hsbc.transactionmanagement.sync.ChangeSequenceTracker;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path.Node;
+import jakarta.validation.TraversableResolver;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.lang.annotation.ElementType;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Runs CSV bulk imports in the background, at most {@code max-concurrent-jobs} at a time.
+ *
+ * <p>A job reads the file {@code batch-size} rows at a time with a
+ * {@link CsvTransactionReader}, validates the rows against the constraints of
+ * {@link Transaction} on {@code validation-threads} threads, and drops references seen earlier
+ * in the file or already in the hot or archive table with one query per batch. The
+ * remaining rows are posted to their accounts and inserted with a JDBC batch in one database
+ * transaction, together with the errors of the batch and the job's counters and offset, so the
+ * job can be resumed after a failure or a restart from exactly the next row.
+ *
+ * <p>Rejected rows do not stop the job: each is counted, and the first
+ * {@code max-recorded-errors} are kept with their line and reason. Imported rows reach the
+ * change feed through their change sequence, and stream subscribers get one
+ * {@code BULK_IMPORTED} event per batch.
+ */
+@Component
+public class TransactionImporter implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger logger = LoggerUtil.getLogger(TransactionImporter.class);
+
+    static final String UPLOAD_DIRECTORY = "uploads";
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+
+    private final TransactionRepository transactionRepository;
+    private final ImportJobRepository jobRepository;
+    private final ImportJobErrorRepository errorRepository;
+    private final AccountBalances accountBalances;
+    private final TransactionCounts transactionCounts;
+    private final TransactionReadModel readModel;
+    private final ChangeSequenceTracker sequenceTracker;
+    private final TransactionCacheEvictor cacheEvictor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ImportProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService jobExecutor;
+    private final ExecutorService validationExecutor;
+    // cancellation flags of the jobs queued or running here
+    private final Map<String, AtomicBoolean> activeJobs = new ConcurrentHashMap<>();
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+    private final Counter duplicateRows;
+
+    public TransactionImporter(TransactionRepository transactionRepository, ImportJobRepository jobRepository, ImportJobErrorRepository errorRepository,
+                               AccountBalances accountBalances, TransactionCounts transactionCounts,
+                               TransactionReadModel readModel, ChangeSequenceTracker sequenceTracker,
+                               TransactionCacheEvictor cacheEvictor, ApplicationEventPublisher eventPublisher,
+                               ValidatorFactory validatorFactory, ImportProperties properties,
+                               PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.jobRepository = jobRepository;
+        this.errorRepository = errorRepository;
+        this.accountBalances = accountBalances;
+        this.transactionCounts = transactionCounts;
+        this.readModel = readModel;
+        this.sequenceTracker = sequenceTracker;
+        this.cacheEvictor = cacheEvictor;
+        this.eventPublisher = eventPublisher;
+        // parsed rows are never managed entities, skip asking JPA whether each attribute is loaded
+        this.validator = validatorFactory.usingContext().traversableResolver(new ReachableTraversableResolver()).getValidator();
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger jobThreads = new AtomicInteger();
+        this.jobExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getMaxConcurrentJobs()), runnable -> {
+            Thread thread = new Thread(runnable, "transaction-import-" + jobThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger validationThreads = new AtomicInteger();
+        this.validationExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getValidationThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "transaction-import-validation-" + validationThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("transaction.import.jobs.active", activeJobs, Map::size)
+                .description("Import jobs queued or running")
+                .register(meterRegistry);
+        this.importedRows = rowCounter(meterRegistry, "imported");
+        this.rejectedRows = rowCounter(meterRegistry, "rejected");
+        this.duplicateRows = rowCounter(meterRegistry, "duplicate");
+    }
+
+    /** Jobs a previous run of the application left unfinished can only be resumed. */
+    @Override
+    public void afterSingletonsInstantiated() {
+        int interrupted = jobRepository.updateStatus(List.of(ImportJob.Status.QUEUED, ImportJob.Status.RUNNING),
+                ImportJob.Status.INTERRUPTED, LocalDateTime.now());
+        if (interrupted > 0) {
+            logger.warn("Marked {} unfinished import jobs as interrupted, resume them to continue", interrupted);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // running jobs are left for the next start to mark as interrupted
+        jobExecutor.shutdownNow();
+        validationExecutor.shutdownNow();
+    }
+
+    /**
+     * Stores an uploaded file in the import directory and queues its import.
+     *
+     * @throws IllegalArgumentException if the file is not a CSV file with the required columns
+     */
+    public ImportJob importUpload(MultipartFile file) throws IOException {
+        String id = UUID.randomUUID().toString();
+        String path = UPLOAD_DIRECTORY + "/" + id + ".csv";
+        Path target = resolve(path);
+        Files.createDirectories(target.getParent());
+        file.transferTo(target);
+        try {
+            return queue(new ImportJob(id, file.getOriginalFilename(), path, checkHeader(target)));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+
+    /**
+     * Queues the import of a file already on the server, given relative to the import directory.
+     *
+     * @throws IllegalArgumentException if the path leaves the import directory, is not a
+     *                                  readable file, or lacks a required column
+     */
+    public ImportJob importLocal(String path) throws IOException {
+        Path file = resolve(path);
+        if (!Files.isRegularFile(file) || !Files.isReadable(file)) {
+            throw new IllegalArgumentException("No readable file at " + path);
+        }
+        String relative = directory().relativize(file).toString();
+        return queue(new ImportJob(UUID.randomUUID().toString(), path, relative, checkHeader(file)));
+    }
+
+    /**
+     * Queues a failed, interrupted or cancelled job again; it continues after the last
+     * committed row.
+     *
+     * @return the job, or empty if there is no job with that id
+     * @throws IllegalStateException if the job is queued, running or completed
+     */
+    public Optional<ImportJob> resume(String id) {
+        return jobRepository.findById(id).map(job -> {
+            if (!job.isResumable() || activeJobs.containsKey(id)) {
+                throw new IllegalStateException("Import job " + id + " is " + job.getStatus() + " and cannot be resumed");
+            }
+            job.setStatus(ImportJob.Status.QUEUED);
+            job.setMessage(null);
+            job.setFinishedAt(null);
+            return queue(job);
+        });
+    }
+
+    /**
+     * Stops a job after the batch in progress commits; a job that is not active is marked
+     * cancelled right away.
+     *
+     * @return the job, or empty if there is no job with that id
+     * @throws IllegalStateException if the job has completed
+     */
+    public Optional<ImportJob> cancel(String id) {
+        return jobRepository.findById(id).map(job -> {
+            AtomicBoolean cancelled = activeJobs.get(id);
+            if (cancelled != null) {
+                cancelled.set(true);
+                return job;
+            }
+            if (job.getStatus() == ImportJob.Status.COMPLETED) {
+                throw new IllegalStateException("Import job " + id + " has completed and cannot be cancelled");
+            }
+            job.setStatus(ImportJob.Status.CANCELLED);
+            job.setUpdatedAt(LocalDateTime.now());
+            return jobRepository.save(job);
+        });
+    }
+
+    public Optional<ImportJob> getJob(String id) {
+        return jobRepository.findById(id);
+    }
+
+    public Page<ImportJob> getJobs(Pageable pageable) {
+        return jobRepository.findAllByOrderByCreatedAtDesc(pageable);
+    }
+
+    public Page<ImportJobError> getErrors(String id, Pageable pageable) {
+        return errorRepository.findByJobIdOrderByLine(id, pageable);
+    }
+
+    private ImportJob queue(ImportJob job) {
+        ImportJob saved = jobRepository.save(job);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        activeJobs.put(saved.getId(), cancelled);
+        jobExecutor.execute(() -> run(saved, cancelled));
+        logger.info("Queued import job {} of {}", saved.getId(), saved.getSource());
+        return saved;
+    }
+
+    private void run(ImportJob job, AtomicBoolean cancelled) {
+        long startTime = System.currentTimeMillis();
+        long previousDuration = job.getDurationMillis();
+        job.setStatus(ImportJob.Status.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getStartedAt());
+        job = jobRepository.save(job);
+        try (CsvTransactionReader reader = CsvTransactionReader.open(resolve(job.getPath()), job.getCommittedOffset(),
+                job.getCommittedLine(), (int) Math.min(Integer.MAX_VALUE, properties.getReadWindow().toBytes()))) {
+            List<CsvTransactionReader.Row> rows = new ArrayList<>(properties.getBatchSize());
+            while (!cancelled.get()) {
+                rows.clear();
+                if (reader.read(rows, properties.getBatchSize()) == 0) {
+                    break;
+                }
+                String[] violations = validate(rows);
+                long duration = previousDuration + System.currentTimeMillis() - startTime;
+                job = commitBatch(job, rows, violations, reader.getPosition(), reader.getLine(), duration);
+            }
+            job.setStatus(cancelled.get() ? ImportJob.Status.CANCELLED : ImportJob.Status.COMPLETED);
+        } catch (Exception e) {
+            logger.error("Import job {} failed at line {}", job.getId(), job.getCommittedLine() + 1, e);
+            job.setStatus(ImportJob.Status.FAILED);
+            job.setMessage(e.getMessage());
+        } finally {
+            activeJobs.remove(job.getId());
+            job.setFinishedAt(LocalDateTime.now());
+            job.setUpdatedAt(job.getFinishedAt());
+            job.setDurationMillis(previousDuration + System.currentTimeMillis() - startTime);
+            job = jobRepository.save(job);
+        }
+        if (job.getStatus() == ImportJob.Status.COMPLETED && job.getPath().startsWith(UPLOAD_DIRECTORY + "/")) {
+            deleteUpload(job);
+        }
+        logger.info("Import job {} {}: {} imported, {} rejected, {} duplicate, {} rows/s, time cost: {}",
+                job.getId(), job.getStatus(), job.getRowsImported(), job.getRowsRejected(), job.getRowsDuplicate(),
+                Math.round(job.getRowsPerSecond()), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Validates the parsed rows of a batch in slices on the validation threads.
+     *
+     * @return the violations of each row joined into one message, {@code null} for valid rows
+     */
+    private String[] validate(List<CsvTransactionReader.Row> rows) {
+        String[] violations = new String[rows.size()];
+        int slices = Math.min(Math.max(1, properties.getValidationThreads()), rows.size());
+        int sliceSize = (rows.size() + slices - 1) / slices;
+        List<CompletableFuture<Void>> futures = new ArrayList<>(slices);
+        for (int start = 0; start < rows.size(); start += sliceSize) {
+            int from = start;
+            int to = Math.min(start + sliceSize, rows.size());
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int i = from; i < to; i++) {
+                    Transaction transaction = rows.get(i).transaction();
+                    if (transaction != null) {
+                        violations[i] = describe(validator.validate(transaction));
+                    }
+                }
+            }, validationExecutor));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        return violations;
+    }
+
+    private static String describe(Set<ConstraintViolation<Transaction>> violations) {
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Writes one batch, retrying it when a reference was inserted concurrently between the
+     * duplicate check and the insert; the retry finds it in the check.
+     */
+    private ImportJob commitBatch(ImportJob previous, List<CsvTransactionReader.Row> rows, String[] violations,
+                                  long offset, long line, long duration) {
+        String jobId = previous.getId();
+        for (int attempt = 1; ; attempt++) {
+            List<Transaction> inserted = new ArrayList<>();
+            try {
+                ImportJob job = transactionTemplate.execute(status ->
+                        writeBatch(jobId, rows, violations, offset, line, duration, inserted));
+                importedRows.increment(inserted.size());
+                rejectedRows.increment(job.getRowsRejected() - previous.getRowsRejected());
+                duplicateRows.increment(job.getRowsDuplicate() - previous.getRowsDuplicate());
+                if (!inserted.isEmpty()) {
+                    cacheEvictor.evictKeys(inserted.stream().map(Transaction::getId).toList(),
+                            inserted.stream().map(Transaction::getTransactionReference).toList());
+                    cacheEvictor.evictListPartitions(inserted);
+                }
+                return job;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_BATCH_ATTEMPTS) {
+                    throw e;
+                }
+                logger.warn("Import job {} batch ending at line {} conflicted with a concurrent write, retrying",
+                        jobId, line);
+            }
+        }
+    }
+
+    private ImportJob writeBatch(String jobId, List<CsvTransactionReader.Row> rows, String[] violations,
+                                 long offset, long line, long duration, List<Transaction> inserted) {
+        ImportJob job = jobRepository.findById(jobId).orElseThrow();
+        List<ImportJobError> errors = new ArrayList<>();
+        int rejected = 0;
+        int duplicates = 0;
+
+        Set<String> seen = new HashSet<>();
+        List<CsvTransactionReader.Row> candidates = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            CsvTransactionReader.Row row = rows.get(i);
+            String error = row.error() != null ? row.error() : violations[i];
+            if (error != null) {
+                rejected++;
+                errors.add(new ImportJobError(jobId, row.line(), row.transactionReference(), error));
+            } else if (!seen.add(row.transactionReference())) {
+                duplicates++;
+                errors.add(new ImportJobError(jobId, row.line(), row.transactionReference(),
+                        "Transaction reference " + row.transactionReference() + " appears earlier in the file"));
+            } else {
+                candidates.add(row);
+            }
+        }
+
+        Set<String> existing = new HashSet<>();
+        if (!candidates.isEmpty()) {
+            existing.addAll(transactionRepository.findExistingReferences(seen));
+        }
+        List<String> accounts = new ArrayList<>();
+        for (CsvTransactionReader.Row row : candidates) {
+            if (row.transaction().getAccountId() != null && !existing.contains(row.transactionReference())) {
+                accounts.add(row.transaction().getAccountId());
+            }
+        }
+        accountBalances.lockAccounts(accounts);
+        sequenceTracker.beginWrite();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (CsvTransactionReader.Row row : candidates) {
+            Transaction transaction = row.transaction();
+            if (existing.contains(row.transactionReference())) {
+                duplicates++;
+                errors.add(new ImportJobError(jobId, row.line(), row.transactionReference(),
+                        "Transaction reference " + row.transactionReference() + " already exists"));
+                continue;
+            }
+            if (transaction.getAccountId() != null) {
+                try {
+                    accountBalances.post(transaction.getAccountId(), transaction.getType(), transaction.getAmount());
+                } catch (InsufficientFundsException e) {
+                    rejected++;
+                    errors.add(new ImportJobError(jobId, row.line(), row.transactionReference(),
+                            "accountId: " + e.getMessage()));
+                    continue;
+                }
+            }
+            if (transaction.getTransactionDate() == null) {
+                transaction.setTransactionDate(now);
+            }
+            transaction.setUpdatedAt(now);
+            inserted.add(transaction);
+        }
+        transactionRepository.insertAll(inserted);
+        inserted.stream()
+                .collect(Collectors.groupingBy(t -> List.of(t.getCategory(), t.getType()), Collectors.counting()))
+                .forEach((partition, count) -> transactionCounts.recordCreated(partition.get(0), partition.get(1), count));
+        readModel.recordInserted(inserted);
+
+        long recorded = Math.min(properties.getMaxRecordedErrors(), job.getRowsRejected() + job.getRowsDuplicate());
+        int room = (int) Math.max(0, properties.getMaxRecordedErrors() - recorded);
+        if (room > 0 && !errors.isEmpty()) {
+            errorRepository.saveAll(errors.subList(0, Math.min(room, errors.size())));
+        }
+
+        job.setRowsImported(job.getRowsImported() + inserted.size());
+        job.setRowsRejected(job.getRowsRejected() + rejected);
+        job.setRowsDuplicate(job.getRowsDuplicate() + duplicates);
+        job.setCommittedOffset(offset);
+        job.setCommittedLine(line);
+        job.setDurationMillis(duration);
+        job.setUpdatedAt(now);
+
+        if (!inserted.isEmpty()) {
+            Map<String, Object> criteria = new LinkedHashMap<>();
+            criteria.put("jobId", jobId);
+            criteria.put("line", line);
+            eventPublisher.publishEvent(TransactionChange.bulkImported(criteria, inserted.size()));
+        }
+        return job;
+    }
+
+    private long checkHeader(Path file) throws IOException {
+        try (CsvTransactionReader reader = CsvTransactionReader.open(file, 0, 0,
+                (int) Math.min(Integer.MAX_VALUE, properties.getReadWindow().toBytes()))) {
+            return reader.getFileSize();
+        }
+    }
+
+    private Path directory() {
+        return properties.getDirectory().toAbsolutePath().normalize();
+    }
+
+    private Path resolve(String path) {
+        Path directory = directory();
+        Path file = directory.resolve(path).normalize();
+        if (!file.startsWith(directory)) {
+            throw new IllegalArgumentException("Path " + path + " is outside the import directory");
+        }
+        return file;
+    }
+
+    private void deleteUpload(ImportJob job) {
+        try {
+            Files.deleteIfExists(resolve(job.getPath()));
+        } catch (IOException e) {
+            logger.warn("Could not delete the upload of import job {}", job.getId(), e);
+        }
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("transaction.import.rows")
+                .description("Rows read by import jobs, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class ReachableTraversableResolver implements TraversableResolver {
+
+        @Override
+        public boolean isReachable(Object traversableObject, Node traversableProperty, Class<?> rootBeanType,
+                                   jakarta.validation.Path pathToTraversableObject, ElementType elementType) {
+            return true;
+        }
+
+        @Override
+        public boolean isCascadable(Object traversableObject, Node traversableProperty, Class<?> rootBeanType,
+                                    jakarta.validation.Path pathToTraversableObject, ElementType elementType) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.hsbc.transactionmanagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Entries leaving a transaction cache: evicted by a write, cleared, or dropped by Caffeine for
+ * size or expiry. Clears and scans are one event with the number of entries they removed.
+ */
+@Name("com.hsbc.transactionmanagement.CacheEviction")
+@Label("Cache Eviction")
+@Category({"Transaction Management", "Cache"})
+@Description("Entries removed from a transaction cache, and why")
+@StackTrace(false)
+public class CacheEvictionEvent extends jdk.jfr.Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Key")
+    @Description("The evicted key, empty when the event covers several entries")
+    String key;
+
+    @Label("Cause")
+    String cause;
+
+    @Label("Entries")
+    long entries;
+
+    /** Records an instant event for {@code entries} entries of {@code cache}, if JFR is recording it. */
+    public static void record(String cache, Object key, String cause, long entries) {
+        CacheEvictionEvent event = new CacheEvictionEvent();
+        if (!event.isEnabled() || entries == 0) {
+            return;
+        }
+        event.cache = cache;
+        event.key = key == null ? null : key.toString();
+        event.cause = cause;
+        event.entries = entries;
+        event.commit();
+    }
+}
@@ -0,0 +1,121 @@
+package com.hsbc.transactionmanagement.jfr;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.response.MultiGetResponse;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records a {@link TransactionOperationEvent} around each {@code TransactionService} call and a
+ * {@link RepositoryCallEvent} around each {@code TransactionRepository} call. Like the tracing
+ * aspect it runs outside the caching advice, so a cacheable operation that made no repository
+ * call was answered from the cache. While JFR is not recording these events, each call costs
+ * one enabled check.
+ */
+@Aspect
+// after ExposeInvocationInterceptor, which the runtime check of this() on repository proxies needs
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class FlightRecorderAspect {
+
+    private static final ThreadLocal<TransactionOperationEvent> currentOperation = new ThreadLocal<>();
+
+    private final Map<Method, Boolean> cacheable = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.hsbc.transactionmanagement.service.TransactionService.*(..))")
+    public Object recordOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        TransactionOperationEvent event = new TransactionOperationEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        event.operation = method.getName();
+        event.cacheable = cacheable.computeIfAbsent(method, m -> AnnotatedElementUtils.hasAnnotation(m, Cacheable.class));
+        Object[] args = joinPoint.getArgs();
+        if (args.length > 0 && args[0] instanceof Long id) {
+            event.transactionId = id;
+        } else if (args.length > 0 && args[0] instanceof String reference && method.getName().endsWith("ByReference")) {
+            event.reference = reference;
+        }
+
+        TransactionOperationEvent previous = currentOperation.get();
+        currentOperation.set(event);
+        event.begin();
+        try {
+            Object result = joinPoint.proceed();
+            event.rows = rows(result);
+            if (result instanceof Transaction transaction) {
+                event.transactionId = transaction.getId();
+                event.reference = transaction.getTransactionReference();
+            }
+            return result;
+        } catch (Throwable e) {
+            event.error = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            currentOperation.set(previous);
+            event.cacheHit = event.cacheable && event.repositoryCalls == 0 && event.error == null;
+            event.commit();
+        }
+    }
+
+    @Around("this(com.hsbc.transactionmanagement.repository.TransactionRepository)")
+    public Object recordRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        TransactionOperationEvent operation = currentOperation.get();
+        if (operation != null) {
+            operation.repositoryCalls++;
+        }
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.method = joinPoint.getSignature().getName();
+        event.begin();
+        try {
+            Object result = joinPoint.proceed();
+            event.rows = rows(result);
+            return result;
+        } catch (Throwable e) {
+            event.error = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    // transactions returned, or the count a bulk write or count query returned
+    private static int rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Number number) {
+            return (int) Math.min(Integer.MAX_VALUE, number.longValue());
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof MultiGetResponse response) {
+            return response.getResults().size() - response.getNotFoundCount();
+        }
+        return result instanceof Boolean ? 0 : 1;
+    }
+}
@@ -0,0 +1,98 @@
+package com.hsbc.transactionmanagement.jfr;
+
+import com.hsbc.transactionmanagement.config.FlightRecorderProperties;
+import jdk.jfr.Recording;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/jfr}: the on-demand flight recording. A POST starts one of the default
+ * duration, or of the duration in the path ({@code /actuator/jfr/10m}); a DELETE stops it; {@code /actuator/jfr/{id}} downloads what it captured so
+ * far, running or stopped, as a {@code .jfr} file. Only registered when
+ * {@code transaction.jfr.endpoint-enabled} is set.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transaction.jfr", name = "endpoint-enabled")
+@Endpoint(id = "jfr")
+public class FlightRecordingEndpoint {
+
+    private final FlightRecordings recordings;
+    private final FlightRecorderProperties properties;
+
+    public FlightRecordingEndpoint(FlightRecordings recordings, FlightRecorderProperties properties) {
+        this.recordings = recordings;
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("settings", properties.getSettings());
+        status.put("maxDuration", properties.getMaxDuration().toString());
+        status.put("maxSizeBytes", properties.getMaxSize().toBytes());
+        status.put("recording", describe(recordings.current()));
+        return status;
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> start() throws IOException, ParseException {
+        return startFor(null);
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> start(@Selector Duration duration) throws IOException, ParseException {
+        return startFor(duration);
+    }
+
+    @DeleteOperation
+    public Map<String, Object> stop() {
+        Recording recording = recordings.stop();
+        return recording == null ? Map.of("status", "no recording") : describe(recording);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector long id) throws IOException {
+        Path file = recordings.dump(id);
+        if (file == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(file));
+    }
+
+    private WebEndpointResponse<Map<String, Object>> startFor(Duration duration) throws IOException, ParseException {
+        try {
+            return new WebEndpointResponse<>(describe(recordings.start(duration)));
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(Map.of("error", e.getMessage()), HttpStatus.CONFLICT.value());
+        }
+    }
+
+    private static Map<String, Object> describe(Recording recording) {
+        if (recording == null) {
+            return null;
+        }
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("id", recording.getId());
+        description.put("state", recording.getState().name());
+        description.put("startTime", recording.getStartTime() == null ? null : recording.getStartTime().toString());
+        description.put("duration", recording.getDuration() == null ? null : recording.getDuration().toString());
+        description.put("sizeBytes", recording.getSize());
+        return description;
+    }
+}
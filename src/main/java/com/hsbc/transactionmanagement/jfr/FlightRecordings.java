@@ -0,0 +1,107 @@
+package com.hsbc.transactionmanagement.jfr;
+
+import com.hsbc.transactionmanagement.config.FlightRecorderProperties;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * The on-demand flight recording. At most one runs at a time, with the configured settings,
+ * for a bounded duration and disk size. A recording is kept after it stops, so it can still be
+ * downloaded, until the next one starts.
+ */
+@Component
+public class FlightRecordings implements DisposableBean {
+
+    private static final Logger logger = LoggerUtil.getLogger(FlightRecordings.class);
+
+    private final FlightRecorderProperties properties;
+    private Recording recording;
+
+    public FlightRecordings(FlightRecorderProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Starts a recording for {@code duration}, or the default duration when {@code null}, cut
+     * to the configured maximum. Discards the previous recording.
+     *
+     * @throws IllegalStateException if a recording is still running
+     */
+    public synchronized Recording start(Duration duration) throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("Recording " + recording.getId() + " is still running");
+        }
+        Configuration configuration = properties.getSettings().endsWith(".jfc")
+                ? Configuration.create(Path.of(properties.getSettings()))
+                : Configuration.getConfiguration(properties.getSettings());
+        discard();
+        Files.createDirectories(properties.getDirectory());
+
+        Duration requested = duration == null ? properties.getDefaultDuration() : duration;
+        Recording started = new Recording(configuration);
+        started.setName("transaction-management");
+        started.setToDisk(true);
+        started.setMaxSize(properties.getMaxSize().toBytes());
+        started.setDuration(requested.compareTo(properties.getMaxDuration()) > 0 ? properties.getMaxDuration() : requested);
+        started.start();
+        recording = started;
+        LoggerUtil.logInfo(logger, "Started flight recording {} with settings {} for {}",
+                started.getId(), properties.getSettings(), started.getDuration());
+        return started;
+    }
+
+    /** Stops the running recording, keeping its data; returns the current recording, if any. */
+    public synchronized Recording stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            LoggerUtil.logInfo(logger, "Stopped flight recording {}", recording.getId());
+        }
+        return recording;
+    }
+
+    /** The running or last recording, or {@code null} if none was started. */
+    public synchronized Recording current() {
+        return recording;
+    }
+
+    /**
+     * Writes what recording {@code id} has captured so far to a file in the recordings
+     * directory, replacing an earlier copy; {@code null} if it is not the current recording.
+     */
+    public synchronized Path dump(long id) throws IOException {
+        if (recording == null || recording.getId() != id) {
+            return null;
+        }
+        Path file = file(recording);
+        recording.dump(file);
+        return file;
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        discard();
+    }
+
+    private void discard() throws IOException {
+        if (recording != null) {
+            recording.close();
+            Files.deleteIfExists(file(recording));
+            recording = null;
+        }
+    }
+
+    private Path file(Recording recording) {
+        return properties.getDirectory().resolve("recording-" + recording.getId() + ".jfr");
+    }
+}
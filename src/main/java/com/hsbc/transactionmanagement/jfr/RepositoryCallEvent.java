@@ -0,0 +1,28 @@
+package com.hsbc.transactionmanagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code TransactionRepository} call, made by the service or by cache loads and background
+ * jobs.
+ */
+@Name("com.hsbc.transactionmanagement.RepositoryCall")
+@Label("Repository Call")
+@Category({"Transaction Management", "Repository"})
+@Description("A TransactionRepository call and the rows it returned or changed")
+@StackTrace(false)
+public class RepositoryCallEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Error")
+    String error;
+}
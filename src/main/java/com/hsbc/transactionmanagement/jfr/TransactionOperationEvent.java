@@ -0,0 +1,47 @@
+package com.hsbc.transactionmanagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call into {@code TransactionService}, from entry to return, including the cache lookup
+ * and the transaction around the method.
+ */
+@Name("com.hsbc.transactionmanagement.TransactionOperation")
+@Label("Transaction Operation")
+@Category({"Transaction Management", "Service"})
+@Description("A TransactionService call, with the transaction it concerned and what it returned")
+@StackTrace(false)
+public class TransactionOperationEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Transaction Id")
+    @Description("0 when the operation concerns no single transaction")
+    long transactionId;
+
+    @Label("Reference")
+    String reference;
+
+    @Label("Cacheable")
+    @Description("Whether the operation reads through a cache")
+    boolean cacheable;
+
+    @Label("Cache Hit")
+    @Description("A cacheable operation answered without calling the repository")
+    boolean cacheHit;
+
+    @Label("Repository Calls")
+    int repositoryCalls;
+
+    @Label("Rows")
+    @Description("Transactions returned, or rows deleted for bulk deletes")
+    int rows;
+
+    @Label("Error")
+    String error;
+}
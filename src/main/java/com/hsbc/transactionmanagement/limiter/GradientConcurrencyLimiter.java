@@ -0,0 +1,126 @@
+package com.hsbc.transactionmanagement.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limit in the style of the gradient algorithm: the limit follows the
+ * ratio between the no-load latency (minimum latency seen in a sliding window of samples) and
+ * the recent latency, so it shrinks as soon as requests queue up behind a slow dependency and
+ * grows back when latency recovers. Failed or dropped requests additionally apply a
+ * multiplicative decrease.
+ *
+ * <p>Admission is a lock-free CAS on the in-flight counter; only the limit update on release
+ * is synchronized.
+ */
+public class GradientConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW_ALPHA = 2.0 / (10 + 1);
+    private static final int BASELINE_WINDOW_SAMPLES = 1000;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double estimatedLimit;
+
+    // guarded by this
+    private double shortRtt;
+    private long baselineRtt;
+    private long windowMinRtt = Long.MAX_VALUE;
+    private int windowSamples;
+
+    public GradientConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double smoothing) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits for " + name + ": min " + minLimit + ", max " + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Admits a request if fewer than {@code share} of the current limit are in flight.
+     *
+     * @param share fraction of the limit the caller may fill, 1.0 for normal priority
+     */
+    public boolean tryAcquire(double share) {
+        int limit = Math.max(1, (int) (estimatedLimit * share));
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and feeds its latency into the limit estimate.
+     *
+     * @param rttNanos latency of the request
+     * @param dropped  whether the request failed in a way that indicates overload
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inflightAtCompletion = inflight.getAndDecrement();
+        update(rttNanos, inflightAtCompletion, dropped);
+    }
+
+    private synchronized void update(long rttNanos, int inflightAtCompletion, boolean dropped) {
+        double limit = estimatedLimit;
+        if (dropped) {
+            estimatedLimit = clamp(limit * DROP_BACKOFF);
+            return;
+        }
+
+        if (baselineRtt == 0) {
+            shortRtt = rttNanos;
+            baselineRtt = rttNanos;
+            return;
+        }
+        shortRtt += SHORT_WINDOW_ALPHA * (rttNanos - shortRtt);
+        // the baseline is the window minimum, restarted periodically so it can also move up
+        baselineRtt = Math.min(baselineRtt, rttNanos);
+        windowMinRtt = Math.min(windowMinRtt, rttNanos);
+        if (++windowSamples >= BASELINE_WINDOW_SAMPLES) {
+            baselineRtt = windowMinRtt;
+            windowMinRtt = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+
+        // the limit is not being exercised, its latency says nothing about a higher limit
+        if (inflightAtCompletion < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineRtt / shortRtt));
+        double queueSize = Math.sqrt(limit);
+        double newLimit = limit * gradient + queueSize;
+        estimatedLimit = clamp(limit * (1 - smoothing) + newLimit * smoothing);
+    }
+
+    private double clamp(double limit) {
+        return Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
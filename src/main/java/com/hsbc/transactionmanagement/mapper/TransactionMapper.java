@@ -0,0 +1,25 @@
+package com.hsbc.transactionmanagement.mapper;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.request.TransactionRequest;
+
+/**
+ * Maps request bodies to entities with plain setters: one entity per request, no reflection.
+ */
+public final class TransactionMapper {
+
+    private TransactionMapper() {
+    }
+
+    /** A new, unsaved transaction; server-assigned attributes are left {@code null}. */
+    public static Transaction toEntity(TransactionRequest request) {
+        Transaction transaction = new Transaction();
+        transaction.setDescription(request.description());
+        transaction.setAmount(request.amount());
+        transaction.setType(request.type());
+        transaction.setCategory(request.category());
+        transaction.setTransactionReference(request.transactionReference());
+        transaction.setAccountId(request.accountId());
+        return transaction;
+    }
+}
@@ -0,0 +1,226 @@
+package com.hsbc.transactionmanagement.readmodel;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Transactions held in memory in skip lists sorted by {@code (transactionDate, id)}: one over
+ * all rows and one per (category, type) partition, matched case-insensitively like the list
+ * filters. A filter on only the category or only the type merges the matching partitions.
+ * <p>
+ * Reads traverse without locking and see each write whole within an index, though a row that
+ * moves between partitions may briefly be missing from, or in both of, a merged read. Writes
+ * are serialized. Rows stored here must not be modified afterwards. Reaching a page costs one
+ * step per skipped row, like an OFFSET scan. The skip lists are kept newest first, as they only
+ * link forwards and every backward step searches from the head: the default newest-first lists
+ * take the fast direction.
+ */
+public class TransactionIndex {
+
+    private static final Comparator<LocalDateTime> DATES = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final Map<Long, Transaction> rows = new ConcurrentHashMap<>();
+    private final Index all = new Index();
+    private final Map<Partition, Index> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * Stores {@code transaction}, replacing the row with the same id unless that row has a
+     * higher version, so a write recorded late cannot overwrite a later one.
+     */
+    public synchronized void put(Transaction transaction) {
+        Key key = new Key(transaction.getTransactionDate(), transaction.getId());
+        Partition partition = Partition.of(transaction.getCategory(), transaction.getType());
+        Transaction previous = rows.get(transaction.getId());
+        if (previous != null && isNewer(previous, transaction)) {
+            return;
+        }
+        rows.put(transaction.getId(), transaction);
+        if (previous != null) {
+            Key previousKey = new Key(previous.getTransactionDate(), previous.getId());
+            Partition previousPartition = Partition.of(previous.getCategory(), previous.getType());
+            if (previousKey.equals(key) && previousPartition.equals(partition)) {
+                // same position, readers see either version and never a gap
+                all.rows.put(key, transaction);
+                partitions.get(partition).rows.put(key, transaction);
+                return;
+            }
+            all.remove(previousKey);
+            partitions.get(previousPartition).remove(previousKey);
+        }
+        all.add(key, transaction);
+        partitions.computeIfAbsent(partition, p -> new Index()).add(key, transaction);
+    }
+
+    /** Removes the row with {@code id}; {@code null} if there was none. */
+    public synchronized Transaction remove(long id) {
+        Transaction previous = rows.remove(id);
+        if (previous != null) {
+            Key key = new Key(previous.getTransactionDate(), previous.getId());
+            all.remove(key);
+            partitions.get(Partition.of(previous.getCategory(), previous.getType())).remove(key);
+        }
+        return previous;
+    }
+
+    /** Removes every row matching {@code predicate}, scanning all of them. */
+    public synchronized int removeIf(Predicate<Transaction> predicate) {
+        List<Long> ids = new ArrayList<>();
+        for (Transaction transaction : rows.values()) {
+            if (predicate.test(transaction)) {
+                ids.add(transaction.getId());
+            }
+        }
+        ids.forEach(this::remove);
+        return ids.size();
+    }
+
+    public Transaction get(long id) {
+        return rows.get(id);
+    }
+
+    public long size() {
+        return all.size.get();
+    }
+
+    /** Rows matching the filter, {@code null} matching any value. */
+    public long count(String category, String type) {
+        long total = 0;
+        for (Index index : indexes(Partition.of(category, type))) {
+            total += index.size.get();
+        }
+        return total;
+    }
+
+    /**
+     * Up to {@code limit} rows matching the filter, in date then id order, after skipping
+     * {@code offset} of them.
+     */
+    public List<Transaction> find(String category, String type, boolean ascending, long offset, int limit) {
+        List<Index> indexes = indexes(Partition.of(category, type));
+        Iterator<Map.Entry<Key, Transaction>> iterator = indexes.size() == 1
+                ? entries(indexes.get(0), ascending)
+                : merge(indexes, ascending);
+        for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        List<Transaction> page = new ArrayList<>(Math.min(limit, 1024));
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next().getValue());
+        }
+        return page;
+    }
+
+    private static boolean isNewer(Transaction stored, Transaction transaction) {
+        return stored.getVersion() != null && transaction.getVersion() != null
+                && stored.getVersion() > transaction.getVersion();
+    }
+
+    private List<Index> indexes(Partition filter) {
+        if (filter.category() == null && filter.type() == null) {
+            return List.of(all);
+        }
+        if (filter.category() != null && filter.type() != null) {
+            Index index = partitions.get(filter);
+            return index == null ? List.of() : List.of(index);
+        }
+        List<Index> matching = new ArrayList<>();
+        partitions.forEach((partition, index) -> {
+            if (filter.matches(partition)) {
+                matching.add(index);
+            }
+        });
+        return matching;
+    }
+
+    private static Iterator<Map.Entry<Key, Transaction>> entries(Index index, boolean ascending) {
+        NavigableMap<Key, Transaction> rows = ascending ? index.rows.descendingMap() : index.rows;
+        return rows.entrySet().iterator();
+    }
+
+    // k-way merge of the partitions' own orders
+    private static Iterator<Map.Entry<Key, Transaction>> merge(List<Index> indexes, boolean ascending) {
+        Comparator<Key> order = ascending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, indexes.size()),
+                (a, b) -> order.compare(a.entry.getKey(), b.entry.getKey()));
+        for (Index index : indexes) {
+            Iterator<Map.Entry<Key, Transaction>> iterator = entries(index, ascending);
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Map.Entry<Key, Transaction> next() {
+                Head head = heads.poll();
+                Map.Entry<Key, Transaction> entry = head.entry;
+                if (head.rest.hasNext()) {
+                    heads.add(new Head(head.rest.next(), head.rest));
+                }
+                return entry;
+            }
+        };
+    }
+
+    private record Head(Map.Entry<Key, Transaction> entry, Iterator<Map.Entry<Key, Transaction>> rest) {
+    }
+
+    record Key(LocalDateTime date, long id) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byDate = DATES.compare(date, other.date);
+            return byDate != 0 ? byDate : Long.compare(id, other.id);
+        }
+    }
+
+    private static final class Index {
+        // skip list sizes are computed by traversal, so each keeps its own count
+        private final ConcurrentSkipListMap<Key, Transaction> rows = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+        private final AtomicLong size = new AtomicLong();
+
+        private void add(Key key, Transaction transaction) {
+            if (rows.put(key, transaction) == null) {
+                size.incrementAndGet();
+            }
+        }
+
+        private void remove(Key key) {
+            if (rows.remove(key) != null) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    record Partition(String category, String type) {
+
+        static Partition of(String category, String type) {
+            return new Partition(normalize(category), normalize(type));
+        }
+
+        boolean matches(Partition partition) {
+            return (category == null || category.equals(partition.category))
+                    && (type == null || type.equals(partition.type));
+        }
+
+        private static String normalize(String value) {
+            return value == null ? null : value.toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.hsbc.transactionmanagement.readmodel;
+
+import com.hsbc.transactionmanagement.config.ReadModelProperties;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Optional in-memory copy of the hot table, a {@link TransactionIndex}, that answers list
+ * requests sorted by transaction date without SQL. The service records every write once its
+ * transaction commits, bulk deletes included, so the model is never invalidated. It is built
+ * from the table after startup and rebuilt every {@code rebuild-interval} to correct writes
+ * that bypass the service; until the first build finishes, lists are read from the database.
+ * <p>
+ * A rebuild holds a second copy of the rows while it runs. Writes committed during a rebuild
+ * are replayed onto its result, so none are lost; a delete recorded before a write of the same
+ * row that committed earlier can leave a deleted row in the model until the next rebuild.
+ */
+@Component
+public class TransactionReadModel implements DisposableBean {
+
+    private static final Logger logger = LoggerUtil.getLogger(TransactionReadModel.class);
+
+    static final String SORT_PROPERTY = "transactionDate";
+
+    private final TransactionRepository transactionRepository;
+    private final ReadModelProperties properties;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor;
+
+    private volatile TransactionIndex index = new TransactionIndex();
+    // writes committed while a rebuild runs, replayed onto its result; guarded by this
+    private List<Consumer<TransactionIndex>> pending;
+    private volatile boolean ready;
+
+    public TransactionReadModel(TransactionRepository transactionRepository, ReadModelProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.properties = properties;
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-read-model-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("transaction.read-model.rows", this, model -> model.index.size())
+                .description("Transactions held by the in-memory read model")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A page of the rows matching the filter, {@code null} matching any value, with its total;
+     * empty when the model cannot answer and the database must be queried: while it is
+     * disabled or being built, inside a transaction, which must see its own writes, and for
+     * unpaged requests or any order other than by transaction date alone.
+     */
+    public Optional<Page<Transaction>> findPage(String category, String type, Pageable pageable) {
+        TransactionIndex serving = servingIndex(pageable);
+        if (serving == null) {
+            return Optional.empty();
+        }
+        List<Transaction> content = serving.find(category, type, isAscending(pageable), pageable.getOffset(),
+                pageable.getPageSize());
+        return Optional.of(new PageImpl<>(content, pageable, serving.count(category, type)));
+    }
+
+    /** Like {@link #findPage} without the total, telling only whether a next slice exists. */
+    public Optional<Slice<Transaction>> findSlice(String category, String type, Pageable pageable) {
+        TransactionIndex serving = servingIndex(pageable);
+        if (serving == null) {
+            return Optional.empty();
+        }
+        List<Transaction> content = serving.find(category, type, isAscending(pageable), pageable.getOffset(),
+                pageable.getPageSize() + 1);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return Optional.of(new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content,
+                pageable, hasNext));
+    }
+
+    /** For creates and updates; {@code transaction} must not be modified afterwards. */
+    public void recordSaved(Transaction transaction) {
+        if (properties.isEnabled()) {
+            afterCommit(index -> index.put(transaction));
+        }
+    }
+
+    /**
+     * For rows inserted without the entity manager, such as imports: reads them back in the
+     * current transaction, as the insert does not return generated columns.
+     */
+    public void recordInserted(Collection<Transaction> transactions) {
+        if (!properties.isEnabled() || transactions.isEmpty()) {
+            return;
+        }
+        List<Transaction> inserted = transactionRepository.findAllById(
+                transactions.stream().map(Transaction::getId).toList());
+        afterCommit(index -> inserted.forEach(index::put));
+    }
+
+    /** For deletes and rows moved to the archive. */
+    public void recordDeleted(Collection<Long> ids) {
+        if (properties.isEnabled() && !ids.isEmpty()) {
+            List<Long> deleted = List.copyOf(ids);
+            afterCommit(index -> deleted.forEach(index::remove));
+        }
+    }
+
+    /** For deletes whose rows are only known by a condition; scans every row. */
+    public void recordDeleted(Predicate<Transaction> deleted) {
+        if (properties.isEnabled()) {
+            afterCommit(index -> index.removeIf(deleted));
+        }
+    }
+
+    /**
+     * For deletes by filter, matching rows like the filtered DELETE: case-insensitively,
+     * {@code to} exclusive, and never rows without a date when a bound is given.
+     */
+    public void recordDeleted(String category, String type, LocalDateTime from, LocalDateTime to) {
+        recordDeleted(t -> (category == null || category.equalsIgnoreCase(t.getCategory()))
+                && (type == null || type.equalsIgnoreCase(t.getType()))
+                && (from == null || t.getTransactionDate() != null && !t.getTransactionDate().isBefore(from))
+                && (to == null || t.getTransactionDate() != null && t.getTransactionDate().isBefore(to)));
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.read-model.rebuild-interval:PT6H}")
+    public void scheduledRebuild() {
+        if (properties.isEnabled()) {
+            // a large table takes a while, the scheduler's thread is shared
+            rebuildExecutor.execute(this::rebuild);
+        }
+    }
+
+    /**
+     * Reads the whole hot table in keyset batches into a new index, replays the writes
+     * committed meanwhile and swaps it in. The previous index keeps serving until then.
+     * Returns {@code false} without reading when disabled or another rebuild is in progress.
+     */
+    public boolean rebuild() {
+        if (!properties.isEnabled() || !rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            TransactionIndex fresh = new TransactionIndex();
+            int batchSize = properties.getRebuildBatchSize();
+            long after = Long.MIN_VALUE;
+            List<Transaction> batch;
+            do {
+                batch = transactionRepository.findAfterId(after, PageRequest.of(0, batchSize));
+                batch.forEach(fresh::put);
+                if (!batch.isEmpty()) {
+                    after = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == batchSize);
+
+            synchronized (this) {
+                pending.forEach(write -> write.accept(fresh));
+                index = fresh;
+                pending = null;
+                ready = true;
+            }
+            logger.info("Rebuilt transaction read model with {} rows, time cost: {}",
+                    fresh.size(), System.currentTimeMillis() - startTime);
+        } catch (RuntimeException e) {
+            logger.warn("Transaction read model rebuild failed, lists fall back to queries", e);
+            synchronized (this) {
+                pending = null;
+                ready = false;
+            }
+        } finally {
+            rebuilding.set(false);
+        }
+        return true;
+    }
+
+    public boolean isReady() {
+        return properties.isEnabled() && ready;
+    }
+
+    public long getRowCount() {
+        return index.size();
+    }
+
+    @Override
+    public void destroy() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private TransactionIndex servingIndex(Pageable pageable) {
+        if (!isReady() || pageable.isUnpaged() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        List<Sort.Order> orders = pageable.getSort().toList();
+        return orders.size() == 1 && SORT_PROPERTY.equals(orders.get(0).getProperty()) ? index : null;
+    }
+
+    private static boolean isAscending(Pageable pageable) {
+        return pageable.getSort().toList().get(0).isAscending();
+    }
+
+    private synchronized void apply(Consumer<TransactionIndex> write) {
+        write.accept(index);
+        if (pending != null) {
+            pending.add(write);
+        }
+    }
+
+    private void afterCommit(Consumer<TransactionIndex> write) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(write);
+                }
+            });
+        } else {
+            apply(write);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.hsbc.transactionmanagement.repository;
+
+import com.hsbc.transactionmanagement.entity.AccountLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface AccountLedgerRepository extends JpaRepository<AccountLedger, String> {
+
+    /**
+     * Every row. Unlike {@code findAll} it does not run read-only, so with read routing it still
+     * reads the primary, where the rows are corrected.
+     */
+    @Query("SELECT l FROM AccountLedger l")
+    List<AccountLedger> readAll();
+
+    /**
+     * Adds an account's row with the given totals, committed at once in a transaction of its
+     * own so its key is not locked until the caller commits.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException if the row already exists
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("INSERT INTO AccountLedger (accountId, balance, postings) VALUES (:accountId, :balance, :postings)")
+    int insert(@Param("accountId") String accountId, @Param("balance") BigDecimal balance,
+               @Param("postings") long postings);
+
+    /** Adds {@code delta} and {@code count} to the account's row; 0 if it has none. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AccountLedger l SET l.balance = l.balance + :delta, l.postings = l.postings + :count " +
+            "WHERE l.accountId = :accountId")
+    int post(@Param("accountId") String accountId, @Param("delta") BigDecimal delta, @Param("count") long count);
+
+    /**
+     * Adds a debit, a negative {@code delta}, unless it would take the balance below
+     * {@code -overdraftLimit}; 0 if it would, or if the account has no row.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AccountLedger l SET l.balance = l.balance + :delta, l.postings = l.postings + :count " +
+            "WHERE l.accountId = :accountId AND l.balance + :delta + :overdraftLimit >= 0")
+    int postWithinLimit(@Param("accountId") String accountId, @Param("delta") BigDecimal delta,
+                        @Param("count") long count, @Param("overdraftLimit") BigDecimal overdraftLimit);
+
+    /**
+     * Sets the account's totals if they are still {@code expected}: a posting committed since
+     * they were read changes them and the correction is skipped.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AccountLedger l SET l.balance = :balance, l.postings = :postings " +
+            "WHERE l.accountId = :accountId AND l.balance = :expectedBalance AND l.postings = :expectedPostings")
+    int correct(@Param("accountId") String accountId, @Param("expectedBalance") BigDecimal expectedBalance,
+                @Param("expectedPostings") long expectedPostings, @Param("balance") BigDecimal balance,
+                @Param("postings") long postings);
+}
@@ -0,0 +1,53 @@
+package com.hsbc.transactionmanagement.repository;
+
+import com.hsbc.transactionmanagement.entity.ArchivedTransaction;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, Long> {
+
+    @Transactional(readOnly = true)
+    Optional<ArchivedTransaction> findByTransactionReference(String transactionReference);
+
+    @Transactional(readOnly = true)
+    List<ArchivedTransaction> findByTransactionReferenceIn(Collection<String> transactionReferences);
+
+    boolean existsByTransactionReference(String transactionReference);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT a FROM ArchivedTransaction a WHERE " +
+            "(:category IS NULL OR a.category IN (SELECT c.id FROM TransactionCategory c WHERE c.nameKey = LOWER(:category))) AND " +
+            "(:type IS NULL OR UPPER(:type) = 'DEBIT' AND a.type = 'DEBIT' OR UPPER(:type) = 'CREDIT' AND a.type = 'CREDIT') AND " +
+            "(:from IS NULL OR a.transactionDate >= :from) AND " +
+            "(:to IS NULL OR a.transactionDate < :to)")
+    Page<ArchivedTransaction> findByFilters(
+            @Param("category") String category,
+            @Param("type") String type,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable);
+
+    /**
+     * Copies hot rows into the archive; the caller deletes them from the hot table in the same
+     * transaction.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transactions_archive " +
+            "(id, description, amount, type_code, category_id, transaction_reference, account_id, transaction_date, version, archived_at) " +
+            "SELECT id, description, amount, type_code, category_id, transaction_reference, account_id, transaction_date, version, " +
+            ":archivedAt " +
+            "FROM transactions WHERE id IN :ids", nativeQuery = true)
+    int copyFromHot(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
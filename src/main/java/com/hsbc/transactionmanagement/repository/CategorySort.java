@@ -0,0 +1,41 @@
+package com.hsbc.transactionmanagement.repository;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+
+/**
+ * Categories are stored as dictionary codes in the order they were first seen, so a sort by
+ * category is rewritten for the list queries to order by the name each row's code stands for.
+ * Other orders are kept as they are.
+ */
+public final class CategorySort {
+
+    static final String CATEGORY = "category";
+
+    private CategorySort() {
+    }
+
+    /**
+     * {@code pageable}, with a category order turned into one by name for a JPQL query whose
+     * transactions are selected as {@code alias}.
+     */
+    public static Pageable byName(Pageable pageable, String alias) {
+        if (pageable.getSort().getOrderFor(CATEGORY) == null) {
+            return pageable;
+        }
+        Sort sort = Sort.unsorted();
+        for (Sort.Order order : pageable.getSort()) {
+            sort = sort.and(CATEGORY.equals(order.getProperty())
+                    ? JpaSort.unsafe(order.getDirection(), nameOf(alias))
+                    : Sort.by(order));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    // the cast compares the stored code, since the attribute itself is typed as the converted name
+    private static String nameOf(String alias) {
+        return "(SELECT sc.name FROM TransactionCategory sc WHERE sc.id = CAST(" + alias + "." + CATEGORY + " AS Integer))";
+    }
+}
@@ -0,0 +1,17 @@
+package com.hsbc.transactionmanagement.repository;
+
+import com.hsbc.transactionmanagement.entity.ImportJobError;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ImportJobErrorRepository extends JpaRepository<ImportJobError, Long> {
+
+    @Transactional(readOnly = true)
+    Page<ImportJobError> findByJobIdOrderByLine(String jobId, Pageable pageable);
+
+    long countByJobId(String jobId);
+}
@@ -0,0 +1,28 @@
+package com.hsbc.transactionmanagement.repository;
+
+import com.hsbc.transactionmanagement.entity.ImportJob;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    @Transactional(readOnly = true)
+    Page<ImportJob> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    /** Marks the jobs left in one of {@code from} by a previous run of the application. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.status = :to, j.updatedAt = :now WHERE j.status IN :from")
+    int updateStatus(@Param("from") Collection<ImportJob.Status> from, @Param("to") ImportJob.Status to,
+                     @Param("now") LocalDateTime now);
+}
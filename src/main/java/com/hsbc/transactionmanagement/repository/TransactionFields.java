@@ -0,0 +1,74 @@
+package com.hsbc.transactionmanagement.repository;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A sparse fieldset of {@link Transaction}: the attributes a client asked for with
+ * {@code fields=}. Names are kept in entity order without duplicates, so {@code amount,id}
+ * and {@code id,amount,id} are the same set and share a cache entry.
+ */
+public record TransactionFields(List<String> names) {
+
+    private static final Map<String, Function<Transaction, Object>> ATTRIBUTES = attributes();
+
+    public TransactionFields {
+        names = List.copyOf(names);
+    }
+
+    /**
+     * Parses a comma-separated list of attribute names, or returns {@code null} for a blank
+     * one, meaning the whole transaction.
+     *
+     * @throws IllegalArgumentException if a name is not a transaction attribute
+     */
+    public static TransactionFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        List<String> requested = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!ATTRIBUTES.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown transaction field: " + name);
+            }
+            requested.add(name);
+        }
+        return new TransactionFields(ATTRIBUTES.keySet().stream().filter(requested::contains).toList());
+    }
+
+    /** Copies the selected attributes of an already loaded transaction. */
+    public Map<String, Object> project(Transaction transaction) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String name : names) {
+            values.put(name, ATTRIBUTES.get(name).apply(transaction));
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", names);
+    }
+
+    private static Map<String, Function<Transaction, Object>> attributes() {
+        Map<String, Function<Transaction, Object>> attributes = new LinkedHashMap<>();
+        attributes.put("id", Transaction::getId);
+        attributes.put("description", Transaction::getDescription);
+        attributes.put("amount", Transaction::getAmount);
+        attributes.put("type", Transaction::getType);
+        attributes.put("category", Transaction::getCategory);
+        attributes.put("transactionReference", Transaction::getTransactionReference);
+        attributes.put("accountId", Transaction::getAccountId);
+        attributes.put("transactionDate", Transaction::getTransactionDate);
+        attributes.put("version", Transaction::getVersion);
+        attributes.put("changeSequence", Transaction::getChangeSequence);
+        attributes.put("updatedAt", Transaction::getUpdatedAt);
+        return attributes;
+    }
+}
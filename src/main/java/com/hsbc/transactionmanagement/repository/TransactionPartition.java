@@ -0,0 +1,14 @@
+package com.hsbc.transactionmanagement.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Category and type of one transaction, the filter columns of the list endpoint, with its
+ * account and amount, which together with the type make up its posting to the account.
+ */
+public record TransactionPartition(String category, String type, String accountId, BigDecimal amount) {
+
+    public TransactionPartition(String category, String type) {
+        this(category, type, null, null);
+    }
+}
@@ -3,29 +3,170 @@ package com.hsbc.transactionmanagement.repository;
 import com.hsbc.transactionmanagement.entity.Transaction;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
 
+    @Transactional(readOnly = true)
     Optional<Transaction> findByTransactionReference(String transactionReference);
 
+    @Transactional(readOnly = true)
+    List<Transaction> findByTransactionReferenceIn(Collection<String> transactionReferences);
+
     boolean existsByTransactionReference(String transactionReference);
 
+    /**
+     * The given references that belong to a hot or an archived transaction, with one
+     * statement over both tables.
+     */
+    @Query(value = "SELECT transaction_reference FROM transactions WHERE transaction_reference IN (:references) " +
+            "UNION ALL " +
+            "SELECT transaction_reference FROM transactions_archive WHERE transaction_reference IN (:references)",
+            nativeQuery = true)
+    List<String> findExistingReferences(@Param("references") Collection<String> references);
+
     boolean existsById(Long id);
 
+    /**
+     * Null filters match anything and matching ignores case. The category matches the codes of
+     * all its spellings, looked up by their lower-cased key; the type literals are converted to
+     * type codes, so rows are only compared by integer codes.
+     */
+    @Transactional(readOnly = true)
     @Query("SELECT t FROM Transaction t WHERE " +
-            "(:category IS NULL OR LOWER(t.category) = LOWER(:category)) AND " +
-            "(:type IS NULL OR LOWER(t.type) = LOWER(:type))")
+            "(:category IS NULL OR t.category IN (SELECT c.id FROM TransactionCategory c WHERE c.nameKey = LOWER(:category))) AND " +
+            "(:type IS NULL OR UPPER(:type) = 'DEBIT' AND t.type = 'DEBIT' OR UPPER(:type) = 'CREDIT' AND t.type = 'CREDIT')")
     Page<Transaction> findByFilters(
             @Param("category") String category,
             @Param("type") String type,
             Pageable pageable);
 
+    // same filter as findByFilters; fetches one extra row to tell whether there is a next slice
+    @Transactional(readOnly = true)
+    @Query("SELECT t FROM Transaction t WHERE " +
+            "(:category IS NULL OR t.category IN (SELECT c.id FROM TransactionCategory c WHERE c.nameKey = LOWER(:category))) AND " +
+            "(:type IS NULL OR UPPER(:type) = 'DEBIT' AND t.type = 'DEBIT' OR UPPER(:type) = 'CREDIT' AND t.type = 'CREDIT')")
+    Slice<Transaction> findSliceByFilters(
+            @Param("category") String category,
+            @Param("type") String type,
+            Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE " +
+            "(:category IS NULL OR t.category IN (SELECT c.id FROM TransactionCategory c WHERE c.nameKey = LOWER(:category))) AND " +
+            "(:type IS NULL OR UPPER(:type) = 'DEBIT' AND t.type = 'DEBIT' OR UPPER(:type) = 'CREDIT' AND t.type = 'CREDIT')")
+    long countByFilters(@Param("category") String category, @Param("type") String type);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT t FROM Transaction t WHERE " +
+            "(:category IS NULL OR t.category IN (SELECT c.id FROM TransactionCategory c WHERE c.nameKey = LOWER(:category))) AND " +
+            "(:type IS NULL OR UPPER(:type) = 'DEBIT' AND t.type = 'DEBIT' OR UPPER(:type) = 'CREDIT' AND t.type = 'CREDIT') AND " +
+            "(:from IS NULL OR t.transactionDate >= :from) AND " +
+            "(:to IS NULL OR t.transactionDate < :to)")
+    Page<Transaction> findByFiltersInRange(
+            @Param("category") String category,
+            @Param("type") String type,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable);
+
+    @Query("SELECT new com.hsbc.transactionmanagement.repository.TransactionPartition(" +
+            "t.category, t.type, t.accountId, t.amount) FROM Transaction t WHERE t.id = :id")
+    Optional<TransactionPartition> findPartitionById(@Param("id") Long id);
+
+    // rows of category, type and row count, grouped by their codes; read-write so it runs on the
+    // primary, counts taken from a lagging replica would be off until the next reconciliation
+    @Transactional
+    @Query("SELECT t.category, t.type, COUNT(t) FROM Transaction t GROUP BY t.category, t.type")
+    List<Object[]> countByPartition();
+
+    // keyset batches in id order for rebuilding in-memory state; read-write so it runs on the
+    // primary, a lagging replica would miss rows whose writes were recorded before the rebuild
+    @Transactional
+    @Query("SELECT t FROM Transaction t WHERE t.id > :after ORDER BY t.id")
+    List<Transaction> findAfterId(@Param("after") long after, Pageable pageable);
+
+    // change feed range up to a bound that is only safe against committed rows; read-write so it
+    // runs on the primary, a lagging replica may not have them yet
+    @Transactional
+    @Query("SELECT t FROM Transaction t WHERE t.changeSequence > :since AND t.changeSequence <= :upTo "
+            + "ORDER BY t.changeSequence")
+    List<Transaction> findChangedBetween(@Param("since") long since, @Param("upTo") long upTo, Pageable pageable);
+
+    @Query("SELECT t.id FROM Transaction t WHERE t.transactionDate < :cutoff ORDER BY t.id")
+    List<Long> findIdsOlderThan(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
     void deleteByTransactionReference(String transactionReference);
+
+    // one statement, and the row count tells a concurrent delete of the same row apart; clears
+    // the persistence context like updateFields so a loaded copy is not returned afterwards
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Transaction t WHERE t.id = :id")
+    int removeById(@Param("id") Long id);
+
+    /**
+     * Signed sum per account over the hot and archive tables in one statement, so a concurrent
+     * archiving run cannot make a row count twice or not at all. Read-write to run on the
+     * primary. Type code 1 is {@code CREDIT}.
+     */
+    @Transactional
+    @Query(value = "SELECT account_id, SUM(CASE WHEN type_code = 1 THEN amount ELSE -amount END), COUNT(*) FROM (" +
+            "SELECT account_id, type_code, amount FROM transactions WHERE account_id IS NOT NULL UNION ALL " +
+            "SELECT account_id, type_code, amount FROM transactions_archive WHERE account_id IS NOT NULL) postings " +
+            "GROUP BY account_id", nativeQuery = true)
+    List<Object[]> sumPostingsByAccount();
+
+    @Query("SELECT t.accountId, SUM(CASE WHEN t.type = 'CREDIT' THEN t.amount ELSE -t.amount END), COUNT(t) " +
+            "FROM Transaction t WHERE t.id IN :ids AND t.accountId IS NOT NULL GROUP BY t.accountId")
+    List<Object[]> sumPostingsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.accountId, SUM(CASE WHEN t.type = 'CREDIT' THEN t.amount ELSE -t.amount END), COUNT(t) " +
+            "FROM Transaction t WHERE t.transactionReference IN :references AND t.accountId IS NOT NULL " +
+            "GROUP BY t.accountId")
+    List<Object[]> sumPostingsByReferences(@Param("references") Collection<String> references);
+
+    // same filter as bulkDeleteByFilters
+    @Query("SELECT t.accountId, SUM(CASE WHEN t.type = 'CREDIT' THEN t.amount ELSE -t.amount END), COUNT(t) " +
+            "FROM Transaction t WHERE t.accountId IS NOT NULL AND " +
+            "(:category IS NULL OR t.category IN (SELECT c.id FROM TransactionCategory c WHERE c.nameKey = LOWER(:category))) AND " +
+            "(:type IS NULL OR UPPER(:type) = 'DEBIT' AND t.type = 'DEBIT' OR UPPER(:type) = 'CREDIT' AND t.type = 'CREDIT') AND " +
+            "(:from IS NULL OR t.transactionDate >= :from) AND " +
+            "(:to IS NULL OR t.transactionDate < :to) GROUP BY t.accountId")
+    List<Object[]> sumPostingsByFilters(
+            @Param("category") String category,
+            @Param("type") String type,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.id IN :ids")
+    int bulkDeleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.transactionReference IN :references")
+    int bulkDeleteByReferences(@Param("references") Collection<String> references);
+
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE " +
+            "(:category IS NULL OR t.category IN (SELECT c.id FROM TransactionCategory c WHERE c.nameKey = LOWER(:category))) AND " +
+            "(:type IS NULL OR UPPER(:type) = 'DEBIT' AND t.type = 'DEBIT' OR UPPER(:type) = 'CREDIT' AND t.type = 'CREDIT') AND " +
+            "(:from IS NULL OR t.transactionDate >= :from) AND " +
+            "(:to IS NULL OR t.transactionDate < :to)")
+    int bulkDeleteByFilters(
+            @Param("category") String category,
+            @Param("type") String type,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.hsbc.transactionmanagement.repository;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Writes only the given attributes of one transaction with a single JPQL UPDATE guarded by
+     * its version, increments the version and moves the row to the head of the change feed with
+     * a freshly drawn change sequence. A managed copy of the row is detached, others are left
+     * alone.
+     *
+     * @param id      id of the transaction to update
+     * @param version version the row must still have
+     * @param changes description, amount, type or category to new value
+     * @return the row's new version, change sequence and write time, empty if the id does not
+     * exist or the version did not match
+     */
+    Optional<TransactionStamp> updateFields(Long id, long version, Map<String, Object> changes);
+
+    /**
+     * Draws the next value of the change sequence shared by transaction writes and tombstones.
+     */
+    long nextChangeSequence();
+
+    /**
+     * Inserts new transactions with one JDBC batch, each row drawing its change sequence
+     * inline, and sets the generated ids on them. Nothing goes through the persistence
+     * context, so no entity callbacks run: dates must already be set.
+     */
+    void insertAll(List<Transaction> transactions);
+
+    /**
+     * Selects only the given attributes of the transactions matching the list filters, one
+     * extra row being fetched to tell whether there is a next slice.
+     *
+     * @return one map of attribute name to value per row, in field order
+     */
+    Slice<Map<String, Object>> findFieldsByFilters(TransactionFields fields, String category, String type,
+                                                   Pageable pageable);
+}
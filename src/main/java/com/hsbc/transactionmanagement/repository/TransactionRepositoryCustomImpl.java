@@ -0,0 +1,185 @@
+package com.hsbc.transactionmanagement.repository;
+
+import com.hsbc.transactionmanagement.constant.TransactionType;
+import com.hsbc.transactionmanagement.dictionary.CategoryDictionary;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.entity.TransactionCategory;
+import com.hsbc.transactionmanagement.entity.TransactionTombstone;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final CategoryDictionary categoryDictionary;
+
+    public TransactionRepositoryCustomImpl(CategoryDictionary categoryDictionary) {
+        this.categoryDictionary = categoryDictionary;
+    }
+
+    @Override
+    public Optional<TransactionStamp> updateFields(Long id, long version, Map<String, Object> changes) {
+        StringBuilder jpql = new StringBuilder("UPDATE Transaction t SET ");
+        changes.keySet().forEach(attribute -> jpql.append("t.").append(updatable(attribute))
+                .append(" = :").append(attribute).append(", "));
+        jpql.append("t.version = t.version + 1, t.updatedAt = :updatedAt, t.changeSequence = :changeSequence")
+                .append(" WHERE t.id = :id AND t.version = :version");
+
+        // the statement bypasses the persistence context: flush pending writes first and drop
+        // a managed copy of this row afterwards, other managed entities stay attached
+        entityManager.flush();
+        LocalDateTime updatedAt = LocalDateTime.now();
+        long changeSequence = nextChangeSequence();
+        Query update = entityManager.createQuery(jpql.toString())
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("changeSequence", changeSequence)
+                .setParameter("id", id)
+                .setParameter("version", version);
+        changes.forEach(update::setParameter);
+        if (update.executeUpdate() == 0) {
+            return Optional.empty();
+        }
+        entityManager.detach(entityManager.getReference(Transaction.class, id));
+        return Optional.of(new TransactionStamp(version + 1, changeSequence, updatedAt));
+    }
+
+    @Override
+    public long nextChangeSequence() {
+        String sql = dialect().getSequenceSupport().getSequenceNextValString(TransactionTombstone.CHANGE_SEQUENCE);
+        return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+
+    @Override
+    public void insertAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        String nextChangeSequence = dialect().getSequenceSupport()
+                .getSelectSequenceNextValString(TransactionTombstone.CHANGE_SEQUENCE);
+        String sql = "INSERT INTO transactions (description, amount, type_code, category_id, transaction_reference, "
+                + "account_id, transaction_date, updated_at, version, change_sequence) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, " + nextChangeSequence + ")";
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"})) {
+                for (Transaction transaction : transactions) {
+                    statement.setString(1, transaction.getDescription());
+                    statement.setBigDecimal(2, transaction.getAmount());
+                    statement.setShort(3, TransactionType.valueOf(transaction.getType()).getCode());
+                    statement.setInt(4, categoryDictionary.codeOf(transaction.getCategory()));
+                    statement.setString(5, transaction.getTransactionReference());
+                    statement.setString(6, transaction.getAccountId());
+                    statement.setTimestamp(7, Timestamp.valueOf(transaction.getTransactionDate()));
+                    statement.setTimestamp(8, Timestamp.valueOf(transaction.getUpdatedAt()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (int i = 0; keys.next() && i < transactions.size(); i++) {
+                        transactions.get(i).setId(keys.getLong(1));
+                        transactions.get(i).setVersion(0L);
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> findFieldsByFilters(TransactionFields fields, String category, String type,
+                                                          Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Transaction> root = query.from(Transaction.class);
+
+        query.multiselect(fields.names().stream().<Selection<?>>map(
+                name -> root.get(name).alias(name)).toList());
+        List<Predicate> predicates = new ArrayList<>();
+        // same filter as findByFilters
+        if (category != null) {
+            Subquery<Integer> codes = query.subquery(Integer.class);
+            Root<TransactionCategory> categories = codes.from(TransactionCategory.class);
+            codes.select(categories.get("id"))
+                    .where(cb.equal(categories.get("nameKey"), cb.lower(cb.literal(category))));
+            predicates.add(root.get("category").in(codes));
+        }
+        if (type != null) {
+            TransactionType match = TransactionType.fromName(type);
+            predicates.add(match == null ? cb.disjunction() : cb.equal(root.get("type"), match.name()));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(orders(pageable.getSort(), query, root, cb));
+
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<Map<String, Object>> content = new ArrayList<>(Math.min(rows.size(), pageable.getPageSize()));
+        for (Tuple row : rows.subList(0, hasNext ? pageable.getPageSize() : rows.size())) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String name : fields.names()) {
+                values.put(name, row.get(name));
+            }
+            content.add(values);
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    // as QueryUtils.toOrders, with a category order by name like CategorySort
+    private static List<Order> orders(Sort sort, CriteriaQuery<?> query, Root<Transaction> root, CriteriaBuilder cb) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (CategorySort.CATEGORY.equals(order.getProperty())) {
+                Subquery<String> name = query.subquery(String.class);
+                Root<TransactionCategory> categories = name.from(TransactionCategory.class);
+                name.select(categories.get("name")).where(cb.equal(categories.get("id"), root.get("category").as(Integer.class)));
+                orders.add(order.isAscending() ? cb.asc(name) : cb.desc(name));
+            } else {
+                orders.addAll(QueryUtils.toOrders(Sort.by(order), root, cb));
+            }
+        }
+        return orders;
+    }
+
+    private static String updatable(String attribute) {
+        return switch (attribute) {
+            case "description", "amount", "type", "category" -> attribute;
+            default -> throw new IllegalArgumentException("Attribute " + attribute + " cannot be updated");
+        };
+    }
+
+    private Dialect dialect() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+    }
+}
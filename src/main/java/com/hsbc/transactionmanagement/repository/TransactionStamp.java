@@ -0,0 +1,10 @@
+package com.hsbc.transactionmanagement.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version, change sequence and write time that one update gave a transaction, known once the
+ * UPDATE matched so the updated row does not need to be read back.
+ */
+public record TransactionStamp(long version, long changeSequence, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,29 @@
+package com.hsbc.transactionmanagement.repository;
+
+import com.hsbc.transactionmanagement.entity.TransactionTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TransactionTombstoneRepository extends JpaRepository<TransactionTombstone, Long>,
+        TransactionTombstoneRepositoryCustom {
+
+    // on the primary, like TransactionRepository.findChangedBetween
+    @Transactional
+    @Query("SELECT t FROM TransactionTombstone t WHERE t.changeSequence > :since AND t.changeSequence <= :upTo "
+            + "ORDER BY t.changeSequence")
+    List<TransactionTombstone> findBetween(@Param("since") long since, @Param("upTo") long upTo, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TransactionTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
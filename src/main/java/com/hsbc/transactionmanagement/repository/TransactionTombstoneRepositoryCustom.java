@@ -0,0 +1,22 @@
+package com.hsbc.transactionmanagement.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Set-based tombstone inserts for the bulk deletes. Each statement inserts one tombstone per
+ * matching transaction with an INSERT ... SELECT and must run in the same database
+ * transaction as, and before, the corresponding DELETE.
+ */
+public interface TransactionTombstoneRepositoryCustom {
+
+    int recordDeletedIds(Collection<Long> ids, LocalDateTime deletedAt);
+
+    int recordDeletedReferences(Collection<String> references, LocalDateTime deletedAt);
+
+    /**
+     * Same filter semantics as {@code TransactionRepository.bulkDeleteByFilters}.
+     */
+    int recordDeletedByFilters(String category, String type, LocalDateTime from, LocalDateTime to,
+                               LocalDateTime deletedAt);
+}
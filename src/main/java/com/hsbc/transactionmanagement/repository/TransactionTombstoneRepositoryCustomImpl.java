@@ -0,0 +1,50 @@
+package com.hsbc.transactionmanagement.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+// run through the entity manager: Spring Data's query parser does not accept INSERT ... SELECT
+public class TransactionTombstoneRepositoryCustomImpl implements TransactionTombstoneRepositoryCustom {
+
+    private static final String INSERT_TOMBSTONES =
+            "INSERT INTO TransactionTombstone (transactionId, transactionReference, deletedAt) "
+                    + "SELECT t.id, t.transactionReference, :deletedAt FROM Transaction t WHERE ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int recordDeletedIds(Collection<Long> ids, LocalDateTime deletedAt) {
+        return entityManager.createQuery(INSERT_TOMBSTONES + "t.id IN :ids")
+                .setParameter("ids", ids)
+                .setParameter("deletedAt", deletedAt)
+                .executeUpdate();
+    }
+
+    @Override
+    public int recordDeletedReferences(Collection<String> references, LocalDateTime deletedAt) {
+        return entityManager.createQuery(INSERT_TOMBSTONES + "t.transactionReference IN :references")
+                .setParameter("references", references)
+                .setParameter("deletedAt", deletedAt)
+                .executeUpdate();
+    }
+
+    @Override
+    public int recordDeletedByFilters(String category, String type, LocalDateTime from, LocalDateTime to,
+                                      LocalDateTime deletedAt) {
+        return entityManager.createQuery(INSERT_TOMBSTONES
+                        + "(:category IS NULL OR t.category IN (SELECT c.id FROM TransactionCategory c WHERE c.nameKey = LOWER(:category))) AND "
+                        + "(:type IS NULL OR UPPER(:type) = 'DEBIT' AND t.type = 'DEBIT' OR UPPER(:type) = 'CREDIT' AND t.type = 'CREDIT') AND "
+                        + "(:from IS NULL OR t.transactionDate >= :from) AND "
+                        + "(:to IS NULL OR t.transactionDate < :to)")
+                .setParameter("category", category)
+                .setParameter("type", type)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("deletedAt", deletedAt)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,32 @@
+package com.hsbc.transactionmanagement.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Ids and/or references of the transactions to delete")
+public class BulkDeleteRequest {
+
+    public static final int MAX_KEYS = 10_000;
+
+    @Size(max = MAX_KEYS, message = "At most 10000 ids can be deleted per request")
+    @Schema(description = "Ids of the transactions to delete", example = "[1, 2, 3]")
+    private List<@NotNull Long> ids = new ArrayList<>();
+
+    @Size(max = MAX_KEYS, message = "At most 10000 references can be deleted per request")
+    @Schema(description = "References of the transactions to delete", example = "[\"REF123456\"]")
+    private List<@NotNull String> references = new ArrayList<>();
+
+    public boolean isEmpty() {
+        return (ids == null || ids.isEmpty()) && (references == null || references.isEmpty());
+    }
+}
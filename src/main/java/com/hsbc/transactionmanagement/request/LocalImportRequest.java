@@ -0,0 +1,16 @@
+package com.hsbc.transactionmanagement.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Body of an import of a file already on the server.
+ */
+@Schema(description = "CSV file on the server to import")
+public record LocalImportRequest(
+
+        @NotBlank(message = "Path is mandatory")
+        @Schema(description = "Path of the file, relative to the import directory", example = "settlement/2023-08-29.csv",
+                required = true)
+        String path) {
+}
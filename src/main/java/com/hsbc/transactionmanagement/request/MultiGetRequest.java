@@ -0,0 +1,36 @@
+package com.hsbc.transactionmanagement.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Ids and/or references of the transactions to fetch")
+public class MultiGetRequest {
+
+    public static final int MAX_KEYS = 1000;
+
+    @Size(max = MAX_KEYS, message = "At most 1000 ids can be fetched per request")
+    @Schema(description = "Ids of the transactions to fetch", example = "[1, 2, 3]")
+    private List<@NotNull Long> ids = new ArrayList<>();
+
+    @Size(max = MAX_KEYS, message = "At most 1000 references can be fetched per request")
+    @Schema(description = "References of the transactions to fetch", example = "[\"REF123456\"]")
+    private List<@NotNull String> references = new ArrayList<>();
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int size() {
+        return (ids == null ? 0 : ids.size()) + (references == null ? 0 : references.size());
+    }
+}
@@ -0,0 +1,44 @@
+package com.hsbc.transactionmanagement.request;
+
+import com.hsbc.transactionmanagement.validation.ValidTransactionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Partial update of a transaction. Only non-null fields are written; the reference and
+ * creation date are immutable and therefore not part of the patch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Partial update of a transaction, absent fields are left unchanged")
+public class TransactionPatchRequest {
+
+    @Size(min = 1, max = 255, message = "Description must be between 1 and 255 characters")
+    @Schema(description = "Description of the transaction", example = "Grocery shopping")
+    private String description;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Amount must be greater than 0")
+    @Digits(integer = 15, fraction = 4)
+    @Schema(description = "Transaction amount", example = "100.50")
+    private BigDecimal amount;
+
+    @ValidTransactionType
+    @Schema(description = "Type of transaction", example = "DEBIT", allowableValues = {"DEBIT", "CREDIT"})
+    private String type;
+
+    @Size(min = 1, max = 100, message = "Category must be between 1 and 100 characters")
+    @Schema(description = "Category of the transaction", example = "Food")
+    private String category;
+
+    public boolean isEmpty() {
+        return description == null && amount == null && type == null && category == null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.hsbc.transactionmanagement.request;
+
+import com.hsbc.transactionmanagement.validation.ValidTransactionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+/**
+ * Body of a create or full update. Server-assigned attributes (id, dates, version) are not
+ * part of it, so a client cannot set them; unknown JSON properties are ignored.
+ */
+@Schema(description = "Client-supplied fields of a transaction")
+public record TransactionRequest(
+
+        @NotBlank(message = "Description is mandatory")
+        @Size(max = 255, message = "Description must be less than 255 characters")
+        @Schema(description = "Description of the transaction", example = "Grocery shopping", required = true)
+        String description,
+
+        @NotNull(message = "Amount is mandatory")
+        @DecimalMin(value = "0.0", inclusive = false, message = "Amount must be greater than 0")
+        @Digits(integer = 15, fraction = 4)
+        @Schema(description = "Transaction amount", example = "100.50", required = true)
+        BigDecimal amount,
+
+        @NotBlank(message = "Type is mandatory")
+        @ValidTransactionType
+        @Schema(description = "Type of transaction", example = "DEBIT", allowableValues = {"DEBIT", "CREDIT"}, required = true)
+        String type,
+
+        @NotBlank(message = "Category is mandatory")
+        @Size(max = 100, message = "Category must be less than 100 characters")
+        @Schema(description = "Category of the transaction", example = "Food", required = true)
+        String category,
+
+        @NotBlank(message = "Transaction reference is mandatory")
+        @Size(max = 50, message = "Transaction reference must be less than 50 characters")
+        @Schema(description = "Unique reference number for the transaction", example = "REF123456", required = true)
+        String transactionReference,
+
+        @Size(max = 50, message = "Account id must be less than 50 characters")
+        @Schema(description = "Account to post the transaction to; fixed once created", example = "ACC-1001")
+        String accountId) {
+}
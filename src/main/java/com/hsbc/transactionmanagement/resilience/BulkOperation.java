@@ -0,0 +1,19 @@
+package com.hsbc.transactionmanagement.resilience;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a writing service method whose work grows with the number of rows it touches, such as
+ * a bulk delete. {@link RepositoryGuardAspect} runs it in the bulk pool, with its own bulkhead,
+ * timeout and circuit breaker, so a long bulk call neither times out as an ordinary write nor
+ * opens the circuit of the ordinary calls.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface BulkOperation {
+}
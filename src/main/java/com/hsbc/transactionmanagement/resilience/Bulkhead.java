@@ -0,0 +1,50 @@
+package com.hsbc.transactionmanagement.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the calls running at once. A caller beyond the bound waits up to {@code maxWait} for
+ * a slot and is then turned away, so a stalled dependency holds at most {@code maxConcurrentCalls}
+ * threads instead of every thread that reaches it.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+
+    public Bulkhead(String name, int maxConcurrentCalls, Duration maxWait) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("Invalid concurrency for bulkhead " + name + ": " + maxConcurrentCalls);
+        }
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    /** Takes a slot, waiting up to the configured time; {@code false} if none became free. */
+    public boolean tryAcquire() {
+        try {
+            return maxWaitNanos <= 0 ? permits.tryAcquire() : permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getActiveCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    public String getName() {
+        return name;
+    }
+}
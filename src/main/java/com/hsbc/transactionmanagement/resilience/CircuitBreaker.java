@@ -0,0 +1,132 @@
+package com.hsbc.transactionmanagement.resilience;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. While closed it keeps the outcome of the last {@code windowSize}
+ * calls and opens once at least {@code minimumCalls} were seen and the failed share reaches the
+ * threshold. While open every call is refused. After {@code openDuration} it lets
+ * {@code halfOpenCalls} trial calls through: if they all succeed it closes with an empty window,
+ * the first failure opens it again.
+ *
+ * <p>The closed state is checked without locking; outcomes are recorded under the lock.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    private volatile State state = State.CLOSED;
+
+    // guarded by this
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCalls;
+    private int windowFailures;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenCalls) {
+        this(name, windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                   Duration openDuration, int halfOpenCalls, LongSupplier nanoClock) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker " + name + ": window " + windowSize
+                    + ", minimum calls " + minimumCalls + ", half-open calls " + halfOpenCalls);
+        }
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+    }
+
+    /** Whether a call may go ahead. A call that is let through must report its outcome with {@link #onResult}. */
+    public boolean tryAcquire() {
+        return state == State.CLOSED || tryAcquireSlow();
+    }
+
+    private synchronized boolean tryAcquireSlow() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openDurationNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    /** Records the outcome of a call let through by {@link #tryAcquire}. */
+    public synchronized void onResult(boolean failed) {
+        switch (state) {
+            case CLOSED -> {
+                if (windowCalls == window.length && window[windowNext]) {
+                    windowFailures--;
+                }
+                window[windowNext] = failed;
+                windowNext = (windowNext + 1) % window.length;
+                windowCalls = Math.min(windowCalls + 1, window.length);
+                if (failed) {
+                    windowFailures++;
+                }
+                if (windowCalls >= minimumCalls && windowFailures * 100.0 / windowCalls >= failureRateThreshold) {
+                    open();
+                }
+            }
+            case HALF_OPEN -> {
+                if (failed) {
+                    open();
+                } else if (++trialsSucceeded >= halfOpenCalls) {
+                    reset();
+                }
+            }
+            // calls started before the circuit opened
+            case OPEN -> {
+            }
+        }
+    }
+
+    /** Closes the circuit and forgets the recorded calls. */
+    public synchronized void reset() {
+        windowNext = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+        state = State.CLOSED;
+    }
+
+    private void open() {
+        openedAt = nanoClock.getAsLong();
+        state = State.OPEN;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
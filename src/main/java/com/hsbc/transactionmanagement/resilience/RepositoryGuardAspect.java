@@ -0,0 +1,192 @@
+package com.hsbc.transactionmanagement.resilience;
+
+import com.hsbc.transactionmanagement.exception.RepositoryUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.dao.UncategorizedDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guards the database work of {@code TransactionService}. It runs inside the caching advice and
+ * outside the transaction advice, so cache hits never reach it and everything a miss does with
+ * the database, from taking a connection to the commit, is inside it. Each call goes through
+ * the bulkhead of its kind, read-only transactions or writes, and then the circuit breaker
+ * shared by both; a refused call fails with {@link RepositoryUnavailableException} without
+ * touching the database. Methods marked {@link BulkOperation} are of a third kind, with a
+ * bulkhead, timeout and circuit breaker of their own, so their length says nothing about the
+ * health of the database for the ordinary calls.
+ * <p>
+ * A call that starts the transaction starts it here with the timeout of its kind, which
+ * Hibernate applies to each statement; a call failing past its timeout fails with a
+ * {@link QueryTimeoutException}. Calls that fail with a database failure, see
+ * {@link #isDatabaseFailure}, or take longer than their timeout count as failures of the
+ * circuit. Calls made while another guarded call is running on the thread are not guarded
+ * again, and methods without {@link Transactional} are not guarded at all.
+ */
+@Aspect
+// inside the caching advice (LOWEST_PRECEDENCE - 2), outside the transaction advice (LOWEST_PRECEDENCE)
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class RepositoryGuardAspect {
+
+    private static final ThreadLocal<Boolean> guarded = new ThreadLocal<>();
+
+    private final Guard read;
+    private final Guard write;
+    private final Guard bulk;
+    private final Map<Method, Optional<Guard>> guards = new ConcurrentHashMap<>();
+
+    public RepositoryGuardAspect(CircuitBreaker circuitBreaker, Bulkhead readBulkhead, Duration readTimeout,
+                                 Bulkhead writeBulkhead, Duration writeTimeout,
+                                 CircuitBreaker bulkCircuitBreaker, Bulkhead bulkBulkhead, Duration bulkTimeout,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.read = new Guard("read", readBulkhead, readTimeout, circuitBreaker, transactionManager, meterRegistry);
+        this.write = new Guard("write", writeBulkhead, writeTimeout, circuitBreaker, transactionManager, meterRegistry);
+        this.bulk = new Guard("bulk", bulkBulkhead, bulkTimeout, bulkCircuitBreaker, transactionManager, meterRegistry);
+    }
+
+    @Around("execution(public * com.hsbc.transactionmanagement.service.TransactionService.*(..))")
+    public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (guarded.get() != null) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Guard guard = guards.computeIfAbsent(method, this::guardOf).orElse(null);
+        if (guard == null) {
+            return joinPoint.proceed();
+        }
+
+        if (!guard.bulkhead.tryAcquire()) {
+            guard.bulkheadRejections.increment();
+            throw new RepositoryUnavailableException("Too many concurrent " + guard.kind + " calls to the database");
+        }
+        guarded.set(Boolean.TRUE);
+        try {
+            if (!guard.circuitBreaker.tryAcquire()) {
+                guard.circuitRejections.increment();
+                throw new RepositoryUnavailableException("Database circuit is " + guard.circuitBreaker.getState());
+            }
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = guard.proceed(joinPoint);
+                failed = System.nanoTime() - start > guard.timeoutNanos;
+                return result;
+            } catch (Throwable e) {
+                boolean late = System.nanoTime() - start > guard.timeoutNanos;
+                failed = late || isDatabaseFailure(e);
+                if (late && !isDatabaseFailure(e)
+                        && (e instanceof UncategorizedDataAccessException || e instanceof TransactionException)) {
+                    // Hibernate reports an expired transaction timeout as a generic transaction failure
+                    throw new QueryTimeoutException("Database " + guard.kind + " call did not complete in time", e);
+                }
+                throw e;
+            } finally {
+                guard.circuitBreaker.onResult(failed);
+            }
+        } finally {
+            guarded.remove();
+            guard.bulkhead.release();
+        }
+    }
+
+    /**
+     * Whether {@code e} means the database could not be reached or did not answer in time, as
+     * opposed to a problem with the call itself such as a constraint violation or lock conflict.
+     */
+    public static boolean isDatabaseFailure(Throwable e) {
+        return e instanceof DataAccessResourceFailureException
+                || e instanceof TransientDataAccessResourceException
+                || e instanceof QueryTimeoutException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof CannotCreateTransactionException
+                || e instanceof TransactionTimedOutException;
+    }
+
+    private Optional<Guard> guardOf(Method method) {
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        if (transactional == null) {
+            return Optional.empty();
+        }
+        if (transactional.readOnly()) {
+            return Optional.of(read);
+        }
+        return Optional.of(AnnotatedElementUtils.hasAnnotation(method, BulkOperation.class) ? bulk : write);
+    }
+
+    private static final class Guard {
+        private final String kind;
+        private final Bulkhead bulkhead;
+        private final long timeoutNanos;
+        private final CircuitBreaker circuitBreaker;
+        private final TransactionTemplate transactionTemplate;
+        private final Counter bulkheadRejections;
+        private final Counter circuitRejections;
+
+        private Guard(String kind, Bulkhead bulkhead, Duration timeout, CircuitBreaker circuitBreaker,
+                      PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+            this.kind = kind;
+            this.bulkhead = bulkhead;
+            this.timeoutNanos = timeout.toNanos();
+            this.circuitBreaker = circuitBreaker;
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+            this.transactionTemplate.setReadOnly("read".equals(kind));
+            // transaction timeouts are whole seconds, and Hibernate fails a statement once less than
+            // a whole second is left, so the transaction gets one second more than the timeout
+            this.transactionTemplate.setTimeout((int) ((timeout.toMillis() + 999) / 1000) + 1);
+            this.bulkheadRejections = rejections(meterRegistry, kind, "bulkhead");
+            this.circuitRejections = rejections(meterRegistry, kind, "circuit");
+        }
+
+        // the service method's own transaction joins the one started here
+        private Object proceed(ProceedingJoinPoint joinPoint) throws Throwable {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                return joinPoint.proceed();
+            }
+            try {
+                return transactionTemplate.execute(status -> {
+                    try {
+                        return joinPoint.proceed();
+                    } catch (RuntimeException | Error e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        throw new UndeclaredThrowableException(e);
+                    }
+                });
+            } catch (UndeclaredThrowableException e) {
+                throw e.getUndeclaredThrowable();
+            }
+        }
+
+        private static Counter rejections(MeterRegistry meterRegistry, String kind, String reason) {
+            return Counter.builder("transaction.resilience.rejections")
+                    .description("Database calls refused by the resilience layer")
+                    .tag("kind", kind)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.hsbc.transactionmanagement.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteResponse {
+    private int deletedCount;
+}
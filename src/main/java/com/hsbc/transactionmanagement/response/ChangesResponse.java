@@ -0,0 +1,21 @@
+package com.hsbc.transactionmanagement.response;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.entity.TransactionTombstone;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangesResponse {
+    // current state of every transaction created or updated since the token
+    private List<Transaction> upserts;
+    private List<TransactionTombstone> deletes;
+    private String nextToken;
+    // true when the batch was cut at the limit and the next token should be fetched right away
+    private boolean hasMore;
+}
@@ -55,6 +55,10 @@ public class CommonResponse<T> {
         return error(409, message);
     }
 
+    public static <T> CommonResponse<T> preconditionFailed(String message) {
+        return error(412, message);
+    }
+
     public static <T> CommonResponse<T> internalError(String message) {
         return error(500, message);
     }
@@ -0,0 +1,41 @@
+package com.hsbc.transactionmanagement.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Results of a multi-get: one per requested id, then one per requested reference, in request
+ * order (duplicates included).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiGetResponse {
+    private List<Item> results;
+    private int notFoundCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item {
+        // the requested key, only one of the two is set
+        private Long id;
+        private String reference;
+        private boolean found;
+        private Transaction transaction;
+
+        public static Item ofId(Long id, Transaction transaction) {
+            return new Item(id, null, transaction != null, transaction);
+        }
+
+        public static Item ofReference(String reference, Transaction transaction) {
+            return new Item(null, reference, transaction != null, transaction);
+        }
+    }
+}
@@ -1,21 +1,26 @@
 package com.hsbc.transactionmanagement.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PagedResponse<T> {
     private List<T> content;
     private int currentPage;
-    private int totalPages;
-    private long totalItems;
+    // null when the client asked to skip totals
+    private Integer totalPages;
+    private Long totalItems;
     private int pageSize;
+    private boolean hasNext;
 
     public static <T> PagedResponse<T> fromPage(Page<T> page) {
         return new PagedResponse<>(
@@ -23,7 +28,19 @@ public class PagedResponse<T> {
                 page.getNumber(),
                 page.getTotalPages(),
                 page.getTotalElements(),
-                page.getSize()
+                page.getSize(),
+                page.hasNext()
+        );
+    }
+
+    public static <T> PagedResponse<T> fromSlice(Slice<T> slice) {
+        return new PagedResponse<>(
+                slice.getContent(),
+                slice.getNumber(),
+                null,
+                null,
+                slice.getSize(),
+                slice.hasNext()
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+package com.hsbc.transactionmanagement.service;
+
+import com.hsbc.transactionmanagement.cache.AsyncCaffeineCache;
+import com.hsbc.transactionmanagement.cache.NegativeCachingCaffeineCache;
+import com.hsbc.transactionmanagement.cache.StaleTransaction;
+import com.hsbc.transactionmanagement.cache.TransactionCacheEvictor;
+import com.hsbc.transactionmanagement.cache.TransactionListCacheKey;
+import com.hsbc.transactionmanagement.config.ReadExecutorProperties;
+import com.hsbc.transactionmanagement.datasource.ClientContext;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.readmodel.TransactionReadModel;
+import com.hsbc.transactionmanagement.repository.TransactionFields;
+import com.hsbc.transactionmanagement.resilience.RepositoryGuardAspect;
+import com.hsbc.transactionmanagement.tracing.Tracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking variants of the {@link TransactionService} reads. A value already in the cache,
+ * or already being loaded, is returned without leaving the caller's thread; anything else is
+ * read through the service on a bounded executor, so the caller's thread is free while the
+ * query runs. Those loads fill the cache exactly like the blocking reads, keys included.
+ * <p>
+ * When the executor and its queue are full, calls fail with a
+ * {@link java.util.concurrent.RejectedExecutionException} before anything is started. Calls
+ * made inside a transaction read on the caller's thread, within that transaction.
+ * <p>
+ * When the database cannot answer a read by id or reference, the entry's stale copy is returned
+ * as a {@link StaleTransaction} instead of the failure, if the cache still has one.
+ * <p>
+ * Lists without a date range are answered by the {@link TransactionReadModel} when it is
+ * enabled and can serve the request, without the cache or the executor.
+ */
+@Service
+public class AsyncTransactionService implements DisposableBean {
+
+    private final TransactionService transactionService;
+    private final TransactionReadModel readModel;
+    private final Cache transactionCache;
+    private final Cache transactionsCache;
+    private final ThreadPoolExecutor readPool;
+    private final Executor readExecutor;
+
+    public AsyncTransactionService(TransactionService transactionService, TransactionReadModel readModel,
+                                   CacheManager cacheManager,
+                                   ReadExecutorProperties properties, Tracer tracer,
+                                   ObjectProvider<TaskDecorator> taskDecorators, MeterRegistry meterRegistry) {
+        this.transactionService = transactionService;
+        this.readModel = readModel;
+        this.transactionCache = cacheManager.getCache(TransactionCacheEvictor.TRANSACTION_CACHE);
+        this.transactionsCache = cacheManager.getCache(TransactionCacheEvictor.TRANSACTIONS_CACHE);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.readPool = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())), runnable -> {
+            Thread thread = new Thread(runnable, "transaction-read-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // loads run with the request's span, client id (for read-your-writes routing) and MDC
+        List<TaskDecorator> decorators = taskDecorators.orderedStream().toList();
+        this.readExecutor = task -> {
+            Runnable decorated = tracer.wrap(ClientContext.wrap(withMdc(task)));
+            for (TaskDecorator decorator : decorators) {
+                decorated = decorator.decorate(decorated);
+            }
+            readPool.execute(decorated);
+        };
+        new ExecutorServiceMetrics(readPool, "transaction.read", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    public CompletableFuture<Transaction> getTransactionById(Long id) {
+        return orStale(id, lookup(transactionCache, id, () -> transactionService.getTransactionById(id)));
+    }
+
+    public CompletableFuture<Transaction> getTransactionByReference(String reference) {
+        String key = TransactionCacheEvictor.REFERENCE_KEY_PREFIX + reference;
+        return orStale(key, lookup(transactionCache, key, () -> transactionService.getTransactionByReference(reference)));
+    }
+
+    public CompletableFuture<Page<Transaction>> getAllTransactions(String category, String type, Pageable pageable) {
+        Optional<Page<Transaction>> page = readModel.findPage(category, type, pageable);
+        if (page.isPresent()) {
+            return CompletableFuture.completedFuture(page.get());
+        }
+        return lookup(transactionsCache, TransactionListCacheKey.of(category, type, pageable),
+                () -> transactionService.getAllTransactions(category, type, pageable));
+    }
+
+    public CompletableFuture<Slice<Transaction>> getTransactionSlice(String category, String type, Pageable pageable) {
+        Optional<Slice<Transaction>> slice = readModel.findSlice(category, type, pageable);
+        if (slice.isPresent()) {
+            return CompletableFuture.completedFuture(slice.get());
+        }
+        return load(() -> transactionService.getTransactionSlice(category, type, pageable));
+    }
+
+    public CompletableFuture<Page<Map<String, Object>>> getTransactionFields(TransactionFields fields, String category,
+                                                                             String type, Pageable pageable) {
+        Optional<Page<Transaction>> page = readModel.findPage(category, type, pageable);
+        if (page.isPresent()) {
+            return CompletableFuture.completedFuture(page.get().map(fields::project));
+        }
+        return lookup(transactionsCache, TransactionListCacheKey.of(category, type, fields, pageable),
+                () -> transactionService.getTransactionFields(fields, category, type, pageable));
+    }
+
+    public CompletableFuture<Slice<Map<String, Object>>> getTransactionFieldsSlice(TransactionFields fields,
+                                                                                   String category, String type,
+                                                                                   Pageable pageable) {
+        Optional<Slice<Transaction>> slice = readModel.findSlice(category, type, pageable);
+        if (slice.isPresent()) {
+            return CompletableFuture.completedFuture(slice.get().map(fields::project));
+        }
+        return load(() -> transactionService.getTransactionFieldsSlice(fields, category, type, pageable));
+    }
+
+    public CompletableFuture<Page<Transaction>> getTransactionsInRange(String category, String type, LocalDateTime from,
+                                                                       LocalDateTime to, Pageable pageable) {
+        return lookup(transactionsCache, TransactionListCacheKey.of(category, type, from, to, pageable),
+                () -> transactionService.getTransactionsInRange(category, type, from, to, pageable));
+    }
+
+    @Override
+    public void destroy() {
+        readPool.shutdownNow();
+    }
+
+    // keys must match the @Cacheable definitions of the service methods the loaders call
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> lookup(Cache cache, Object key, Supplier<T> loader) {
+        CompletableFuture<Object> cached = cache instanceof AsyncCaffeineCache asyncCache ? asyncCache.peek(key) : null;
+        return cached != null ? (CompletableFuture<T>) cached : load(loader);
+    }
+
+    // a read the database could not answer falls back to the stale copy of the entry, if any
+    private CompletableFuture<Transaction> orStale(Object key, CompletableFuture<Transaction> read) {
+        if (!(transactionCache instanceof NegativeCachingCaffeineCache negativeCache)) {
+            return read;
+        }
+        return read.exceptionallyCompose(ex -> {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            Object stale = RepositoryGuardAspect.isDatabaseFailure(cause) ? negativeCache.getStale().getIfPresent(key) : null;
+            return stale instanceof Transaction transaction
+                    ? CompletableFuture.completedFuture(StaleTransaction.of(transaction))
+                    : CompletableFuture.failedFuture(cause);
+        });
+    }
+
+    private <T> CompletableFuture<T> load(Supplier<T> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // another thread would not see the caller's uncommitted writes
+            try {
+                return CompletableFuture.completedFuture(loader.get());
+            } catch (RuntimeException ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+        }
+        return CompletableFuture.supplyAsync(loader, readExecutor);
+    }
+
+    private static Runnable withMdc(Runnable task) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        if (context == null) {
+            return task;
+        }
+        return () -> {
+            MDC.setContextMap(context);
+            try {
+                task.run();
+            } finally {
+                MDC.clear();
+            }
+        };
+    }
+}
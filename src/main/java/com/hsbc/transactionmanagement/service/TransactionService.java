@@ -1,98 +1,568 @@
 package com.hsbc.transactionmanagement.service;
 
+import com.hsbc.transactionmanagement.account.AccountBalances;
+import com.hsbc.transactionmanagement.archive.TransactionArchive;
+import com.hsbc.transactionmanagement.cache.TransactionBulkCache;
+import com.hsbc.transactionmanagement.cache.TransactionCacheEvictor;
+import com.hsbc.transactionmanagement.count.TransactionCounts;
 import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.entity.TransactionTombstone;
+import com.hsbc.transactionmanagement.exception.ArchivedTransactionChangeException;
 import com.hsbc.transactionmanagement.exception.DuplicateTransactionException;
+import com.hsbc.transactionmanagement.exception.PostedTransactionChangeException;
 import com.hsbc.transactionmanagement.exception.TransactionNotFoundException;
+import com.hsbc.transactionmanagement.exception.TransactionVersionMismatchException;
+import com.hsbc.transactionmanagement.readmodel.TransactionReadModel;
+import com.hsbc.transactionmanagement.repository.CategorySort;
+import com.hsbc.transactionmanagement.repository.TransactionFields;
+import com.hsbc.transactionmanagement.repository.TransactionPartition;
 import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.repository.TransactionStamp;
+import com.hsbc.transactionmanagement.repository.TransactionTombstoneRepository;
+import com.hsbc.transactionmanagement.request.TransactionPatchRequest;
+import com.hsbc.transactionmanagement.resilience.BulkOperation;
+import com.hsbc.transactionmanagement.response.MultiGetResponse;
+import com.hsbc.transactionmanagement.stream.TransactionChange;
+import com.hsbc.transactionmanagement.sync.ChangeSequenceTracker;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 
 @Service
 public class TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final CacheManager cacheManager;
+    private final TransactionCacheEvictor cacheEvictor;
+    private final TransactionArchive transactionArchive;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTombstoneRepository tombstoneRepository;
+    private final TransactionCounts transactionCounts;
+    private final TransactionBulkCache bulkCache;
+    private final AccountBalances accountBalances;
+    private final TransactionReadModel readModel;
+    private final ChangeSequenceTracker sequenceTracker;
+
+    @Value("${transaction.bulk-delete.chunk-size:500}")
+    private int bulkDeleteChunkSize = 500;
+
+    @Value("${transaction.multi-get.chunk-size:500}")
+    private int multiGetChunkSize = 500;
 
     @Autowired
-    public TransactionService(TransactionRepository transactionRepository, CacheManager cacheManager) {
+    public TransactionService(TransactionRepository transactionRepository, CacheManager cacheManager,
+                              TransactionCacheEvictor cacheEvictor, TransactionArchive transactionArchive,
+                              ApplicationEventPublisher eventPublisher,
+                              TransactionTombstoneRepository tombstoneRepository,
+                              TransactionCounts transactionCounts, TransactionBulkCache bulkCache,
+                              AccountBalances accountBalances, TransactionReadModel readModel,
+                              ChangeSequenceTracker sequenceTracker) {
         this.transactionRepository = transactionRepository;
         this.cacheManager = cacheManager;
+        this.cacheEvictor = cacheEvictor;
+        this.transactionArchive = transactionArchive;
+        this.eventPublisher = eventPublisher;
+        this.tombstoneRepository = tombstoneRepository;
+        this.transactionCounts = transactionCounts;
+        this.bulkCache = bulkCache;
+        this.accountBalances = accountBalances;
+        this.readModel = readModel;
+        this.sequenceTracker = sequenceTracker;
     }
 
+    // the id is only known after the insert, both keys may hold a cached "not found"; a posted
+    // transaction's account stays locked from the funds check until the insert commits
     @Caching(evict = {
             @CacheEvict(value = "transactions", allEntries = true),
-            @CacheEvict(value = "transaction", key = "#transaction.id", condition = "#transaction.id != null")
+            @CacheEvict(value = "transaction", key = "#result.id"),
+            @CacheEvict(value = "transaction", key = "'ref_' + #transaction.transactionReference")
     })
+    @Transactional
     public Transaction createTransaction(Transaction transaction) {
-        if (transactionRepository.existsByTransactionReference(transaction.getTransactionReference())) {
+        if (transactionRepository.existsByTransactionReference(transaction.getTransactionReference())
+                || transactionArchive.existsByReference(transaction.getTransactionReference())) {
             throw new DuplicateTransactionException(
                     "Transaction with reference " + transaction.getTransactionReference() + " already exists");
         }
+        if (transaction.getAccountId() != null) {
+            accountBalances.post(transaction.getAccountId(), transaction.getType(), transaction.getAmount());
+        }
+        sequenceTracker.beginWrite();
+        transaction.setChangeSequence(transactionRepository.nextChangeSequence());
         Transaction savedTransaction = transactionRepository.save(transaction);
+        transactionCounts.recordCreated(savedTransaction.getCategory(), savedTransaction.getType());
+        readModel.recordSaved(savedTransaction);
+        eventPublisher.publishEvent(TransactionChange.created(savedTransaction));
         return savedTransaction;
     }
 
-    @Cacheable(value = "transaction", key = "#id")
+    @Cacheable(value = "transaction", key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public Transaction getTransactionById(Long id) {
-        return transactionRepository.findById(id).orElse(null);
+        return readTransaction(id);
     }
 
-    @Cacheable(value = "transaction", key = "'ref_' + #reference")
+    @Cacheable(value = "transaction", key = "'ref_' + #reference", sync = true)
+    @Transactional(readOnly = true)
     public Transaction getTransactionByReference(String reference) {
-        return transactionRepository.findByTransactionReference(reference).orElse(null);
+        return readTransactionByReference(reference);
+    }
+
+    /*
+     * The read*() methods are the uncached loads behind the @Cacheable methods. The cache loader
+     * calls them too, to refresh an entry from its key alone.
+     */
+
+    @Transactional(readOnly = true)
+    public Transaction readTransaction(Long id) {
+        return transactionRepository.findById(id).or(() -> transactionArchive.findById(id)).orElse(null);
+    }
+
+    @Transactional(readOnly = true)
+    public Transaction readTransactionByReference(String reference) {
+        return transactionRepository.findByTransactionReference(reference)
+                .or(() -> transactionArchive.findByReference(reference)).orElse(null);
+    }
+
+    /**
+     * Looks up many transactions at once: one bulk read of the {@code transaction} cache, then
+     * for the misses a chunked IN query per key kind, and the archive only for keys the hot
+     * table does not have. Found and missing keys are cached like single lookups.
+     */
+    @Transactional(readOnly = true)
+    public MultiGetResponse getTransactions(List<Long> ids, List<String> references) {
+        List<Object> keys = new ArrayList<>(ids.size() + references.size());
+        keys.addAll(ids);
+        references.forEach(reference -> keys.add(TransactionCacheEvictor.REFERENCE_KEY_PREFIX + reference));
+        Map<Object, Transaction> found = bulkCache.getAll(keys, this::loadTransactions);
+
+        List<MultiGetResponse.Item> results = new ArrayList<>(keys.size());
+        ids.forEach(id -> results.add(MultiGetResponse.Item.ofId(id, found.get(id))));
+        references.forEach(reference -> results.add(MultiGetResponse.Item.ofReference(reference,
+                found.get(TransactionCacheEvictor.REFERENCE_KEY_PREFIX + reference))));
+        int notFound = (int) results.stream().filter(item -> !item.isFound()).count();
+        return new MultiGetResponse(results, notFound);
     }
 
-    @Cacheable(value = "transactions", key = "T(java.util.Objects).hash(#pageable.pageNumber, #pageable.pageSize, #category, #type)")
+    private Map<Object, Transaction> loadTransactions(Set<Object> keys) {
+        Set<Long> ids = new LinkedHashSet<>();
+        Set<String> references = new LinkedHashSet<>();
+        for (Object key : keys) {
+            if (key instanceof Long id) {
+                ids.add(id);
+            } else {
+                references.add(((String) key).substring(TransactionCacheEvictor.REFERENCE_KEY_PREFIX.length()));
+            }
+        }
+
+        Map<Object, Transaction> loaded = new HashMap<>();
+        for (List<Long> chunk : chunks(ids, multiGetChunkSize)) {
+            transactionRepository.findAllById(chunk).forEach(t -> loaded.put(t.getId(), t));
+        }
+        for (List<String> chunk : chunks(references, multiGetChunkSize)) {
+            transactionRepository.findByTransactionReferenceIn(chunk)
+                    .forEach(t -> loaded.put(TransactionCacheEvictor.REFERENCE_KEY_PREFIX + t.getTransactionReference(), t));
+        }
+
+        ids.removeIf(loaded::containsKey);
+        references.removeIf(reference -> loaded.containsKey(TransactionCacheEvictor.REFERENCE_KEY_PREFIX + reference));
+        for (List<Long> chunk : chunks(ids, multiGetChunkSize)) {
+            transactionArchive.findAllById(chunk).forEach(t -> loaded.put(t.getId(), t));
+        }
+        for (List<String> chunk : chunks(references, multiGetChunkSize)) {
+            transactionArchive.findAllByReference(chunk)
+                    .forEach(t -> loaded.put(TransactionCacheEvictor.REFERENCE_KEY_PREFIX + t.getTransactionReference(), t));
+        }
+        return loaded;
+    }
+
+    @Cacheable(value = "transactions", key = "T(com.hsbc.transactionmanagement.cache.TransactionListCacheKey).of(#category, #type, #pageable)",
+            sync = true)
+    @Transactional(readOnly = true)
     public Page<Transaction> getAllTransactions(String category, String type, Pageable pageable) {
-        return transactionRepository.findByFilters(category, type, pageable);
+        return readTransactionPage(category, type, pageable);
     }
 
-    @Caching(evict = {
-            @CacheEvict(value = "transactions", allEntries = true),
-            @CacheEvict(value = "transaction", key = "#id")
-    })
-    public Transaction updateTransaction(Long id, Transaction transactionDetails) {
-        Transaction transaction = getTransactionById(id);
-        if (transaction == null) {
-            throw new TransactionNotFoundException("Transaction not found with id: " + id);
+    @Transactional(readOnly = true)
+    public Page<Transaction> readTransactionPage(String category, String type, Pageable pageable) {
+        OptionalLong total = transactionCounts.count(category, type);
+        if (total.isEmpty()) {
+            return transactionRepository.findByFilters(category, type, CategorySort.byName(pageable, "t"));
         }
+        Slice<Transaction> slice = transactionRepository.findSliceByFilters(category, type,
+                CategorySort.byName(pageable, "t"));
+        return new PageImpl<>(slice.getContent(), pageable, total.getAsLong());
+    }
+
+    // no total at all; not cached since it skips the count a cached page would save
+    @Transactional(readOnly = true)
+    public Slice<Transaction> getTransactionSlice(String category, String type, Pageable pageable) {
+        return transactionRepository.findSliceByFilters(category, type, CategorySort.byName(pageable, "t"));
+    }
+
+    /**
+     * A page of only the given attributes, selected by the query itself. Page totals come from
+     * the counts, or a COUNT query when they are unavailable and the total cannot be told from
+     * the page itself.
+     */
+    @Cacheable(value = "transactions",
+            key = "T(com.hsbc.transactionmanagement.cache.TransactionListCacheKey).of(#category, #type, #fields, #pageable)",
+            sync = true)
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getTransactionFields(TransactionFields fields, String category, String type,
+                                                          Pageable pageable) {
+        return readTransactionFieldsPage(fields, category, type, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> readTransactionFieldsPage(TransactionFields fields, String category, String type,
+                                                               Pageable pageable) {
+        Slice<Map<String, Object>> slice = transactionRepository.findFieldsByFilters(fields, category, type, pageable);
+        return PageableExecutionUtils.getPage(slice.getContent(), pageable, () -> transactionCounts.count(category, type)
+                .orElseGet(() -> transactionRepository.countByFilters(category, type)));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> getTransactionFieldsSlice(TransactionFields fields, String category, String type,
+                                                                Pageable pageable) {
+        return transactionRepository.findFieldsByFilters(fields, category, type, pageable);
+    }
+
+    // [from, to); reads the archive only when the range starts before the hot window
+    @Cacheable(value = "transactions",
+            key = "T(com.hsbc.transactionmanagement.cache.TransactionListCacheKey).of(#category, #type, #from, #to, #pageable)",
+            sync = true)
+    @Transactional(readOnly = true)
+    public Page<Transaction> getTransactionsInRange(String category, String type, LocalDateTime from, LocalDateTime to,
+                                                    Pageable pageable) {
+        return readTransactionsInRange(category, type, from, to, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Transaction> readTransactionsInRange(String category, String type, LocalDateTime from, LocalDateTime to,
+                                                     Pageable pageable) {
+        return transactionArchive.findByFilters(category, type, from, to, pageable);
+    }
+
+    @Transactional
+    @Caching(put = @CachePut(value = "transaction", key = "#id"),
+            evict = {
+                    @CacheEvict(value = "transactions", allEntries = true),
+                    @CacheEvict(value = "transaction", key = "'ref_' + #result.transactionReference")
+            })
+    public Transaction updateTransaction(Long id, Transaction transactionDetails, Long expectedVersion) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("description", transactionDetails.getDescription());
+        changes.put("amount", transactionDetails.getAmount());
+        changes.put("type", transactionDetails.getType());
+        changes.put("category", transactionDetails.getCategory());
+
+        return applyChanges(id, changes, expectedVersion);
+    }
 
-        transaction.setDescription(transactionDetails.getDescription());
-        transaction.setAmount(transactionDetails.getAmount());
-        transaction.setType(transactionDetails.getType());
-        transaction.setCategory(transactionDetails.getCategory());
+    @Transactional
+    @Caching(put = @CachePut(value = "transaction", key = "#id"),
+            evict = {
+                    @CacheEvict(value = "transactions", allEntries = true),
+                    @CacheEvict(value = "transaction", key = "'ref_' + #result.transactionReference")
+            })
+    public Transaction patchTransaction(Long id, TransactionPatchRequest patch, Long expectedVersion) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (patch.getDescription() != null) {
+            changes.put("description", patch.getDescription());
+        }
+        if (patch.getAmount() != null) {
+            changes.put("amount", patch.getAmount());
+        }
+        if (patch.getType() != null) {
+            changes.put("type", patch.getType());
+        }
+        if (patch.getCategory() != null) {
+            changes.put("category", patch.getCategory());
+        }
 
-        return transactionRepository.save(transaction);
+        return applyChanges(id, changes, expectedVersion);
+    }
+
+    /**
+     * Runs one UPDATE guarded by id and version. When the row is cached at the expected
+     * version, the cached row supplies the version, the previous values that move the row
+     * between counts and keep a posted transaction's amount and type as they were posted, and
+     * the response with the changes applied, so nothing is read. Otherwise the row is read once
+     * for all of that and the update is guarded by the version read; without an expected
+     * version, losing that race to another write reads the row again. The existence checks only
+     * run on the failure path to tell a missing transaction from a stale version or an archived,
+     * read-only one.
+     */
+    private Transaction applyChanges(Long id, Map<String, Object> changes, Long expectedVersion) {
+        sequenceTracker.beginWrite();
+        Transaction cached = cachedTransaction(id);
+        if (cached != null && cached.getVersion() != null
+                && (expectedVersion == null || expectedVersion.equals(cached.getVersion()))) {
+            Transaction transaction = update(cached, changes);
+            if (transaction != null) {
+                return transaction;
+            }
+            // the cached copy is behind the table or the row is gone, decided below
+        }
+
+        while (true) {
+            Transaction current = transactionRepository.findById(id).orElseThrow(() -> notFound(id));
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                throw new TransactionVersionMismatchException(
+                        "Transaction " + id + " does not match expected version " + expectedVersion);
+            }
+            Transaction transaction = update(current, changes);
+            if (transaction != null) {
+                return transaction;
+            }
+            if (expectedVersion != null) {
+                if (transactionRepository.existsById(id)) {
+                    throw new TransactionVersionMismatchException(
+                            "Transaction " + id + " does not match expected version " + expectedVersion);
+                }
+                throw notFound(id);
+            }
+        }
+    }
+
+    // null when the row no longer has the version of current
+    private Transaction update(Transaction current, Map<String, Object> changes) {
+        TransactionPartition before = new TransactionPartition(current.getCategory(), current.getType(),
+                current.getAccountId(), current.getAmount());
+        checkPosting(current.getId(), before, changes);
+        return transactionRepository.updateFields(current.getId(), current.getVersion(), changes)
+                .map(stamp -> updated(withChanges(current, changes, stamp), before))
+                .orElse(null);
+    }
+
+    // archived transactions are readable but read-only, writes are told apart from missing rows
+    private RuntimeException notFound(Long id) {
+        if (transactionArchive.existsById(id)) {
+            return new ArchivedTransactionChangeException("Transaction " + id + " is archived");
+        }
+        return new TransactionNotFoundException("Transaction not found with id: " + id);
+    }
+
+    private RuntimeException notFoundByReference(String reference) {
+        if (transactionArchive.existsByReference(reference)) {
+            return new ArchivedTransactionChangeException("Transaction " + reference + " is archived");
+        }
+        return new TransactionNotFoundException("Transaction not found with reference: " + reference);
+    }
+
+    private Transaction updated(Transaction transaction, TransactionPartition before) {
+        transactionCounts.recordMoved(before.category(), before.type(), transaction.getCategory(), transaction.getType());
+        readModel.recordSaved(transaction);
+        eventPublisher.publishEvent(TransactionChange.updated(transaction));
+        return transaction;
+    }
+
+    private Transaction cachedTransaction(Long id) {
+        Cache cache = cacheManager.getCache(TransactionCacheEvictor.TRANSACTION_CACHE);
+        Cache.ValueWrapper cached = cache == null ? null : cache.get(id);
+        return cached != null && cached.get() instanceof Transaction transaction ? transaction : null;
+    }
+
+    // a copy, the cached instance is shared with readers and a loaded one is detached
+    private static Transaction withChanges(Transaction cached, Map<String, Object> changes, TransactionStamp stamp) {
+        Transaction transaction = new Transaction();
+        BeanUtils.copyProperties(cached, transaction);
+        PropertyAccessorFactory.forBeanPropertyAccess(transaction).setPropertyValues(changes);
+        transaction.setVersion(stamp.version());
+        transaction.setChangeSequence(stamp.changeSequence());
+        transaction.setUpdatedAt(stamp.updatedAt());
+        return transaction;
+    }
+
+    private static void checkPosting(Long id, TransactionPartition before, Map<String, Object> changes) {
+        if (before.accountId() != null && changesPosting(before, changes)) {
+            throw new PostedTransactionChangeException("Amount and type of transaction " + id
+                    + " are posted to account " + before.accountId() + " and cannot be changed");
+        }
+    }
+
+    private static boolean changesPosting(TransactionPartition before, Map<String, Object> changes) {
+        return changes.get("amount") instanceof BigDecimal amount && amount.compareTo(before.amount()) != 0
+                || changes.get("type") instanceof String type && !type.equals(before.type());
     }
 
     @Caching(evict = {
             @CacheEvict(value = "transactions", allEntries = true),
             @CacheEvict(value = "transaction", key = "#id")
     })
+    @Transactional
     public void deleteTransaction(Long id) {
-        if (!transactionRepository.existsById(id)) {
-            throw new TransactionNotFoundException("Transaction not found with id: " + id);
+        sequenceTracker.beginWrite();
+        TransactionPartition partition = transactionRepository.findPartitionById(id)
+                .orElseThrow(() -> notFound(id));
+        if (partition.accountId() != null) {
+            accountBalances.reverse(partition.accountId(), partition.type(), partition.amount());
+        }
+        // a concurrent delete of the same row must not reverse its posting twice
+        if (transactionRepository.removeById(id) == 0) {
+            throw notFound(id);
         }
-        transactionRepository.deleteById(id);
+        tombstoneRepository.save(new TransactionTombstone(id, null));
+        transactionCounts.recordDeleted(partition.category(), partition.type());
+        readModel.recordDeleted(List.of(id));
+        eventPublisher.publishEvent(TransactionChange.deleted(id, null));
     }
 
     @Caching(evict = {
             @CacheEvict(value = "transactions", allEntries = true),
             @CacheEvict(value = "transaction", key = "'ref_' + #reference")
     })
+    @Transactional
     public void deleteTransactionByReference(String reference) {
-        Transaction transaction = getTransactionByReference(reference);
-        if (transaction == null) {
-            throw new TransactionNotFoundException("Transaction not found with reference: " + reference);
+        sequenceTracker.beginWrite();
+        Transaction transaction = transactionRepository.findByTransactionReference(reference)
+                .orElseThrow(() -> notFoundByReference(reference));
+        if (transaction.getAccountId() != null) {
+            accountBalances.reverse(transaction.getAccountId(), transaction.getType(), transaction.getAmount());
+        }
+        // also covers a transaction deleted or archived since it was read
+        if (transactionRepository.removeById(transaction.getId()) == 0) {
+            throw notFoundByReference(reference);
+        }
+        tombstoneRepository.save(new TransactionTombstone(transaction.getId(), reference));
+        transactionCounts.recordDeleted(transaction.getCategory(), transaction.getType());
+        readModel.recordDeleted(List.of(transaction.getId()));
+        eventPublisher.publishEvent(TransactionChange.deleted(transaction.getId(), reference));
+    }
+
+    /**
+     * Deletes the given ids and references with one set-based DELETE per chunk, each preceded
+     * by an INSERT ... SELECT of the matching rows' tombstones. Only the
+     * cache entries of the deleted rows are evicted; cached pages are kept when the deleted
+     * rows' partitions are known from the cache, otherwise the page cache is cleared. Every
+     * account is locked first, and the deleted rows' postings are summed per account and reversed.
+     *
+     * @return the number of rows deleted
+     */
+    @Transactional
+    @BulkOperation
+    public int deleteTransactions(Collection<Long> ids, Collection<String> references) {
+        Set<Long> idSet = new LinkedHashSet<>(ids);
+        Set<String> referenceSet = new LinkedHashSet<>(references);
+
+        accountBalances.lockAll();
+        sequenceTracker.beginWrite();
+        LocalDateTime deletedAt = LocalDateTime.now();
+        int deleted = 0;
+        for (List<Long> chunk : chunks(idSet, bulkDeleteChunkSize)) {
+            reversePostings(transactionRepository.sumPostingsByIds(chunk));
+            tombstoneRepository.recordDeletedIds(chunk, deletedAt);
+            deleted += transactionRepository.bulkDeleteByIds(chunk);
+        }
+        for (List<String> chunk : chunks(referenceSet, bulkDeleteChunkSize)) {
+            reversePostings(transactionRepository.sumPostingsByReferences(chunk));
+            tombstoneRepository.recordDeletedReferences(chunk, deletedAt);
+            deleted += transactionRepository.bulkDeleteByReferences(chunk);
+        }
+
+        if (deleted > 0) {
+            transactionCounts.invalidate();
+            readModel.recordDeleted(t -> idSet.contains(t.getId()) || referenceSet.contains(t.getTransactionReference()));
+            Map<Long, Transaction> evicted = cacheEvictor.evictTransactions(idSet, referenceSet,
+                    t -> idSet.contains(t.getId()) || referenceSet.contains(t.getTransactionReference()));
+            if (evicted.size() >= deleted) {
+                cacheEvictor.evictListPartitions(evicted.values());
+            } else {
+                cacheEvictor.clear(TransactionCacheEvictor.TRANSACTIONS_CACHE);
+            }
+            Map<String, Object> criteria = new LinkedHashMap<>();
+            criteria.put("ids", idSet);
+            criteria.put("references", referenceSet);
+            eventPublisher.publishEvent(TransactionChange.bulkDeleted(criteria, deleted));
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes every transaction matching the filter with a single DELETE statement, after
+     * recording their tombstones with one INSERT ... SELECT over the same filter, and evicts
+     * only the cached transactions and pages that can contain matching rows. A {@code null}
+     * filter value matches everything; {@code to} is exclusive. Postings are reversed like in
+     * {@link #deleteTransactions}.
+     *
+     * @return the number of rows deleted
+     */
+    @Transactional
+    @BulkOperation
+    public int deleteTransactionsByFilter(String category, String type, LocalDateTime from, LocalDateTime to) {
+        accountBalances.lockAll();
+        sequenceTracker.beginWrite();
+        reversePostings(transactionRepository.sumPostingsByFilters(category, type, from, to));
+        tombstoneRepository.recordDeletedByFilters(category, type, from, to, LocalDateTime.now());
+        int deleted = transactionRepository.bulkDeleteByFilters(category, type, from, to);
+        if (deleted > 0) {
+            transactionCounts.invalidate();
+            readModel.recordDeleted(category, type, from, to);
+            cacheEvictor.evictTransactions(List.of(), List.of(),
+                    t -> matchesFilter(t, category, type, from, to));
+            cacheEvictor.evictListPartitions(category, type);
+            Map<String, Object> criteria = new LinkedHashMap<>();
+            criteria.put("category", category);
+            criteria.put("type", type);
+            criteria.put("from", from);
+            criteria.put("to", to);
+            eventPublisher.publishEvent(TransactionChange.bulkDeleted(criteria, deleted));
+        }
+        return deleted;
+    }
+
+    // rows of (account id, signed total, postings)
+    private void reversePostings(List<Object[]> totals) {
+        for (Object[] total : totals) {
+            accountBalances.reverseTotal((String) total[0], (BigDecimal) total[1], ((Number) total[2]).longValue());
+        }
+    }
+
+    private static boolean matchesFilter(Transaction transaction, String category, String type,
+                                         LocalDateTime from, LocalDateTime to) {
+        LocalDateTime date = transaction.getTransactionDate();
+        return (category == null || category.equalsIgnoreCase(transaction.getCategory()))
+                && (type == null || type.equalsIgnoreCase(transaction.getType()))
+                && (from == null || date == null || !date.isBefore(from))
+                && (to == null || date == null || date.isBefore(to));
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> values, int chunkSize) {
+        List<T> all = new ArrayList<>(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < all.size(); start += chunkSize) {
+            chunks.add(all.subList(start, Math.min(start + chunkSize, all.size())));
         }
-        transactionRepository.deleteById(transaction.getId());
+        return chunks;
     }
 
     public void clearCache() {
@@ -0,0 +1,46 @@
+package com.hsbc.transactionmanagement.stream;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hsbc.transactionmanagement.entity.Transaction;
+
+import java.util.Map;
+
+/**
+ * A change made by {@code TransactionService}, published as an application event and
+ * delivered to stream subscribers once the surrounding transaction has committed. Bulk deletes
+ * and imported batches carry their criteria and row count instead of the individual rows.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TransactionChange(Type type, Long id, String transactionReference, Transaction transaction,
+                                Map<String, Object> criteria, Integer count) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        BULK_DELETED,
+        BULK_IMPORTED
+    }
+
+    public static TransactionChange created(Transaction transaction) {
+        return new TransactionChange(Type.CREATED, transaction.getId(), transaction.getTransactionReference(),
+                transaction, null, null);
+    }
+
+    public static TransactionChange updated(Transaction transaction) {
+        return new TransactionChange(Type.UPDATED, transaction.getId(), transaction.getTransactionReference(),
+                transaction, null, null);
+    }
+
+    public static TransactionChange deleted(Long id, String transactionReference) {
+        return new TransactionChange(Type.DELETED, id, transactionReference, null, null, null);
+    }
+
+    public static TransactionChange bulkDeleted(Map<String, Object> criteria, int count) {
+        return new TransactionChange(Type.BULK_DELETED, null, null, null, criteria, count);
+    }
+
+    public static TransactionChange bulkImported(Map<String, Object> criteria, int count) {
+        return new TransactionChange(Type.BULK_IMPORTED, null, null, null, criteria, count);
+    }
+}
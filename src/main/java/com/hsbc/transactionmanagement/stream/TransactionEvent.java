@@ -0,0 +1,9 @@
+package com.hsbc.transactionmanagement.stream;
+
+import java.time.Instant;
+
+/**
+ * A committed change with its position in the stream; the sequence is the SSE event id.
+ */
+public record TransactionEvent(long sequence, Instant timestamp, TransactionChange change) {
+}
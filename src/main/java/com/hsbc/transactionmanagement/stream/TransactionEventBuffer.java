@@ -0,0 +1,66 @@
+package com.hsbc.transactionmanagement.stream;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of the most recent events. Appends are serialized; readers never lock and
+ * detect being overrun by the sequence stored in each slot. Sequences start at 1.
+ */
+public class TransactionEventBuffer {
+
+    private final AtomicReferenceArray<TransactionEvent> slots;
+    private final int capacity;
+    private final int mask;
+    private volatile long lastSequence;
+
+    public TransactionEventBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Buffer capacity must be a power of two, was " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public synchronized TransactionEvent append(TransactionChange change) {
+        long sequence = lastSequence + 1;
+        TransactionEvent event = new TransactionEvent(sequence, Instant.now(), change);
+        slots.set((int) (sequence & mask), event);
+        lastSequence = sequence;
+        return event;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Up to {@code max} events following {@code cursor}, or {@code null} when some of them
+     * have already been overwritten.
+     */
+    public List<TransactionEvent> readAfter(long cursor, int max) {
+        long last = lastSequence;
+        if (cursor >= last) {
+            return List.of();
+        }
+        if (cursor < last - capacity) {
+            return null;
+        }
+        List<TransactionEvent> events = new ArrayList<>((int) Math.min(max, last - cursor));
+        for (long sequence = cursor + 1; sequence <= last && events.size() < max; sequence++) {
+            TransactionEvent event = slots.get((int) (sequence & mask));
+            if (event == null || event.sequence() != sequence) {
+                return null;
+            }
+            events.add(event);
+        }
+        return events;
+    }
+}
@@ -0,0 +1,247 @@
+package com.hsbc.transactionmanagement.stream;
+
+import com.hsbc.transactionmanagement.config.StreamProperties;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed transaction changes out to SSE subscribers. Connections are held by the
+ * servlet container in async mode; all writes happen on a small shared dispatcher pool, each
+ * subscriber being drained from its own cursor into the {@link TransactionEventBuffer} by at
+ * most one thread at a time. A subscriber that stays more than {@code max-lag} events behind,
+ * or whose write is blocked for {@code write-timeout}, is disconnected and can resume with {@code Last-Event-ID} while the events are still
+ * buffered; older (or unknown) cursors receive a {@code reset} event and continue from the
+ * newest event.
+ */
+@Component
+public class TransactionStreamHub implements DisposableBean {
+
+    private static final Logger logger = LoggerUtil.getLogger(TransactionStreamHub.class);
+
+    static final String RESET_EVENT = "reset";
+    private static final int DRAIN_BATCH = 256;
+
+    private final TransactionEventBuffer buffer;
+    private final StreamProperties properties;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    private final ExecutorService closer;
+    private final ScheduledExecutorService heartbeat;
+    private final Counter dropped;
+
+    public TransactionStreamHub(TransactionEventBuffer buffer, StreamProperties properties, MeterRegistry meterRegistry) {
+        this.buffer = buffer;
+        this.properties = properties;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(properties.getDispatchThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "transaction-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // completing waits for a send in progress, so it must not queue behind blocked writers
+        AtomicInteger closerCount = new AtomicInteger();
+        this.closer = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-stream-closer-" + closerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getHeartbeatInterval().toMillis();
+        heartbeat.scheduleAtFixedRate(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("transaction.stream.subscribers", subscribers, Set::size)
+                .description("Connected transaction stream subscribers")
+                .register(meterRegistry);
+        Gauge.builder("transaction.stream.sequence", buffer, TransactionEventBuffer::getLastSequence)
+                .description("Sequence of the latest transaction stream event")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("transaction.stream.dropped")
+                .description("Subscribers disconnected for lagging behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a subscription starting after {@code lastEventId}, or at the newest event when it
+     * is {@code null}. Returns {@code null} when {@code max-subscribers} is reached.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(properties.getEmitterTimeout().toMillis());
+        register(emitter, lastEventId);
+        return emitter;
+    }
+
+    Subscriber register(SseEmitter emitter, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, lastEventId == null ? buffer.getLastSequence() : lastEventId);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        if (lastEventId != null) {
+            schedule(subscriber);
+        }
+        return subscriber;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(TransactionChange change) {
+        buffer.append(change);
+        subscribers.forEach(this::schedule);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void destroy() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        closer.shutdown();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (!subscriber.dropped) {
+                // a cursor ahead of the stream comes from before a restart
+                List<TransactionEvent> events = subscriber.cursor > buffer.getLastSequence()
+                        ? null
+                        : buffer.readAfter(subscriber.cursor, DRAIN_BATCH);
+                if (events == null) {
+                    long resumeAt = buffer.getLastSequence();
+                    send(subscriber, SseEmitter.event().id(Long.toString(resumeAt)).name(RESET_EVENT)
+                            .data("events before " + (resumeAt + 1) + " are no longer available"));
+                    subscriber.cursor = resumeAt;
+                    continue;
+                }
+                if (events.isEmpty()) {
+                    if (subscriber.heartbeatDue) {
+                        subscriber.heartbeatDue = false;
+                        send(subscriber, SseEmitter.event().comment("heartbeat"));
+                    }
+                    break;
+                }
+                for (TransactionEvent event : events) {
+                    send(subscriber, SseEmitter.event()
+                            .id(Long.toString(event.sequence()))
+                            .name(event.change().type().name())
+                            .data(event, MediaType.APPLICATION_JSON));
+                    subscriber.cursor = event.sequence();
+                }
+                subscriber.heartbeatDue = false;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // client went away; the servlet container completes the async request
+            subscribers.remove(subscriber);
+            subscriber.dropped = true;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // an append may have happened after the last read but before the flag was cleared
+        if (!subscriber.dropped && (buffer.getLastSequence() > subscriber.cursor || subscriber.heartbeatDue)) {
+            schedule(subscriber);
+        }
+    }
+
+    // the start of a write in progress is visible to the sweep
+    private static void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.writeStartedAt = System.nanoTime();
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            subscriber.writeStartedAt = 0;
+        }
+    }
+
+    /**
+     * Runs every heartbeat interval: queues a heartbeat for every subscriber and drops those
+     * more than {@code max-lag} events behind that did not catch up since the previous sweep,
+     * and those whose current write started more than {@code write-timeout} ago, which covers
+     * writes stuck on a dead connection while the stream is quiet.
+     */
+    void sweep() {
+        long last = buffer.getLastSequence();
+        long now = System.nanoTime();
+        long writeTimeout = properties.getWriteTimeout().toNanos();
+        for (Subscriber subscriber : subscribers) {
+            long lag = last - subscriber.cursor;
+            long writeStartedAt = subscriber.writeStartedAt;
+            if ((lag > properties.getMaxLag() && lag >= subscriber.lagAtLastSweep)
+                    || (writeStartedAt != 0 && now - writeStartedAt > writeTimeout)) {
+                drop(subscriber);
+            } else {
+                subscriber.lagAtLastSweep = lag;
+                subscriber.heartbeatDue = true;
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.dropped = true;
+            dropped.increment();
+            logger.warn("Dropping transaction stream subscriber at {}, stream is at {}",
+                    subscriber.cursor, buffer.getLastSequence());
+            // on a thread of its own: completing waits for a blocked write on this connection to
+            // fail, neither the caller nor the dispatchers serving other subscribers wait for it
+            closer.execute(subscriber.emitter::complete);
+        }
+    }
+
+    static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile boolean heartbeatDue;
+        private volatile boolean dropped;
+        private volatile long writeStartedAt;
+        private long lagAtLastSweep = Long.MAX_VALUE;
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        long getCursor() {
+            return cursor;
+        }
+
+        boolean isDropped() {
+            return dropped;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.hsbc.transactionmanagement.sync;
+
+import com.hsbc.transactionmanagement.config.ChangeFeedProperties;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import org.slf4j.Logger;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Tracks the write transactions of every instance that may draw change sequences, so the change
+ * feed never moves a client's cursor past a sequence that is drawn but not yet committed. A
+ * write registers before its first draw in {@code change_sequence_writes}, with a floor drawn
+ * from the change sequence: everything it draws is above the floor. The registration is
+ * committed on a connection of its own before the write goes on, and deleted the same way once
+ * the write completes. The feed draws a fresh sequence, then reports only changes up to the
+ * lowest floor still registered, or up to its own draw when no write is in flight. A write
+ * registering after the feed looked draws its floor after the feed's draw, so every change at or
+ * below that bound is committed by the time the feed reads it, whichever instance made it.
+ * <p>
+ * A registration left behind by a stopped instance holds the feed back for
+ * {@code transaction.changes.max-write-duration}; after that it is ignored, and dropped by
+ * {@link #dropAbandoned}.
+ */
+@Component
+public class ChangeSequenceTracker {
+
+    private static final Logger logger = LoggerUtil.getLogger(ChangeSequenceTracker.class);
+
+    private static final String INSERT = "INSERT INTO change_sequence_writes (floor_sequence, started_at) VALUES (?, ?)";
+    private static final String DELETE = "DELETE FROM change_sequence_writes WHERE floor_sequence = ?";
+    private static final String DELETE_OLDER = "DELETE FROM change_sequence_writes WHERE started_at < ?";
+    private static final String SELECT_BOUND =
+            "SELECT MIN(floor_sequence), MIN(started_at) FROM change_sequence_writes WHERE started_at >= ?";
+
+    private final DataSource dataSource;
+    private final TransactionRepository transactionRepository;
+    private final ChangeFeedProperties properties;
+
+    public ChangeSequenceTracker(DataSource dataSource, TransactionRepository transactionRepository,
+                                 ChangeFeedProperties properties) {
+        this.dataSource = dataSource;
+        this.transactionRepository = transactionRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Registers the current transaction as a write that may draw change sequences, until it
+     * completes. Must be called before the first draw; later calls in the same transaction are
+     * no-ops.
+     *
+     * @throws IllegalStateException if no transaction is active
+     */
+    public void beginWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Change sequences must be drawn in a transaction");
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        long floor = transactionRepository.nextChangeSequence();
+        update(INSERT, floor, LocalDateTime.now());
+        TransactionSynchronizationManager.bindResource(this, floor);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ChangeSequenceTracker.this);
+                try {
+                    update(DELETE, floor, null);
+                } catch (RuntimeException e) {
+                    // the feed waits for it until it counts as abandoned
+                    logger.warn("Could not remove the write registered with floor {}", floor, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the bound for a feed read, given a sequence the feed has just drawn. The bound's
+     * {@code oldestWrite} is the earliest any change above the bound can have been made.
+     */
+    public CommittedBound committedBound(long drawn, Instant now) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_BOUND)) {
+            statement.setTimestamp(1, Timestamp.valueOf(abandonedBefore(now)));
+            try (ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                long floor = rows.getLong(1);
+                if (rows.wasNull()) {
+                    return new CommittedBound(drawn, now);
+                }
+                Instant oldestWrite = rows.getTimestamp(2).toInstant();
+                return new CommittedBound(Math.min(drawn, floor), oldestWrite.isBefore(now) ? oldestWrite : now);
+            }
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("Read in-flight writes", SELECT_BOUND, e);
+        }
+    }
+
+    /**
+     * Drops registrations older than {@code transaction.changes.max-write-duration}, left behind
+     * by instances that stopped before their writes completed.
+     *
+     * @return the number of registrations dropped
+     */
+    public int dropAbandoned() {
+        return update(DELETE_OLDER, null, abandonedBefore(Instant.now()));
+    }
+
+    private LocalDateTime abandonedBefore(Instant now) {
+        return LocalDateTime.ofInstant(now, ZoneId.systemDefault()).minus(properties.getMaxWriteDuration());
+    }
+
+    // committed at once on a connection of its own, never with the caller's transaction
+    private int update(String sql, Long floor, LocalDateTime time) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            int parameter = 1;
+            if (floor != null) {
+                statement.setLong(parameter++, floor);
+            }
+            if (time != null) {
+                statement.setTimestamp(parameter, Timestamp.valueOf(time));
+            }
+            int updated = statement.executeUpdate();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            return updated;
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("Track in-flight write", sql, e);
+        }
+    }
+
+    public record CommittedBound(long sequence, Instant oldestWrite) {
+    }
+}
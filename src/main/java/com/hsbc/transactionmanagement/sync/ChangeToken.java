@@ -0,0 +1,39 @@
+package com.hsbc.transactionmanagement.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in the change feed handed to clients as an opaque string: the last change
+ * sequence delivered and when the token was issued, which bounds how long it stays usable.
+ */
+public record ChangeToken(long sequence, Instant issuedAt) {
+
+    public static ChangeToken initial() {
+        return new ChangeToken(0L, Instant.now());
+    }
+
+    public String encode() {
+        String raw = sequence + ":" + issuedAt.toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static ChangeToken parse(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int separator = raw.indexOf(':');
+            long sequence = Long.parseLong(raw.substring(0, separator));
+            long issuedAt = Long.parseLong(raw.substring(separator + 1));
+            if (sequence < 0) {
+                throw new IllegalArgumentException("Negative change sequence");
+            }
+            return new ChangeToken(sequence, Instant.ofEpochMilli(issuedAt));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed change token: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.hsbc.transactionmanagement.sync;
+
+import com.hsbc.transactionmanagement.config.ChangeFeedProperties;
+import com.hsbc.transactionmanagement.repository.TransactionTombstoneRepository;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Drops tombstones older than {@code transaction.changes.tombstone-retention}. Clients whose
+ * token predates the retention get a 410 from the change feed and resync from scratch. Also drops
+ * the write registrations stopped instances left behind, see {@link ChangeSequenceTracker}.
+ */
+@Component
+public class TombstoneCompactor {
+
+    private static final Logger logger = LoggerUtil.getLogger(TombstoneCompactor.class);
+
+    private final TransactionTombstoneRepository tombstoneRepository;
+    private final ChangeSequenceTracker sequenceTracker;
+    private final ChangeFeedProperties properties;
+    private final Counter compacted;
+
+    public TombstoneCompactor(TransactionTombstoneRepository tombstoneRepository, ChangeSequenceTracker sequenceTracker,
+                              ChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.sequenceTracker = sequenceTracker;
+        this.properties = properties;
+        this.compacted = Counter.builder("transaction.changes.tombstones.compacted")
+                .description("Tombstones removed after the retention period")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${transaction.changes.compaction-interval:PT1H}",
+            fixedDelayString = "${transaction.changes.compaction-interval:PT1H}")
+    public int compact() {
+        long startTime = System.currentTimeMillis();
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getTombstoneRetention());
+        int removed = tombstoneRepository.deleteOlderThan(cutoff);
+        compacted.increment(removed);
+        int abandoned = sequenceTracker.dropAbandoned();
+        logger.info("Compacted {} tombstones older than {} and {} abandoned writes, time cost: {}", removed, cutoff,
+                abandoned, System.currentTimeMillis() - startTime);
+        return removed;
+    }
+}
@@ -0,0 +1,94 @@
+package com.hsbc.transactionmanagement.sync;
+
+import com.hsbc.transactionmanagement.config.ChangeFeedProperties;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.entity.TransactionTombstone;
+import com.hsbc.transactionmanagement.exception.ChangeTokenExpiredException;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.repository.TransactionTombstoneRepository;
+import com.hsbc.transactionmanagement.response.ChangesResponse;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delta sync over the change sequence: transactions carry the sequence of their latest write
+ * and deletes leave a {@link TransactionTombstone} numbered from the same sequence, so both
+ * are read with an index range scan after the client's token and merged in sequence order.
+ * A batch stops at the {@link ChangeSequenceTracker} bound, below any sequence an uncommitted
+ * write of any instance may hold. Transactions moved to the archive are not reported, they
+ * stay readable by id and reference.
+ */
+@Component
+public class TransactionChangeFeed {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTombstoneRepository tombstoneRepository;
+    private final ChangeSequenceTracker sequenceTracker;
+    private final ChangeFeedProperties properties;
+
+    public TransactionChangeFeed(TransactionRepository transactionRepository,
+                                 TransactionTombstoneRepository tombstoneRepository,
+                                 ChangeSequenceTracker sequenceTracker, ChangeFeedProperties properties) {
+        this.transactionRepository = transactionRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.sequenceTracker = sequenceTracker;
+        this.properties = properties;
+    }
+
+    /**
+     * Returns up to {@code limit} changes after {@code token}, or from the start of the feed
+     * when it is {@code null}. Changes above a sequence that may still be uncommitted are held
+     * back until the next call. Read-write so it runs on the primary: the bound is only safe
+     * against committed rows, which a lagging replica may not have yet.
+     *
+     * @throws IllegalArgumentException    if the token is malformed
+     * @throws ChangeTokenExpiredException if deletes after the token may already be compacted
+     */
+    @Transactional
+    public ChangesResponse changesSince(String token, int limit) {
+        Instant now = Instant.now();
+        ChangeToken since = token == null || token.isBlank() ? ChangeToken.initial() : ChangeToken.parse(token);
+        if (since.issuedAt().isBefore(now.minus(properties.getTombstoneRetention()))) {
+            throw new ChangeTokenExpiredException("Change token issued at " + since.issuedAt()
+                    + " is older than the tombstone retention of " + properties.getTombstoneRetention());
+        }
+
+        int batchSize = Math.max(1, Math.min(limit, properties.getMaxBatchSize()));
+        // drawn before the rows are read: every write that draws later gets a higher sequence
+        ChangeSequenceTracker.CommittedBound bound =
+                sequenceTracker.committedBound(transactionRepository.nextChangeSequence(), now);
+        PageRequest window = PageRequest.of(0, batchSize + 1);
+        List<Transaction> changed = transactionRepository.findChangedBetween(since.sequence(), bound.sequence(), window);
+        List<TransactionTombstone> deleted = tombstoneRepository.findBetween(since.sequence(), bound.sequence(), window);
+
+        List<Transaction> upserts = new ArrayList<>();
+        List<TransactionTombstone> deletes = new ArrayList<>();
+        long last = since.sequence();
+        boolean hasMore = false;
+        int u = 0;
+        int d = 0;
+        while (u < changed.size() || d < deleted.size()) {
+            if (upserts.size() + deletes.size() == batchSize) {
+                hasMore = true;
+                break;
+            }
+            boolean takeUpsert = d == deleted.size()
+                    || (u < changed.size() && changed.get(u).getChangeSequence() < deleted.get(d).getChangeSequence());
+            if (takeUpsert) {
+                last = changed.get(u).getChangeSequence();
+                upserts.add(changed.get(u++));
+            } else {
+                last = deleted.get(d).getChangeSequence();
+                deletes.add(deleted.get(d++));
+            }
+        }
+        // deletes held back were made after the oldest write in flight, so were not compacted
+        // before the token expires
+        return new ChangesResponse(upserts, deletes, new ChangeToken(last, bound.oldestWrite()).encode(), hasMore);
+    }
+}
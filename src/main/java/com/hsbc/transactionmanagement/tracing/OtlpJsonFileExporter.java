@@ -0,0 +1,274 @@
+package com.hsbc.transactionmanagement.tracing;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.hsbc.transactionmanagement.config.TracingProperties;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends finished spans to a local file in the OTLP/JSON encoding, one
+ * {@code ExportTraceServiceRequest} per line, so traces can be read without a collector or
+ * replayed into one later (e.g. with the collector's {@code otlpjsonfile} receiver).
+ * <p>
+ * Request threads only enqueue; a single background thread batches and writes. When the
+ * queue is full spans are dropped rather than slowing requests down, and counted in
+ * {@code transaction.tracing.spans{outcome=dropped}}. The file is rolled to
+ * {@code <file>.1 .. <file>.<maxHistory>} once it reaches the configured size.
+ */
+public class OtlpJsonFileExporter implements SpanExporter, AutoCloseable {
+
+    private static final Logger logger = LoggerUtil.getLogger(OtlpJsonFileExporter.class);
+
+    private static final int MAX_BATCH_SIZE = 512;
+    private static final String SCOPE_NAME = "com.hsbc.transactionmanagement.tracing";
+
+    private final BlockingQueue<Span> queue;
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxHistory;
+    private final String serviceName;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Counter exported;
+    private final Counter dropped;
+    private final Thread writer;
+    private final Object lock = new Object();
+
+    private volatile boolean running = true;
+    private OutputStream out;
+    private long size;
+
+    public OtlpJsonFileExporter(TracingProperties properties, MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.file = Paths.get(properties.getFile());
+        this.maxFileSize = properties.getMaxFileSize().toBytes();
+        this.maxHistory = properties.getMaxHistory();
+        this.serviceName = properties.getServiceName();
+        this.exported = Counter.builder("transaction.tracing.spans")
+                .description("Spans written to the trace file, or dropped")
+                .tag("outcome", "exported")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("transaction.tracing.spans")
+                .description("Spans written to the trace file, or dropped")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+        this.writer = new Thread(this::run, "trace-exporter");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void export(Span span) {
+        if (!queue.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    /** Writes every span queued so far and flushes the file. */
+    public void flush() {
+        synchronized (lock) {
+            List<Span> batch = new ArrayList<>();
+            while (queue.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+                write(batch);
+                batch.clear();
+            }
+            try {
+                if (out != null) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to flush trace file {}", file, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        flush();
+        synchronized (lock) {
+            closeFile();
+        }
+    }
+
+    private void run() {
+        List<Span> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (running) {
+            try {
+                Span first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                synchronized (lock) {
+                    write(batch);
+                    if (queue.isEmpty() && out != null) {
+                        out.flush();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to write spans to {}", file, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Span> batch) {
+        try {
+            byte[] line = encode(batch);
+            if (out == null) {
+                open();
+            } else if (size > 0 && size + line.length > maxFileSize) {
+                roll();
+            }
+            out.write(line);
+            size += line.length;
+            exported.increment(batch.size());
+        } catch (IOException e) {
+            dropped.increment(batch.size());
+            logger.warn("Failed to write {} spans to {}", batch.size(), file, e);
+            closeFile();
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        size = Files.exists(file) ? Files.size(file) : 0;
+        out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void roll() throws IOException {
+        closeFile();
+        if (maxHistory > 0) {
+            Files.deleteIfExists(rolled(maxHistory));
+            for (int i = maxHistory - 1; i >= 1; i--) {
+                if (Files.exists(rolled(i))) {
+                    Files.move(rolled(i), rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(file);
+        }
+        open();
+    }
+
+    private Path rolled(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close trace file {}", file, e);
+            }
+            out = null;
+        }
+    }
+
+    private byte[] encode(List<Span> batch) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256 * batch.size());
+        try (JsonGenerator json = jsonFactory.createGenerator(buffer, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("resourceSpans");
+            json.writeStartObject();
+            json.writeObjectFieldStart("resource");
+            json.writeArrayFieldStart("attributes");
+            writeAttribute(json, "service.name", serviceName);
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeArrayFieldStart("scopeSpans");
+            json.writeStartObject();
+            json.writeObjectFieldStart("scope");
+            json.writeStringField("name", SCOPE_NAME);
+            json.writeEndObject();
+            json.writeArrayFieldStart("spans");
+            for (Span span : batch) {
+                writeSpan(json, span);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        buffer.write('\n');
+        return buffer.toByteArray();
+    }
+
+    private static void writeSpan(JsonGenerator json, Span span) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("traceId", span.getTraceId());
+        json.writeStringField("spanId", span.getSpanId());
+        if (span.getParentSpanId() != null) {
+            json.writeStringField("parentSpanId", span.getParentSpanId());
+        }
+        json.writeStringField("name", span.getName());
+        json.writeNumberField("kind", span.getKind().getCode());
+        // 64-bit integers are strings in the protobuf JSON mapping
+        json.writeStringField("startTimeUnixNano", Long.toString(span.getStartEpochNanos()));
+        json.writeStringField("endTimeUnixNano", Long.toString(span.getEndEpochNanos()));
+        if (!span.getAttributes().isEmpty()) {
+            json.writeArrayFieldStart("attributes");
+            for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+                writeAttribute(json, attribute.getKey(), attribute.getValue());
+            }
+            json.writeEndArray();
+        }
+        if (span.isError()) {
+            json.writeObjectFieldStart("status");
+            json.writeNumberField("code", 2);
+            json.writeStringField("message", span.getErrorMessage());
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeAttribute(JsonGenerator json, String key, Object value) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("key", key);
+        json.writeObjectFieldStart("value");
+        if (value instanceof Boolean b) {
+            json.writeBooleanField("boolValue", b);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            json.writeStringField("intValue", value.toString());
+        } else if (value instanceof Number number) {
+            json.writeNumberField("doubleValue", number.doubleValue());
+        } else {
+            json.writeStringField("stringValue", String.valueOf(value));
+        }
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+}
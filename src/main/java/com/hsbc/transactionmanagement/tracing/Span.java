@@ -0,0 +1,94 @@
+package com.hsbc.transactionmanagement.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed operation of a trace. Spans are only created for sampled requests and are
+ * confined to the thread that opened them until they end and are handed to the exporter.
+ */
+public final class Span {
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final SpanKind kind;
+    private final long startEpochNanos;
+    private String name;
+    private long endEpochNanos;
+    private Map<String, Object> attributes;
+    private String errorMessage;
+    private boolean error;
+
+    Span(String traceId, String spanId, String parentSpanId, String name, SpanKind kind, long startEpochNanos) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.startEpochNanos = startEpochNanos;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /** The parent span id, or {@code null} for the root span of a trace. */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public SpanKind getKind() {
+        return kind;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    public long getEndEpochNanos() {
+        return endEpochNanos;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes == null ? Collections.emptyMap() : Collections.unmodifiableMap(attributes);
+    }
+
+    public void setAttribute(String key, Object value) {
+        if (attributes == null) {
+            attributes = new LinkedHashMap<>();
+        }
+        attributes.put(key, value);
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void recordError(Throwable throwable) {
+        error = true;
+        errorMessage = throwable.getClass().getSimpleName()
+                + (throwable.getMessage() == null ? "" : ": " + throwable.getMessage());
+    }
+
+    void end(long endEpochNanos) {
+        this.endEpochNanos = endEpochNanos;
+    }
+}
@@ -0,0 +1,11 @@
+package com.hsbc.transactionmanagement.tracing;
+
+/**
+ * Receives spans as they end. Called on the request threads, so implementations must not
+ * block.
+ */
+@FunctionalInterface
+public interface SpanExporter {
+
+    void export(Span span);
+}
@@ -0,0 +1,20 @@
+package com.hsbc.transactionmanagement.tracing;
+
+/**
+ * The OTLP span kinds used here, with their protocol numbers.
+ */
+public enum SpanKind {
+    INTERNAL(1),
+    SERVER(2),
+    CLIENT(3);
+
+    private final int code;
+
+    SpanKind(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,87 @@
+package com.hsbc.transactionmanagement.tracing;
+
+/**
+ * Makes a span current until closed; closing ends it, restores the previous current span and
+ * exports it. Unsampled calls all share {@link #NOOP}, so code can open scopes unconditionally
+ * in try-with-resources without allocating anything when tracing is off.
+ */
+public final class SpanScope implements AutoCloseable {
+
+    static final SpanScope NOOP = new SpanScope(null, null, null);
+
+    private final Tracer tracer;
+    private final Span span;
+    private final Span previous;
+    private final boolean ends;
+    private boolean detached;
+
+    SpanScope(Tracer tracer, Span span, Span previous) {
+        this(tracer, span, previous, true);
+    }
+
+    private SpanScope(Tracer tracer, Span span, Span previous, boolean ends) {
+        this.tracer = tracer;
+        this.span = span;
+        this.previous = previous;
+        this.ends = ends;
+    }
+
+    /** The span of this scope, or {@code null} when the call is not sampled. */
+    public Span span() {
+        return span;
+    }
+
+    public boolean isSampled() {
+        return span != null;
+    }
+
+    public SpanScope setAttribute(String key, Object value) {
+        if (span != null) {
+            span.setAttribute(key, value);
+        }
+        return this;
+    }
+
+    public void recordError(Throwable throwable) {
+        if (span != null) {
+            span.recordError(throwable);
+        }
+    }
+
+    /**
+     * Restores the previous span on this thread but leaves this one open, for work that
+     * completes on another thread. {@link #close()} then only ends and exports the span, and
+     * may be called from any thread.
+     */
+    public void detach() {
+        if (span != null && !detached) {
+            detached = true;
+            tracer.restore(previous);
+        }
+    }
+
+    /**
+     * Makes the span current on this thread again until the returned scope is closed; closing
+     * that scope does not end the span.
+     */
+    public SpanScope resume() {
+        if (span == null) {
+            return NOOP;
+        }
+        return new SpanScope(tracer, span, tracer.attach(span), false);
+    }
+
+    @Override
+    public void close() {
+        if (span == null) {
+            return;
+        }
+        if (!ends) {
+            tracer.restore(previous);
+        } else if (detached) {
+            tracer.end(span);
+        } else {
+            tracer.end(span, previous);
+        }
+    }
+}
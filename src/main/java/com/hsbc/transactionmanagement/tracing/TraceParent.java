@@ -0,0 +1,43 @@
+package com.hsbc.transactionmanagement.tracing;
+
+/**
+ * A W3C {@code traceparent} header: {@code 00-<trace id>-<parent span id>-<flags>}.
+ */
+public record TraceParent(String traceId, String spanId, boolean sampled) {
+
+    public static final String HEADER = "traceparent";
+
+    private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+    private static final String INVALID_SPAN_ID = "0000000000000000";
+
+    /** Parses a header value, returning {@code null} when absent or malformed. */
+    public static TraceParent parse(String header) {
+        if (header == null || header.length() < 55 || header.charAt(2) != '-' || header.charAt(35) != '-'
+                || header.charAt(52) != '-' || header.startsWith("ff")) {
+            return null;
+        }
+        String traceId = header.substring(3, 35);
+        String spanId = header.substring(36, 52);
+        if (!isLowerHex(traceId) || !isLowerHex(spanId) || !isLowerHex(header.substring(53, 55))
+                || INVALID_TRACE_ID.equals(traceId) || INVALID_SPAN_ID.equals(spanId)) {
+            return null;
+        }
+        boolean sampled = (Character.digit(header.charAt(54), 16) & 1) == 1;
+        return new TraceParent(traceId, spanId, sampled);
+    }
+
+    /** The header value announcing {@code span} as the parent of downstream work. */
+    public static String format(Span span) {
+        return "00-" + span.getTraceId() + "-" + span.getSpanId() + "-01";
+    }
+
+    private static boolean isLowerHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
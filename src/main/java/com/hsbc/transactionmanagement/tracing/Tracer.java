@@ -0,0 +1,158 @@
+package com.hsbc.transactionmanagement.tracing;
+
+import com.hsbc.transactionmanagement.config.TracingProperties;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Creates spans and tracks the current one per thread. Whether a request is traced is decided
+ * once, by its root span; child spans are only created below a sampled root, so on unsampled
+ * requests every call is a thread-local read returning {@link SpanScope#NOOP}.
+ * <p>
+ * The current span does not follow work onto other threads by itself: tasks handed to an
+ * executor must be wrapped with one of the {@code wrap} methods.
+ */
+public class Tracer {
+
+    private final TracingProperties properties;
+    private final SpanExporter exporter;
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    // span timestamps are wall clock time, measured with the monotonic clock
+    private final long epochOffsetNanos = System.currentTimeMillis() * 1_000_000 - System.nanoTime();
+
+    public Tracer(TracingProperties properties, SpanExporter exporter) {
+        this.properties = properties;
+        this.exporter = exporter;
+    }
+
+    /** A tracer that never samples, for code created outside the application context. */
+    public static Tracer disabled() {
+        TracingProperties properties = new TracingProperties();
+        properties.setEnabled(false);
+        return new Tracer(properties, span -> {
+        });
+    }
+
+    /**
+     * Starts a trace, or continues the one of {@code parent} when given. Without a parent the
+     * trace is sampled at the configured rate; with one, the caller's sampling decision is
+     * followed.
+     */
+    public SpanScope startRootSpan(String name, SpanKind kind, TraceParent parent) {
+        if (!properties.isEnabled() || !(parent != null ? parent.sampled() : sample())) {
+            return SpanScope.NOOP;
+        }
+        String traceId = parent != null ? parent.traceId() : hex(nextId()) + hex(nextId());
+        return open(new Span(traceId, hex(nextId()), parent == null ? null : parent.spanId(), name, kind, now()));
+    }
+
+    public SpanScope startSpan(String name) {
+        return startSpan(name, SpanKind.INTERNAL);
+    }
+
+    /** Starts a child of the current span; a no-op when the current request is not traced. */
+    public SpanScope startSpan(String name, SpanKind kind) {
+        Span parent = current.get();
+        if (parent == null) {
+            return SpanScope.NOOP;
+        }
+        return open(new Span(parent.getTraceId(), hex(nextId()), parent.getSpanId(), name, kind, now()));
+    }
+
+    /** The current span, or {@code null} when the current request is not traced. */
+    public Span currentSpan() {
+        return current.get();
+    }
+
+    public boolean isTracing() {
+        return current.get() != null;
+    }
+
+    /** Runs {@code task} with the caller's current span; returns it unchanged when not tracing. */
+    public Runnable wrap(Runnable task) {
+        Span span = current.get();
+        if (span == null) {
+            return task;
+        }
+        return () -> {
+            Span previous = attach(span);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public <T> Supplier<T> wrap(Supplier<T> task) {
+        Span span = current.get();
+        if (span == null) {
+            return task;
+        }
+        return () -> {
+            Span previous = attach(span);
+            try {
+                return task.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /** An executor running each task with the span current when it was submitted. */
+    public Executor wrap(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    void end(Span span, Span previous) {
+        restore(previous);
+        end(span);
+    }
+
+    void end(Span span) {
+        span.end(now());
+        exporter.export(span);
+    }
+
+    private SpanScope open(Span span) {
+        return new SpanScope(this, span, attach(span));
+    }
+
+    Span attach(Span span) {
+        Span previous = current.get();
+        current.set(span);
+        return previous;
+    }
+
+    void restore(Span previous) {
+        if (previous == null) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+    }
+
+    private boolean sample() {
+        double rate = properties.getSampleRate();
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private long now() {
+        return System.nanoTime() + epochOffsetNanos;
+    }
+
+    private static long nextId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+
+    private static String hex(long value) {
+        String hex = Long.toHexString(value);
+        return hex.length() == 16 ? hex : "0".repeat(16 - hex.length()) + hex;
+    }
+}
@@ -0,0 +1,61 @@
+package com.hsbc.transactionmanagement.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opens a span around each call into the transaction controller, the service and the
+ * repository, named {@code <type>.<method>}. Runs outside the caching and transaction advice,
+ * so a service span includes the cache lookup and the transaction around the method.
+ */
+@Aspect
+// after ExposeInvocationInterceptor, which the runtime check of this() on repository proxies needs
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class TracingAspect {
+
+    private final Tracer tracer;
+    private final Map<Method, String> spanNames = new ConcurrentHashMap<>();
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("execution(public * com.hsbc.transactionmanagement.controller.TransactionController.*(..))")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "TransactionController", SpanKind.INTERNAL);
+    }
+
+    @Around("execution(public * com.hsbc.transactionmanagement.service.TransactionService.*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "TransactionService", SpanKind.INTERNAL);
+    }
+
+    @Around("this(com.hsbc.transactionmanagement.repository.TransactionRepository)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "TransactionRepository", SpanKind.CLIENT);
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String type, SpanKind kind) throws Throwable {
+        if (!tracer.isTracing()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String name = spanNames.computeIfAbsent(method, m -> type + "." + m.getName());
+        try (SpanScope scope = tracer.startSpan(name, kind)) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable e) {
+                scope.recordError(e);
+                throw e;
+            }
+        }
+    }
+}
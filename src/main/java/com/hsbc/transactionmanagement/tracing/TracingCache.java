@@ -0,0 +1,107 @@
+package com.hsbc.transactionmanagement.tracing;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Times the lookups of a cache, recording whether they hit. Values loaded on a miss are loaded
+ * inside the lookup span, so the repository spans of the load nest below it. Writes and
+ * evictions pass straight through.
+ */
+public class TracingCache implements Cache {
+
+    private final Cache delegate;
+    private final Tracer tracer;
+    private final String spanName;
+
+    public TracingCache(Cache delegate, Tracer tracer) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+        this.spanName = "cache.get " + delegate.getName();
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (!tracer.isTracing()) {
+            return delegate.get(key);
+        }
+        try (SpanScope scope = tracer.startSpan(spanName)) {
+            ValueWrapper value = delegate.get(key);
+            scope.setAttribute("cache.hit", value != null);
+            return value;
+        }
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        if (!tracer.isTracing()) {
+            return delegate.get(key, type);
+        }
+        try (SpanScope scope = tracer.startSpan(spanName)) {
+            T value = delegate.get(key, type);
+            scope.setAttribute("cache.hit", value != null);
+            return value;
+        }
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (!tracer.isTracing()) {
+            return delegate.get(key, valueLoader);
+        }
+        try (SpanScope scope = tracer.startSpan(spanName)) {
+            boolean[] loaded = new boolean[1];
+            T value = delegate.get(key, () -> {
+                loaded[0] = true;
+                return valueLoader.call();
+            });
+            scope.setAttribute("cache.hit", !loaded[0]);
+            return value;
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+}
@@ -0,0 +1,38 @@
+package com.hsbc.transactionmanagement.tracing;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the caches of {@code @Cacheable} and friends like the default resolver, wrapped in
+ * a {@link TracingCache}. Only the annotation-driven lookups are traced; code using the
+ * {@link CacheManager} directly still gets the plain caches.
+ */
+public class TracingCacheResolver extends SimpleCacheResolver {
+
+    private final Tracer tracer;
+    private final Map<Cache, Cache> tracingCaches = new ConcurrentHashMap<>();
+
+    public TracingCacheResolver(CacheManager cacheManager, Tracer tracer) {
+        super(cacheManager);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        Collection<? extends Cache> caches = super.resolveCaches(context);
+        List<Cache> traced = new ArrayList<>(caches.size());
+        for (Cache cache : caches) {
+            traced.add(tracingCaches.computeIfAbsent(cache, c -> new TracingCache(c, tracer)));
+        }
+        return traced;
+    }
+}
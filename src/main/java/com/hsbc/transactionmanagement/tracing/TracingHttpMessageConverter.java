@@ -0,0 +1,96 @@
+package com.hsbc.transactionmanagement.tracing;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Delegates to a Jackson converter, timing response writes in a {@code serialize} span.
+ * Reads pass straight through.
+ */
+public class TracingHttpMessageConverter implements GenericHttpMessageConverter<Object> {
+
+    private final GenericHttpMessageConverter<Object> delegate;
+    private final Tracer tracer;
+
+    public TracingHttpMessageConverter(GenericHttpMessageConverter<Object> delegate, Tracer tracer) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    public GenericHttpMessageConverter<Object> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return delegate.canRead(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return delegate.canRead(type, contextClass, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return delegate.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return delegate.canWrite(type, clazz, mediaType);
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return delegate.getSupportedMediaTypes();
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return delegate.getSupportedMediaTypes(clazz);
+    }
+
+    @Override
+    public Object read(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return delegate.read(clazz, inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return delegate.read(type, contextClass, inputMessage);
+    }
+
+    @Override
+    public void write(Object value, MediaType contentType, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!tracer.isTracing()) {
+            delegate.write(value, contentType, outputMessage);
+            return;
+        }
+        try (SpanScope scope = tracer.startSpan("serialize")) {
+            scope.setAttribute("content.type", String.valueOf(contentType));
+            delegate.write(value, contentType, outputMessage);
+        }
+    }
+
+    @Override
+    public void write(Object value, Type type, MediaType contentType, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!tracer.isTracing()) {
+            delegate.write(value, type, contentType, outputMessage);
+            return;
+        }
+        try (SpanScope scope = tracer.startSpan("serialize")) {
+            scope.setAttribute("content.type", String.valueOf(contentType));
+            delegate.write(value, type, contentType, outputMessage);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.hsbc.transactionmanagement.util;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Builds one page out of several sources (storage tiers) that each returned their
+ * first {@code offset + size} rows in page order.
+ */
+public class TransactionPageMerger {
+
+    @SuppressWarnings("rawtypes")
+    private static final Map<String, Function<Transaction, Comparable>> SORT_VALUES = Map.of(
+            "id", Transaction::getId,
+            "description", Transaction::getDescription,
+            "amount", Transaction::getAmount,
+            "type", Transaction::getType,
+            "category", Transaction::getCategory,
+            "transactionReference", Transaction::getTransactionReference,
+            "transactionDate", Transaction::getTransactionDate);
+
+    private TransactionPageMerger() {
+    }
+
+    /**
+     * K-way merge of lists that are already sorted by {@code comparator}, skipping
+     * {@code offset} rows and returning at most {@code limit}.
+     */
+    public static List<Transaction> merge(List<List<Transaction>> sortedRuns, Comparator<Transaction> comparator,
+                                          long offset, int limit) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Math.max(1, sortedRuns.size()),
+                (a, b) -> comparator.compare(a.current(), b.current()));
+        for (List<Transaction> run : sortedRuns) {
+            if (!run.isEmpty()) {
+                heads.add(new Cursor(run));
+            }
+        }
+
+        List<Transaction> result = new ArrayList<>(limit);
+        long skipped = 0;
+        while (!heads.isEmpty() && result.size() < limit) {
+            Cursor head = heads.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                result.add(head.current());
+            }
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * In-memory equivalent of a {@code Sort} over the entity's own properties, with the id as
+     * final tie-breaker. Sources must order rows the same way, including the tie-breaker.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static Comparator<Transaction> comparator(Sort sort) {
+        Comparator<Transaction> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Function<Transaction, Comparable> value = SORT_VALUES.get(order.getProperty());
+            if (value == null) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+            // matches the database default: nulls sort low
+            Comparator<Transaction> byProperty = Comparator.comparing(value,
+                    Comparator.nullsFirst(Comparator.<Comparable>naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator.thenComparing(Transaction::getId);
+    }
+
+    private static final class Cursor {
+        private final List<Transaction> run;
+        private int position;
+
+        Cursor(List<Transaction> run) {
+            this.run = run;
+        }
+
+        Transaction current() {
+            return run.get(position);
+        }
+
+        boolean advance() {
+            return ++position < run.size();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.hsbc.transactionmanagement.validation;
+
+import com.hsbc.transactionmanagement.constant.TransactionType;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class TransactionTypeValidator implements ConstraintValidator<ValidTransactionType, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || TransactionType.isValid(value);
+    }
+}
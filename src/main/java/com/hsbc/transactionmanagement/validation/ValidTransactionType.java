@@ -0,0 +1,27 @@
+package com.hsbc.transactionmanagement.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The value must be the name of a {@link com.hsbc.transactionmanagement.constant.TransactionType}.
+ * {@code null} is valid, combine with {@code @NotBlank} when the type is mandatory.
+ */
+@Documented
+@Constraint(validatedBy = TransactionTypeValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.RECORD_COMPONENT})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidTransactionType {
+
+    String message() default "Type must be either DEBIT or CREDIT";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,242 @@
+package com.hsbc.transactionmanagement.account;
+
+import com.hsbc.transactionmanagement.config.AccountProperties;
+import com.hsbc.transactionmanagement.exception.InsufficientFundsException;
+import com.hsbc.transactionmanagement.repository.AccountLedgerRepository;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccountBalancesTest {
+
+    private static final Logger logger = LoggerUtil.getLogger(AccountBalancesTest.class);
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final AccountLedgerRepository ledgerRepository = mock(AccountLedgerRepository.class);
+    // the ledger rows, each updated atomically like by the database
+    private final Map<String, BigDecimal> ledgers = new ConcurrentHashMap<>();
+    private final AccountProperties properties = new AccountProperties();
+    private AccountBalances accountBalances;
+
+    @BeforeEach
+    void setUp() {
+        when(ledgerRepository.post(any(), any(), anyLong())).thenAnswer(call -> {
+            ledgers.merge(call.getArgument(0), call.getArgument(1), BigDecimal::add);
+            return 1;
+        });
+        when(ledgerRepository.postWithinLimit(any(), any(), anyLong(), any())).thenAnswer(call -> {
+            BigDecimal delta = call.getArgument(1);
+            BigDecimal overdraftLimit = call.getArgument(3);
+            boolean[] posted = new boolean[1];
+            ledgers.compute(call.getArgument(0), (accountId, balance) -> {
+                BigDecimal current = balance == null ? BigDecimal.ZERO : balance;
+                posted[0] = current.add(delta).add(overdraftLimit).signum() >= 0;
+                return posted[0] ? current.add(delta) : balance;
+            });
+            return posted[0] ? 1 : 0;
+        });
+        accountBalances = new AccountBalances(transactionRepository, ledgerRepository, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void post_ShouldRejectDebitsBeyondOverdraftLimit() {
+        accountBalances.post("A", "CREDIT", new BigDecimal("50.00"));
+        accountBalances.post("A", "DEBIT", new BigDecimal("30.00"));
+
+        assertThatThrownBy(() -> accountBalances.post("A", "DEBIT", new BigDecimal("20.01")))
+                .isInstanceOf(InsufficientFundsException.class);
+        properties.setOverdraftLimit(new BigDecimal("100"));
+        accountBalances.post("A", "DEBIT", new BigDecimal("120.00"));
+
+        AccountBalance balance = accountBalances.getBalance("A").orElseThrow();
+        assertThat(balance.balance()).isEqualByComparingTo("-100.00");
+        assertThat(balance.postings()).isEqualTo(3);
+    }
+
+    @Test
+    void post_ShouldRejectDebit_WhenTheLedgerHasNotTheFunds() {
+        accountBalances.post("A", "CREDIT", new BigDecimal("100"));
+        // another instance debited the account
+        ledgers.put("A", new BigDecimal("10"));
+
+        assertThatThrownBy(() -> accountBalances.post("A", "DEBIT", new BigDecimal("50")))
+                .isInstanceOf(InsufficientFundsException.class);
+        assertThat(accountBalances.getBalance("A").orElseThrow().balance()).isEqualByComparingTo("100");
+    }
+
+    @Test
+    void post_InsideTransaction_ShouldHoldLockAndApplyOnlyOnCommit() throws Exception {
+        accountBalances.post("A", "CREDIT", new BigDecimal("100"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        accountBalances.post("A", "DEBIT", new BigDecimal("60"));
+        // the transaction's own pending debit counts against the funds
+        assertThatThrownBy(() -> accountBalances.post("A", "DEBIT", new BigDecimal("60")))
+                .isInstanceOf(InsufficientFundsException.class);
+        assertThat(accountBalances.getBalance("A").orElseThrow().balance()).isEqualByComparingTo("100");
+
+        // another thread waits for the stripe and gives up after the lock timeout
+        properties.setLockTimeout(Duration.ofMillis(200));
+        CompletableFuture<Void> other = CompletableFuture.runAsync(
+                () -> accountBalances.post("A", "CREDIT", BigDecimal.ONE));
+        assertThatThrownBy(other::join).hasCauseInstanceOf(CannotAcquireLockException.class);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(accountBalances.getBalance("A").orElseThrow().balance()).isEqualByComparingTo("40");
+        CompletableFuture.runAsync(() -> accountBalances.post("A", "CREDIT", BigDecimal.ONE)).get();
+        assertThat(accountBalances.getBalance("A").orElseThrow().balance()).isEqualByComparingTo("41");
+    }
+
+    @Test
+    void post_InsideTransaction_ShouldDropDeltasOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        accountBalances.post("A", "CREDIT", new BigDecimal("100"));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(accountBalances.getBalance("A")).isEmpty();
+        // the stripe was released
+        accountBalances.post("A", "CREDIT", BigDecimal.TEN);
+        assertThat(accountBalances.getBalance("A").orElseThrow().balance()).isEqualByComparingTo("10");
+    }
+
+    @Test
+    void rebuild_ShouldReplaceBalancesWithTableSums() {
+        accountBalances.post("A", "CREDIT", BigDecimal.TEN);
+        accountBalances.post("B", "CREDIT", BigDecimal.TEN);
+        when(transactionRepository.sumPostingsByAccount())
+                .thenReturn(List.<Object[]>of(new Object[]{"A", new BigDecimal("7.50"), 2L}));
+
+        accountBalances.rebuild();
+
+        assertThat(accountBalances.getBalance("A").orElseThrow()).isEqualTo(new AccountBalance("A", new BigDecimal("7.50"), 2));
+        assertThat(accountBalances.getBalance("B")).isEmpty();
+    }
+
+    @Test
+    void concurrentDebits_ShouldNeverOverdraw() throws Exception {
+        accountBalances.post("A", "CREDIT", new BigDecimal("1000"));
+        int threads = 16;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 200; i++) {
+                        try {
+                            accountBalances.post("A", "DEBIT", BigDecimal.ONE);
+                            accepted.incrementAndGet();
+                        } catch (InsufficientFundsException e) {
+                            // expected once the account is empty
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(accepted.get()).isEqualTo(1000);
+        assertThat(accountBalances.getBalance("A").orElseThrow().balance()).isEqualByComparingTo("0");
+    }
+
+    /**
+     * Postings per second from 8 threads, all to one hot account against spread over 10,000
+     * accounts. Numbers are logged only.
+     */
+    @Tag("benchmark")
+    @Test
+    void hotVersusColdAccounts() throws Exception {
+        int threads = 8;
+        int postsPerThread = 50_000;
+        // the first round warms up the JIT
+        for (int round = 0; round < 2; round++) {
+            for (int accounts : new int[]{1, 10_000}) {
+                long elapsed = run(threads, postsPerThread, accounts);
+                if (round == 1) {
+                    logger.info("{} accounts ({}): {} posts/s", accounts, accounts == 1 ? "hot" : "cold",
+                            threads * (long) postsPerThread * 1_000_000_000L / elapsed);
+                }
+            }
+        }
+    }
+
+    private long run(int threads, int postsPerThread, int accounts) throws Exception {
+        String[] ids = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            ids[i] = "ACC-" + i;
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < postsPerThread; i++) {
+                        accountBalances.post(ids[(i + offset) % accounts], "CREDIT", BigDecimal.ONE);
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - begin;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+}
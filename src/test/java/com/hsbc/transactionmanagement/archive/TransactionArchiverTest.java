@@ -0,0 +1,158 @@
+package com.hsbc.transactionmanagement.archive;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.exception.ArchivedTransactionChangeException;
+import com.hsbc.transactionmanagement.exception.TransactionNotFoundException;
+import com.hsbc.transactionmanagement.repository.ArchivedTransactionRepository;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.request.TransactionPatchRequest;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "transaction.archive.batch-size=3")
+@ActiveProfiles("test")
+class TransactionArchiverTest {
+
+    @Autowired
+    private TransactionArchiver archiver;
+
+    @Autowired
+    private ArchiveEndpoint archiveEndpoint;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ArchivedTransactionRepository archivedTransactionRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Transaction> oldTransactions = new ArrayList<>();
+    private final List<Transaction> recentTransactions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        archivedTransactionRepository.deleteAll();
+        cacheManager.getCache("transaction").clear();
+        cacheManager.getCache("transactions").clear();
+        oldTransactions.clear();
+        recentTransactions.clear();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 7; i++) {
+            Transaction saved = transactionRepository.save(TestDataGenerator.createSampleTransaction());
+            LocalDateTime date = now.minusDays(200 + i);
+            jdbcTemplate.update("UPDATE transactions SET transaction_date = ? WHERE id = ?", date, saved.getId());
+            saved.setTransactionDate(date);
+            oldTransactions.add(saved);
+        }
+        for (int i = 0; i < 3; i++) {
+            Transaction saved = transactionRepository.save(TestDataGenerator.createSampleTransaction());
+            jdbcTemplate.update("UPDATE transactions SET transaction_date = ? WHERE id = ?", now.minusHours(i + 1), saved.getId());
+            recentTransactions.add(saved);
+        }
+    }
+
+    @Test
+    void archive_ShouldMoveOldRowsInBatches_AndKeepThemReadable() {
+        ArchiveRun run = archiver.archive();
+
+        assertThat(run.archivedRows()).isEqualTo(7);
+        assertThat(transactionRepository.count()).isEqualTo(3);
+        assertThat(archivedTransactionRepository.count()).isEqualTo(7);
+
+        Transaction old = oldTransactions.get(0);
+        assertThat(transactionService.getTransactionById(old.getId()).getTransactionReference())
+                .isEqualTo(old.getTransactionReference());
+        assertThat(transactionService.getTransactionByReference(old.getTransactionReference()).getId())
+                .isEqualTo(old.getId());
+
+        assertThat(archiver.archive().archivedRows()).isZero();
+    }
+
+    @Test
+    void writes_ShouldBeRejectedAsArchived_AndLeaveTheArchivedRowUnchanged() {
+        archiver.archive();
+        Transaction old = oldTransactions.get(0);
+        // cached by the read, so the update is first tried against the cached version
+        transactionService.getTransactionById(old.getId());
+
+        TransactionPatchRequest patch = new TransactionPatchRequest();
+        patch.setDescription("Changed");
+        assertThatThrownBy(() -> transactionService.patchTransaction(old.getId(), patch, null))
+                .isInstanceOf(ArchivedTransactionChangeException.class);
+        assertThatThrownBy(() -> transactionService.updateTransaction(old.getId(), old, 0L))
+                .isInstanceOf(ArchivedTransactionChangeException.class);
+        assertThatThrownBy(() -> transactionService.deleteTransaction(old.getId()))
+                .isInstanceOf(ArchivedTransactionChangeException.class);
+        assertThatThrownBy(() -> transactionService.deleteTransactionByReference(old.getTransactionReference()))
+                .isInstanceOf(ArchivedTransactionChangeException.class);
+        assertThatThrownBy(() -> transactionService.deleteTransaction(-1L))
+                .isInstanceOf(TransactionNotFoundException.class);
+
+        assertThat(archivedTransactionRepository.findById(old.getId()).orElseThrow().getDescription())
+                .isEqualTo(old.getDescription());
+        assertThat(transactionService.getTransactionById(old.getId()).getDescription()).isEqualTo(old.getDescription());
+    }
+
+    @Test
+    void getTransactionsInRange_ShouldMergeTiers_OnlyWhenRangeReachesArchive() {
+        archiver.archive();
+        Sort sort = Sort.by(Sort.Direction.DESC, "transactionDate");
+
+        Page<Transaction> recentOnly = transactionService.getTransactionsInRange(
+                null, null, LocalDateTime.now().minusDays(1), null, PageRequest.of(0, 20, sort));
+        assertThat(recentOnly.getTotalElements()).isEqualTo(3);
+
+        List<Long> paged = new ArrayList<>();
+        for (int page = 0; page < 4; page++) {
+            Page<Transaction> result = transactionService.getTransactionsInRange(
+                    null, null, LocalDateTime.now().minusYears(1), null, PageRequest.of(page, 3, sort));
+            assertThat(result.getTotalElements()).isEqualTo(10);
+            result.forEach(transaction -> paged.add(transaction.getId()));
+        }
+
+        List<Long> expected = new ArrayList<>();
+        recentTransactions.forEach(transaction -> expected.add(transaction.getId()));
+        oldTransactions.forEach(transaction -> expected.add(transaction.getId()));
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void endpoint_ShouldReportTierSizesAndLastRun() {
+        archiveEndpoint.archive();
+
+        Map<String, Object> status = archiveEndpoint.status();
+
+        assertThat(status).containsEntry("hotRows", 3L).containsEntry("archiveRows", 7L);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> lastRun = (Map<String, Object>) status.get("lastRun");
+        assertThat(lastRun).containsEntry("archivedRows", 7);
+    }
+}
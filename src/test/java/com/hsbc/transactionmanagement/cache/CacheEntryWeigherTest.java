@@ -0,0 +1,96 @@
+package com.hsbc.transactionmanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.repository.TransactionFields;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheEntryWeigherTest {
+
+    private static final Logger logger = LoggerUtil.getLogger(CacheEntryWeigherTest.class);
+
+    @Test
+    void estimate_ShouldGrowWithPageSize() {
+        long small = CacheEntryWeigher.estimate(page(10));
+        long large = CacheEntryWeigher.estimate(page(10_000));
+
+        assertThat(small).isBetween(10 * 200L, 10 * 1000L);
+        assertThat((double) large / small).isBetween(800.0, 1100.0);
+    }
+
+    @Test
+    void estimate_ShouldCountOnlyProjectedFields() {
+        Transaction transaction = TestDataGenerator.createSampleTransaction();
+        long whole = CacheEntryWeigher.estimate(transaction);
+        long narrow = CacheEntryWeigher.estimate(TransactionFields.parse("id,amount").project(transaction));
+
+        assertThat(narrow).isLessThan(whole);
+        assertThat(CacheEntryWeigher.estimate("x".repeat(1000))).isGreaterThan(1000);
+    }
+
+    @Test
+    void weightedCache_ShouldStayWithinBudget_AndKeepSmallEntries() {
+        long budget = 1024 * 1024;
+        Cache<Object, Object> cache = Caffeine.newBuilder()
+                .maximumWeight(budget)
+                .weigher(CacheEntryWeigher.INSTANCE)
+                .executor(Runnable::run)
+                .build();
+
+        for (long id = 0; id < 1000; id++) {
+            cache.put(id, TestDataGenerator.createSampleTransaction());
+        }
+        cache.put(TransactionListCacheKey.of(null, null, PageRequest.of(0, 5000)), page(5000));
+        cache.cleanUp();
+
+        long weight = cache.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        assertThat(weight).isLessThanOrEqualTo(budget);
+        // the page alone is over the budget and is evicted rather than the small entries
+        assertThat(cache.estimatedSize()).isEqualTo(1000);
+    }
+
+    /**
+     * Compares the estimate of a 20,000 row page with the heap it actually occupies. The
+     * numbers are logged; the bound only catches an estimate that is off by a wide margin.
+     */
+    @Tag("benchmark")
+    @Test
+    void estimateVersusMeasuredHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        List<Page<Transaction>> keep = new ArrayList<>();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        keep.add(page(20_000));
+        System.gc();
+        long measured = runtime.totalMemory() - runtime.freeMemory() - before;
+        long estimated = CacheEntryWeigher.estimate(keep.get(0));
+
+        logger.info("20000 rows: estimated {} bytes, measured {} bytes", estimated, measured);
+        if (measured > 0) {
+            assertThat((double) estimated / measured).isBetween(0.25, 4.0);
+        }
+    }
+
+    private static Page<Transaction> page(int size) {
+        List<Transaction> content = TestDataGenerator.createMultipleTransactions(size);
+        long id = 0;
+        for (Transaction transaction : content) {
+            transaction.setId(++id);
+        }
+        return new PageImpl<>(content, PageRequest.of(0, size, Sort.by("transactionDate")), 100_000);
+    }
+}
@@ -0,0 +1,96 @@
+package com.hsbc.transactionmanagement.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.response.CommonResponse;
+import com.hsbc.transactionmanagement.response.PagedResponse;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares payload size of a page envelope in JSON against the binary formats and checks the
+ * round trip. Encode/decode times are measured by the {@code benchmark} tagged test, run with
+ * {@code mvn test -Pbenchmark}.
+ */
+class BinaryFormatConfigTest {
+
+    private static final Logger logger = LoggerUtil.getLogger(BinaryFormatConfigTest.class);
+
+    private static final TypeReference<CommonResponse<PagedResponse<Transaction>>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cbor = BinaryFormatConfig.binaryObjectMapper(Jackson2ObjectMapperBuilder.json(), new CBORFactory());
+    private final ObjectMapper smile = BinaryFormatConfig.binaryObjectMapper(Jackson2ObjectMapperBuilder.json(), new SmileFactory());
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000, 10000})
+    void binaryFormats_ShouldBeSmallerThanJson_AndRoundTrip(int pageSize) throws Exception {
+        CommonResponse<PagedResponse<Transaction>> page = samplePage(pageSize);
+
+        byte[] jsonBytes = json.writeValueAsBytes(page);
+        byte[] cborBytes = cbor.writeValueAsBytes(page);
+        byte[] smileBytes = smile.writeValueAsBytes(page);
+
+        assertThat(cborBytes.length).isLessThan(jsonBytes.length);
+        assertThat(smileBytes.length).isLessThan(jsonBytes.length);
+
+        CommonResponse<PagedResponse<Transaction>> decoded = cbor.readValue(cborBytes, PAGE_TYPE);
+        assertThat(decoded.getResult().getContent()).hasSize(pageSize);
+        Transaction first = decoded.getResult().getContent().get(0);
+        Transaction expected = page.getResult().getContent().get(0);
+        assertThat(first.getAmount()).isEqualByComparingTo(expected.getAmount());
+        assertThat(first.getTransactionDate()).isEqualTo(expected.getTransactionDate());
+    }
+
+    @Tag("benchmark")
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000, 10000})
+    void encodeDecodeTimes(int pageSize) throws Exception {
+        CommonResponse<PagedResponse<Transaction>> page = samplePage(pageSize);
+        measure("json", pageSize, json, page);
+        measure("cbor", pageSize, cbor, page);
+        measure("smile", pageSize, smile, page);
+    }
+
+    private void measure(String format, int pageSize, ObjectMapper mapper,
+                         CommonResponse<PagedResponse<Transaction>> page) throws Exception {
+        long start = System.nanoTime();
+        byte[] bytes = mapper.writeValueAsBytes(page);
+        long encoded = System.nanoTime();
+        mapper.readValue(bytes, PAGE_TYPE);
+        long decoded = System.nanoTime();
+        logger.info("{} page={} bytes={} encode={}us decode={}us", format, pageSize, bytes.length,
+                (encoded - start) / 1000, (decoded - encoded) / 1000);
+    }
+
+    private static CommonResponse<PagedResponse<Transaction>> samplePage(int pageSize) {
+        List<Transaction> transactions = TestDataGenerator.createMultipleTransactions(pageSize);
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            transaction.setId((long) i + 1);
+            transaction.setAmount(new BigDecimal("1234.5678").add(BigDecimal.valueOf(i)));
+            transaction.setTransactionDate(LocalDateTime.of(2023, 8, 29, 15, 30).plusMinutes(i));
+            transaction.setVersion(0L);
+        }
+        PagedResponse<Transaction> pagedResponse = PagedResponse.fromPage(
+                new PageImpl<>(transactions, PageRequest.of(0, pageSize), pageSize * 10L));
+        return CommonResponse.success(pagedResponse, "Success");
+    }
+}
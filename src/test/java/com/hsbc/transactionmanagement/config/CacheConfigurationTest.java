@@ -1,20 +1,44 @@
 package com.hsbc.transactionmanagement.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.hsbc.transactionmanagement.cache.TransactionListCacheKey;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.Arrays;
+import java.util.Map;
 
-@SpringBootTest
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "transaction.cache.max-cacheable-page-size=50")
 @ActiveProfiles("test")
 class CacheConfigurationTest {
 
     @Autowired(required = false)
     private ApplicationContext applicationContext;
 
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void contextLoads() {
         assert(applicationContext != null);
@@ -28,4 +52,26 @@ class CacheConfigurationTest {
                 .filter(name -> name.contains("cache") || name.contains("transaction"))
                 .forEach(System.out::println);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pagesOverMaxCacheableSize_ShouldNotBeCached_AndMemoryIsReported() {
+        transactionRepository.deleteAll();
+        transactionService.clearCache();
+        transactionRepository.saveAll(TestDataGenerator.createMultipleTransactions(60));
+        Pageable small = PageRequest.of(0, 50);
+        Pageable large = PageRequest.of(0, 51);
+
+        assertThat(transactionService.getAllTransactions(null, null, small).getContent()).hasSize(50);
+        assertThat(transactionService.getAllTransactions(null, null, large).getContent()).hasSize(51);
+
+        Map<Object, Object> entries = ((Cache<Object, Object>) cacheManager.getCache("transactions").getNativeCache()).asMap();
+        assertThat(entries).containsKey(TransactionListCacheKey.of(null, null, small));
+        assertThat(cacheManager.getCache("transactions").get(TransactionListCacheKey.of(null, null, large))).isNull();
+        assertThat(entries).doesNotContainKey(TransactionListCacheKey.of(null, null, large));
+        double memory = meterRegistry.get("transaction.cache.memory").tag("cache", "transactions").gauge().value();
+        double budget = meterRegistry.get("transaction.cache.memory.max").tag("cache", "transactions").gauge().value();
+        assertThat(memory).isGreaterThan(50 * 300);
+        assertThat(budget).isEqualTo(64 * 1024 * 1024);
+    }
+}
@@ -1,11 +1,24 @@
 package com.hsbc.transactionmanagement.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transactionmanagement.constant.ErrorMessages;
 import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.exception.ArchivedTransactionChangeException;
+import com.hsbc.transactionmanagement.exception.ChangeTokenExpiredException;
 import com.hsbc.transactionmanagement.exception.DuplicateTransactionException;
 import com.hsbc.transactionmanagement.exception.TransactionNotFoundException;
+import com.hsbc.transactionmanagement.exception.TransactionVersionMismatchException;
 import com.hsbc.transactionmanagement.handler.GlobalExceptionHandler;
+import com.hsbc.transactionmanagement.repository.TransactionFields;
+import com.hsbc.transactionmanagement.request.MultiGetRequest;
+import com.hsbc.transactionmanagement.request.TransactionPatchRequest;
+import com.hsbc.transactionmanagement.response.ChangesResponse;
+import com.hsbc.transactionmanagement.response.MultiGetResponse;
+import com.hsbc.transactionmanagement.service.AsyncTransactionService;
 import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.stream.TransactionStreamHub;
+import com.hsbc.transactionmanagement.sync.TransactionChangeFeed;
+import com.hsbc.transactionmanagement.util.AsyncMockMvc;
 import com.hsbc.transactionmanagement.util.TestDataGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,10 +30,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -36,6 +53,15 @@ class TransactionControllerTest {
     @Mock
     private TransactionService transactionService;
 
+    @Mock
+    private AsyncTransactionService asyncTransactionService;
+
+    @Mock
+    private TransactionStreamHub transactionStreamHub;
+
+    @Mock
+    private TransactionChangeFeed transactionChangeFeed;
+
     @InjectMocks
     private TransactionController transactionController;
 
@@ -81,10 +107,10 @@ class TransactionControllerTest {
     @Test
     void getTransactionById_ShouldReturnTransaction_WhenExists() throws Exception {
         // Arrange
-        when(transactionService.getTransactionById(1L)).thenReturn(sampleTransaction);
+        when(asyncTransactionService.getTransactionById(1L)).thenReturn(CompletableFuture.completedFuture(sampleTransaction));
 
         // Act & Assert using MockMvc
-        mockMvc.perform(get("/api/v1/transactions/1"))
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status.code").value(200))
                 .andExpect(jsonPath("$.result.id").value(1L));
@@ -93,10 +119,10 @@ class TransactionControllerTest {
     @Test
     void getTransactionById_ShouldReturnNotFound_WhenNotExists() throws Exception {
         // Arrange
-        when(transactionService.getTransactionById(999L)).thenReturn(null);
+        when(asyncTransactionService.getTransactionById(999L)).thenReturn(CompletableFuture.completedFuture(null));
 
         // Act & Assert using MockMvc
-        mockMvc.perform(get("/api/v1/transactions/999"))
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/999"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.status.code").value(404));
     }
@@ -104,10 +130,10 @@ class TransactionControllerTest {
     @Test
     void getTransactionByReference_ShouldReturnTransaction_WhenExists() throws Exception {
         // Arrange
-        when(transactionService.getTransactionByReference("REF-123456")).thenReturn(sampleTransaction);
+        when(asyncTransactionService.getTransactionByReference("REF-123456")).thenReturn(CompletableFuture.completedFuture(sampleTransaction));
 
         // Act & Assert using MockMvc
-        mockMvc.perform(get("/api/v1/transactions/reference/REF-123456"))
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/reference/REF-123456"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status.code").value(200))
                 .andExpect(jsonPath("$.result.id").value(1L));
@@ -116,10 +142,10 @@ class TransactionControllerTest {
     @Test
     void getTransactionByReference_ShouldReturnNotFound_WhenNotExists() throws Exception {
         // Arrange
-        when(transactionService.getTransactionByReference("NONEXISTENT")).thenReturn(null);
+        when(asyncTransactionService.getTransactionByReference("NONEXISTENT")).thenReturn(CompletableFuture.completedFuture(null));
 
         // Act & Assert using MockMvc
-        mockMvc.perform(get("/api/v1/transactions/reference/NONEXISTENT"))
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/reference/NONEXISTENT"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.status.code").value(404));
     }
@@ -130,10 +156,10 @@ class TransactionControllerTest {
         List<Transaction> transactions = TestDataGenerator.createMultipleTransactions(3);
         Page<Transaction> transactionPage = new PageImpl<>(transactions, PageRequest.of(0, 10), 3);
 
-        when(transactionService.getAllTransactions(eq(null), eq(null), any(Pageable.class))).thenReturn(transactionPage);
+        when(asyncTransactionService.getAllTransactions(eq(null), eq(null), any(Pageable.class))).thenReturn(CompletableFuture.completedFuture(transactionPage));
 
         // Act & Assert using MockMvc
-        mockMvc.perform(get("/api/v1/transactions")
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions")
                         .param("page", "0")
                         .param("size", "10")
                         .param("sortBy", "transactionDate")
@@ -149,11 +175,11 @@ class TransactionControllerTest {
         List<Transaction> transactions = TestDataGenerator.createMultipleTransactions(2);
         Page<Transaction> transactionPage = new PageImpl<>(transactions, PageRequest.of(0, 10), 2);
 
-        when(transactionService.getAllTransactions(eq("Shopping"), eq("DEBIT"), any(Pageable.class)))
-                .thenReturn(transactionPage);
+        when(asyncTransactionService.getAllTransactions(eq("Shopping"), eq("DEBIT"), any(Pageable.class)))
+                .thenReturn(CompletableFuture.completedFuture(transactionPage));
 
         // Act & Assert using MockMvc
-        mockMvc.perform(get("/api/v1/transactions")
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions")
                         .param("page", "0")
                         .param("size", "10")
                         .param("sortBy", "transactionDate")
@@ -165,13 +191,105 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.result.totalItems").value(2));
     }
 
+    @Test
+    void getAllTransactions_ShouldReturnSlice_WhenTotalsSkipped() throws Exception {
+        List<Transaction> transactions = TestDataGenerator.createMultipleTransactions(2);
+        when(asyncTransactionService.getTransactionSlice(eq(null), eq(null), any(Pageable.class)))
+                .thenReturn(CompletableFuture.completedFuture(new SliceImpl<>(transactions, PageRequest.of(0, 2), true)));
+
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions")
+                        .param("size", "2")
+                        .param("includeTotals", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.content.length()").value(2))
+                .andExpect(jsonPath("$.result.hasNext").value(true))
+                .andExpect(jsonPath("$.result.totalItems").doesNotExist())
+                .andExpect(jsonPath("$.result.totalPages").doesNotExist());
+
+        verify(asyncTransactionService, never()).getAllTransactions(any(), any(), any());
+    }
+
+    @Test
+    void getAllTransactions_ShouldReturnOnlyRequestedFields() throws Exception {
+        TransactionFields fields = TransactionFields.parse("amount,id");
+        Map<String, Object> row = fields.project(sampleTransaction);
+        when(asyncTransactionService.getTransactionFields(eq(fields), eq(null), eq(null), any(Pageable.class)))
+                .thenReturn(CompletableFuture.completedFuture(new PageImpl<>(List.of(row), PageRequest.of(0, 10), 1)));
+
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions")
+                        .param("fields", "amount,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.content[0].id").value(1L))
+                .andExpect(jsonPath("$.result.content[0].amount").exists())
+                .andExpect(jsonPath("$.result.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.result.totalItems").value(1));
+
+        verify(asyncTransactionService, never()).getAllTransactions(any(), any(), any());
+    }
+
+    @Test
+    void getTransactionById_ShouldProjectFields_AndRejectUnknownOnes() throws Exception {
+        when(asyncTransactionService.getTransactionById(1L)).thenReturn(CompletableFuture.completedFuture(sampleTransaction));
+
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/1")
+                        .param("fields", "transactionReference"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.transactionReference").value(sampleTransaction.getTransactionReference()))
+                .andExpect(jsonPath("$.result.id").doesNotExist());
+
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/1")
+                        .param("fields", "id,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status.code").value(400));
+    }
+
+    @Test
+    void getTransactions_ShouldReturnResultsInRequestOrder() throws Exception {
+        when(transactionService.getTransactions(List.of(1L, 999L), List.of("REF-1"))).thenReturn(new MultiGetResponse(List.of(
+                MultiGetResponse.Item.ofId(1L, sampleTransaction),
+                MultiGetResponse.Item.ofId(999L, null),
+                MultiGetResponse.Item.ofReference("REF-1", null)), 2));
+
+        mockMvc.perform(post("/api/v1/transactions/multi-get")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(new MultiGetRequest(List.of(1L, 999L), List.of("REF-1")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.results[0].transaction.id").value(1L))
+                .andExpect(jsonPath("$.result.results[1].id").value(999L))
+                .andExpect(jsonPath("$.result.results[1].found").value(false))
+                .andExpect(jsonPath("$.result.results[1].transaction").doesNotExist())
+                .andExpect(jsonPath("$.result.results[2].reference").value("REF-1"))
+                .andExpect(jsonPath("$.result.notFoundCount").value(2));
+    }
+
+    @Test
+    void getTransactions_ShouldReturnBadRequest_WhenTooManyKeys() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        List<String> references = new ArrayList<>();
+        for (int i = 0; i < MultiGetRequest.MAX_KEYS; i++) {
+            ids.add((long) i);
+            references.add("REF-" + i);
+        }
+
+        mockMvc.perform(post("/api/v1/transactions/multi-get")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(new MultiGetRequest(ids, references))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/transactions/multi-get")
+                        .contentType("application/json")
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(transactionService);
+    }
+
     @Test
     void updateTransaction_ShouldReturnUpdatedTransaction_WhenExists() throws Exception {
         // Arrange
         Transaction updatedTransaction = TestDataGenerator.createSampleTransaction();
         updatedTransaction.setDescription("Updated Description");
 
-        when(transactionService.updateTransaction(eq(1L), any(Transaction.class))).thenReturn(updatedTransaction);
+        when(transactionService.updateTransaction(eq(1L), any(Transaction.class), isNull())).thenReturn(updatedTransaction);
 
         // Act & Assert using MockMvc
         mockMvc.perform(put("/api/v1/transactions/1")
@@ -186,7 +304,7 @@ class TransactionControllerTest {
     void updateTransaction_ShouldReturnNotFound_WhenNotExists() throws Exception {
         // Arrange
         Transaction updatedTransaction = TestDataGenerator.createSampleTransaction();
-        when(transactionService.updateTransaction(eq(999L), any(Transaction.class)))
+        when(transactionService.updateTransaction(eq(999L), any(Transaction.class), isNull()))
                 .thenThrow(new TransactionNotFoundException("Transaction not found"));
 
         // Act & Assert using MockMvc
@@ -197,6 +315,68 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.status.code").value(404));
     }
 
+    @Test
+    void updateTransaction_ShouldReturnPreconditionFailed_WhenIfMatchIsStale() throws Exception {
+        Transaction updatedTransaction = TestDataGenerator.createSampleTransaction();
+        when(transactionService.updateTransaction(eq(1L), any(Transaction.class), eq(2L)))
+                .thenThrow(new TransactionVersionMismatchException("stale"));
+
+        mockMvc.perform(put("/api/v1/transactions/1")
+                        .header("If-Match", "\"2\"")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(updatedTransaction)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status.code").value(412));
+    }
+
+    @Test
+    void patchTransaction_ShouldReturnPreconditionFailed_WhenIfMatchIsWeak() throws Exception {
+        mockMvc.perform(patch("/api/v1/transactions/1")
+                        .header("If-Match", "W/\"0\"")
+                        .contentType("application/json")
+                        .content("{\"amount\": 12.50}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status.code").value(412));
+        verify(transactionService, never()).patchTransaction(any(), any(), any());
+    }
+
+    @Test
+    void patchTransaction_ShouldReturnPatchedTransactionWithETag() throws Exception {
+        sampleTransaction.setVersion(1L);
+        when(transactionService.patchTransaction(eq(1L), any(TransactionPatchRequest.class), eq(0L)))
+                .thenReturn(sampleTransaction);
+
+        mockMvc.perform(patch("/api/v1/transactions/1")
+                        .header("If-Match", "\"0\"")
+                        .contentType("application/json")
+                        .content("{\"amount\": 12.50}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.status.code").value(200));
+    }
+
+    @Test
+    void patchTransaction_ShouldReturnBadRequest_WhenNoFieldsSupplied() throws Exception {
+        mockMvc.perform(patch("/api/v1/transactions/1")
+                        .contentType("application/json")
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(transactionService, never()).patchTransaction(any(), any(), any());
+    }
+
+    @Test
+    void patchTransaction_ShouldReturnNotFound_WhenNotExists() throws Exception {
+        when(transactionService.patchTransaction(eq(999L), any(TransactionPatchRequest.class), isNull()))
+                .thenThrow(new TransactionNotFoundException("Transaction not found"));
+
+        mockMvc.perform(patch("/api/v1/transactions/999")
+                        .contentType("application/json")
+                        .content("{\"description\": \"Patched\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status.code").value(404));
+    }
+
     @Test
     void deleteTransaction_ShouldReturnSuccess_WhenExists() throws Exception {
         // Arrange
@@ -220,6 +400,19 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.status.code").value(404));
     }
 
+    @Test
+    void deleteTransaction_ShouldReturnConflict_WhenArchived() throws Exception {
+        // Arrange
+        doThrow(new ArchivedTransactionChangeException("Transaction 7 is archived"))
+                .when(transactionService).deleteTransaction(7L);
+
+        // Act & Assert using MockMvc
+        mockMvc.perform(delete("/api/v1/transactions/7"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status.code").value(409))
+                .andExpect(jsonPath("$.status.message").value(ErrorMessages.ARCHIVED_TRANSACTION_CHANGE + 7));
+    }
+
     @Test
     void deleteTransactionByReference_ShouldReturnSuccess_WhenExists() throws Exception {
         // Arrange
@@ -243,6 +436,78 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.status.code").value(404));
     }
 
+    @Test
+    void deleteTransactions_ShouldReturnDeletedCount() throws Exception {
+        when(transactionService.deleteTransactions(List.of(1L, 2L), List.of("REF-123456"))).thenReturn(3);
+
+        mockMvc.perform(post("/api/v1/transactions/bulk-delete")
+                        .contentType("application/json")
+                        .content("{\"ids\": [1, 2], \"references\": [\"REF-123456\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.deletedCount").value(3));
+    }
+
+    @Test
+    void deleteTransactions_ShouldReturnBadRequest_WhenNoKeysSupplied() throws Exception {
+        mockMvc.perform(post("/api/v1/transactions/bulk-delete")
+                        .contentType("application/json")
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(transactionService, never()).deleteTransactions(any(), any());
+    }
+
+    @Test
+    void getChanges_ShouldReturnChangesAndNextToken() throws Exception {
+        when(transactionChangeFeed.changesSince("abc", 100))
+                .thenReturn(new ChangesResponse(List.of(sampleTransaction), List.of(), "def", false));
+
+        mockMvc.perform(get("/api/v1/transactions/changes").param("since", "abc").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.upserts[0].id").value(1L))
+                .andExpect(jsonPath("$.result.nextToken").value("def"))
+                .andExpect(jsonPath("$.result.hasMore").value(false));
+    }
+
+    @Test
+    void getChanges_ShouldReturnGone_WhenTokenExpired() throws Exception {
+        when(transactionChangeFeed.changesSince(eq("old"), anyInt()))
+                .thenThrow(new ChangeTokenExpiredException("expired"));
+
+        mockMvc.perform(get("/api/v1/transactions/changes").param("since", "old"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.status.code").value(410));
+    }
+
+    @Test
+    void getChanges_ShouldReturnBadRequest_WhenTokenMalformed() throws Exception {
+        when(transactionChangeFeed.changesSince(eq("???"), anyInt()))
+                .thenThrow(new IllegalArgumentException("Malformed change token: ???"));
+
+        mockMvc.perform(get("/api/v1/transactions/changes").param("since", "???"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createTransaction_ShouldRejectUnknownType_AndIgnoreServerAssignedFields() throws Exception {
+        sampleTransaction.setType("debit");
+        mockMvc.perform(post("/api/v1/transactions")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(sampleTransaction)))
+                .andExpect(status().isBadRequest());
+
+        sampleTransaction.setType("CREDIT");
+        sampleTransaction.setVersion(7L);
+        when(transactionService.createTransaction(any(Transaction.class))).thenReturn(sampleTransaction);
+        mockMvc.perform(post("/api/v1/transactions")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(sampleTransaction)))
+                .andExpect(status().isCreated());
+
+        verify(transactionService).createTransaction(argThat(transaction -> transaction.getId() == null
+                && transaction.getVersion() == null && "CREDIT".equals(transaction.getType())));
+    }
+
     @Test
     void createTransaction_ShouldHandleValidationErrors() throws Exception {
         // Arrange
@@ -0,0 +1,110 @@
+package com.hsbc.transactionmanagement.count;
+
+import com.hsbc.transactionmanagement.config.CountProperties;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionCountsTest {
+
+    private TransactionRepository transactionRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionCounts counts;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        counts = new TransactionCounts(transactionRepository, new CountProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        counts.destroy();
+    }
+
+    @Test
+    void count_ShouldBeEmpty_UntilFirstReconcile() {
+        assertThat(counts.count(null, null)).isEmpty();
+
+        when(transactionRepository.countByPartition()).thenReturn(rows());
+        counts.reconcile();
+
+        assertThat(counts.count(null, null)).hasValue(0);
+    }
+
+    @Test
+    void count_ShouldSumMatchingPartitions_CaseInsensitively() {
+        when(transactionRepository.countByPartition()).thenReturn(rows(
+                row("food", "debit", 5), row("food", "credit", 2), row("rent", "debit", 3)));
+        counts.reconcile();
+
+        assertThat(counts.count("Food", "DEBIT")).hasValue(5);
+        assertThat(counts.count("FOOD", null)).hasValue(7);
+        assertThat(counts.count(null, "debit")).hasValue(8);
+        assertThat(counts.count(null, null)).hasValue(10);
+        assertThat(counts.count("Travel", null)).hasValue(0);
+    }
+
+    @Test
+    void record_ShouldApplyDeltas_OnlyAfterCommit() {
+        when(transactionRepository.countByPartition()).thenReturn(rows(row("food", "debit", 1)));
+        counts.reconcile();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counts.recordCreated("Food", "DEBIT");
+            counts.recordMoved("Food", "DEBIT", "Rent", "DEBIT");
+            assertThat(counts.count(null, null)).hasValue(1);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(counts.count("food", "debit")).hasValue(1);
+        assertThat(counts.count("rent", "debit")).hasValue(1);
+
+        counts.recordDeleted("Rent", "DEBIT");
+        assertThat(counts.count("rent", null)).hasValue(0);
+    }
+
+    @Test
+    void invalidate_ShouldFallBackUntilRecount_AndReportDrift() throws Exception {
+        when(transactionRepository.countByPartition()).thenReturn(rows(row("food", "debit", 4)));
+        counts.reconcile();
+
+        when(transactionRepository.countByPartition()).thenReturn(rows(row("food", "debit", 1)));
+        counts.invalidate();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!counts.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(counts.count("food", "debit")).hasValue(1);
+
+        counts.recordCreated("Food", "DEBIT");
+        counts.reconcile();
+        assertThat(meterRegistry.get("transaction.counts.drift").counter().count()).isEqualTo(1.0);
+    }
+
+    private static Object[] row(String category, String type, long count) {
+        return new Object[]{category, type, count};
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,95 @@
+package com.hsbc.transactionmanagement.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private ReadYourWritesTracker tracker;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = markedDatabase("routing_primary");
+        DataSource replica = markedDatabase("routing_replica");
+        tracker = new ReadYourWritesTracker(Duration.ofMinutes(1), 100);
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, tracker);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClientContext.clear();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        assertThat(markerIn(readOnly)).isEqualTo("routing_replica");
+    }
+
+    @Test
+    void readWriteTransactionAndNoTransaction_ShouldUsePrimary() {
+        assertThat(markerIn(readWrite)).isEqualTo("routing_primary");
+        assertThat(marker()).isEqualTo("routing_primary");
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldStayOnPrimary_ForClientThatJustWrote() {
+        ClientContext.set("client-1");
+        tracker.recordWrite("client-1");
+        assertThat(markerIn(readOnly)).isEqualTo("routing_primary");
+
+        ClientContext.set("client-2");
+        assertThat(markerIn(readOnly)).isEqualTo("routing_replica");
+    }
+
+    @Test
+    void sharedCacheLoad_ShouldStayOnPrimary_WithinWindowOfAnyWrite() throws Exception {
+        ClientContext.set("reader");
+        assertThat(SharedCacheLoad.call(() -> markerIn(readOnly))).isEqualTo("routing_replica");
+
+        ClientContext.set("writer");
+        markerIn(readWrite);
+        ClientContext.set("reader");
+        assertThat(SharedCacheLoad.call(() -> markerIn(readOnly))).isEqualTo("routing_primary");
+        assertThat(markerIn(readOnly)).isEqualTo("routing_replica");
+    }
+
+    private String markerIn(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> marker());
+    }
+
+    private String marker() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static DataSource markedDatabase(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(32))");
+        jdbc.update("DELETE FROM marker");
+        jdbc.update("INSERT INTO marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,164 @@
+package com.hsbc.transactionmanagement.dictionary;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryDictionaryTest {
+
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:categories_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(4);
+        new JdbcTemplate(dataSource).execute("CREATE TABLE transaction_categories ("
+                + "id INTEGER AUTO_INCREMENT PRIMARY KEY, name VARCHAR(100) NOT NULL UNIQUE, "
+                + "name_key VARCHAR(100) NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void codeOf_ShouldKeepSpellings_AndShareOneStringPerCategory() {
+        CategoryDictionary dictionary = dictionary();
+
+        int food = dictionary.codeOf("Food");
+        int lowerFood = dictionary.codeOf("food");
+
+        assertThat(food).isNotEqualTo(lowerFood);
+        assertThat(dictionary.codeOf(new String("Food"))).isEqualTo(food);
+        assertThat(dictionary.nameOf(food)).isEqualTo("Food").isSameAs(dictionary.nameOf(food));
+        assertThat(new JdbcTemplate(dataSource).queryForList(
+                "SELECT name FROM transaction_categories WHERE name_key = 'food' ORDER BY id", String.class))
+                .containsExactly("Food", "food");
+    }
+
+    @Test
+    void nameOf_ShouldReadCategoriesAddedByAnotherInstance() {
+        CategoryDictionary first = dictionary();
+        CategoryDictionary second = dictionary();
+
+        int code = first.codeOf("Travel");
+
+        assertThat(second.nameOf(code)).isEqualTo("Travel");
+        int shopping = first.codeOf("Shopping");
+        // the second instance's insert fails on the unique name and resolves to the existing code
+        assertThat(second.codeOf("Shopping")).isEqualTo(shopping);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_ShouldLoadExistingCategories() {
+        int code = dictionary().codeOf("Rent");
+
+        CategoryDictionary restarted = new CategoryDictionary(dataSource, new SimpleMeterRegistry());
+        restarted.afterSingletonsInstantiated();
+        dataSource.close();
+
+        // served from memory, the table is no longer reachable
+        assertThat(restarted.nameOf(code)).isEqualTo("Rent");
+        assertThat(restarted.codeOf("Rent")).isEqualTo(code);
+    }
+
+    @Test
+    void codeOf_ShouldGiveOneCode_WhenInstancesAddTheSameCategoryConcurrently() throws Exception {
+        List<CategoryDictionary> instances = List.of(dictionary(), dictionary(), dictionary(), dictionary());
+        ExecutorService executor = Executors.newFixedThreadPool(instances.size());
+        try {
+            for (int round = 0; round < 20; round++) {
+                String category = "Concurrent-" + round;
+                List<Future<Integer>> codes = new ArrayList<>();
+                for (CategoryDictionary instance : instances) {
+                    codes.add(executor.submit(() -> instance.codeOf(category)));
+                }
+                Set<Integer> distinct = new HashSet<>();
+                for (Future<Integer> code : codes) {
+                    distinct.add(code.get());
+                }
+                assertThat(distinct).hasSize(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void codeOf_ShouldCommitNewCategories_IndependentlyOfTheCallersTransaction() {
+        CategoryDictionary dictionary = dictionary();
+        TransactionTemplate transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        Integer code = transactions.execute(status -> {
+            int added = dictionary.codeOf("Bonus");
+            status.setRollbackOnly();
+            return added;
+        });
+
+        assertThat(dictionary.codeOf("Bonus")).isEqualTo(code);
+        assertThat(dictionary().nameOf(code)).isEqualTo("Bonus");
+    }
+
+    @Test
+    void codeOf_ShouldNotWaitForAnotherOpenTransactionUsingTheSameNewCategory() throws Exception {
+        TransactionTemplate transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        CountDownLatch added = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> open = executor.submit(() -> transactions.execute(status -> {
+                int code = dictionary().codeOf("Refund");
+                added.countDown();
+                await(finish);
+                return code;
+            }));
+            assertThat(added.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // a second instance has to go to the table while the first transaction is still open
+            Integer code = CompletableFuture.supplyAsync(() -> transactions.execute(status -> dictionary().codeOf("Refund")))
+                    .get(5, TimeUnit.SECONDS);
+
+            finish.countDown();
+            assertThat(code).isEqualTo(open.get());
+        } finally {
+            finish.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CategoryDictionary dictionary() {
+        CategoryDictionary dictionary = new CategoryDictionary(dataSource, new SimpleMeterRegistry());
+        dictionary.afterSingletonsInstantiated();
+        return dictionary;
+    }
+}
@@ -0,0 +1,77 @@
+package com.hsbc.transactionmanagement.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transactionmanagement.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setRead(new ConcurrencyLimitProperties.Pool(2, 1, 10));
+        properties.setWrite(new ConcurrencyLimitProperties.Pool(2, 1, 10));
+        properties.setRetryAfterSeconds(3);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void shouldRejectWith503AndRetryAfter_WhenReadLimitIsReached() throws Exception {
+        filter.getReadLimiter().tryAcquire(1.0);
+        filter.getReadLimiter().tryAcquire(1.0);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/transactions"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("3");
+        assertThat(response.getContentAsString()).contains("\"code\":503");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(meterRegistry.get("transaction.concurrency.rejected")
+                .tag("pool", "read").tag("priority", "normal").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldLimitWritesIndependentlyOfReads() throws Exception {
+        filter.getReadLimiter().tryAcquire(1.0);
+        filter.getReadLimiter().tryAcquire(1.0);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/transactions"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(filter.getWriteLimiter().getInflight()).isZero();
+    }
+
+    @Test
+    void shouldRejectBatchClients_BeforeNormalClients() throws Exception {
+        filter.getWriteLimiter().tryAcquire(1.0);
+
+        MockHttpServletRequest batchRequest = new MockHttpServletRequest("POST", "/api/v1/transactions");
+        batchRequest.addHeader("X-Client-Priority", "batch");
+        MockHttpServletResponse batchResponse = new MockHttpServletResponse();
+        filter.doFilter(batchRequest, batchResponse, new MockFilterChain());
+
+        MockHttpServletResponse normalResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/transactions"), normalResponse, new MockFilterChain());
+
+        assertThat(batchResponse.getStatus()).isEqualTo(503);
+        assertThat(normalResponse.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("transaction.concurrency.limit").tag("pool", "write").gauge().value())
+                .isEqualTo(2.0);
+    }
+}
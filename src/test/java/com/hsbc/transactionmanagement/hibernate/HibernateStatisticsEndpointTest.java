@@ -0,0 +1,64 @@
+package com.hsbc.transactionmanagement.hibernate;
+
+import com.hsbc.transactionmanagement.config.HibernateStatisticsProperties;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "transaction.hibernate.reset-enabled=true")
+@ActiveProfiles("test")
+class HibernateStatisticsEndpointTest {
+
+    @Autowired
+    private HibernateStatisticsEndpoint endpoint;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void statistics_ShouldReportQueriesWithPercentiles_AndEntityCounts() {
+        assertThat(endpoint.reset().getStatus()).isEqualTo(200);
+        Transaction saved = transactionRepository.save(TestDataGenerator.createSampleTransaction());
+        for (int i = 0; i < 3; i++) {
+            transactionRepository.findByTransactionReference(saved.getTransactionReference());
+        }
+        transactionRepository.findById(saved.getId());
+
+        Map<String, Object> statistics = endpoint.statistics();
+
+        assertThat(statistics).containsEntry("enabled", true);
+        assertThat((long) statistics.get("prepareStatementCount")).isGreaterThanOrEqualTo(5);
+        List<Map<String, Object>> queries = (List<Map<String, Object>>) statistics.get("queries");
+        assertThat(queries).isNotEmpty();
+        assertThat(queries.get(0).get("executionCount")).isEqualTo(3L);
+        assertThat(queries.get(0).get("p99TimeMillis")).isNotNull();
+        Map<String, Object> transaction = (Map<String, Object>) ((Map<String, Object>) statistics.get("entities"))
+                .get("Transaction");
+        assertThat((long) transaction.get("loadCount")).isGreaterThanOrEqualTo(4);
+        assertThat(transaction.get("insertCount")).isEqualTo(1L);
+    }
+
+    @Test
+    void reset_ShouldBeRefused_UnlessEnabled() {
+        transactionRepository.count();
+        HibernateStatisticsEndpoint defaults = new HibernateStatisticsEndpoint(entityManagerFactory,
+                new HibernateStatisticsProperties());
+
+        assertThat(defaults.reset().getStatus()).isEqualTo(403);
+        assertThat((long) defaults.statistics().get("prepareStatementCount")).isPositive();
+    }
+}
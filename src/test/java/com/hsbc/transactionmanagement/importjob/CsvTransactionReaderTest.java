@@ -0,0 +1,144 @@
+package com.hsbc.transactionmanagement.importjob;
+
+import com.hsbc.transactionmanagement.constant.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvTransactionReaderTest {
+
+    private static final String HEADER = "transaction_reference,Description,amount,type,category,accountId,transactionDate\n";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_ShouldParseQuotedFieldsAndMapColumnsByName() throws IOException {
+        Path file = write("\uFEFF" + HEADER
+                + "REF-1,\"Rent, August\",1200.50,DEBIT,Housing,ACC-1,2023-08-01T10:15:30\r\n"
+                + "REF-2,\"Said \"\"hi\"\"\nover two lines\",7,CREDIT,Gifts,,2023-08-02\n"
+                + "\n"
+                + "REF-3,Café,0.0001,credit,Food,ACC-2,\n");
+
+        List<CsvTransactionReader.Row> rows = readAll(file, 0, 0, 1 << 20);
+
+        assertThat(rows).hasSize(3);
+        CsvTransactionReader.Row first = rows.get(0);
+        assertThat(first.line()).isEqualTo(2);
+        assertThat(first.transaction().getDescription()).isEqualTo("Rent, August");
+        assertThat(first.transaction().getAmount()).isEqualByComparingTo("1200.50");
+        assertThat(first.transaction().getType()).isSameAs(TransactionType.DEBIT.name());
+        assertThat(first.transaction().getCategory()).isEqualTo("Housing");
+        assertThat(first.transaction().getAccountId()).isEqualTo("ACC-1");
+        assertThat(first.transaction().getTransactionDate()).isEqualTo(LocalDateTime.of(2023, 8, 1, 10, 15, 30));
+
+        CsvTransactionReader.Row second = rows.get(1);
+        assertThat(second.line()).isEqualTo(3);
+        assertThat(second.transaction().getDescription()).isEqualTo("Said \"hi\"\nover two lines");
+        assertThat(second.transaction().getAccountId()).isNull();
+        assertThat(second.transaction().getTransactionDate()).isEqualTo(LocalDateTime.of(2023, 8, 2, 0, 0));
+
+        // the quoted newline and the blank line both count
+        CsvTransactionReader.Row third = rows.get(2);
+        assertThat(third.line()).isEqualTo(6);
+        assertThat(third.transaction().getDescription()).isEqualTo("Café");
+        assertThat(third.transaction().getAmount()).isEqualTo(new BigDecimal("0.0001"));
+        // left for validation to reject
+        assertThat(third.transaction().getType()).isEqualTo("credit");
+        assertThat(third.endOffset()).isEqualTo(Files.size(file));
+    }
+
+    @Test
+    void read_ShouldReportUnparseableRows_AndKeepTheirReference() throws IOException {
+        Path file = write(HEADER
+                + "REF-1,Lunch,12.x,DEBIT,Food,,\n"
+                + "REF-2,Lunch\n"
+                + "REF-3,Lunch,12,DEBIT,Food,,yesterday\n"
+                + "REF-4,Lunch,1e2,DEBIT,Food,,\n"
+                + "REF-5,Lunch,12345678901234567890.5,DEBIT,Food,,");
+
+        List<CsvTransactionReader.Row> rows = readAll(file, 0, 0, 1 << 20);
+
+        assertThat(rows).extracting(CsvTransactionReader.Row::transactionReference)
+                .containsExactly("REF-1", "REF-2", "REF-3", "REF-4", "REF-5");
+        assertThat(rows.get(0).error()).startsWith("amount:");
+        assertThat(rows.get(1).error()).contains("columns");
+        assertThat(rows.get(2).error()).startsWith("transactionDate:");
+        assertThat(rows.get(3).transaction().getAmount()).isEqualByComparingTo("100");
+        assertThat(rows.get(4).transaction().getAmount()).isEqualByComparingTo("12345678901234567890.5");
+    }
+
+    @Test
+    void open_ShouldRejectHeaderWithoutRequiredColumns() throws IOException {
+        Path file = write("description,amount,kind\nLunch,1,DEBIT\n");
+
+        assertThatThrownBy(() -> CsvTransactionReader.open(file, 0, 0, 1 << 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("type, category, transactionReference");
+    }
+
+    @Test
+    void read_ShouldGiveSameRows_WhenRecordsSpanWindows() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 200; i++) {
+            csv.append("REF-").append(i).append(",\"Row ").append(i).append(", quoted\",")
+                    .append(i + 1).append(".25,DEBIT,Food,ACC-").append(i % 7).append(",\n");
+        }
+        Path file = write(csv.toString());
+
+        List<CsvTransactionReader.Row> whole = readAll(file, 0, 0, 1 << 20);
+        List<CsvTransactionReader.Row> windowed = readAll(file, 0, 0, 100);
+
+        assertThat(windowed).hasSize(200);
+        for (int i = 0; i < whole.size(); i++) {
+            assertThat(windowed.get(i).endOffset()).isEqualTo(whole.get(i).endOffset());
+            assertThat(windowed.get(i).transaction()).isEqualTo(whole.get(i).transaction());
+        }
+        assertThatThrownBy(() -> readAll(file, 0, 0, 40)).isInstanceOf(IOException.class)
+                .hasMessageContaining("longer than the read window");
+    }
+
+    @Test
+    void open_ShouldContinueAfterCommittedOffset() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 10; i++) {
+            csv.append("REF-").append(i).append(",Row,1,CREDIT,Food,,\n");
+        }
+        Path file = write(csv.toString());
+        List<CsvTransactionReader.Row> all = readAll(file, 0, 0, 1 << 20);
+        CsvTransactionReader.Row committed = all.get(3);
+
+        List<CsvTransactionReader.Row> rest = readAll(file, committed.endOffset(), committed.line(), 1 << 20);
+
+        assertThat(rest).extracting(CsvTransactionReader.Row::transactionReference)
+                .containsExactly("REF-4", "REF-5", "REF-6", "REF-7", "REF-8", "REF-9");
+        assertThat(rest.get(0).line()).isEqualTo(committed.line() + 1);
+    }
+
+    private List<CsvTransactionReader.Row> readAll(Path file, long offset, long line, int window) throws IOException {
+        List<CsvTransactionReader.Row> rows = new ArrayList<>();
+        try (CsvTransactionReader reader = CsvTransactionReader.open(file, offset, line, window)) {
+            while (reader.read(rows, 7) > 0) {
+                assertThat(reader.getPosition()).isEqualTo(rows.get(rows.size() - 1).endOffset());
+            }
+        }
+        return rows;
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = directory.resolve("transactions.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
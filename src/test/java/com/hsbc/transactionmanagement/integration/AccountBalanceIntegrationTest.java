@@ -0,0 +1,158 @@
+package com.hsbc.transactionmanagement.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transactionmanagement.account.AccountBalances;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.repository.AccountLedgerRepository;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.request.BulkDeleteRequest;
+import com.hsbc.transactionmanagement.request.TransactionRequest;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AccountBalanceIntegrationTest {
+
+    private static final String BASE_URL = "/api/v1/transactions";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountBalances accountBalances;
+
+    @Autowired
+    private AccountLedgerRepository ledgerRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        transactionService.clearCache();
+        accountBalances.rebuild();
+    }
+
+    @Test
+    void postings_ShouldMoveBalance_AndRejectOverdraft() throws Exception {
+        create("100.00", "CREDIT", "ACC-1");
+        create("30.25", "DEBIT", "ACC-1");
+
+        mockMvc.perform(post(BASE_URL).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("70.00", "DEBIT", "ACC-1"))))
+                .andExpect(status().isUnprocessableEntity());
+
+        mockMvc.perform(get("/api/v1/accounts/{accountId}/balance", "ACC-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.balance").value(69.75))
+                .andExpect(jsonPath("$.result.postings").value(2));
+        mockMvc.perform(get("/api/v1/accounts/{accountId}/balance", "ACC-UNKNOWN"))
+                .andExpect(status().isNotFound());
+        // the rejected debit was not inserted
+        assertThat(transactionRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void debit_ShouldBeRejected_WhenAnotherInstanceTookTheFunds() throws Exception {
+        create("100.00", "CREDIT", "ACC-1");
+        // as another instance sharing the database posts a debit
+        ledgerRepository.postWithinLimit("ACC-1", new BigDecimal("-80.00"), 1, BigDecimal.ZERO);
+
+        mockMvc.perform(post(BASE_URL).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("50.00", "DEBIT", "ACC-1"))))
+                .andExpect(status().isUnprocessableEntity());
+        assertThat(ledgerRepository.findById("ACC-1").orElseThrow().getBalance()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void postedTransaction_ShouldKeepAmount_AndReverseOnDelete() throws Exception {
+        create("100.00", "CREDIT", "ACC-1");
+        Transaction debit = create("40.00", "DEBIT", "ACC-1");
+
+        mockMvc.perform(patch(BASE_URL + "/{id}", debit.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 10.00}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(patch(BASE_URL + "/{id}", debit.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\": \"Renamed\", \"amount\": 40}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete(BASE_URL + "/{id}", debit.getId())).andExpect(status().isOk());
+        assertThat(accountBalances.getBalance("ACC-1").orElseThrow().balance()).isEqualByComparingTo("100.00");
+        mockMvc.perform(delete(BASE_URL + "/{id}", debit.getId())).andExpect(status().isNotFound());
+        assertThat(accountBalances.getBalance("ACC-1").orElseThrow().postings()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkDeletes_ShouldReversePostingsPerAccount() throws Exception {
+        Transaction first = create("100.00", "CREDIT", "ACC-1");
+        create("50.00", "CREDIT", "ACC-2");
+        Transaction second = create("20.00", "DEBIT", "ACC-2");
+        create("5.00", "CREDIT", null);
+
+        mockMvc.perform(post(BASE_URL + "/bulk-delete").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkDeleteRequest(
+                                List.of(first.getId()), List.of(second.getTransactionReference())))))
+                .andExpect(status().isOk());
+
+        assertThat(accountBalances.getBalance("ACC-1")).isEmpty();
+        assertThat(accountBalances.getBalance("ACC-2").orElseThrow().balance()).isEqualByComparingTo("50.00");
+
+        transactionService.deleteTransactionsByFilter(null, "CREDIT", null, null);
+        assertThat(accountBalances.getBalance("ACC-2")).isEmpty();
+        assertThat(accountBalances.getAccountCount()).isZero();
+    }
+
+    @Test
+    void rebuild_ShouldRecoverBalancesFromTable() {
+        create("100.00", "CREDIT", "ACC-1");
+        Transaction bypass = TestDataGenerator.createTransaction("Written around the service",
+                new BigDecimal("25.00"), "DEBIT", "Food");
+        bypass.setAccountId("ACC-1");
+        transactionRepository.save(bypass);
+        assertThat(accountBalances.getBalance("ACC-1").orElseThrow().balance()).isEqualByComparingTo("100.00");
+
+        accountBalances.rebuild();
+
+        assertThat(accountBalances.getBalance("ACC-1").orElseThrow().balance()).isEqualByComparingTo("75.00");
+        assertThat(accountBalances.getBalance("ACC-1").orElseThrow().postings()).isEqualTo(2);
+        assertThat(ledgerRepository.findById("ACC-1").orElseThrow().getBalance()).isEqualByComparingTo("75.00");
+    }
+
+    private Transaction create(String amount, String type, String accountId) {
+        Transaction transaction = TestDataGenerator.createTransaction("Posting", new BigDecimal(amount), type, "Transfer");
+        transaction.setAccountId(accountId);
+        return transactionService.createTransaction(transaction);
+    }
+
+    private static TransactionRequest request(String amount, String type, String accountId) {
+        return new TransactionRequest("Posting", new BigDecimal(amount), type, "Transfer",
+                TestDataGenerator.generateReference(), accountId);
+    }
+}
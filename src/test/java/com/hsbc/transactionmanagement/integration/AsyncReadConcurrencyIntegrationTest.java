@@ -0,0 +1,138 @@
+package com.hsbc.transactionmanagement.integration;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of the async reads over real connections: with two Tomcat threads, more uncached
+ * reads are in flight at once than there are threads, and cached reads are still answered
+ * while all of those loads are blocked. Not transactional, loads read on the executor. Uses its
+ * own database, its context would otherwise recreate the schema under the shared one.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:asyncreadsdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "server.tomcat.threads.max=" + AsyncReadConcurrencyIntegrationTest.TOMCAT_THREADS,
+        "server.tomcat.threads.min-spare=1",
+        "transaction.concurrency-limit.enabled=false",
+        "transaction.read-executor.threads=" + AsyncReadConcurrencyIntegrationTest.CONCURRENT_READS
+})
+@ActiveProfiles("test")
+class AsyncReadConcurrencyIntegrationTest {
+
+    static final int TOMCAT_THREADS = 2;
+    static final int CONCURRENT_READS = 8;
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger peak = new AtomicInteger();
+    private static volatile CountDownLatch gate = new CountDownLatch(0);
+
+    @TestConfiguration
+    static class BlockReadExecutor {
+
+        // holds every load until the test opens the gate, so loads overlap deterministically
+        @Bean
+        TaskDecorator blockingReads() {
+            return task -> () -> {
+                peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    gate.await(30, TimeUnit.SECONDS);
+                    task.run();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            };
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        gate.countDown();
+        transactionRepository.deleteAll();
+    }
+
+    @Test
+    void uncachedReads_ShouldNotHoldTomcatThreads() throws Exception {
+        Transaction cached = transactionRepository.save(TestDataGenerator.createSampleTransaction());
+        List<Transaction> uncached = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_READS; i++) {
+            uncached.add(transactionRepository.save(TestDataGenerator.createSampleTransaction()));
+        }
+        assertThat(send(cached).join().statusCode()).isEqualTo(200);
+
+        gate = new CountDownLatch(1);
+        peak.set(0);
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (Transaction transaction : uncached) {
+            responses.add(send(transaction));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (inFlight.get() < CONCURRENT_READS && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(peak.get()).isEqualTo(CONCURRENT_READS).isGreaterThan(TOMCAT_THREADS);
+        assertThat(responses).noneMatch(CompletableFuture::isDone);
+
+        // answered from the cache on a Tomcat thread while every load is still blocked
+        HttpResponse<String> hit = send(cached).get(10, TimeUnit.SECONDS);
+        assertThat(hit.statusCode()).isEqualTo(200);
+        assertThat(hit.body()).contains(cached.getTransactionReference());
+
+        gate.countDown();
+        for (int i = 0; i < responses.size(); i++) {
+            HttpResponse<String> response = responses.get(i).get(10, TimeUnit.SECONDS);
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body()).contains(uncached.get(i).getTransactionReference());
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(Transaction transaction) {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + contextPath + "/api/v1/transactions/" + transaction.getId()))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
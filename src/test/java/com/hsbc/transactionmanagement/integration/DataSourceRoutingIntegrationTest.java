@@ -0,0 +1,78 @@
+package com.hsbc.transactionmanagement.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transactionmanagement.util.AsyncMockMvc;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primary and replica point at the same H2 database; the replica pool is only started by the
+ * first read routed to it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "transaction.datasource.routing.enabled=true",
+        "transaction.datasource.replica.jdbc-url=jdbc:h2:mem:routingdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "transaction.datasource.replica.username=sa",
+        "transaction.datasource.replica.read-only=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DataSourceRoutingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Test
+    void reads_ShouldGoToReplica_ExceptRightAfterTheClientsOwnWrite() throws Exception {
+        String body = mockMvc.perform(post("/api/v1/transactions")
+                        .header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                    {
+                        "description": "Routed",
+                        "amount": 10.00,
+                        "type": "CREDIT",
+                        "category": "Salary",
+                        "transactionReference": "REF-ROUTE1"
+                    }
+                    """))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode created = objectMapper.readTree(body);
+        long id = created.path("result").path("id").asLong();
+
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/reference/REF-ROUTE1").header("X-Client-Id", "writer"))
+                .andExpect(status().isOk());
+        assertThat(replicaDataSource.getHikariPoolMXBean()).isNull();
+
+        // uncached, so not held on the primary by the write like a shared cache load
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions").param("includeTotals", "false")
+                        .header("X-Client-Id", "reader"))
+                .andExpect(status().isOk());
+        assertThat(replicaDataSource.getHikariPoolMXBean()).isNotNull();
+
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/" + id).header("X-Client-Id", "reader"))
+                .andExpect(status().isOk());
+    }
+}
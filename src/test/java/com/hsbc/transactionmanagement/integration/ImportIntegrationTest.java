@@ -0,0 +1,250 @@
+package com.hsbc.transactionmanagement.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transactionmanagement.account.AccountBalances;
+import com.hsbc.transactionmanagement.config.ImportProperties;
+import com.hsbc.transactionmanagement.entity.ImportJob;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.importjob.CsvTransactionReader;
+import com.hsbc.transactionmanagement.importjob.TransactionImporter;
+import com.hsbc.transactionmanagement.repository.ImportJobRepository;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.request.LocalImportRequest;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.util.AsyncMockMvc;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ImportIntegrationTest {
+
+    private static final Logger logger = LoggerUtil.getLogger(ImportIntegrationTest.class);
+
+    private static final String BASE_URL = "/api/v1/imports";
+    private static final String HEADER = "transactionReference,description,amount,type,category,accountId\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountBalances accountBalances;
+
+    @Autowired
+    private TransactionImporter transactionImporter;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private ImportProperties importProperties;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        transactionRepository.deleteAll();
+        transactionService.clearCache();
+        accountBalances.rebuild();
+        Files.createDirectories(importProperties.getDirectory());
+    }
+
+    @Test
+    void upload_ShouldImportValidRows_AndReportTheOthers() throws Exception {
+        Transaction existing = TestDataGenerator.createSampleTransaction();
+        existing.setTransactionReference("IMP-EXISTING");
+        transactionService.createTransaction(existing);
+        // caches a "not found" that the import has to evict
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/reference/{reference}", "IMP-6")).andExpect(status().isNotFound());
+
+        String csv = HEADER
+                + "IMP-1,Salary,100.00,CREDIT,Income,ACC-IMP\n"
+                + "IMP-2,Groceries,30.00,DEBIT,Food,ACC-IMP\n"
+                + "IMP-3,Television,500.00,DEBIT,Electronics,ACC-IMP\n"
+                + "IMP-4,Refund,-5,CREDIT,Income,\n"
+                + "IMP-5,Transfer,10,TRANSFER,Banking,\n"
+                + "IMP-EXISTING,Again,10,CREDIT,Income,\n"
+                + "IMP-1,Salary twice,100.00,CREDIT,Income,ACC-IMP\n"
+                + "IMP-6,\"Dinner, with \"\"friends\"\"\",42.5,DEBIT,Food,\n";
+        String body = mockMvc.perform(multipart(BASE_URL)
+                        .file(new MockMultipartFile("file", "settlement.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8))))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.result.source").value("settlement.csv"))
+                .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(body).path("result").path("id").asText();
+
+        ImportJob job = await(id);
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        mockMvc.perform(get(BASE_URL + "/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.rowsImported").value(3))
+                .andExpect(jsonPath("$.result.rowsRejected").value(3))
+                .andExpect(jsonPath("$.result.rowsDuplicate").value(2))
+                .andExpect(jsonPath("$.result.committedLine").value(9))
+                .andExpect(jsonPath("$.result.progress").value(1.0));
+        JsonNode errors = objectMapper.readTree(mockMvc.perform(get(BASE_URL + "/{id}/errors", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).path("result").path("content");
+        assertThat(errors).hasSize(5);
+        assertThat(errors.get(0).path("line").asLong()).isEqualTo(4);
+        assertThat(errors.get(0).path("message").asText()).startsWith("accountId: Debit of 500.00");
+        assertThat(errors.get(1).path("message").asText()).isEqualTo("amount: Amount must be greater than 0");
+        assertThat(errors.get(2).path("message").asText()).startsWith("type:");
+        assertThat(errors.get(3).path("message").asText()).contains("already exists");
+        assertThat(errors.get(4).path("message").asText()).contains("earlier in the file");
+
+        Transaction imported = transactionRepository.findByTransactionReference("IMP-6").orElseThrow();
+        assertThat(imported.getDescription()).isEqualTo("Dinner, with \"friends\"");
+        assertThat(imported.getChangeSequence()).isNotNull();
+        assertThat(imported.getVersion()).isZero();
+        assertThat(accountBalances.getBalance("ACC-IMP").orElseThrow().balance()).isEqualByComparingTo("70.00");
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/reference/{reference}", "IMP-6")).andExpect(status().isOk());
+        // completed uploads are not kept
+        assertThat(importProperties.getDirectory().resolve(job.getPath())).doesNotExist();
+    }
+
+    @Test
+    void importLocal_ShouldRejectBadPathsAndHeaders() throws Exception {
+        Files.writeString(importProperties.getDirectory().resolve("no-reference.csv"),
+                "description,amount,type,category\nLunch,12,DEBIT,Food\n");
+
+        mockMvc.perform(post(BASE_URL + "/local").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LocalImportRequest("../../pom.xml"))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post(BASE_URL + "/local").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LocalImportRequest("missing.csv"))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post(BASE_URL + "/local").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LocalImportRequest("no-reference.csv"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status.message").value(org.hamcrest.Matchers.containsString("transactionReference")));
+        mockMvc.perform(get(BASE_URL + "/{id}", "unknown")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void resume_ShouldContinueAfterTheCommittedOffset() throws Exception {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 6; i++) {
+            csv.append("RES-").append(i).append(",Row ").append(i).append(",10,CREDIT,Income,ACC-RES\n");
+        }
+        Path file = importProperties.getDirectory().resolve("resume.csv");
+        Files.writeString(file, csv);
+        List<CsvTransactionReader.Row> rows = new ArrayList<>();
+        try (CsvTransactionReader reader = CsvTransactionReader.open(file, 0, 0, 1 << 20)) {
+            reader.read(rows, 2);
+        }
+        // a job stopped by a restart after committing its first two rows
+        ImportJob interrupted = new ImportJob(UUID.randomUUID().toString(), "resume.csv", "resume.csv", Files.size(file));
+        interrupted.setStatus(ImportJob.Status.INTERRUPTED);
+        interrupted.setCommittedOffset(rows.get(1).endOffset());
+        interrupted.setCommittedLine(rows.get(1).line());
+        interrupted.setRowsImported(2);
+        importJobRepository.save(interrupted);
+
+        mockMvc.perform(post(BASE_URL + "/{id}/resume", interrupted.getId())).andExpect(status().isAccepted());
+        ImportJob job = await(interrupted.getId());
+
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(job.getRowsImported()).isEqualTo(6);
+        assertThat(transactionRepository.findAll()).extracting(Transaction::getTransactionReference)
+                .containsExactlyInAnyOrder("RES-2", "RES-3", "RES-4", "RES-5");
+        // local files are left where they are
+        assertThat(file).exists();
+        mockMvc.perform(post(BASE_URL + "/{id}/resume", interrupted.getId())).andExpect(status().isConflict());
+        mockMvc.perform(post(BASE_URL + "/{id}/cancel", interrupted.getId())).andExpect(status().isConflict());
+    }
+
+    /**
+     * Imports a generated file of {@code import.benchmark.rows} rows (20000 by default) and
+     * logs the parse-only and end-to-end throughput.
+     */
+    @Tag("benchmark")
+    @Test
+    void importThroughput() throws Exception {
+        int rowCount = Integer.getInteger("import.benchmark.rows", 20_000);
+        Path file = importProperties.getDirectory().resolve("benchmark.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            for (int i = 0; i < rowCount; i++) {
+                writer.write("BENCH-" + i + ",\"Settlement " + i + ", batch " + (i / 1000) + "\"," + (i % 9000 + 1) + "."
+                        + (i % 100) + "," + (i % 3 == 0 ? "DEBIT" : "CREDIT") + ",Category" + (i % 20) + ",\n");
+            }
+        }
+
+        long start = System.nanoTime();
+        long parsed = 0;
+        List<CsvTransactionReader.Row> rows = new ArrayList<>();
+        try (CsvTransactionReader reader = CsvTransactionReader.open(file, 0, 0,
+                (int) importProperties.getReadWindow().toBytes())) {
+            while (reader.read(rows, 1000) > 0) {
+                parsed += rows.size();
+                rows.clear();
+            }
+        }
+        double parseSeconds = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        String body = mockMvc.perform(post(BASE_URL + "/local").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LocalImportRequest("benchmark.csv"))))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        ImportJob job = await(objectMapper.readTree(body).path("result").path("id").asText());
+        double importSeconds = (System.nanoTime() - start) / 1e9;
+
+        assertThat(parsed).isEqualTo(rowCount);
+        assertThat(job.getRowsImported()).isEqualTo(rowCount);
+        logger.info("parse: {} rows in {} ms, {} rows/s", parsed, Math.round(parseSeconds * 1000),
+                Math.round(parsed / parseSeconds));
+        logger.info("import: {} rows in {} ms, {} rows/s", job.getRowsImported(), Math.round(importSeconds * 1000),
+                Math.round(job.getRowsPerSecond()));
+        Files.delete(file);
+    }
+
+    private ImportJob await(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 600_000;
+        while (System.currentTimeMillis() < deadline) {
+            ImportJob job = transactionImporter.getJob(id).orElseThrow();
+            if (job.getStatus() != ImportJob.Status.QUEUED && job.getStatus() != ImportJob.Status.RUNNING) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Import job " + id + " did not finish");
+    }
+}
@@ -0,0 +1,143 @@
+package com.hsbc.transactionmanagement.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.request.MultiGetRequest;
+import com.hsbc.transactionmanagement.response.MultiGetResponse;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.util.AsyncMockMvc;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MultiGetIntegrationTest {
+
+    private static final Logger logger = LoggerUtil.getLogger(MultiGetIntegrationTest.class);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        transactionService.clearCache();
+    }
+
+    @Test
+    void getTransactions_ShouldMixCachedAndLoadedKeys_AndCacheBoth() {
+        List<Transaction> saved = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            saved.add(transactionService.createTransaction(TestDataGenerator.createSampleTransaction()));
+        }
+        transactionService.getTransactionById(saved.get(0).getId());
+
+        List<Long> ids = List.of(saved.get(3).getId(), -1L, saved.get(0).getId(), saved.get(1).getId(), saved.get(2).getId());
+        List<String> references = List.of("UNKNOWN", saved.get(4).getTransactionReference());
+        MultiGetResponse response = transactionService.getTransactions(ids, references);
+
+        assertThat(response.getResults()).extracting(item -> item.getTransaction() == null ? null : item.getTransaction().getId())
+                .containsExactly(saved.get(3).getId(), null, saved.get(0).getId(), saved.get(1).getId(),
+                        saved.get(2).getId(), null, saved.get(4).getId());
+        assertThat(response.getNotFoundCount()).isEqualTo(2);
+
+        Cache cache = cacheManager.getCache("transaction");
+        assertThat(((Transaction) cache.get(saved.get(3).getId()).get()).getId()).isEqualTo(saved.get(3).getId());
+        assertThat(cache.get("ref_" + saved.get(4).getTransactionReference())).isNotNull();
+        // not-found keys are cached as misses like single lookups
+        assertThat(cache.get(-1L)).isNotNull();
+        assertThat(cache.get(-1L).get()).isNull();
+        assertThat(cache.get("ref_UNKNOWN").get()).isNull();
+    }
+
+    @Test
+    void multiGet_ShouldReturnNotFoundMarkers() throws Exception {
+        Transaction saved = transactionService.createTransaction(TestDataGenerator.createSampleTransaction());
+
+        mockMvc.perform(post("/api/v1/transactions/multi-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new MultiGetRequest(List.of(-5L, saved.getId()), List.of()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.results[0].id").value(-5))
+                .andExpect(jsonPath("$.result.results[0].found").value(false))
+                .andExpect(jsonPath("$.result.results[1].found").value(true))
+                .andExpect(jsonPath("$.result.results[1].transaction.transactionReference").value(saved.getTransactionReference()));
+    }
+
+    /**
+     * 100 sequential single GETs against one multi-get of the same ids, from a cold and from a
+     * warm cache. Timings are logged only.
+     */
+    @Tag("benchmark")
+    @Test
+    void multiGetVersusSingleGets() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (Transaction transaction : transactionRepository.saveAll(TestDataGenerator.createMultipleTransactions(100))) {
+            ids.add(transaction.getId());
+        }
+        String body = objectMapper.writeValueAsString(new MultiGetRequest(ids, List.of()));
+
+        // the first run warms up both paths
+        for (int run = 0; run < 2; run++) {
+            boolean report = run == 1;
+            for (boolean cold : new boolean[]{true, false}) {
+                if (cold) {
+                    transactionService.clearCache();
+                }
+                long start = System.nanoTime();
+                for (Long id : ids) {
+                    AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/{id}", id)).andExpect(status().isOk());
+                }
+                long single = System.nanoTime() - start;
+
+                if (cold) {
+                    transactionService.clearCache();
+                }
+                start = System.nanoTime();
+                mockMvc.perform(post("/api/v1/transactions/multi-get").contentType(MediaType.APPLICATION_JSON).content(body))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.result.notFoundCount").value(0));
+                long multi = System.nanoTime() - start;
+
+                if (report) {
+                    logger.info("{} cache: 100 x GET {} us, multi-get {} us", cold ? "cold" : "warm",
+                            single / 1000, multi / 1000);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.hsbc.transactionmanagement.integration;
+
+import com.hsbc.transactionmanagement.archive.TransactionArchiver;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.readmodel.TransactionReadModel;
+import com.hsbc.transactionmanagement.repository.ArchivedTransactionRepository;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.request.TransactionPatchRequest;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.util.AsyncMockMvc;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.hsbc.transactionmanagement.util.SqlStatementCounter.assertStatementCount;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Lists answered by the read model: no SQL for any list without a date range, and every write
+ * through the service, bulk deletes and archiving included, is visible in the next list. Uses
+ * its own database, its context would otherwise recreate the schema under the shared one.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:readmodeldb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "transaction.read-model.enabled=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadModelIntegrationTest {
+
+    private static final String BASE_URL = "/api/v1/transactions";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionReadModel readModel;
+
+    @Autowired
+    private TransactionArchiver archiver;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ArchivedTransactionRepository archivedTransactionRepository;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        transactionRepository.deleteAll();
+        archivedTransactionRepository.deleteAll();
+        transactionService.clearCache();
+        // the rows were deleted behind the model's back; waits out the rebuild started at startup
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!readModel.rebuild() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(readModel.isReady()).isTrue();
+    }
+
+    @Test
+    void lists_ShouldBeAnsweredWithoutSql_AndSeeEveryWrite() throws Exception {
+        Transaction food = transactionService.createTransaction(
+                TestDataGenerator.createTransaction("Lunch", new BigDecimal("12.50"), "DEBIT", "Food"));
+        Transaction shopping = transactionService.createTransaction(TestDataGenerator.createSampleTransaction());
+        Transaction salary = transactionService.createTransaction(
+                TestDataGenerator.createTransaction("Salary", new BigDecimal("3000.00"), "CREDIT", "Salary"));
+
+        assertStatementCount(0, () -> {
+            AsyncMockMvc.perform(mockMvc, get(BASE_URL).param("size", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.result.content[0].id").value(salary.getId()))
+                    .andExpect(jsonPath("$.result.content[1].id").value(shopping.getId()))
+                    .andExpect(jsonPath("$.result.totalItems").value(3));
+            AsyncMockMvc.perform(mockMvc, get(BASE_URL).param("type", "debit").param("direction", "asc")
+                            .param("includeTotals", "false"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.result.content[0].id").value(food.getId()))
+                    .andExpect(jsonPath("$.result.content[1].id").value(shopping.getId()))
+                    .andExpect(jsonPath("$.result.hasNext").value(false));
+            AsyncMockMvc.perform(mockMvc, get(BASE_URL).param("category", "FOOD").param("fields", "id,amount"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.result.content[0].id").value(food.getId()))
+                    .andExpect(jsonPath("$.result.content[0].description").doesNotExist())
+                    .andExpect(jsonPath("$.result.totalItems").value(1));
+        });
+
+        transactionService.patchTransaction(food.getId(), patch("Shopping"), null);
+        assertThat(list("shopping", null)).containsExactly(shopping.getId(), food.getId());
+        assertThat(list("food", null)).isEmpty();
+
+        transactionService.deleteTransaction(shopping.getId());
+        assertThat(list(null, null)).containsExactly(salary.getId(), food.getId());
+
+        transactionService.deleteTransactions(List.of(), List.of(salary.getTransactionReference()));
+        transactionService.deleteTransactionsByFilter("SHOPPING", "DEBIT", null, null);
+        assertThat(list(null, null)).isEmpty();
+        assertThat(transactionRepository.count()).isZero();
+    }
+
+    @Test
+    void archiving_ShouldRemoveRows_AndOtherOrdersShouldQuery() throws Exception {
+        Transaction archived = transactionService.createTransaction(TestDataGenerator.createSampleTransaction());
+
+        archiver.archive(LocalDateTime.now().plusDays(1));
+        Transaction kept = transactionService.createTransaction(TestDataGenerator.createSampleTransaction());
+
+        assertThat(list(null, null)).containsExactly(kept.getId());
+        assertThat(archived.getId()).isNotEqualTo(kept.getId());
+        // not an order the model keeps
+        AsyncMockMvc.perform(mockMvc, get(BASE_URL).param("sortBy", "amount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.totalItems").value(1));
+    }
+
+    private List<Long> list(String category, String type) {
+        return readModel.findPage(category, type, PageRequest.of(0, 10, Sort.by("transactionDate").descending()))
+                .orElseThrow().map(Transaction::getId).getContent();
+    }
+
+    private static TransactionPatchRequest patch(String category) {
+        TransactionPatchRequest patch = new TransactionPatchRequest();
+        patch.setCategory(category);
+        return patch;
+    }
+}
@@ -0,0 +1,119 @@
+package com.hsbc.transactionmanagement.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.util.AsyncMockMvc;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The replica is a separate H2 database holding a copy of the primary taken before the
+ * write under test, i.e. a replica that has not caught up. Another client's cache miss right
+ * after the write must not put the replica's copy in the shared caches.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lagprimarydb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "transaction.datasource.routing.enabled=true",
+        "transaction.datasource.routing.read-your-writes-window=1m",
+        "transaction.datasource.replica.jdbc-url=" + ReplicaLagIntegrationTest.REPLICA_URL,
+        "transaction.datasource.replica.username=sa",
+        "transaction.datasource.replica.minimum-idle=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaLagIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:lagreplicadb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    private static final String PRIMARY_URL = "jdbc:h2:mem:lagprimarydb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    private static final String BASE_URL = "/api/v1/transactions";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @TempDir
+    Path snapshotDir;
+
+    private long id;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String body = mockMvc.perform(post(BASE_URL)
+                        .header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                    {
+                        "description": "Before",
+                        "amount": 10.00,
+                        "type": "CREDIT",
+                        "category": "Salary",
+                        "transactionReference": "REF-LAG-%d"
+                    }
+                    """.formatted(System.nanoTime())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        id = objectMapper.readTree(body).path("result").path("id").asLong();
+        copyPrimaryToReplica();
+        transactionService.clearCache();
+    }
+
+    @Test
+    void otherClientsCacheMiss_ShouldNotCacheReplicasStaleCopy_ForTheWriter() throws Exception {
+        mockMvc.perform(patch(BASE_URL + "/{id}", id)
+                        .header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"After\"}"))
+                .andExpect(status().isOk());
+
+        // the replica has not caught up, an uncached read by another client still sees it
+        AsyncMockMvc.perform(mockMvc, get(BASE_URL).param("includeTotals", "false").header("X-Client-Id", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.content[?(@.id == %d)].description", id).value("Before"));
+
+        // the write cleared the list cache, this miss fills it for every client
+        AsyncMockMvc.perform(mockMvc, get(BASE_URL).header("X-Client-Id", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.content[?(@.id == %d)].description", id).value("After"));
+
+        // the writer is answered from that entry
+        AsyncMockMvc.perform(mockMvc, get(BASE_URL).header("X-Client-Id", "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.content[?(@.id == %d)].description", id).value("After"));
+    }
+
+    private void copyPrimaryToReplica() throws Exception {
+        String script = snapshotDir.resolve("primary.sql").toString().replace('\\', '/');
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Statement statement = primary.createStatement()) {
+            statement.execute("SCRIPT TO '" + script + "'");
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("RUNSCRIPT FROM '" + script + "'");
+        }
+    }
+}
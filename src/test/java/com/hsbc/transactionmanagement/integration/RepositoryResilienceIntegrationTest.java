@@ -0,0 +1,257 @@
+package com.hsbc.transactionmanagement.integration;
+
+import com.hsbc.transactionmanagement.cache.NegativeCachingCaffeineCache;
+import com.hsbc.transactionmanagement.constant.ErrorMessages;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.resilience.CircuitBreaker;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.util.AsyncMockMvc;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reads against a datasource that can be made slow or failing. Not transactional, so reads
+ * take their connections through the guard. Uses its own database, its context would otherwise
+ * recreate the schema under the shared one.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:resiliencedb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "transaction.concurrency-limit.enabled=false",
+        "transaction.resilience.read.max-concurrent-calls=2",
+        "transaction.resilience.read.max-wait=0s",
+        "transaction.resilience.read.timeout=400ms",
+        "transaction.resilience.write.timeout=400ms",
+        "transaction.resilience.circuit-breaker.window-size=4",
+        "transaction.resilience.circuit-breaker.minimum-calls=4",
+        "transaction.resilience.circuit-breaker.failure-rate-threshold=50",
+        "transaction.resilience.circuit-breaker.open-duration=500ms",
+        "transaction.resilience.circuit-breaker.half-open-calls=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RepositoryResilienceIntegrationTest {
+
+    private static final Duration SLOW_CONNECTION = Duration.ofMillis(600);
+
+    enum Mode {
+        NORMAL, SLOW, FAILING
+    }
+
+    private static volatile Mode mode = Mode.NORMAL;
+
+    @TestConfiguration
+    static class FaultyDataSource {
+
+        @Bean
+        static BeanPostProcessor faultyDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                            ? new DelegatingDataSource(dataSource) {
+                                @Override
+                                public Connection getConnection() throws SQLException {
+                                    simulateFault();
+                                    return super.getConnection();
+                                }
+
+                                @Override
+                                public Connection getConnection(String username, String password) throws SQLException {
+                                    simulateFault();
+                                    return super.getConnection(username, password);
+                                }
+                            }
+                            : bean;
+                }
+            };
+        }
+
+        private static void simulateFault() throws SQLException {
+            if (mode == Mode.FAILING) {
+                throw new SQLException("Connection refused");
+            }
+            if (mode == Mode.SLOW) {
+                try {
+                    Thread.sleep(SLOW_CONNECTION.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CircuitBreaker circuitBreaker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        mode = Mode.NORMAL;
+        circuitBreaker.reset();
+        transactionService.clearCache();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mode = Mode.NORMAL;
+        circuitBreaker.reset();
+        transactionRepository.deleteAll();
+    }
+
+    @Test
+    void failingDatabase_ShouldOpenCircuit_ServeStaleCopies_AndRecover() throws Exception {
+        Transaction cached = transactionRepository.save(TestDataGenerator.createSampleTransaction());
+        Transaction uncached = transactionRepository.save(TestDataGenerator.createSampleTransaction());
+        read(cached).andExpect(status().isOk()).andExpect(header().exists(HttpHeaders.ETAG));
+        expireTransactionCache();
+
+        mode = Mode.FAILING;
+        read(cached)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.WARNING, "110 - \"Response is Stale\""))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.status.message").value(ErrorMessages.STALE_RESPONSE))
+                .andExpect(jsonPath("$.result.transactionReference").value(cached.getTransactionReference()));
+        for (int i = 0; i < 3; i++) {
+            read(uncached).andExpect(status().is5xxServerError());
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // refused without touching the database
+        read(uncached)
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status.message").value(ErrorMessages.DATABASE_UNAVAILABLE));
+        read(cached).andExpect(status().isOk()).andExpect(header().exists(HttpHeaders.WARNING));
+        assertThat(meterRegistry.get("transaction.resilience.rejections").tag("reason", "circuit").counter().count())
+                .isGreaterThanOrEqualTo(1);
+
+        mode = Mode.NORMAL;
+        Thread.sleep(600);
+        read(uncached).andExpect(status().isOk());
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        read(cached)
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.WARNING))
+                .andExpect(jsonPath("$.status.message").value(ErrorMessages.SUCCESS));
+    }
+
+    @Test
+    void slowDatabase_ShouldOpenCircuitOnCallsPastTheirTimeout() throws Exception {
+        List<Transaction> saved = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            saved.add(transactionRepository.save(TestDataGenerator.createSampleTransaction()));
+        }
+
+        mode = Mode.SLOW;
+        for (int i = 0; i < 4; i++) {
+            // answered, only late
+            read(saved.get(i)).andExpect(status().isOk());
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        read(saved.get(4)).andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void slowDatabase_ShouldRefuseReadsBeyondTheBulkhead() throws Exception {
+        List<Transaction> saved = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            saved.add(transactionRepository.save(TestDataGenerator.createSampleTransaction()));
+        }
+
+        mode = Mode.SLOW;
+        ExecutorService clients = Executors.newFixedThreadPool(saved.size());
+        try {
+            List<Future<Integer>> responses = new ArrayList<>();
+            for (Transaction transaction : saved) {
+                responses.add(clients.submit(() -> read(transaction).andReturn().getResponse().getStatus()));
+            }
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> response : responses) {
+                statuses.add(response.get(10, TimeUnit.SECONDS));
+            }
+            assertThat(statuses).containsExactlyInAnyOrder(200, 200, 503);
+        } finally {
+            clients.shutdownNow();
+        }
+        assertThat(meterRegistry.get("transaction.resilience.rejections").tag("reason", "bulkhead").counter().count())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void slowDatabase_ShouldNotCountBulkDeletesAgainstTheDatabaseCircuit() {
+        List<Transaction> saved = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            saved.add(transactionRepository.save(TestDataGenerator.createSampleTransaction()));
+        }
+
+        mode = Mode.SLOW;
+        for (Transaction transaction : saved) {
+            // later than a write may take, within the bulk timeout
+            assertThat(transactionService.deleteTransactions(List.of(transaction.getId()), List.of())).isEqualTo(1);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private org.springframework.test.web.servlet.ResultActions read(Transaction transaction) throws Exception {
+        return AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/{id}", transaction.getId()));
+    }
+
+    // lets every entry expire now, as if its TTL had passed, then restores the TTL
+    private void expireTransactionCache() {
+        NegativeCachingCaffeineCache cache = (NegativeCachingCaffeineCache) cacheManager.getCache("transaction");
+        cache.getNativeCache().policy().expireAfterWrite().ifPresent(expiration -> {
+            Duration ttl = expiration.getExpiresAfter();
+            expiration.setExpiresAfter(Duration.ZERO);
+            cache.getNativeCache().cleanUp();
+            expiration.setExpiresAfter(ttl);
+        });
+        assertThat(cache.getNativeCache().estimatedSize()).isZero();
+        assertThat(cache.getStale().estimatedSize()).isPositive();
+    }
+}
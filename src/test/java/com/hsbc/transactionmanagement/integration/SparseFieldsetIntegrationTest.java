@@ -0,0 +1,153 @@
+package com.hsbc.transactionmanagement.integration;
+
+import com.hsbc.transactionmanagement.cache.TransactionListCacheKey;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.repository.TransactionFields;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.util.AsyncMockMvc;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SparseFieldsetIntegrationTest {
+
+    private static final Logger logger = LoggerUtil.getLogger(SparseFieldsetIntegrationTest.class);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        transactionService.clearCache();
+    }
+
+    @Test
+    void getAllTransactions_ShouldSelectOnlyRequestedFields_InSortOrder() throws Exception {
+        Transaction first = transactionService.createTransaction(TestDataGenerator.createSampleTransaction());
+        Transaction second = transactionService.createTransaction(TestDataGenerator.createSampleTransaction());
+
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions")
+                        .param("fields", "transactionReference,id")
+                        .param("sortBy", "id")
+                        .param("direction", "asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.content[0].id").value(first.getId()))
+                .andExpect(jsonPath("$.result.content[0].transactionReference").value(first.getTransactionReference()))
+                .andExpect(jsonPath("$.result.content[0].amount").doesNotExist())
+                .andExpect(jsonPath("$.result.content[1].id").value(second.getId()))
+                .andExpect(jsonPath("$.result.totalItems").value(2));
+
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions")
+                        .param("fields", "id,iban"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTransactionFields_ShouldCacheEachFieldSetSeparately() {
+        Transaction saved = transactionService.createTransaction(TestDataGenerator.createSampleTransaction());
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
+        TransactionFields narrow = TransactionFields.parse("id");
+        TransactionFields wide = TransactionFields.parse("id,amount,category");
+
+        Page<Map<String, Object>> narrowPage = transactionService.getTransactionFields(narrow, null, null, pageable);
+        Page<Map<String, Object>> widePage = transactionService.getTransactionFields(wide, null, null, pageable);
+
+        assertThat(narrowPage.getContent()).containsExactly(Map.of("id", saved.getId()));
+        assertThat(widePage.getContent().get(0)).containsOnlyKeys("id", "amount", "category");
+        assertThat(cacheManager.getCache("transactions").get(TransactionListCacheKey.of(null, null, narrow, pageable)))
+                .isNotNull();
+        assertThat(cacheManager.getCache("transactions")
+                .get(TransactionListCacheKey.of(null, null, TransactionFields.parse("category, amount,id"), pageable)))
+                .isNotNull();
+
+        // writes evict projected pages like whole ones
+        transactionService.createTransaction(TestDataGenerator.createSampleTransaction());
+        assertThat(transactionService.getTransactionFields(narrow, null, null, pageable).getContent()).hasSize(2);
+    }
+
+    @Test
+    void narrowPage_ShouldBeAFractionOfTheWidePage() throws Exception {
+        transactionRepository.saveAll(TestDataGenerator.createMultipleTransactions(500));
+
+        for (int pageSize : new int[]{50, 500}) {
+            assertThat(page("id,amount", pageSize).length).isLessThan(page(null, pageSize).length / 3);
+        }
+    }
+
+    /**
+     * Wide (every field) against narrow (id and amount) pages straight from the database,
+     * each request clearing the cache first. Numbers are logged only.
+     */
+    @Tag("benchmark")
+    @Test
+    void wideVersusNarrowProjection() throws Exception {
+        List<Transaction> transactions = TestDataGenerator.createMultipleTransactions(2000);
+        transactionRepository.saveAll(transactions);
+
+        for (int pageSize : new int[]{50, 500}) {
+            measure("wide", null, pageSize);
+            measure("narrow", "id,amount", pageSize);
+        }
+    }
+
+    private void measure(String label, String fields, int pageSize) throws Exception {
+        int iterations = 10;
+        long bytes = 0;
+        long elapsed = 0;
+        for (int i = 0; i < iterations + 3; i++) {
+            transactionService.clearCache();
+            long start = System.nanoTime();
+            byte[] body = page(fields, pageSize);
+            // the first runs warm up the JIT and the connection pool
+            if (i >= 3) {
+                elapsed += System.nanoTime() - start;
+                bytes = body.length;
+            }
+        }
+        logger.info("fields={} page={}: {} bytes, {} us", label, pageSize, bytes, elapsed / iterations / 1000);
+    }
+
+    private byte[] page(String fields, int pageSize) throws Exception {
+        var request = get("/api/v1/transactions").param("size", Integer.toString(pageSize));
+        if (fields != null) {
+            request.param("fields", fields);
+        }
+        return AsyncMockMvc.perform(mockMvc, request).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
@@ -0,0 +1,218 @@
+package com.hsbc.transactionmanagement.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.request.BulkDeleteRequest;
+import com.hsbc.transactionmanagement.request.MultiGetRequest;
+import com.hsbc.transactionmanagement.request.TransactionRequest;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.util.AsyncMockMvc;
+import com.hsbc.transactionmanagement.util.SqlStatementCounter;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.hsbc.transactionmanagement.util.SqlStatementCounter.assertStatementCount;
+import static com.hsbc.transactionmanagement.util.SqlStatementCounter.record;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each transaction endpoint issues. A change that adds a
+ * statement fails here with the statements listed; if the extra statement is intended, update
+ * the expected count in the same change. Only statements Hibernate prepares are counted: the
+ * insert and delete registering a write with the change sequence tracker run on a connection
+ * of their own and are not, its floor drawn in the write's transaction is.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlStatementCountIntegrationTest {
+
+    private static final String BASE_URL = "/api/v1/transactions";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Transaction saved;
+
+    // async reads load on the read executor, their statements count towards the request
+    @TestConfiguration
+    static class RecordReadExecutorStatements {
+
+        @Bean
+        TaskDecorator sqlStatementCounterPropagation() {
+            return SqlStatementCounter::propagate;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        saved = transactionService.createTransaction(TestDataGenerator.createSampleTransaction());
+        transactionService.clearCache();
+    }
+
+    @Test
+    void createTransaction() throws Exception {
+        TransactionRequest request = new TransactionRequest("Lunch", new BigDecimal("12.50"), "DEBIT", "Food",
+                TestDataGenerator.generateReference(), null);
+        // duplicate reference checks on both tiers, write floor, change sequence, insert
+        assertStatementCount(5, () -> mockMvc.perform(post(BASE_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated()));
+    }
+
+    @Test
+    void getTransactionById() throws Exception {
+        assertStatementCount(1, () -> AsyncMockMvc.perform(mockMvc, get(BASE_URL + "/{id}", saved.getId()))
+                .andExpect(status().isOk()));
+        // then served from the cache
+        assertStatementCount(0, () -> AsyncMockMvc.perform(mockMvc, get(BASE_URL + "/{id}", saved.getId()))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getTransactionById_NotFound() throws Exception {
+        assertStatementCount(2, () -> AsyncMockMvc.perform(mockMvc, get(BASE_URL + "/{id}", -1L))
+                .andExpect(status().isNotFound()));
+    }
+
+    @Test
+    void getTransactionByReference() throws Exception {
+        assertStatementCount(1, () -> AsyncMockMvc.perform(mockMvc, get(BASE_URL + "/reference/{reference}",
+                        saved.getTransactionReference()))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getAllTransactions() throws Exception {
+        assertStatementCount(1, () -> AsyncMockMvc.perform(mockMvc, get(BASE_URL).param("includeTotals", "false"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getAllTransactions_FilterComparesCodes() throws Exception {
+        List<String> statements = record(() -> AsyncMockMvc.perform(mockMvc, get(BASE_URL)
+                        .param("category", saved.getCategory().toUpperCase())
+                        .param("type", saved.getType().toLowerCase())
+                        .param("includeTotals", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.content.length()").value(1)));
+
+        // matched case-insensitively through the category dictionary, then by integer codes
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0))
+                .contains("category_id in(select", "name_key=lower(?)", "type_code=2")
+                .doesNotContain("lower(t1_0.");
+    }
+
+    @Test
+    void multiGet() throws Exception {
+        MultiGetRequest request = new MultiGetRequest(List.of(saved.getId(), -1L), List.of(saved.getTransactionReference()));
+        assertStatementCount(3, () -> mockMvc.perform(post(BASE_URL + "/multi-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void updateTransaction() throws Exception {
+        // row read for the counters and the response, write floor, change sequence, versioned update
+        TransactionRequest request = new TransactionRequest("Dinner", new BigDecimal("30.00"), "DEBIT", "Food",
+                saved.getTransactionReference(), null);
+        assertStatementCount(4, () -> mockMvc.perform(put(BASE_URL + "/{id}", saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void updateTransaction_Cached() throws Exception {
+        transactionService.getTransactionById(saved.getId());
+        TransactionRequest request = new TransactionRequest("Dinner", new BigDecimal("30.00"), "DEBIT", "Food",
+                saved.getTransactionReference(), null);
+        // the cached row supplies the previous values and the response: write floor, change sequence, update
+        assertStatementCount(3, () -> mockMvc.perform(put(BASE_URL + "/{id}", saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.category").value("Food"))
+                .andExpect(jsonPath("$.result.version").value(1)));
+    }
+
+    @Test
+    void patchTransaction() throws Exception {
+        // row read for the response, write floor, change sequence, versioned update
+        assertStatementCount(4, () -> mockMvc.perform(patch(BASE_URL + "/{id}", saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Dinner\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void patchTransaction_Cached() throws Exception {
+        transactionService.getTransactionById(saved.getId());
+        assertStatementCount(3, () -> mockMvc.perform(patch(BASE_URL + "/{id}", saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Dinner\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.description").value("Dinner"))
+                .andExpect(jsonPath("$.result.transactionReference").value(saved.getTransactionReference())));
+        // the row written back to the cache is the new one
+        assertThat(transactionService.getTransactionById(saved.getId()).getDescription()).isEqualTo("Dinner");
+        assertThat(transactionRepository.findById(saved.getId()).orElseThrow().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void deleteTransaction() throws Exception {
+        // partition lookup for the counters and account, write floor, delete, tombstone
+        assertStatementCount(5, () -> mockMvc.perform(delete(BASE_URL + "/{id}", saved.getId()))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void deleteTransactionByReference() throws Exception {
+        assertStatementCount(5, () -> mockMvc.perform(delete(BASE_URL + "/reference/{reference}",
+                        saved.getTransactionReference()))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void bulkDelete() throws Exception {
+        BulkDeleteRequest request = new BulkDeleteRequest(List.of(saved.getId()), List.of());
+        // write floor, postings summed per account, tombstones, delete
+        assertStatementCount(4, () -> mockMvc.perform(post(BASE_URL + "/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,108 @@
+package com.hsbc.transactionmanagement.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.tracing.OtlpJsonFileExporter;
+import com.hsbc.transactionmanagement.util.AsyncMockMvc;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "transaction.tracing.sample-rate=1.0",
+        "transaction.tracing.file=target/traces/tracing-integration-test.jsonl"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TracingIntegrationTest {
+
+    private static final Path TRACE_FILE = Path.of("target/traces/tracing-integration-test.jsonl");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private OtlpJsonFileExporter exporter;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        transactionService.clearCache();
+    }
+
+    @Test
+    void getTransactionById_ShouldWriteOneTraceFromFilterToSerialization() throws Exception {
+        Transaction saved = transactionRepository.save(TestDataGenerator.createSampleTransaction());
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/{id}", saved.getId())
+                        .header("traceparent", "00-" + traceId + "-00f067aa0ba902b7-01"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("traceparent", org.hamcrest.Matchers.startsWith("00-" + traceId + "-")));
+        exporter.flush();
+
+        Map<String, JsonNode> spans = new HashMap<>();
+        for (String line : Files.readAllLines(TRACE_FILE)) {
+            for (JsonNode span : objectMapper.readTree(line).at("/resourceSpans/0/scopeSpans/0/spans")) {
+                if (span.get("traceId").asText().equals(traceId)) {
+                    spans.put(span.get("name").asText(), span);
+                }
+            }
+        }
+
+        assertThat(spans).containsKeys("GET /api/v1/transactions/{id}", "TransactionController.getTransactionById",
+                "TransactionService.getTransactionById", "cache.get transaction", "TransactionRepository.findById",
+                "serialize");
+        JsonNode root = spans.get("GET /api/v1/transactions/{id}");
+        assertThat(root.get("parentSpanId").asText()).isEqualTo("00f067aa0ba902b7");
+        assertParent(spans, "TransactionController.getTransactionById", root);
+        assertParent(spans, "serialize", root);
+        assertParent(spans, "TransactionService.getTransactionById", spans.get("TransactionController.getTransactionById"));
+        assertParent(spans, "cache.get transaction", spans.get("TransactionService.getTransactionById"));
+        assertParent(spans, "TransactionRepository.findById", spans.get("cache.get transaction"));
+        assertThat(spans.get("cache.get transaction").at("/attributes/0/value/boolValue").asBoolean()).isFalse();
+    }
+
+    @Test
+    void unsampledTraceParent_ShouldNotBeTraced() throws Exception {
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions")
+                        .header("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4737-00f067aa0ba902b7-00"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("traceparent"));
+        exporter.flush();
+
+        List<String> lines = Files.exists(TRACE_FILE) ? Files.readAllLines(TRACE_FILE) : List.of();
+        assertThat(lines).noneMatch(line -> line.contains("4bf92f3577b34da6a3ce929d0e0e4737"));
+    }
+
+    private static void assertParent(Map<String, JsonNode> spans, String name, JsonNode parent) {
+        assertThat(spans.get(name).get("parentSpanId").asText()).as(name).isEqualTo(parent.get("spanId").asText());
+    }
+}
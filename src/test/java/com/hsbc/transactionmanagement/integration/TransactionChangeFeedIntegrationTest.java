@@ -0,0 +1,193 @@
+package com.hsbc.transactionmanagement.integration;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.entity.TransactionTombstone;
+import com.hsbc.transactionmanagement.exception.ChangeTokenExpiredException;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.repository.TransactionTombstoneRepository;
+import com.hsbc.transactionmanagement.request.TransactionPatchRequest;
+import com.hsbc.transactionmanagement.response.ChangesResponse;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.sync.ChangeToken;
+import com.hsbc.transactionmanagement.sync.TombstoneCompactor;
+import com.hsbc.transactionmanagement.sync.TransactionChangeFeed;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionChangeFeedIntegrationTest {
+
+    @Autowired
+    private TransactionChangeFeed changeFeed;
+
+    @Autowired
+    private TombstoneCompactor tombstoneCompactor;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        tombstoneRepository.deleteAll();
+        transactionService.clearCache();
+    }
+
+    @Test
+    void changesSince_ShouldReturnOnlyChangesAfterToken_InBoundedBatches() {
+        List<Transaction> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(transactionService.createTransaction(TestDataGenerator.createSampleTransaction()));
+        }
+        ChangesResponse first = changeFeed.changesSince(null, 3);
+        assertThat(first.getUpserts()).extracting(Transaction::getId)
+                .containsExactly(created.get(0).getId(), created.get(1).getId(), created.get(2).getId());
+        assertThat(first.isHasMore()).isTrue();
+
+        ChangesResponse second = changeFeed.changesSince(first.getNextToken(), 3);
+        assertThat(second.getUpserts()).extracting(Transaction::getId)
+                .containsExactly(created.get(3).getId(), created.get(4).getId());
+        assertThat(second.isHasMore()).isFalse();
+
+        TransactionPatchRequest patch = new TransactionPatchRequest();
+        patch.setAmount(new BigDecimal("7.00"));
+        transactionService.patchTransaction(created.get(1).getId(), patch, null);
+        transactionService.deleteTransaction(created.get(0).getId());
+        transactionService.deleteTransactionByReference(created.get(2).getTransactionReference());
+        transactionService.deleteTransactions(List.of(created.get(3).getId()), List.of());
+
+        ChangesResponse third = changeFeed.changesSince(second.getNextToken(), 100);
+        assertThat(third.getUpserts()).extracting(Transaction::getId).containsExactly(created.get(1).getId());
+        assertThat(third.getUpserts().get(0).getAmount()).isEqualByComparingTo("7.00");
+        assertThat(third.getDeletes()).extracting(TransactionTombstone::getTransactionId)
+                .containsExactly(created.get(0).getId(), created.get(2).getId(), created.get(3).getId());
+        assertThat(third.getDeletes().get(2).getTransactionReference()).isEqualTo(created.get(3).getTransactionReference());
+
+        ChangesResponse idle = changeFeed.changesSince(third.getNextToken(), 100);
+        assertThat(idle.getUpserts()).isEmpty();
+        assertThat(idle.getDeletes()).isEmpty();
+        assertThat(ChangeToken.parse(idle.getNextToken()).sequence())
+                .isEqualTo(ChangeToken.parse(third.getNextToken()).sequence());
+    }
+
+    @Test
+    void changesSince_ShouldHoldBackLaterChanges_WhileAnEarlierSequenceIsUncommitted() throws Exception {
+        CountDownLatch drawn = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Transaction> slow = CompletableFuture.supplyAsync(() ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    Transaction transaction = transactionService.createTransaction(TestDataGenerator.createSampleTransaction());
+                    drawn.countDown();
+                    try {
+                        commit.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return transaction;
+                }));
+        assertThat(drawn.await(10, TimeUnit.SECONDS)).isTrue();
+        Transaction fast = transactionService.createTransaction(TestDataGenerator.createSampleTransaction());
+
+        // the committed write has the higher sequence, reporting it would move the cursor past the slow one
+        ChangesResponse during = changeFeed.changesSince(null, 100);
+        assertThat(during.getUpserts()).isEmpty();
+
+        commit.countDown();
+        Transaction committed = slow.get(10, TimeUnit.SECONDS);
+        ChangesResponse after = changeFeed.changesSince(during.getNextToken(), 100);
+        assertThat(after.getUpserts()).extracting(Transaction::getId).containsExactly(committed.getId(), fast.getId());
+    }
+
+    @Test
+    void changesSince_ShouldHoldBackChanges_WhileAnotherInstanceHasAWriteInFlight() {
+        // registered the way another instance's write registers in the shared database
+        long floor = transactionRepository.nextChangeSequence();
+        jdbcTemplate.update("INSERT INTO change_sequence_writes (floor_sequence, started_at) VALUES (?, ?)",
+                floor, LocalDateTime.now());
+        Transaction created = transactionService.createTransaction(TestDataGenerator.createSampleTransaction());
+
+        ChangesResponse during = changeFeed.changesSince(null, 100);
+        assertThat(during.getUpserts()).isEmpty();
+
+        jdbcTemplate.update("DELETE FROM change_sequence_writes WHERE floor_sequence = ?", floor);
+        ChangesResponse after = changeFeed.changesSince(during.getNextToken(), 100);
+        assertThat(after.getUpserts()).extracting(Transaction::getId).containsExactly(created.getId());
+    }
+
+    @Test
+    void changesSince_ShouldStopWaiting_ForAWriteOfAStoppedInstance() {
+        long floor = transactionRepository.nextChangeSequence();
+        jdbcTemplate.update("INSERT INTO change_sequence_writes (floor_sequence, started_at) VALUES (?, ?)",
+                floor, LocalDateTime.now().minusHours(1));
+        Transaction created = transactionService.createTransaction(TestDataGenerator.createSampleTransaction());
+
+        assertThat(changeFeed.changesSince(null, 100).getUpserts()).extracting(Transaction::getId)
+                .containsExactly(created.getId());
+        tombstoneCompactor.compact();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM change_sequence_writes", Integer.class)).isZero();
+    }
+
+    @Test
+    void deleteTransactionsByFilter_ShouldLeaveTombstonePerRow() {
+        Transaction food = TestDataGenerator.createSampleTransaction();
+        food.setCategory("Food");
+        Transaction rent = TestDataGenerator.createSampleTransaction();
+        rent.setCategory("Rent");
+        Long foodId = transactionService.createTransaction(food).getId();
+        transactionService.createTransaction(rent);
+        String token = changeFeed.changesSince(null, 100).getNextToken();
+
+        transactionService.deleteTransactionsByFilter("food", null, null, null);
+
+        ChangesResponse changes = changeFeed.changesSince(token, 100);
+        assertThat(changes.getUpserts()).isEmpty();
+        assertThat(changes.getDeletes()).extracting(TransactionTombstone::getTransactionId).containsExactly(foodId);
+    }
+
+    @Test
+    void compact_ShouldDropTombstonesPastRetention_AndOldTokensExpire() {
+        Transaction transaction = transactionService.createTransaction(TestDataGenerator.createSampleTransaction());
+        transactionService.deleteTransaction(transaction.getId());
+        jdbcTemplate.update("UPDATE transaction_tombstones SET deleted_at = ?", LocalDateTime.now().minusDays(31));
+
+        assertThat(tombstoneCompactor.compact()).isEqualTo(1);
+        assertThat(tombstoneRepository.count()).isZero();
+
+        String stale = new ChangeToken(0L, Instant.now().minus(Duration.ofDays(31))).encode();
+        assertThatThrownBy(() -> changeFeed.changesSince(stale, 100)).isInstanceOf(ChangeTokenExpiredException.class);
+        assertThatThrownBy(() -> changeFeed.changesSince("not-a-token", 100)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
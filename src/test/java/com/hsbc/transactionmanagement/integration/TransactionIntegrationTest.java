@@ -1,7 +1,10 @@
 package com.hsbc.transactionmanagement.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.hsbc.transactionmanagement.entity.Transaction;
 import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.util.AsyncMockMvc;
 import com.hsbc.transactionmanagement.util.TestDataGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,7 +17,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -60,7 +65,7 @@ class TransactionIntegrationTest {
 
     @Test
     void getAllTransactions_ShouldReturnSavedTransactions() throws Exception {
-        mockMvc.perform(get("/api/v1/transactions")  // 更新路径
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions")  // 更新路径
                         .param("page", "0")
                         .param("size", "10"))
                 .andExpect(status().isOk())
@@ -71,7 +76,7 @@ class TransactionIntegrationTest {
 
     @Test
     void getTransactionById_ShouldReturnTransaction() throws Exception {
-        mockMvc.perform(get("/api/v1/transactions/{id}", savedTransaction.getId()))
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/{id}", savedTransaction.getId()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status.code").value(200))
                 .andExpect(jsonPath("$.result.id").value(savedTransaction.getId()))
@@ -80,7 +85,7 @@ class TransactionIntegrationTest {
 
     @Test
     void getTransactionById_ShouldReturnNotFound_WhenNotExists() throws Exception {
-        mockMvc.perform(get("/api/v1/transactions/999"))
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/999"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.status.code").value(404));
     }
@@ -120,6 +125,50 @@ class TransactionIntegrationTest {
                 .andExpect(jsonPath("$.status.code").value(404));
     }
 
+    @Test
+    void patchTransaction_ShouldUpdateOnlySuppliedFields() throws Exception {
+        mockMvc.perform(patch("/api/v1/transactions/{id}", savedTransaction.getId())
+                        .header("If-Match", "\"" + savedTransaction.getVersion() + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {
+                                "amount": 75.25
+                            }
+                    """))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + (savedTransaction.getVersion() + 1) + "\""))
+                .andExpect(jsonPath("$.result.amount").value(75.25))
+                .andExpect(jsonPath("$.result.description").value("Test Transaction"));
+    }
+
+    @Test
+    void patchTransaction_ShouldReturnPreconditionFailed_WhenVersionIsStale() throws Exception {
+        mockMvc.perform(patch("/api/v1/transactions/{id}", savedTransaction.getId())
+                        .header("If-Match", "\"" + (savedTransaction.getVersion() + 5) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {
+                                "description": "Stale Update"
+                            }
+                    """))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status.code").value(412));
+    }
+
+    @Test
+    void patchTransaction_ShouldReturnNotFound_WhenNotExists() throws Exception {
+        mockMvc.perform(patch("/api/v1/transactions/999")
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {
+                                "description": "Missing"
+                            }
+                    """))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status.code").value(404));
+    }
+
     @Test
     void deleteTransaction_ShouldRemoveTransaction() throws Exception {
         mockMvc.perform(delete("/api/v1/transactions/{id}", savedTransaction.getId()))
@@ -127,7 +176,7 @@ class TransactionIntegrationTest {
                 .andExpect(jsonPath("$.status.code").value(200));
 
         // Verify transaction is actually deleted
-        mockMvc.perform(get("/api/v1/transactions/{id}", savedTransaction.getId()))
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/{id}", savedTransaction.getId()))
                 .andExpect(status().isNotFound());
     }
 
@@ -163,7 +212,7 @@ class TransactionIntegrationTest {
         );
         transactionRepository.save(foodTransaction);
 
-        mockMvc.perform(get("/api/v1/transactions")
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions")
                         .param("category", "Food")
                         .param("page", "0")
                         .param("size", "10"))
@@ -172,9 +221,38 @@ class TransactionIntegrationTest {
                 .andExpect(jsonPath("$.result.content[0].category").value("Food"));
     }
 
+    @Test
+    void getTransactions_SortedByCategory_ShouldOrderByName_NotByCode() throws Exception {
+        // stored in this order, so their codes are in the opposite order of their names
+        transactionRepository.save(TestDataGenerator.createTransaction("Last", new BigDecimal("1.00"), "DEBIT", "Zulu"));
+        transactionRepository.save(TestDataGenerator.createTransaction("First", new BigDecimal("2.00"), "DEBIT", "Alpha"));
+
+        for (String includeTotals : List.of("true", "false")) {
+            AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions")
+                            .param("sortBy", "category")
+                            .param("direction", "ASC")
+                            .param("includeTotals", includeTotals))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.result.content[*].category", contains("Alpha", "Shopping", "Zulu")));
+        }
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions")
+                        .param("sortBy", "category")
+                        .param("direction", "DESC")
+                        .param("fields", "category"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.content[*].category", contains("Zulu", "Shopping", "Alpha")));
+        // a range reaching back into the archive merges both tiers by name
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions")
+                        .param("sortBy", "category")
+                        .param("direction", "ASC")
+                        .param("from", "2000-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.content[*].category", contains("Alpha", "Shopping", "Zulu")));
+    }
+
     @Test
     void getTransactionByReference_ShouldReturnTransaction() throws Exception {
-        mockMvc.perform(get("/api/v1/transactions/reference/{reference}", savedTransaction.getTransactionReference()))
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/reference/{reference}", savedTransaction.getTransactionReference()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status.code").value(200))
                 .andExpect(jsonPath("$.result.id").value(savedTransaction.getId()));
@@ -182,7 +260,7 @@ class TransactionIntegrationTest {
 
     @Test
     void getTransactionByReference_ShouldReturnNotFound_WhenNotExists() throws Exception {
-        mockMvc.perform(get("/api/v1/transactions/reference/NONEXISTENT"))
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/reference/NONEXISTENT"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.status.code").value(404));
     }
@@ -194,7 +272,7 @@ class TransactionIntegrationTest {
                 .andExpect(jsonPath("$.status.code").value(200));
 
         // Verify transaction is actually deleted
-        mockMvc.perform(get("/api/v1/transactions/reference/{reference}", savedTransaction.getTransactionReference()))
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/reference/{reference}", savedTransaction.getTransactionReference()))
                 .andExpect(status().isNotFound());
     }
 
@@ -204,4 +282,63 @@ class TransactionIntegrationTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.status.code").value(404));
     }
+
+    @Test
+    void bulkDeleteTransactions_ShouldDeleteByIdsAndReferences() throws Exception {
+        Transaction second = transactionRepository.save(TestDataGenerator.createSampleTransaction());
+        Transaction kept = transactionRepository.save(TestDataGenerator.createSampleTransaction());
+
+        mockMvc.perform(post("/api/v1/transactions/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("""
+                    {
+                        "ids": [%d, 999],
+                        "references": ["%s"]
+                    }
+                    """, savedTransaction.getId(), second.getTransactionReference())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.deletedCount").value(2));
+
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/{id}", kept.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void bulkDeleteTransactionsByFilter_ShouldDeleteMatchingRowsOnly() throws Exception {
+        transactionRepository.save(TestDataGenerator.createTransaction(
+                "Food Purchase", new BigDecimal("25.00"), "DEBIT", "Food"));
+
+        mockMvc.perform(delete("/api/v1/transactions")
+                        .param("category", "food"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.deletedCount").value(1));
+
+        AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions")
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.content", hasSize(1)))
+                .andExpect(jsonPath("$.result.content[0].category").value("Shopping"));
+    }
+
+    @Test
+    void bulkDeleteTransactionsByFilter_ShouldRequireAFilter() throws Exception {
+        mockMvc.perform(delete("/api/v1/transactions"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status.code").value(400));
+    }
+
+    @Test
+    void getTransactionById_ShouldNegotiateCbor() throws Exception {
+        byte[] body = AsyncMockMvc.perform(mockMvc, get("/api/v1/transactions/{id}", savedTransaction.getId())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode result = new CBORMapper().readTree(body).get("result");
+        assertThat(result.get("id").asLong()).isEqualTo(savedTransaction.getId());
+        // 100.00 at scale 4
+        assertThat(result.get("amount").asLong()).isEqualTo(1_000_000L);
+    }
 }
\ No newline at end of file
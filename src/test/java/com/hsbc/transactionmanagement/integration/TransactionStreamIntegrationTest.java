@@ -0,0 +1,57 @@
+package com.hsbc.transactionmanagement.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional: stream events are only published once the service transaction commits.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionStreamIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void stream_ShouldPushCommittedCreate() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/v1/transactions/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(post("/api/v1/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                    {
+                        "description": "Streamed",
+                        "amount": 12.00,
+                        "type": "CREDIT",
+                        "category": "Salary",
+                        "transactionReference": "REF-STREAM1"
+                    }
+                    """))
+                .andExpect(status().isCreated());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!stream.getResponse().getContentAsString().contains("REF-STREAM1") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        String content = stream.getResponse().getContentAsString();
+        assertThat(content).contains("event:CREATED").contains("\"transactionReference\":\"REF-STREAM1\"");
+    }
+}
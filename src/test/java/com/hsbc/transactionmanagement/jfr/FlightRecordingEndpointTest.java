@@ -0,0 +1,111 @@
+package com.hsbc.transactionmanagement.jfr;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.service.TransactionService;
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "transaction.jfr.endpoint-enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FlightRecordingEndpointTest {
+
+    @Autowired
+    private FlightRecordingEndpoint endpoint;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @AfterEach
+    void tearDown() {
+        endpoint.stop();
+        transactionRepository.deleteAll();
+    }
+
+    @Test
+    void endpoint_ShouldNotBeRegistered_UnlessEnabled() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(FlightRecordingEndpoint.class)
+                .run(context -> assertThat(context).doesNotHaveBean(FlightRecordingEndpoint.class));
+    }
+
+    @Test
+    void post_ShouldStartARecording_OfTheDefaultOrGivenDuration() throws Exception {
+        mockMvc.perform(post("/actuator/jfr/2m"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duration").value("PT2M"));
+        mockMvc.perform(delete("/actuator/jfr")).andExpect(status().isOk());
+
+        mockMvc.perform(post("/actuator/jfr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duration").value("PT5M"));
+    }
+
+    @Test
+    void recording_ShouldCaptureOperationRepositoryAndEvictionEvents() throws Exception {
+        Transaction saved = transactionRepository.save(TestDataGenerator.createSampleTransaction());
+        transactionService.clearCache();
+
+        WebEndpointResponse<Map<String, Object>> started = endpoint.start(Duration.ofMinutes(1));
+        assertThat(started.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(started.getBody()).containsEntry("state", "RUNNING");
+        assertThat(endpoint.start().getStatus()).isEqualTo(HttpStatus.CONFLICT.value());
+
+        transactionService.getTransactionById(saved.getId());
+        transactionService.getTransactionById(saved.getId());
+        transactionService.deleteTransaction(saved.getId());
+
+        assertThat(endpoint.stop()).containsEntry("state", "STOPPED");
+        long id = (long) started.getBody().get("id");
+        WebEndpointResponse<Resource> download = endpoint.download(id);
+        assertThat(download.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(download.getBody().getFile().toPath());
+
+        List<RecordedEvent> reads = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.hsbc.transactionmanagement.TransactionOperation"))
+                .filter(e -> "getTransactionById".equals(e.getString("operation")))
+                .toList();
+        assertThat(reads).hasSize(2);
+        assertThat(reads).allSatisfy(e -> {
+            assertThat(e.getLong("transactionId")).isEqualTo(saved.getId());
+            assertThat(e.getString("reference")).isEqualTo(saved.getTransactionReference());
+            assertThat(e.getInt("rows")).isEqualTo(1);
+        });
+        assertThat(reads).extracting(e -> e.getBoolean("cacheHit")).containsExactlyInAnyOrder(false, true);
+        assertThat(events).anyMatch(e -> e.getEventType().getName().equals("com.hsbc.transactionmanagement.RepositoryCall")
+                && "findById".equals(e.getString("method")));
+        assertThat(events).anyMatch(e -> e.getEventType().getName().equals("com.hsbc.transactionmanagement.CacheEviction")
+                && "transaction".equals(e.getString("cache")) && "EXPLICIT".equals(e.getString("cause")));
+
+        assertThat(endpoint.download(id + 1).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+}
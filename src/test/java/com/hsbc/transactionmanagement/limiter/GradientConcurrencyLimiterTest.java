@@ -0,0 +1,154 @@
+package com.hsbc.transactionmanagement.limiter;
+
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimiterTest {
+
+    private static final Logger logger = LoggerUtil.getLogger(GradientConcurrencyLimiterTest.class);
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_ShouldRejectBeyondLimit_AndReserveHeadroomForNormalPriority() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter("test", 4, 1, 10, 1.5, 0.2);
+
+        assertThat(limiter.tryAcquire(0.5)).isTrue();
+        assertThat(limiter.tryAcquire(0.5)).isTrue();
+        assertThat(limiter.tryAcquire(0.5)).isFalse();
+        assertThat(limiter.tryAcquire(1.0)).isTrue();
+        assertThat(limiter.tryAcquire(1.0)).isTrue();
+        assertThat(limiter.tryAcquire(1.0)).isFalse();
+        assertThat(limiter.getInflight()).isEqualTo(4);
+    }
+
+    @Test
+    void limit_ShouldShrinkWhenLatencyRises_AndGrowWhenItRecovers() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter("test", 50, 5, 200, 1.5, 0.2);
+        int initial = limiter.getLimit();
+
+        saturate(limiter, 5, 2 * MILLIS);
+        saturate(limiter, 5, 20 * MILLIS);
+        int degraded = limiter.getLimit();
+        assertThat(degraded).isLessThan(initial);
+
+        saturate(limiter, 5, 2 * MILLIS);
+        assertThat(limiter.getLimit()).isGreaterThan(degraded);
+    }
+
+    @Test
+    void droppedRequests_ShouldBackOffMultiplicatively() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter("test", 100, 5, 200, 1.5, 0.2);
+
+        limiter.tryAcquire(1.0);
+        limiter.release(MILLIS, true);
+
+        assertThat(limiter.getLimit()).isEqualTo(90);
+    }
+
+    /**
+     * Overload simulation: a dependency that serves 4 requests at a time with a fixed service
+     * time, hit by far more clients. Without a limiter latency grows with the queue; with the
+     * limiter the excess is rejected and the p99 of admitted requests stays close to the
+     * service time. Runs for seconds of wall-clock time and logs the percentiles.
+     */
+    @Tag("benchmark")
+    @Test
+    void overload_ShouldKeepP99OfAdmittedRequestsBounded() throws Exception {
+        List<Long> unlimited = runLoad(null, 64, 800);
+
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter("load", 20, 2, 100, 1.5, 0.2);
+        runLoad(limiter, 4, 400);
+        // let the limit settle before measuring the steady state
+        runLoad(limiter, 64, 400);
+        List<Long> limited = runLoad(limiter, 64, 800);
+
+        long unlimitedP99 = p99(unlimited);
+        long limitedP99 = p99(limited);
+        logger.info("p99 without limiter: {} us, with limiter: {} us, final limit: {}",
+                unlimitedP99 / 1_000, limitedP99 / 1_000, limiter.getLimit());
+
+        assertThat(limitedP99).isLessThan(unlimitedP99 * 3 / 4);
+    }
+
+    private static void saturate(GradientConcurrencyLimiter limiter, int samples, long rttNanos) {
+        for (int i = 0; i < samples; i++) {
+            int limit = limiter.getLimit();
+            for (int j = 0; j < limit; j++) {
+                limiter.tryAcquire(1.0);
+            }
+            for (int j = 0; j < limit; j++) {
+                limiter.release(rttNanos, false);
+            }
+        }
+    }
+
+    private static List<Long> runLoad(GradientConcurrencyLimiter limiter, int clients, long durationMillis)
+            throws InterruptedException {
+        Semaphore dependency = new Semaphore(4, true);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong rejected = new AtomicLong();
+        long deadline = System.nanoTime() + durationMillis * MILLIS;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    if (limiter != null && !limiter.tryAcquire(1.0)) {
+                        rejected.incrementAndGet();
+                        sleep(2);
+                        continue;
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        dependency.acquire();
+                        try {
+                            sleep(2);
+                        } finally {
+                            dependency.release();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    long latency = System.nanoTime() - start;
+                    latencies.add(latency);
+                    if (limiter != null) {
+                        limiter.release(latency, false);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return new ArrayList<>(latencies);
+    }
+
+    private static long p99(List<Long> latencies) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.hsbc.transactionmanagement.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.request.TransactionRequest;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.beans.BeanUtils;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares bytes allocated per create request, from JSON body to the entity handed to the
+ * service, between the entity-bound path with a reflective copy and the request record with
+ * {@link TransactionMapper}. Numbers are printed; the assertion only checks the direction.
+ */
+class TransactionMapperTest {
+
+    private static final Logger logger = LoggerUtil.getLogger(TransactionMapperTest.class);
+
+    private static final String BODY = """
+            {"description":"Grocery shopping","amount":100.50,"type":"DEBIT","category":"Food",
+             "transactionReference":"REF123456"}""";
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+    private final Validator validator = validatorFactory.getValidator();
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void toEntity_ShouldCopyClientFields_AndLeaveServerFieldsUnset() {
+        Transaction transaction = TransactionMapper.toEntity(new TransactionRequest(
+                "Grocery shopping", new BigDecimal("100.50"), "DEBIT", "Food", "REF123456", "ACC-1001"));
+
+        assertThat(transaction.getDescription()).isEqualTo("Grocery shopping");
+        assertThat(transaction.getAmount()).isEqualByComparingTo("100.50");
+        assertThat(transaction.getType()).isEqualTo("DEBIT");
+        assertThat(transaction.getCategory()).isEqualTo("Food");
+        assertThat(transaction.getTransactionReference()).isEqualTo("REF123456");
+        assertThat(transaction.getAccountId()).isEqualTo("ACC-1001");
+        assertThat(transaction.getId()).isNull();
+        assertThat(transaction.getVersion()).isNull();
+    }
+
+    @Tag("benchmark")
+    @Test
+    void requestPath_ShouldAllocateLessThanEntityCopyPath() throws Exception {
+        int iterations = 20_000;
+        for (int i = 0; i < iterations; i++) {
+            entityPath();
+            requestPath();
+        }
+
+        long entityBytes = bytesPerOperation(iterations, this::entityPath);
+        long requestBytes = bytesPerOperation(iterations, this::requestPath);
+        logger.info("bytes per create: entity + BeanUtils={}, record + mapper={}", entityBytes, requestBytes);
+
+        assertThat(requestBytes).isLessThan(entityBytes);
+    }
+
+    // the create path before request records: bind and validate the entity, then copy it reflectively
+    private Transaction entityPath() throws Exception {
+        Transaction transaction = objectMapper.readValue(BODY, Transaction.class);
+        if (!validator.validate(transaction).isEmpty()) {
+            throw new IllegalStateException();
+        }
+        Transaction input = new Transaction();
+        BeanUtils.copyProperties(transaction, input, "id", "transactionDate", "version", "changeSequence", "updatedAt");
+        return input;
+    }
+
+    private Transaction requestPath() throws Exception {
+        TransactionRequest request = objectMapper.readValue(BODY, TransactionRequest.class);
+        if (!validator.validate(request).isEmpty()) {
+            throw new IllegalStateException();
+        }
+        return TransactionMapper.toEntity(request);
+    }
+
+    private static long bytesPerOperation(int iterations, Operation operation) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / iterations;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        Object run() throws Exception;
+    }
+}
@@ -0,0 +1,154 @@
+package com.hsbc.transactionmanagement.readmodel;
+
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionIndexTest {
+
+    private static final Logger logger = LoggerUtil.getLogger(TransactionIndexTest.class);
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final String[] CATEGORIES = {"Shopping", "Food", "Transport", "Rent", "Salary"};
+
+    private final TransactionIndex index = new TransactionIndex();
+
+    @Test
+    void find_ShouldOrderByDateThenId_InBothDirections() {
+        index.put(row(3, "Food", "DEBIT", 2));
+        index.put(row(1, "Food", "DEBIT", 1));
+        index.put(row(2, "Rent", "CREDIT", 1));
+        index.put(row(4, "Food", "DEBIT", null));
+
+        assertThat(ids(index.find(null, null, true, 0, 10))).containsExactly(4L, 1L, 2L, 3L);
+        assertThat(ids(index.find(null, null, false, 0, 10))).containsExactly(3L, 2L, 1L, 4L);
+        assertThat(ids(index.find(null, null, false, 1, 2))).containsExactly(2L, 1L);
+        assertThat(index.find(null, null, true, 4, 10)).isEmpty();
+    }
+
+    @Test
+    void find_ShouldMatchFilters_CaseInsensitively_AndMergePartitions() {
+        index.put(row(1, "Food", "DEBIT", 1));
+        index.put(row(2, "Rent", "DEBIT", 2));
+        index.put(row(3, "food", "CREDIT", 3));
+        index.put(row(4, "Rent", "CREDIT", 4));
+
+        assertThat(ids(index.find("FOOD", "debit", false, 0, 10))).containsExactly(1L);
+        assertThat(ids(index.find("food", null, false, 0, 10))).containsExactly(3L, 1L);
+        assertThat(ids(index.find(null, "Debit", true, 0, 10))).containsExactly(1L, 2L);
+        assertThat(ids(index.find(null, "CREDIT", false, 1, 10))).containsExactly(3L);
+        assertThat(index.find("Travel", null, true, 0, 10)).isEmpty();
+        assertThat(index.count("food", null)).isEqualTo(2);
+        assertThat(index.count(null, "credit")).isEqualTo(2);
+        assertThat(index.count("Travel", "DEBIT")).isZero();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void put_ShouldMoveChangedRows_AndIgnoreOlderVersions() {
+        index.put(row(1, "Food", "DEBIT", 1));
+
+        Transaction moved = row(1, "Rent", "DEBIT", 5);
+        moved.setVersion(1L);
+        index.put(moved);
+        assertThat(index.count("food", null)).isZero();
+        assertThat(ids(index.find("rent", null, true, 0, 10))).containsExactly(1L);
+
+        index.put(row(1, "Food", "DEBIT", 1));
+        assertThat(index.get(1)).isSameAs(moved);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void remove_ShouldDropRowsFromEveryIndex() {
+        index.put(row(1, "Food", "DEBIT", 1));
+        index.put(row(2, "Food", "CREDIT", 2));
+        index.put(row(3, "Rent", "DEBIT", 3));
+
+        assertThat(index.remove(1).getId()).isEqualTo(1L);
+        assertThat(index.remove(1)).isNull();
+        assertThat(index.removeIf(t -> t.getType().equals("CREDIT"))).isEqualTo(1);
+
+        assertThat(ids(index.find(null, null, true, 0, 10))).containsExactly(3L);
+        assertThat(index.count("food", null)).isZero();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    /**
+     * Not a unit test: logs the retained heap per row and page latencies for
+     * {@code -Dreadmodel.benchmark.rows} rows (default 200000) spread over 5 categories and
+     * both types. Run with a large enough heap for bigger tables.
+     */
+    @Test
+    @Tag("benchmark")
+    void memoryAndLatency() {
+        int rows = Integer.getInteger("readmodel.benchmark.rows", 200_000);
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        TransactionIndex large = new TransactionIndex();
+        for (int i = 1; i <= rows; i++) {
+            large.put(row(i, CATEGORIES[i % CATEGORIES.length], i % 2 == 0 ? "DEBIT" : "CREDIT",
+                    ThreadLocalRandom.current().nextInt(rows)));
+        }
+        System.gc();
+        long retained = runtime.totalMemory() - runtime.freeMemory() - before;
+        logger.info("{} rows: {} bytes retained, {} bytes per row", rows, retained, retained / rows);
+
+        time(rows, "first page, no filter", () -> large.find(null, null, false, 0, 20));
+        time(rows, "first page, category and type", () -> large.find("food", "debit", false, 0, 20));
+        time(rows, "first page, type only", () -> large.find(null, "credit", false, 0, 20));
+        time(rows, "page 500, no filter", () -> large.find(null, null, false, 500 * 20, 20));
+        time(rows, "first page oldest first, no filter", () -> large.find(null, null, true, 0, 20));
+        time(rows, "count, category only", () -> List.of(large.count("rent", null)));
+
+        assertThat(large.size()).isEqualTo(rows);
+        assertThat(large.find(null, null, false, 0, 20)).hasSize(20);
+    }
+
+    private static void time(int rows, String query, Supplier<List<?>> read) {
+        long warmUp = System.nanoTime() + 200_000_000L;
+        while (System.nanoTime() < warmUp) {
+            read.get();
+        }
+        int runs = 0;
+        long start = System.nanoTime();
+        do {
+            read.get();
+            runs++;
+        } while (System.nanoTime() - start < 300_000_000L);
+        logger.info("{} rows, {}: {} ns", rows, query, (System.nanoTime() - start) / runs);
+    }
+
+    private static Transaction row(long id, String category, String type, Integer minutes) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setDescription("Transaction " + id);
+        transaction.setAmount(BigDecimal.valueOf(id % 10_000, 2));
+        transaction.setType(type);
+        transaction.setCategory(category);
+        transaction.setTransactionReference("REF-" + Long.toHexString(0x10000000L + id).toUpperCase());
+        transaction.setTransactionDate(minutes == null ? null : START.plusMinutes(minutes));
+        transaction.setUpdatedAt(START);
+        transaction.setVersion(0L);
+        transaction.setChangeSequence(id);
+        return transaction;
+    }
+
+    private static List<Long> ids(List<Transaction> transactions) {
+        List<Long> ids = new ArrayList<>();
+        transactions.forEach(t -> ids.add(t.getId()));
+        return ids;
+    }
+}
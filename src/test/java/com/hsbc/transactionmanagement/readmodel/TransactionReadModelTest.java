@@ -0,0 +1,153 @@
+package com.hsbc.transactionmanagement.readmodel;
+
+import com.hsbc.transactionmanagement.config.ReadModelProperties;
+import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionReadModelTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final Pageable NEWEST_FIRST = PageRequest.of(0, 2, Sort.by("transactionDate").descending());
+
+    private TransactionRepository transactionRepository;
+    private ReadModelProperties properties;
+    private TransactionReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository = mock(TransactionRepository.class);
+        properties = new ReadModelProperties();
+        properties.setEnabled(true);
+        properties.setRebuildBatchSize(2);
+        readModel = new TransactionReadModel(transactionRepository, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        readModel.destroy();
+    }
+
+    @Test
+    void rebuild_ShouldLoadEveryBatch_AndStartServing() {
+        when(transactionRepository.findAfterId(eq(Long.MIN_VALUE), any())).thenReturn(List.of(row(1, "Food", 1), row(2, "Rent", 2)));
+        when(transactionRepository.findAfterId(eq(2L), any())).thenReturn(List.of(row(3, "Food", 3)));
+        assertThat(readModel.findPage(null, null, NEWEST_FIRST)).isEmpty();
+
+        readModel.rebuild();
+
+        Page<Transaction> page = readModel.findPage(null, null, NEWEST_FIRST).orElseThrow();
+        assertThat(page.getContent()).extracting(Transaction::getId).containsExactly(3L, 2L);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        Slice<Transaction> slice = readModel.findSlice("food", null, NEWEST_FIRST.next()).orElseThrow();
+        assertThat(slice.getContent()).isEmpty();
+        assertThat(slice.hasNext()).isFalse();
+        assertThat(readModel.findSlice("FOOD", null, NEWEST_FIRST).orElseThrow().getContent())
+                .extracting(Transaction::getId).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void find_ShouldDeferToTheDatabase_ForOtherOrdersAndInsideTransactions() {
+        when(transactionRepository.findAfterId(anyLong(), any())).thenReturn(List.of());
+        readModel.rebuild();
+
+        assertThat(readModel.findPage(null, null, PageRequest.of(0, 2, Sort.by("amount")))).isEmpty();
+        assertThat(readModel.findPage(null, null, PageRequest.of(0, 2, Sort.by("transactionDate", "id")))).isEmpty();
+        assertThat(readModel.findPage(null, null, Pageable.unpaged())).isEmpty();
+        assertThat(readModel.findPage(null, null, PageRequest.of(0, 2, Sort.by("transactionDate")))).isPresent();
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThat(readModel.findPage(null, null, NEWEST_FIRST)).isEmpty();
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        properties.setEnabled(false);
+        assertThat(readModel.findPage(null, null, NEWEST_FIRST)).isEmpty();
+    }
+
+    @Test
+    void record_ShouldApplyWrites_OnlyAfterCommit() {
+        when(transactionRepository.findAfterId(anyLong(), any())).thenReturn(List.of());
+        readModel.rebuild();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            readModel.recordSaved(row(1, "Food", 1));
+            readModel.recordSaved(row(2, "Rent", 2));
+            assertThat(readModel.getRowCount()).isZero();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(readModel.getRowCount()).isEqualTo(2);
+
+        readModel.recordDeleted(List.of(1L));
+        readModel.recordDeleted("RENT", null, START, null);
+        assertThat(readModel.getRowCount()).isZero();
+    }
+
+    @Test
+    void rebuild_ShouldReplayWritesCommittedWhileItRuns() {
+        when(transactionRepository.findAfterId(eq(Long.MIN_VALUE), any())).thenAnswer(invocation -> {
+            // committed after the batch was read
+            readModel.recordDeleted(List.of(1L));
+            readModel.recordSaved(row(5, "Food", 5));
+            return List.of(row(1, "Food", 1));
+        });
+
+        readModel.rebuild();
+
+        assertThat(readModel.findPage(null, null, NEWEST_FIRST).orElseThrow().getContent())
+                .extracting(Transaction::getId).containsExactly(5L);
+    }
+
+    @Test
+    void rebuild_ShouldStopServing_WhenItFails() {
+        when(transactionRepository.findAfterId(anyLong(), any())).thenReturn(List.of());
+        readModel.rebuild();
+        assertThat(readModel.isReady()).isTrue();
+
+        when(transactionRepository.findAfterId(anyLong(), any())).thenThrow(new IllegalStateException("database down"));
+        readModel.rebuild();
+
+        assertThat(readModel.isReady()).isFalse();
+        assertThat(readModel.findPage(null, null, NEWEST_FIRST)).isEmpty();
+    }
+
+    private static Transaction row(long id, String category, int minutes) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setDescription("Transaction " + id);
+        transaction.setAmount(BigDecimal.TEN);
+        transaction.setType("DEBIT");
+        transaction.setCategory(category);
+        transaction.setTransactionReference("REF-" + id);
+        transaction.setTransactionDate(START.plusMinutes(minutes));
+        transaction.setVersion(0L);
+        return transaction;
+    }
+}
@@ -1,5 +1,7 @@
 package com.hsbc.transactionmanagement.service;
 
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.hsbc.transactionmanagement.cache.NegativeCachingCaffeineCache;
 import com.hsbc.transactionmanagement.entity.Transaction;
 import com.hsbc.transactionmanagement.repository.TransactionRepository;
 import com.hsbc.transactionmanagement.util.TestDataGenerator;
@@ -9,14 +11,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
-@SpringBootTest
+// the repository is a mock, so list totals come from its count query rather than maintained counts
+@SpringBootTest(properties = "transaction.counts.enabled=false")
 @ActiveProfiles("test")
 class TransactionServiceCacheTest {
 
@@ -38,6 +54,7 @@ class TransactionServiceCacheTest {
 
         if (cacheManager != null) {
             cacheManager.getCache("transaction").clear();
+            cacheManager.getCache("transactions").clear();
         }
     }
 
@@ -91,4 +108,117 @@ class TransactionServiceCacheTest {
         verify(transactionRepository, times(1)).findById(1L);
         assertThat(result).isNotNull();
     }
+
+    @Test
+    void deleteTransactionsByFilter_ShouldEvictOnlyMatchingEntries() {
+        Transaction food = TestDataGenerator.createTransaction("Lunch", new BigDecimal("12.00"), "DEBIT", "Food");
+        food.setId(2L);
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(sampleTransaction));
+        when(transactionRepository.findById(2L)).thenReturn(Optional.of(food));
+        when(transactionRepository.findByFilters(eq("Food"), isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(food)));
+        when(transactionRepository.findByFilters(eq("Shopping"), isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(sampleTransaction)));
+        when(transactionRepository.bulkDeleteByFilters("Food", null, null, null)).thenReturn(1);
+
+        transactionService.getTransactionById(1L);
+        transactionService.getTransactionById(2L);
+        transactionService.getAllTransactions("Food", null, PageRequest.of(0, 10));
+        transactionService.getAllTransactions("Shopping", null, PageRequest.of(0, 10));
+
+        assertThat(transactionService.deleteTransactionsByFilter("Food", null, null, null)).isEqualTo(1);
+
+        transactionService.getTransactionById(1L);
+        transactionService.getTransactionById(2L);
+        transactionService.getAllTransactions("Food", null, PageRequest.of(0, 10));
+        transactionService.getAllTransactions("Shopping", null, PageRequest.of(0, 10));
+
+        verify(transactionRepository, times(1)).findById(1L);
+        verify(transactionRepository, times(2)).findById(2L);
+        verify(transactionRepository, times(2)).findByFilters(eq("Food"), isNull(), any(Pageable.class));
+        verify(transactionRepository, times(1)).findByFilters(eq("Shopping"), isNull(), any(Pageable.class));
+    }
+
+    @Test
+    void getTransactionById_ShouldLoadOnce_WhenManyThreadsMissTheSameKey() throws Exception {
+        when(transactionRepository.findById(42L)).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return Optional.of(sampleTransaction);
+        });
+
+        int threads = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Transaction>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return transactionService.getTransactionById(42L);
+            }));
+        }
+        start.countDown();
+        for (Future<Transaction> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(sampleTransaction);
+        }
+        executor.shutdown();
+
+        verify(transactionRepository, times(1)).findById(42L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void refresh_ShouldReloadEntryInBackground_AndKeepServingOldValue() throws Exception {
+        Transaction updated = TestDataGenerator.createSampleTransaction();
+        updated.setId(1L);
+        updated.setDescription("Refreshed");
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(sampleTransaction), Optional.of(updated));
+
+        transactionService.getTransactionById(1L);
+        LoadingCache<Object, Object> nativeCache =
+                (LoadingCache<Object, Object>) cacheManager.getCache("transaction").getNativeCache();
+        nativeCache.refresh(1L).get(5, TimeUnit.SECONDS);
+        // the refreshed value is swapped in just after the future completes
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!updated.equals(nativeCache.getIfPresent(1L)) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(transactionService.getTransactionById(1L).getDescription()).isEqualTo("Refreshed");
+        verify(transactionRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void notFoundResults_ShouldBeKeptOutOfThePositiveCache() {
+        when(transactionRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        for (long id = 1000; id < 1100; id++) {
+            transactionService.getTransactionById(id);
+        }
+
+        NegativeCachingCaffeineCache cache = (NegativeCachingCaffeineCache) cacheManager.getCache("transaction");
+        assertThat(cache.getNativeCache().estimatedSize()).isZero();
+        assertThat(cache.getMisses().estimatedSize()).isEqualTo(100);
+    }
+
+    @Test
+    void createTransaction_ShouldInvalidateCachedMissesForReferenceAndNewId() {
+        Transaction created = TestDataGenerator.createSampleTransaction();
+        created.setId(7L);
+        String reference = created.getTransactionReference();
+        when(transactionRepository.findById(7L)).thenReturn(Optional.empty()).thenReturn(Optional.of(created));
+        when(transactionRepository.findByTransactionReference(reference)).thenReturn(Optional.empty()).thenReturn(Optional.of(created));
+        when(transactionRepository.existsByTransactionReference(reference)).thenReturn(false);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(created);
+
+        assertThat(transactionService.getTransactionById(7L)).isNull();
+        assertThat(transactionService.getTransactionByReference(reference)).isNull();
+        assertThat(transactionService.getTransactionByReference(reference)).isNull();
+
+        transactionService.createTransaction(created);
+
+        assertThat(transactionService.getTransactionById(7L)).isEqualTo(created);
+        assertThat(transactionService.getTransactionByReference(reference)).isEqualTo(created);
+        verify(transactionRepository, times(2)).findById(7L);
+        verify(transactionRepository, times(2)).findByTransactionReference(reference);
+    }
 }
\ No newline at end of file
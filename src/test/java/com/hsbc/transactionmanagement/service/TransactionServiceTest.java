@@ -1,9 +1,26 @@
 package com.hsbc.transactionmanagement.service;
 
+import com.hsbc.transactionmanagement.account.AccountBalances;
+import com.hsbc.transactionmanagement.archive.TransactionArchive;
+import com.hsbc.transactionmanagement.cache.TransactionBulkCache;
+import com.hsbc.transactionmanagement.cache.TransactionCacheEvictor;
+import com.hsbc.transactionmanagement.count.TransactionCounts;
 import com.hsbc.transactionmanagement.entity.Transaction;
+import com.hsbc.transactionmanagement.entity.TransactionTombstone;
 import com.hsbc.transactionmanagement.exception.DuplicateTransactionException;
+import com.hsbc.transactionmanagement.exception.InsufficientFundsException;
+import com.hsbc.transactionmanagement.exception.PostedTransactionChangeException;
 import com.hsbc.transactionmanagement.exception.TransactionNotFoundException;
+import com.hsbc.transactionmanagement.exception.TransactionVersionMismatchException;
+import com.hsbc.transactionmanagement.readmodel.TransactionReadModel;
+import com.hsbc.transactionmanagement.repository.TransactionPartition;
 import com.hsbc.transactionmanagement.repository.TransactionRepository;
+import com.hsbc.transactionmanagement.repository.TransactionStamp;
+import com.hsbc.transactionmanagement.repository.TransactionTombstoneRepository;
+import com.hsbc.transactionmanagement.request.TransactionPatchRequest;
+import com.hsbc.transactionmanagement.response.MultiGetResponse;
+import com.hsbc.transactionmanagement.stream.TransactionChange;
+import com.hsbc.transactionmanagement.sync.ChangeSequenceTracker;
 import com.hsbc.transactionmanagement.util.TestDataGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,18 +28,32 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,9 +62,38 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private TransactionArchive transactionArchive;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private TransactionCounts transactionCounts;
+
+    @Mock
+    private TransactionBulkCache bulkCache;
+
+    @Mock
+    private AccountBalances accountBalances;
+
+    @Mock
+    private TransactionReadModel readModel;
+
+    @Mock
+    private ChangeSequenceTracker sequenceTracker;
+
     @InjectMocks
     private TransactionService transactionService;
 
+    private static final TransactionStamp STAMP = new TransactionStamp(1L, 43L, LocalDateTime.of(2024, 1, 1, 0, 0));
+
     private Transaction sampleTransaction;
 
     @BeforeEach
@@ -45,13 +105,40 @@ class TransactionServiceTest {
     @Test
     void createTransaction_ShouldReturnSavedTransaction_WhenValidInput() {
         when(transactionRepository.existsByTransactionReference(any())).thenReturn(false);
+        when(transactionRepository.nextChangeSequence()).thenReturn(42L);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(sampleTransaction);
 
         Transaction result = transactionService.createTransaction(sampleTransaction);
 
         assertNotNull(result);
         assertEquals(sampleTransaction.getId(), result.getId());
+        assertEquals(42L, sampleTransaction.getChangeSequence());
         verify(transactionRepository, times(1)).save(sampleTransaction);
+        verify(eventPublisher).publishEvent(TransactionChange.created(sampleTransaction));
+    }
+
+    @Test
+    void createTransaction_ShouldPostToAccount_BeforeInsert() {
+        sampleTransaction.setAccountId("ACC-1");
+        when(transactionRepository.existsByTransactionReference(any())).thenReturn(false);
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(sampleTransaction);
+
+        transactionService.createTransaction(sampleTransaction);
+
+        var order = inOrder(accountBalances, transactionRepository);
+        order.verify(accountBalances).post("ACC-1", sampleTransaction.getType(), sampleTransaction.getAmount());
+        order.verify(transactionRepository).save(sampleTransaction);
+    }
+
+    @Test
+    void createTransaction_ShouldNotInsert_WhenFundsAreInsufficient() {
+        sampleTransaction.setAccountId("ACC-1");
+        when(transactionRepository.existsByTransactionReference(any())).thenReturn(false);
+        doThrow(new InsufficientFundsException("ACC-1")).when(accountBalances).post(any(), any(), any());
+
+        assertThrows(InsufficientFundsException.class, () -> transactionService.createTransaction(sampleTransaction));
+        verify(transactionRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -62,6 +149,7 @@ class TransactionServiceTest {
             transactionService.createTransaction(sampleTransaction);
         });
         verify(transactionRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -85,6 +173,45 @@ class TransactionServiceTest {
         verify(transactionRepository, times(1)).findById(999L);
     }
 
+    @Test
+    void getTransactionById_ShouldFallBackToArchive_WhenNotInHotTable() {
+        when(transactionRepository.findById(1L)).thenReturn(Optional.empty());
+        when(transactionArchive.findById(1L)).thenReturn(Optional.of(sampleTransaction));
+
+        Transaction result = transactionService.getTransactionById(1L);
+
+        assertEquals(sampleTransaction, result);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getTransactions_ShouldLoadMissesWithInQueries_AndKeepRequestOrder() {
+        Transaction cached = TestDataGenerator.createSampleTransaction();
+        cached.setId(2L);
+        Transaction archived = TestDataGenerator.createSampleTransaction();
+        archived.setId(3L);
+        when(bulkCache.getAll(any(), any())).thenAnswer(invocation -> {
+            Function<Set<Object>, Map<Object, Transaction>> loader = invocation.getArgument(1);
+            Map<Object, Transaction> found = new HashMap<>(loader.apply(Set.of(1L, 3L, 9L, "ref_" + archived.getTransactionReference())));
+            found.put(2L, cached);
+            return found;
+        });
+        when(transactionRepository.findAllById(any())).thenReturn(List.of(sampleTransaction));
+        when(transactionRepository.findByTransactionReferenceIn(any())).thenReturn(List.of());
+        when(transactionArchive.findAllById(any())).thenReturn(List.of(archived));
+        when(transactionArchive.findAllByReference(any())).thenReturn(List.of(archived));
+
+        MultiGetResponse response = transactionService.getTransactions(List.of(9L, 2L, 1L, 3L),
+                List.of(archived.getTransactionReference()));
+
+        assertThat(response.getResults()).extracting(MultiGetResponse.Item::getTransaction)
+                .containsExactly(null, cached, sampleTransaction, archived, archived);
+        assertThat(response.getResults().get(0).isFound()).isFalse();
+        assertThat(response.getNotFoundCount()).isEqualTo(1);
+        verify(transactionArchive).findAllById(argThat(ids -> ((Collection<Long>) ids).containsAll(List.of(3L, 9L))
+                && !((Collection<Long>) ids).contains(1L)));
+    }
+
     @Test
     void getTransactionByReference_ShouldReturnTransaction_WhenExists() {
         when(transactionRepository.findByTransactionReference("REF-123456")).thenReturn(Optional.of(sampleTransaction));
@@ -127,14 +254,16 @@ class TransactionServiceTest {
         updatedDetails.setDescription("Updated Description");
         updatedDetails.setAmount(new BigDecimal("200.00"));
 
+        sampleTransaction.setVersion(0L);
         when(transactionRepository.findById(1L)).thenReturn(Optional.of(sampleTransaction));
-        when(transactionRepository.save(any(Transaction.class))).thenReturn(sampleTransaction);
+        when(transactionRepository.updateFields(eq(1L), eq(0L), anyMap())).thenReturn(Optional.of(STAMP));
 
-        Transaction result = transactionService.updateTransaction(1L, updatedDetails);
+        Transaction result = transactionService.updateTransaction(1L, updatedDetails, null);
 
-        assertNotNull(result);
-        verify(transactionRepository, times(1)).findById(1L);
-        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        assertEquals("Updated Description", result.getDescription());
+        assertEquals(1L, result.getVersion());
+        verify(transactionRepository, times(1)).updateFields(eq(1L), eq(0L), anyMap());
+        verify(transactionRepository, never()).save(any(Transaction.class));
     }
 
     @Test
@@ -143,43 +272,209 @@ class TransactionServiceTest {
         when(transactionRepository.findById(999L)).thenReturn(Optional.empty());
 
         assertThrows(TransactionNotFoundException.class, () -> {
-            transactionService.updateTransaction(999L, updatedDetails);
+            transactionService.updateTransaction(999L, updatedDetails, null);
         });
-        verify(transactionRepository, times(1)).findById(999L);
+        verify(transactionRepository, never()).updateFields(any(), anyLong(), anyMap());
         verify(transactionRepository, never()).save(any());
     }
 
     @Test
-    void deleteTransaction_ShouldDeleteExistingTransaction() {
+    void updateTransaction_ShouldThrowVersionMismatch_WhenVersionIsStale() {
+        Transaction updatedDetails = TestDataGenerator.createSampleTransaction();
+        sampleTransaction.setVersion(3L);
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(sampleTransaction));
+        // another write moves the row on between the read and the update
+        when(transactionRepository.updateFields(eq(1L), eq(3L), anyMap())).thenReturn(Optional.empty());
         when(transactionRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(transactionRepository).deleteById(1L);
+
+        assertThrows(TransactionVersionMismatchException.class, () -> {
+            transactionService.updateTransaction(1L, updatedDetails, 3L);
+        });
+
+        sampleTransaction.setVersion(4L);
+        assertThrows(TransactionVersionMismatchException.class, () -> {
+            transactionService.updateTransaction(1L, updatedDetails, 3L);
+        });
+        verify(transactionRepository, times(1)).updateFields(eq(1L), anyLong(), anyMap());
+    }
+
+    @Test
+    void patchTransaction_ShouldOnlyWriteSuppliedFields() {
+        TransactionPatchRequest patch = new TransactionPatchRequest();
+        patch.setAmount(new BigDecimal("42.00"));
+
+        sampleTransaction.setVersion(0L);
+        when(transactionRepository.updateFields(eq(1L), eq(0L), anyMap())).thenReturn(Optional.of(STAMP));
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(sampleTransaction));
+
+        transactionService.patchTransaction(1L, patch, 0L);
+
+        verify(transactionRepository, times(1))
+                .updateFields(1L, 0L, Map.of("amount", new BigDecimal("42.00")));
+    }
+
+    @Test
+    void patchTransaction_ShouldApplyChangesToCachedRow_WithoutReading() {
+        sampleTransaction.setVersion(0L);
+        ConcurrentMapCache cache = new ConcurrentMapCache(TransactionCacheEvictor.TRANSACTION_CACHE);
+        cache.put(1L, sampleTransaction);
+        when(cacheManager.getCache(TransactionCacheEvictor.TRANSACTION_CACHE)).thenReturn(cache);
+        when(transactionRepository.updateFields(eq(1L), eq(0L), anyMap())).thenReturn(Optional.of(STAMP));
+        TransactionPatchRequest patch = new TransactionPatchRequest();
+        patch.setCategory("Food");
+
+        Transaction result = transactionService.patchTransaction(1L, patch, null);
+
+        assertEquals("Food", result.getCategory());
+        assertEquals(sampleTransaction.getDescription(), result.getDescription());
+        assertEquals(1L, result.getVersion());
+        assertEquals(43L, result.getChangeSequence());
+        assertEquals("Shopping", sampleTransaction.getCategory());
+        verify(transactionRepository, never()).findById(any());
+        verify(transactionRepository, never()).findPartitionById(any());
+        verify(transactionCounts).recordMoved("Shopping", "DEBIT", "Food", "DEBIT");
+    }
+
+    @Test
+    void patchTransaction_ShouldReadRow_WhenCachedRowIsBehind() {
+        sampleTransaction.setVersion(0L);
+        ConcurrentMapCache cache = new ConcurrentMapCache(TransactionCacheEvictor.TRANSACTION_CACHE);
+        cache.put(1L, sampleTransaction);
+        when(cacheManager.getCache(TransactionCacheEvictor.TRANSACTION_CACHE)).thenReturn(cache);
+        Transaction current = TestDataGenerator.createSampleTransaction();
+        current.setId(1L);
+        current.setVersion(1L);
+        when(transactionRepository.updateFields(eq(1L), eq(0L), anyMap())).thenReturn(Optional.empty());
+        when(transactionRepository.updateFields(eq(1L), eq(1L), anyMap()))
+                .thenReturn(Optional.of(new TransactionStamp(2L, 44L, STAMP.updatedAt())));
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(current));
+        TransactionPatchRequest patch = new TransactionPatchRequest();
+        patch.setDescription("Renamed");
+
+        Transaction result = transactionService.patchTransaction(1L, patch, null);
+
+        assertEquals("Renamed", result.getDescription());
+        assertEquals(current.getTransactionReference(), result.getTransactionReference());
+        assertEquals(2L, result.getVersion());
+        verify(transactionRepository).findById(1L);
+    }
+
+    @Test
+    void patchTransaction_ShouldReadAgain_WhenAnotherWriteWinsTheUnconditionalUpdate() {
+        Transaction first = TestDataGenerator.createSampleTransaction();
+        first.setId(1L);
+        first.setVersion(0L);
+        Transaction second = TestDataGenerator.createSampleTransaction();
+        second.setId(1L);
+        second.setVersion(1L);
+        second.setCategory("Food");
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(first)).thenReturn(Optional.of(second));
+        when(transactionRepository.updateFields(eq(1L), eq(0L), anyMap())).thenReturn(Optional.empty());
+        when(transactionRepository.updateFields(eq(1L), eq(1L), anyMap()))
+                .thenReturn(Optional.of(new TransactionStamp(2L, 44L, STAMP.updatedAt())));
+        TransactionPatchRequest patch = new TransactionPatchRequest();
+        patch.setCategory("Rent");
+
+        transactionService.patchTransaction(1L, patch, null);
+
+        // counted from the row the update applied to
+        verify(transactionCounts).recordMoved("Food", "DEBIT", "Rent", "DEBIT");
+        verify(transactionRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void patchTransaction_ShouldRejectAmountChange_OfPostedTransaction() {
+        TransactionPatchRequest patch = new TransactionPatchRequest();
+        patch.setAmount(new BigDecimal("42.00"));
+        postedSample();
+
+        assertThrows(PostedTransactionChangeException.class, () -> transactionService.patchTransaction(1L, patch, null));
+        verify(transactionRepository, never()).updateFields(any(), anyLong(), anyMap());
+    }
+
+    @Test
+    void patchTransaction_ShouldAllowSameAmount_OfPostedTransaction() {
+        TransactionPatchRequest patch = new TransactionPatchRequest();
+        patch.setAmount(new BigDecimal("10"));
+        patch.setDescription("Renamed");
+        postedSample();
+        when(transactionRepository.updateFields(eq(1L), eq(0L), anyMap())).thenReturn(Optional.of(STAMP));
+
+        transactionService.patchTransaction(1L, patch, null);
+
+        verifyNoInteractions(accountBalances);
+    }
+
+    @Test
+    void patchTransaction_ShouldThrowException_WhenNotFound() {
+        TransactionPatchRequest patch = new TransactionPatchRequest();
+        patch.setDescription("Patched");
+        when(transactionRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(TransactionNotFoundException.class, () -> {
+            transactionService.patchTransaction(999L, patch, 0L);
+        });
+    }
+
+    @Test
+    void deleteTransaction_ShouldDeleteExistingTransaction() {
+        when(transactionRepository.findPartitionById(1L))
+                .thenReturn(Optional.of(new TransactionPartition("Shopping", "DEBIT")));
+        when(transactionRepository.removeById(1L)).thenReturn(1);
+
+        transactionService.deleteTransaction(1L);
+
+        verify(transactionRepository, times(1)).findPartitionById(1L);
+        verify(transactionRepository, times(1)).removeById(1L);
+        verify(transactionCounts).recordDeleted("Shopping", "DEBIT");
+        verify(tombstoneRepository).save(argThat(tombstone -> tombstone.getTransactionId() == 1L
+                && tombstone.getTransactionReference() == null && tombstone.getDeletedAt() != null));
+    }
+
+    @Test
+    void deleteTransaction_ShouldReversePosting() {
+        when(transactionRepository.findPartitionById(1L)).thenReturn(Optional.of(
+                new TransactionPartition("Shopping", "DEBIT", "ACC-1", new BigDecimal("10.00"))));
+        when(transactionRepository.removeById(1L)).thenReturn(1);
 
         transactionService.deleteTransaction(1L);
 
-        verify(transactionRepository, times(1)).existsById(1L);
-        verify(transactionRepository, times(1)).deleteById(1L);
+        verify(accountBalances).reverse("ACC-1", "DEBIT", new BigDecimal("10.00"));
+    }
+
+    @Test
+    void deleteTransaction_ShouldThrowException_WhenDeletedConcurrently() {
+        when(transactionRepository.findPartitionById(1L))
+                .thenReturn(Optional.of(new TransactionPartition("Shopping", "DEBIT")));
+        when(transactionRepository.removeById(1L)).thenReturn(0);
+
+        assertThrows(TransactionNotFoundException.class, () -> transactionService.deleteTransaction(1L));
+        verifyNoInteractions(tombstoneRepository);
+        verify(transactionCounts, never()).recordDeleted(any(), any());
     }
 
     @Test
     void deleteTransaction_ShouldThrowException_WhenNotFound() {
-        when(transactionRepository.existsById(999L)).thenReturn(false);
+        when(transactionRepository.findPartitionById(999L)).thenReturn(Optional.empty());
 
         assertThrows(TransactionNotFoundException.class, () -> {
             transactionService.deleteTransaction(999L);
         });
-        verify(transactionRepository, times(1)).existsById(999L);
-        verify(transactionRepository, never()).deleteById(any());
+        verify(transactionRepository, times(1)).findPartitionById(999L);
+        verify(transactionRepository, never()).removeById(any());
+        verifyNoInteractions(tombstoneRepository);
     }
 
     @Test
     void deleteTransactionByReference_ShouldDeleteByReference() {
         when(transactionRepository.findByTransactionReference("REF-123456")).thenReturn(Optional.of(sampleTransaction));
-        doNothing().when(transactionRepository).deleteById(1L);
+        when(transactionRepository.removeById(1L)).thenReturn(1);
 
         transactionService.deleteTransactionByReference("REF-123456");
 
         verify(transactionRepository, times(1)).findByTransactionReference("REF-123456");
-        verify(transactionRepository, times(1)).deleteById(1L);
+        verify(transactionRepository, times(1)).removeById(1L);
+        verify(tombstoneRepository).save(any(TransactionTombstone.class));
     }
 
     @Test
@@ -190,7 +485,7 @@ class TransactionServiceTest {
             transactionService.deleteTransactionByReference("NONEXISTENT");
         });
         verify(transactionRepository, times(1)).findByTransactionReference("NONEXISTENT");
-        verify(transactionRepository, never()).deleteById(any());
+        verify(transactionRepository, never()).removeById(any());
     }
 
     @Test
@@ -208,4 +503,38 @@ class TransactionServiceTest {
         assertEquals(1, result.getTotalElements());
         verify(transactionRepository, times(1)).findByFilters("Shopping", "DEBIT", pageable);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllTransactions_ShouldSkipCountQuery_WhenCountsAreAvailable() {
+        Pageable pageable = PageRequest.of(0, 1);
+        when(transactionCounts.count("Shopping", null)).thenReturn(OptionalLong.of(7));
+        when(transactionRepository.findSliceByFilters("Shopping", null, pageable))
+                .thenReturn(new SliceImpl<>(List.of(sampleTransaction), pageable, true));
+
+        Page<Transaction> result = transactionService.getAllTransactions("Shopping", null, pageable);
+
+        assertEquals(7, result.getTotalElements());
+        assertEquals(7, result.getTotalPages());
+        verify(transactionRepository, never()).findByFilters(any(), any(), any());
+    }
+
+    @Test
+    void patchTransaction_ShouldMoveCount_WhenCategoryChanges() {
+        TransactionPatchRequest patch = new TransactionPatchRequest();
+        patch.setCategory("Food");
+        sampleTransaction.setVersion(0L);
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(sampleTransaction));
+        when(transactionRepository.updateFields(eq(1L), eq(0L), anyMap())).thenReturn(Optional.of(STAMP));
+
+        transactionService.patchTransaction(1L, patch, null);
+
+        verify(transactionCounts).recordMoved("Shopping", "DEBIT", "Food", "DEBIT");
+    }
+
+    private void postedSample() {
+        sampleTransaction.setVersion(0L);
+        sampleTransaction.setAccountId("ACC-1");
+        sampleTransaction.setAmount(new BigDecimal("10.00"));
+        when(transactionRepository.findById(1L)).thenReturn(Optional.of(sampleTransaction));
+    }
+}
@@ -0,0 +1,38 @@
+package com.hsbc.transactionmanagement.stream;
+
+import com.hsbc.transactionmanagement.util.TestDataGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionEventBufferTest {
+
+    @Test
+    void readAfter_ShouldReturnEventsFollowingCursor_UpToMax() {
+        TransactionEventBuffer buffer = new TransactionEventBuffer(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.append(TransactionChange.created(TestDataGenerator.createSampleTransaction()));
+        }
+
+        assertThat(buffer.readAfter(2, 10)).extracting(TransactionEvent::sequence).containsExactly(3L, 4L, 5L);
+        assertThat(buffer.readAfter(0, 2)).extracting(TransactionEvent::sequence).containsExactly(1L, 2L);
+        assertThat(buffer.readAfter(5, 10)).isEmpty();
+    }
+
+    @Test
+    void readAfter_ShouldReturnNull_WhenCursorWasOverrun() {
+        TransactionEventBuffer buffer = new TransactionEventBuffer(4);
+        for (int i = 0; i < 10; i++) {
+            buffer.append(TransactionChange.deleted((long) i, null));
+        }
+
+        assertThat(buffer.readAfter(5, 10)).isNull();
+        assertThat(buffer.readAfter(6, 10)).extracting(TransactionEvent::sequence).containsExactly(7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    void constructor_ShouldRejectCapacityThatIsNotPowerOfTwo() {
+        assertThatThrownBy(() -> new TransactionEventBuffer(1000)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
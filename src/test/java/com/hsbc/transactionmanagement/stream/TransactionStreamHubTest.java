@@ -0,0 +1,190 @@
+package com.hsbc.transactionmanagement.stream;
+
+import com.hsbc.transactionmanagement.config.StreamProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionStreamHubTest {
+
+    private TransactionEventBuffer buffer;
+    private StreamProperties properties;
+    private TransactionStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new TransactionEventBuffer(64);
+        properties = new StreamProperties();
+        properties.setMaxLag(16);
+        properties.setHeartbeatInterval(Duration.ofHours(1));
+        hub = new TransactionStreamHub(buffer, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.destroy();
+    }
+
+    @Test
+    void onChange_ShouldDeliverEventsInOrder_FromSubscriptionPoint() throws Exception {
+        hub.onChange(TransactionChange.deleted(1L, null));
+        CapturingEmitter emitter = new CapturingEmitter();
+        hub.register(emitter, null);
+
+        hub.onChange(TransactionChange.deleted(2L, null));
+        hub.onChange(TransactionChange.deleted(3L, null));
+
+        emitter.awaitEvents(2);
+        assertThat(emitter.events).containsExactly("id:2\nevent:DELETED", "id:3\nevent:DELETED");
+    }
+
+    @Test
+    void register_ShouldReplayFromLastEventId_AndResetWhenEventsAreGone() throws Exception {
+        for (long i = 1; i <= 70; i++) {
+            hub.onChange(TransactionChange.deleted(i, null));
+        }
+
+        CapturingEmitter resumed = new CapturingEmitter();
+        hub.register(resumed, 65L);
+        resumed.awaitEvents(5);
+        assertThat(resumed.events).first().isEqualTo("id:66\nevent:DELETED");
+        assertThat(resumed.events).last().isEqualTo("id:70\nevent:DELETED");
+
+        CapturingEmitter stale = new CapturingEmitter();
+        hub.register(stale, 2L);
+        stale.awaitEvents(1);
+        assertThat(stale.events).containsExactly("id:70\nevent:reset");
+    }
+
+    @Test
+    void sweep_ShouldDropSubscriberThatStaysBehind() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CapturingEmitter blocked = new CapturingEmitter(release);
+        CapturingEmitter healthy = new CapturingEmitter();
+        hub.register(blocked, null);
+        hub.register(healthy, null);
+
+        for (long i = 1; i <= 40; i++) {
+            hub.onChange(TransactionChange.deleted(i, null));
+        }
+        healthy.awaitEvents(40);
+
+        hub.sweep();
+        assertThat(hub.getSubscriberCount()).isEqualTo(2);
+        hub.sweep();
+        assertThat(hub.getSubscriberCount()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void sweep_ShouldDropSubscriberWhoseWriteTimesOut_WithoutWaitingForTheDispatcher() throws Exception {
+        hub.destroy();
+        properties.setDispatchThreads(1);
+        properties.setWriteTimeout(Duration.ofMillis(50));
+        hub = new TransactionStreamHub(buffer, properties, new SimpleMeterRegistry());
+
+        CountDownLatch release = new CountDownLatch(1);
+        CapturingEmitter blocked = new CapturingEmitter(release);
+        hub.register(blocked, null);
+        hub.onChange(TransactionChange.deleted(1L, null));
+        Thread.sleep(100);
+
+        // one event behind, but its write has been stuck longer than the timeout
+        hub.sweep();
+        assertThat(hub.getSubscriberCount()).isZero();
+        // completed while the only dispatcher thread is still blocked in the write
+        assertThat(blocked.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+    }
+
+    @Test
+    void onChange_ShouldServeThousandsOfIdleSubscribers_WithFixedDispatcherThreads() throws Exception {
+        List<CapturingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            CapturingEmitter emitter = new CapturingEmitter();
+            hub.register(emitter, null);
+            emitters.add(emitter);
+        }
+
+        long threadsBefore = dispatcherThreads();
+        hub.onChange(TransactionChange.deleted(1L, null));
+
+        for (CapturingEmitter emitter : emitters) {
+            emitter.awaitEvents(1);
+        }
+        assertThat(dispatcherThreads() - threadsBefore).isLessThanOrEqualTo(properties.getDispatchThreads());
+    }
+
+    // other application contexts in the same JVM may run their own dispatchers
+    private static long dispatcherThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().matches("transaction-stream-\\d+"))
+                .count();
+    }
+
+    /**
+     * Records the id and event name lines of every event sent; optionally blocks in send
+     * like a client that stopped reading.
+     */
+    private static class CapturingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        CapturingEmitter() {
+            this(null);
+        }
+
+        CapturingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> {
+                if (part.getData() instanceof String data) {
+                    text.append(data);
+                }
+            });
+            String event = text.toString();
+            if (event.startsWith("id:")) {
+                events.add(event.substring(0, event.indexOf("\ndata:")));
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+            super.complete();
+        }
+
+        void awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(events).hasSizeGreaterThanOrEqualTo(count);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.hsbc.transactionmanagement.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.transactionmanagement.config.TracingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OtlpJsonFileExporterTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void export_ShouldWriteOtlpJsonLines() throws Exception {
+        TracingProperties properties = properties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OtlpJsonFileExporter exporter = new OtlpJsonFileExporter(properties, meterRegistry);
+        Tracer tracer = new Tracer(properties, exporter);
+        try (SpanScope root = tracer.startRootSpan("GET /api/v1/transactions/{id}", SpanKind.SERVER, null)) {
+            try (SpanScope child = tracer.startSpan("TransactionRepository.findById", SpanKind.CLIENT)) {
+                child.setAttribute("rows", 1).setAttribute("cache.hit", false);
+                child.recordError(new IllegalStateException("boom"));
+            }
+        }
+        exporter.close();
+
+        // the background writer may have written the two spans in separate batches
+        List<JsonNode> spans = new ArrayList<>();
+        for (String line : Files.readAllLines(directory.resolve("traces.jsonl"))) {
+            JsonNode resourceSpans = objectMapper.readTree(line).get("resourceSpans").get(0);
+            assertThat(resourceSpans.at("/resource/attributes/0/key").asText()).isEqualTo("service.name");
+            assertThat(resourceSpans.at("/resource/attributes/0/value/stringValue").asText())
+                    .isEqualTo("transaction-management");
+            resourceSpans.at("/scopeSpans/0/spans").forEach(spans::add);
+        }
+        assertThat(spans).hasSize(2);
+        JsonNode child = spans.get(0);
+        JsonNode root = spans.get(1);
+        assertThat(child.get("parentSpanId").asText()).isEqualTo(root.get("spanId").asText());
+        assertThat(child.get("traceId").asText()).isEqualTo(root.get("traceId").asText());
+        assertThat(child.get("kind").asInt()).isEqualTo(3);
+        assertThat(child.at("/attributes/0/value/intValue").asText()).isEqualTo("1");
+        assertThat(child.at("/attributes/1/value/boolValue").asBoolean()).isFalse();
+        assertThat(child.at("/status/code").asInt()).isEqualTo(2);
+        assertThat(root.has("parentSpanId")).isFalse();
+        assertThat(Long.parseLong(root.get("endTimeUnixNano").asText()))
+                .isGreaterThanOrEqualTo(Long.parseLong(root.get("startTimeUnixNano").asText()));
+        assertThat(meterRegistry.get("transaction.tracing.spans").tag("outcome", "exported").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void export_ShouldRollFileAtMaxSize() throws Exception {
+        TracingProperties properties = properties();
+        properties.setMaxFileSize(DataSize.ofBytes(1));
+        properties.setMaxHistory(2);
+        OtlpJsonFileExporter exporter = new OtlpJsonFileExporter(properties, new SimpleMeterRegistry());
+        Tracer tracer = new Tracer(properties, exporter);
+        for (int i = 0; i < 4; i++) {
+            tracer.startRootSpan("span-" + i, SpanKind.SERVER, null).close();
+            exporter.flush();
+        }
+        exporter.close();
+
+        assertThat(Files.readString(directory.resolve("traces.jsonl"))).contains("span-3");
+        assertThat(Files.readString(directory.resolve("traces.jsonl.1"))).contains("span-2");
+        assertThat(Files.readString(directory.resolve("traces.jsonl.2"))).contains("span-1");
+        assertThat(directory.resolve("traces.jsonl.3")).doesNotExist();
+    }
+
+    private TracingProperties properties() {
+        TracingProperties properties = new TracingProperties();
+        properties.setSampleRate(1.0);
+        properties.setFile(directory.resolve("traces.jsonl").toString());
+        return properties;
+    }
+}
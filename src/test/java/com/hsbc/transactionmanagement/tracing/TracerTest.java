@@ -0,0 +1,140 @@
+package com.hsbc.transactionmanagement.tracing;
+
+import com.hsbc.transactionmanagement.config.TracingProperties;
+import com.hsbc.transactionmanagement.util.LoggerUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TracerTest {
+
+    private static final Logger logger = LoggerUtil.getLogger(TracerTest.class);
+
+    private final List<Span> exported = new CopyOnWriteArrayList<>();
+
+    @Test
+    void startSpan_ShouldNestUnderCurrentSpan_AndExportOnClose() {
+        Tracer tracer = tracer(1.0);
+
+        try (SpanScope root = tracer.startRootSpan("GET", SpanKind.SERVER, null)) {
+            try (SpanScope child = tracer.startSpan("TransactionService.getTransactionById")) {
+                child.setAttribute("cache.hit", true);
+                assertThat(tracer.currentSpan()).isSameAs(child.span());
+            }
+            assertThat(tracer.currentSpan()).isSameAs(root.span());
+        }
+
+        assertThat(tracer.isTracing()).isFalse();
+        assertThat(exported).extracting(Span::getName).containsExactly("TransactionService.getTransactionById", "GET");
+        Span child = exported.get(0);
+        Span root = exported.get(1);
+        assertThat(child.getTraceId()).isEqualTo(root.getTraceId()).hasSize(32);
+        assertThat(child.getParentSpanId()).isEqualTo(root.getSpanId());
+        assertThat(root.getParentSpanId()).isNull();
+        assertThat(child.getAttributes()).containsEntry("cache.hit", true);
+        assertThat(child.getEndEpochNanos()).isGreaterThanOrEqualTo(child.getStartEpochNanos());
+    }
+
+    @Test
+    void startRootSpan_ShouldFollowTraceParentSamplingDecision() {
+        Tracer tracer = tracer(0.0);
+        TraceParent sampled = TraceParent.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+        TraceParent notSampled = TraceParent.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00");
+
+        try (SpanScope scope = tracer.startRootSpan("GET", SpanKind.SERVER, notSampled)) {
+            assertThat(scope).isSameAs(SpanScope.NOOP);
+        }
+        try (SpanScope scope = tracer.startRootSpan("GET", SpanKind.SERVER, sampled)) {
+            assertThat(scope.span().getTraceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+            assertThat(scope.span().getParentSpanId()).isEqualTo("00f067aa0ba902b7");
+        }
+        assertThat(TraceParent.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01")).isNull();
+        assertThat(TraceParent.parse("garbage")).isNull();
+    }
+
+    @Test
+    void wrap_ShouldCarryCurrentSpanToOtherThreads() throws Exception {
+        Tracer tracer = tracer(1.0);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (SpanScope root = tracer.startRootSpan("GET", SpanKind.SERVER, null)) {
+            CompletableFuture.supplyAsync(tracer.wrap(() -> {
+                try (SpanScope scope = tracer.startSpan("shard.count", SpanKind.CLIENT)) {
+                    return scope.span();
+                }
+            }), executor).get();
+            CompletableFuture.runAsync(() -> assertThat(tracer.isTracing()).isFalse(), executor).get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(exported.get(0).getName()).isEqualTo("shard.count");
+        assertThat(exported.get(0).getParentSpanId()).isEqualTo(exported.get(1).getSpanId());
+    }
+
+    /**
+     * The cost of the instrumentation on an unsampled request: a root span attempt plus five
+     * child span attempts, as for a cached single lookup. Must allocate nothing; time per
+     * request is logged for sampling off and on.
+     */
+    @Tag("benchmark")
+    @Test
+    void unsampledRequests_ShouldNotAllocate() {
+        Tracer off = tracer(0.0);
+        Tracer on = new Tracer(properties(1.0), span -> {
+        });
+        int iterations = 200_000;
+        for (int i = 0; i < iterations; i++) {
+            request(off);
+            request(on);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            request(off);
+        }
+        long offNanos = System.nanoTime() - start;
+        long offBytes = threads.getThreadAllocatedBytes(threadId) - before;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            request(on);
+        }
+        long onNanos = System.nanoTime() - start;
+        logger.info("ns per request: sampling off={}, sampling on={}; bytes per unsampled request={}",
+                offNanos / iterations, onNanos / iterations, offBytes / iterations);
+
+        assertThat(offBytes / iterations).isZero();
+    }
+
+    private static void request(Tracer tracer) {
+        try (SpanScope root = tracer.startRootSpan("GET", SpanKind.SERVER, null)) {
+            for (int i = 0; i < 5; i++) {
+                try (SpanScope child = tracer.startSpan("TransactionService.getTransactionById")) {
+                    child.setAttribute("cache.hit", Boolean.TRUE);
+                }
+            }
+        }
+    }
+
+    private Tracer tracer(double sampleRate) {
+        return new Tracer(properties(sampleRate), exported::add);
+    }
+
+    private static TracingProperties properties(double sampleRate) {
+        TracingProperties properties = new TracingProperties();
+        properties.setSampleRate(sampleRate);
+        return properties;
+    }
+}
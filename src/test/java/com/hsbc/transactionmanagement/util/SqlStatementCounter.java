@@ -0,0 +1,69 @@
+package com.hsbc.transactionmanagement.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records the SQL Hibernate prepares on the current thread, so tests can pin the number of
+ * statements an operation issues. Registered as the statement inspector in the test profile;
+ * MockMvc requests run on the test thread and are recorded too, and so are tasks wrapped with
+ * {@link #propagate} when submitted from it.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = RECORDING.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /** Runs {@code action} and returns the statements it prepared, in order. */
+    public static List<String> record(Action action) throws Exception {
+        List<String> statements = Collections.synchronizedList(new ArrayList<>());
+        RECORDING.set(statements);
+        try {
+            action.run();
+        } finally {
+            RECORDING.remove();
+        }
+        return statements;
+    }
+
+    /** Records the statements {@code task} prepares into the submitting thread's recording, if any. */
+    public static Runnable propagate(Runnable task) {
+        List<String> statements = RECORDING.get();
+        if (statements == null) {
+            return task;
+        }
+        return () -> {
+            RECORDING.set(statements);
+            try {
+                task.run();
+            } finally {
+                RECORDING.remove();
+            }
+        };
+    }
+
+    /** Fails, listing the statements, unless {@code action} prepares exactly {@code expected}. */
+    public static void assertStatementCount(int expected, Action action) throws Exception {
+        List<String> statements = record(action);
+        if (statements.size() != expected) {
+            throw new AssertionError("Expected " + expected + " SQL statements but got " + statements.size()
+                    + ":\n  " + String.join("\n  ", statements));
+        }
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+}